@@ -28,8 +28,11 @@ import de.gsi.chart.ui.css.StylishObjectProperty;
 import de.gsi.chart.ui.geometry.Corner;
 import de.gsi.chart.ui.geometry.Side;
 import de.gsi.chart.utils.FXUtils;
+import de.gsi.chart.utils.PulseScheduler;
+import de.gsi.chart.utils.PulseUpdateTrigger;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.event.EventListener;
+import de.gsi.dataset.event.UpdateEvent;
 import de.gsi.dataset.utils.AssertUtils;
 import de.gsi.dataset.utils.NoDuplicatesList;
 import de.gsi.dataset.utils.ProcessingProfiler;
@@ -181,7 +184,9 @@ public abstract class Chart extends HiddenSidesPane implements Observable {
     protected final ListChangeListener<Axis> axesChangeListenerLocal = this::axesChangedLocal;
     protected final ListChangeListener<Axis> axesChangeListener = this::axesChanged;
     protected final ListChangeListener<DataSet> datasetChangeListener = this::datasetsChanged;
-    protected final EventListener dataSetDataListener = obs -> FXUtils.runFX(this::dataSetInvalidated);
+    // 'dirty' flag collecting DataSet notifications until the next JavaFX pulse
+    private final PulseUpdateTrigger pulseUpdate = new PulseUpdateTrigger(this::dataSetInvalidated);
+    protected final EventListener dataSetDataListener = this::dataSetUpdated;
     protected final ListChangeListener<ChartPlugin> pluginsChangedListener = this::pluginsChanged;
     {
         getDatasets().addListener(datasetChangeListener);
@@ -540,6 +545,9 @@ public abstract class Chart extends HiddenSidesPane implements Observable {
         axesAndCanvasPane.getStyleClass().add("chart-content");
 
         registerShowingListener(); // NOPMD - unlikely but allowed override
+
+        sceneProperty().addListener((ch, oldScene, newScene) -> pulseUpdate
+                .setScheduler(newScene == null ? null : PulseScheduler.getInstance(newScene)));
     }
 
     @Override
@@ -639,6 +647,27 @@ public abstract class Chart extends HiddenSidesPane implements Observable {
         requestLayout();
     }
 
+    /**
+     * marks the chart's data as invalid and schedules a single layout and canvas update for the next JavaFX pulse.
+     * Multiple invocations until then are coalesced. N.B. may be called from any thread and does not block.
+     */
+    public void requestPulseUpdate() {
+        schedulePulseUpdate();
+    }
+
+    /**
+     * handles the update notifications of the chart's and renderers' DataSets. N.B. may be called from any thread
+     *
+     * @param event the DataSet's update event
+     */
+    protected void dataSetUpdated(final UpdateEvent event) {
+        schedulePulseUpdate();
+    }
+
+    private void schedulePulseUpdate() {
+        pulseUpdate.invalidate();
+    }
+
     protected void datasetsChanged(final ListChangeListener.Change<? extends DataSet> change) {
         boolean dataSetChanges = false;
         FXUtils.assertJavaFxThread();
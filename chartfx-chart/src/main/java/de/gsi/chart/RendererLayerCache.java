@@ -0,0 +1,158 @@
+package de.gsi.chart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.gsi.chart.renderer.Renderer;
+import de.gsi.dataset.DataSet;
+
+/**
+ * Book-keeping of the per-renderer bitmap layers used by {@link XYChart#cachedRendererLayersProperty()}: decides for
+ * each redraw whether a renderer needs to be rendered directly, rendered and captured into its layer, or whether its
+ * cached layer can be composited.
+ * <p>
+ * A layer is invalidated if the canvas/axes geometry changed, the cache was invalidated explicitly, one of the
+ * renderer's or the chart's data sets has been updated, or the renderer's data set list or offset changed. Renderers
+ * that are not {@link Renderer#isCacheable() cacheable} and layers that change on consecutive redraws are always
+ * rendered directly. N.B. to be used from within the FX application thread only.
+ *
+ * @param <I> layer image type
+ * @author rstein
+ */
+class RendererLayerCache<I> {
+    private final Map<Renderer, Layer<I>> layers = new IdentityHashMap<>();
+    private final Set<Object> updated = Collections.newSetFromMap(new IdentityHashMap<>());
+    private double[] geometry = new double[0];
+    private boolean invalidateAll = true;
+    private boolean chartDataSetsUpdated;
+
+    /**
+     * drops all layers
+     */
+    public void clear() {
+        layers.clear();
+        geometry = new double[0];
+    }
+
+    /**
+     * Determines how the renderer is to be drawn in the present redraw cycle and updates the layer's book-keeping.
+     *
+     * @param renderer the renderer
+     * @param dataSetOffset data set index offset passed to the renderer
+     * @return the action to be performed
+     */
+    public Action getAction(final Renderer renderer, final int dataSetOffset) {
+        if (!renderer.isCacheable()) {
+            layers.remove(renderer);
+            return Action.RENDER;
+        }
+        final Layer<I> layer = layers.computeIfAbsent(renderer, r -> new Layer<>());
+        final boolean dataSetsChanged = !isSame(layer.dataSets, renderer.getDatasets());
+        final boolean changed = invalidateAll || chartDataSetsUpdated || layer.dataSetOffset != dataSetOffset
+                                || dataSetsChanged || renderer.getDatasets().stream().anyMatch(updated::contains);
+        final Action action;
+        if (changed && layer.changedLastRedraw) {
+            // layer is being continuously updated -> do not pay for caching it
+            layer.image = null;
+            action = Action.RENDER;
+        } else if (changed || layer.image == null) {
+            action = Action.CAPTURE;
+        } else {
+            action = Action.COMPOSITE;
+        }
+        layer.changedLastRedraw = changed;
+        layer.dataSetOffset = dataSetOffset;
+        if (dataSetsChanged) {
+            layer.dataSets = new ArrayList<>(renderer.getDatasets());
+        }
+        return action;
+    }
+
+    /**
+     * @param renderer the renderer
+     * @return the renderer's cached layer image or {@code null} if not available
+     */
+    public I getImage(final Renderer renderer) {
+        final Layer<I> layer = layers.get(renderer);
+        return layer == null ? null : layer.image;
+    }
+
+    /**
+     * @return number of retained layers
+     */
+    public int size() {
+        return layers.size();
+    }
+
+    /**
+     * Starts a new redraw cycle.
+     *
+     * @param renderers present renderers (layers of removed renderers are dropped)
+     * @param chartDataSets data sets attached to the chart (drawn by every renderer)
+     * @param newGeometry canvas and axes state that the rendered layers depend upon
+     * @param invalid {@code true}: invalidate all layers
+     * @param updatedDataSets data sets that have been updated since the last redraw
+     */
+    public void startRedraw(final List<Renderer> renderers, final List<DataSet> chartDataSets,
+            final double[] newGeometry, final boolean invalid, final Collection<?> updatedDataSets) {
+        invalidateAll = invalid || !Arrays.equals(newGeometry, geometry);
+        geometry = newGeometry;
+        updated.clear();
+        updated.addAll(updatedDataSets);
+        final Set<Renderer> present = Collections.newSetFromMap(new IdentityHashMap<>());
+        present.addAll(renderers);
+        layers.keySet().retainAll(present);
+        chartDataSetsUpdated = chartDataSets.stream().anyMatch(updated::contains);
+    }
+
+    /**
+     * Stores the captured layer image.
+     *
+     * @param renderer the renderer
+     * @param image the rendered layer
+     */
+    public void setImage(final Renderer renderer, final I image) {
+        final Layer<I> layer = layers.get(renderer);
+        if (layer != null) {
+            layer.image = image;
+        }
+    }
+
+    private static boolean isSame(final List<DataSet> a, final List<DataSet> b) {
+        // N.B. identity rather than (content) equality
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) { // NOPMD - identity check intended
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * how a renderer is to be drawn in a redraw cycle
+     */
+    enum Action {
+        /** render directly onto the chart canvas (nothing cached) */
+        RENDER,
+        /** render into the layer, capture it and composite the captured image */
+        CAPTURE,
+        /** composite the cached image without rendering */
+        COMPOSITE
+    }
+
+    private static class Layer<I> {
+        private I image;
+        private boolean changedLastRedraw;
+        private int dataSetOffset = -1;
+        private List<DataSet> dataSets = new ArrayList<>();
+    }
+}
@@ -6,7 +6,8 @@ import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,10 +23,8 @@ import de.gsi.chart.ui.geometry.Side;
 import de.gsi.chart.utils.FXUtils;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.DataSet3D;
+import de.gsi.dataset.event.UpdateEvent;
 import de.gsi.dataset.utils.AssertUtils;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -37,8 +36,13 @@ import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.geometry.Orientation;
 import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.util.Duration;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
+import javafx.stage.Window;
 
 /**
  * Chart designed primarily to display data traces using DataSet interfaces which are more flexible and efficient than
@@ -53,13 +57,30 @@ import javafx.util.Duration;
  */
 public class XYChart extends Chart {
     private static final Logger LOGGER = LoggerFactory.getLogger(XYChart.class);
+    /**
+     * @deprecated no longer used: DataSet updates are coalesced to at most one layout per pulse; kept for derived
+     *             classes and will be removed in the next release
+     */
+    @Deprecated
     protected static final int BURST_LIMIT_MS = 15;
     protected BooleanProperty polarPlot = new SimpleBooleanProperty(this, "polarPlot", false);
     private final ObjectProperty<PolarTickStep> polarStepSize = new SimpleObjectProperty<>(PolarTickStep.THIRTY);
     private final GridRenderer gridRenderer = new GridRenderer(this);
-    private long lastCanvasUpdate;
-    private boolean callCanvasUpdateLater;
     private final ChangeListener<Side> axisSideChangeListener = this::axisSideChanged;
+    private final BooleanProperty cachedRendererLayers = new SimpleBooleanProperty(this, "cachedRendererLayers",
+            false) {
+        @Override
+        protected void invalidated() {
+            rendererLayers.clear();
+            requestLayout();
+        }
+    };
+    // renderer layer cache -- N.B. accessed only from within the FX application thread unless noted otherwise
+    private final RendererLayerCache<WritableImage> rendererLayers = new RendererLayerCache<>();
+    private final Set<Object> updatedDataSets = ConcurrentHashMap.newKeySet(); // any thread
+    private volatile boolean rendererLayersInvalid = true; // NOPMD - written by any thread, read on FX thread
+    private boolean dataSetLayoutRequest;
+    private Canvas layerCanvas;
 
     public XYChart() {
         this(new DefaultNumericAxis(), new DefaultNumericAxis());
@@ -163,6 +184,44 @@ public class XYChart extends Chart {
         requestLayout();
     }
 
+    /**
+     * Whether each renderer's output is cached in a bitmap layer that is only re-rendered if one of its DataSets,
+     * the axes, the canvas geometry or the chart's layout changed. Unchanged layers are composited from the cache,
+     * i.e. a chart with many static traces and a single live trace (on a separate renderer) only pays for rendering
+     * the live trace. Layers that change on consecutive redraws are rendered directly (without caching) until they
+     * settle again.
+     * <p>
+     * Only renderers that declare themselves {@link Renderer#isCacheable() cacheable} (i.e. without rendering side
+     * effects such as axis or scene-graph updates) are cached, all others are rendered on every redraw as before.
+     * <p>
+     * N.B. the chart DataSets are drawn by every renderer: their updates invalidate all layers. Renderer parameter
+     * changes need to be followed by a {@link #requestLayout()} (as without caching) to be taken into account.
+     *
+     * @return property controlling the renderer layer cache (default: false)
+     */
+    public final BooleanProperty cachedRendererLayersProperty() {
+        return cachedRendererLayers;
+    }
+
+    @Override
+    protected void dataSetInvalidated() {
+        // N.B. layout requested due to DataSet updates only -> renderer layers are invalidated selectively
+        dataSetLayoutRequest = true;
+        try {
+            super.dataSetInvalidated();
+        } finally {
+            dataSetLayoutRequest = false;
+        }
+    }
+
+    @Override
+    protected void dataSetUpdated(final UpdateEvent event) {
+        if (event.getSource() != null && isCachedRendererLayers()) {
+            updatedDataSets.add(event.getSource());
+        }
+        super.dataSetUpdated(event);
+    }
+
     /**
      * @return datasets attached to the chart and datasets attached to all renderers
      */
@@ -210,6 +269,28 @@ public class XYChart extends Chart {
         return gridRenderer;
     }
 
+    /**
+     * @return canvas and axes state that the rendered layers depend upon
+     */
+    private double[] getLayerGeometry() {
+        final double[] geometry = new double[3 + 6 * getAxes().size()];
+        geometry[0] = canvas.getWidth();
+        geometry[1] = canvas.getHeight();
+        geometry[2] = isPolarPlot() ? 1 : 0;
+        int index = 3;
+        for (final Axis axis : getAxes()) {
+            final double length = axis.getSide() != null && axis.getSide().isVertical() ? axis.getHeight()
+                                                                                          : axis.getWidth();
+            geometry[index++] = length;
+            geometry[index++] = axis.getValueForDisplay(0);
+            geometry[index++] = axis.getValueForDisplay(length);
+            geometry[index++] = axis.isLogAxis() ? 1 : 0;
+            geometry[index++] = axis.isInvertedAxis() ? 1 : 0;
+            geometry[index++] = axis.getSide() == null ? -1 : axis.getSide().ordinal();
+        }
+        return geometry;
+    }
+
     public PolarTickStep getPolarStepSize() {
         return polarStepSizeProperty().get();
     }
@@ -241,6 +322,14 @@ public class XYChart extends Chart {
         return gridRenderer.horizontalGridLinesVisibleProperty();
     }
 
+    /**
+     * @return {@code true} if the renderers' output is cached in bitmap layers
+     * @see #cachedRendererLayersProperty()
+     */
+    public final boolean isCachedRendererLayers() {
+        return cachedRendererLayersProperty().get();
+    }
+
     private boolean isDataEmpty() {
         return getAllDatasets() == null || getAllDatasets().isEmpty();
     }
@@ -292,29 +381,14 @@ public class XYChart extends Chart {
         }
         setAutoNotification(false);
         FXUtils.assertJavaFxThread();
-        final long now = System.nanoTime();
-        final double diffMillisSinceLastUpdate = TimeUnit.NANOSECONDS.toMillis(now - lastCanvasUpdate);
-        if (diffMillisSinceLastUpdate < XYChart.BURST_LIMIT_MS) {
-            if (!callCanvasUpdateLater) {
-                callCanvasUpdateLater = true;
-                // repaint 20 ms later in case this was just a burst operation
-                final KeyFrame kf1 = new KeyFrame(Duration.millis(20), e -> requestLayout());
-
-                final Timeline timeline = new Timeline(kf1);
-                Platform.runLater(timeline::play);
-            }
-
-            return;
-        }
+        // N.B. no burst limiting needed: DataSet updates are coalesced to at most one layout per pulse by the
+        // chart's PulseScheduler
         if (DEBUG && LOGGER.isDebugEnabled()) {
             LOGGER.debug("   xychart redrawCanvas() - executing");
             LOGGER.debug("   xychart redrawCanvas() - canvas size = {}",
                     String.format("%fx%f", canvas.getWidth(), canvas.getHeight()));
         }
 
-        lastCanvasUpdate = now;
-        callCanvasUpdateLater = false;
-
         final GraphicsContext gc = canvas.getGraphicsContext2D();
         gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
 
@@ -322,10 +396,14 @@ public class XYChart extends Chart {
             gridRenderer.render(gc, this, 0, null);
         }
 
-        int dataSetOffset = 0;
-        for (final Renderer renderer : getRenderers()) {
-            renderer.render(gc, this, dataSetOffset, getDatasets());
-            dataSetOffset += getDatasets().size() + renderer.getDatasets().size();
+        if (isCachedRendererLayers()) {
+            redrawRendererLayers(gc);
+        } else {
+            int dataSetOffset = 0;
+            for (final Renderer renderer : getRenderers()) {
+                renderer.render(gc, this, dataSetOffset, getDatasets());
+                dataSetOffset += getDatasets().size() + renderer.getDatasets().size();
+            }
         }
 
         if (gridRenderer.isDrawOnTop()) {
@@ -337,6 +415,87 @@ public class XYChart extends Chart {
         }
     }
 
+    /**
+     * renders the renderers via their cached bitmap layers, see {@link #cachedRendererLayersProperty()}
+     *
+     * @param gc the chart canvas' graphics context
+     */
+    protected void redrawRendererLayers(final GraphicsContext gc) {
+        final boolean invalid = rendererLayersInvalid;
+        rendererLayersInvalid = false;
+        final List<Object> updated = new ArrayList<>(updatedDataSets);
+        updatedDataSets.removeAll(updated);
+        rendererLayers.startRedraw(getRenderers(), getDatasets(), getLayerGeometry(), invalid, updated);
+
+        int dataSetOffset = 0;
+        for (final Renderer renderer : getRenderers()) {
+            switch (rendererLayers.getAction(renderer, dataSetOffset)) {
+            case CAPTURE:
+                rendererLayers.setImage(renderer,
+                        captureRendererLayer(renderer, rendererLayers.getImage(renderer), dataSetOffset));
+                gc.drawImage(rendererLayers.getImage(renderer), 0, 0, canvas.getWidth(), canvas.getHeight());
+                break;
+            case COMPOSITE:
+                gc.drawImage(rendererLayers.getImage(renderer), 0, 0, canvas.getWidth(), canvas.getHeight());
+                break;
+            case RENDER:
+            default:
+                renderer.render(gc, this, dataSetOffset, getDatasets());
+                break;
+            }
+            dataSetOffset += getDatasets().size() + renderer.getDatasets().size();
+        }
+    }
+
+    private WritableImage captureRendererLayer(final Renderer renderer, final WritableImage previous,
+            final int dataSetOffset) {
+        final double width = canvas.getWidth();
+        final double height = canvas.getHeight();
+        if (layerCanvas == null) {
+            layerCanvas = new Canvas(width, height);
+        } else {
+            layerCanvas.setWidth(width);
+            layerCanvas.setHeight(height);
+        }
+        final GraphicsContext layerGc = layerCanvas.getGraphicsContext2D();
+        layerGc.clearRect(0, 0, width, height);
+        renderer.render(layerGc, this, dataSetOffset, getDatasets());
+
+        // N.B. capture at the screen's output scale to remain sharp on HiDPI screens
+        final Window window = getScene() == null ? null : getScene().getWindow();
+        final double scaleX = window == null ? 1.0 : window.getRenderScaleX();
+        final double scaleY = window == null ? 1.0 : window.getRenderScaleY();
+        final int imageWidth = Math.max(1, (int) Math.ceil(width * scaleX));
+        final int imageHeight = Math.max(1, (int) Math.ceil(height * scaleY));
+        final SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        parameters.setTransform(Transform.scale(scaleX, scaleY));
+        final boolean reuse = previous != null && (int) previous.getWidth() == imageWidth
+                              && (int) previous.getHeight() == imageHeight;
+        final WritableImage image = reuse ? previous : new WritableImage(imageWidth, imageHeight);
+        return layerCanvas.snapshot(parameters, image);
+    }
+
+    @Override
+    public void requestLayout() {
+        if (!dataSetLayoutRequest) {
+            // N.B. unspecific layout request (e.g. style, parameter or structural changes) -> re-render all layers
+            rendererLayersInvalid = true;
+        }
+        super.requestLayout();
+    }
+
+    @Override
+    public void requestPulseUpdate() {
+        // N.B. external update request (e.g. renderer internal state) -> re-render all layers
+        rendererLayersInvalid = true;
+        super.requestPulseUpdate();
+    }
+
+    public final void setCachedRendererLayers(final boolean state) {
+        cachedRendererLayersProperty().set(state);
+    }
+
     /**
      * Sets the value of the {@link #verticalGridLinesVisibleProperty()}.
      *
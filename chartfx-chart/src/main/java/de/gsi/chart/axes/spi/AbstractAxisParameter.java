@@ -2,8 +2,8 @@ package de.gsi.chart.axes.spi;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import de.gsi.chart.Chart;
@@ -88,7 +88,7 @@ public abstract class AbstractAxisParameter extends Pane implements Axis {
     private static final PseudoClass CENTRE_VER_PSEUDOCLASS_STATE = PseudoClass.getPseudoClass("verCentre");
 
     private final transient AtomicBoolean autoNotification = new AtomicBoolean(true);
-    private final List<EventListener> updateListeners = Collections.synchronizedList(new LinkedList<>());
+    private final List<EventListener> updateListeners = new CopyOnWriteArrayList<>();
     /**
      * Paths used for css-type styling. Not used for actual drawing. Used as a storage contained for the settings
      * applied to GraphicsContext which allow much faster (and less complex) drawing routines but do no not allow
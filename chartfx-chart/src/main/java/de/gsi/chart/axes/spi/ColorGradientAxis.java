@@ -7,6 +7,7 @@ import org.slf4j.LoggerFactory;
 
 import de.gsi.chart.plugins.Zoomer;
 import de.gsi.chart.renderer.spi.utils.ColorGradient;
+import de.gsi.chart.renderer.spi.utils.ColorLookUpTable;
 import de.gsi.chart.ui.geometry.Side;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
@@ -16,7 +17,6 @@ import javafx.collections.ObservableList;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.LinearGradient;
-import javafx.scene.paint.Stop;
 import javafx.scene.shape.Path;
 import javafx.scene.shape.Rectangle;
 
@@ -29,6 +29,7 @@ import javafx.scene.shape.Rectangle;
  */
 public class ColorGradientAxis extends DefaultNumericAxis {
     private static final Logger LOGGER = LoggerFactory.getLogger(ColorGradientAxis.class);
+    private static final int LOOK_UP_TABLE_RESOLUTION = 256; // number of quantisation steps for 'getIntColor'
     protected final Rectangle gradientRect = new Rectangle();
 
     private final ObjectProperty<ColorGradient> colorGradient = new SimpleObjectProperty<>(this, "colorGradient",
@@ -275,30 +276,7 @@ public class ColorGradientAxis extends DefaultNumericAxis {
      * @return the color representing the input value on the z-Axis
      */
     public Color getColor(final double value) {
-        final double offset = (value - getRange().getLowerBound())
-                / (getRange().getUpperBound() - getRange().getLowerBound());
-
-        double lowerOffset = 0.0;
-        double upperOffset = 1.0;
-        Color lowerColor = Color.TRANSPARENT;
-        Color upperColor = Color.TRANSPARENT;
-
-        for (final Stop stop : getColorGradient().getStops()) {
-            final double currentOffset = stop.getOffset();
-            if (currentOffset == offset) {
-                return stop.getColor();
-            } else if (currentOffset < offset) {
-                lowerOffset = currentOffset;
-                lowerColor = stop.getColor();
-            } else {
-                upperOffset = currentOffset;
-                upperColor = stop.getColor();
-                break;
-            }
-        }
-
-        final double interpolationOffset = (offset - lowerOffset) / (upperOffset - lowerOffset);
-        return lowerColor.interpolate(upperColor, interpolationOffset);
+        return getColorGradient().getColor(getNormalisedValue(value));
     }
 
     /**
@@ -316,15 +294,13 @@ public class ColorGradientAxis extends DefaultNumericAxis {
 
     /**
      * Return the color for a value as an integer with the color values in its bytes. For use e.g. with an IntBuffer
-     * backed PixelBuffer.
-     * 
+     * backed PixelBuffer. N.B. the colour is taken from a shared, quantised {@link ColorLookUpTable}.
+     *
      * @param value z-Value
      * @return integer with one byte each set to alpha, red, green, blue
      */
     public int getIntColor(final double value) {
-        final Color color = getColor(value);
-        return ((byte) (color.getOpacity() * 255) << 24) + ((byte) (color.getRed() * 255) << 16)
-                + ((byte) (color.getGreen() * 255) << 8) + ((byte) (color.getBlue() * 255));
+        return ColorLookUpTable.get(getColorGradient(), LOOK_UP_TABLE_RESOLUTION).getArgb(getNormalisedValue(value));
     }
 
     public DoubleProperty gradientWidthProperty() {
@@ -343,4 +319,10 @@ public class ColorGradientAxis extends DefaultNumericAxis {
     public void setGradientWidth(final double newGradientWidth) {
         gradientWidth.set(newGradientWidth);
     }
+
+    private double getNormalisedValue(final double value) {
+        final double offset = (value - getRange().getLowerBound())
+                / (getRange().getUpperBound() - getRange().getLowerBound());
+        return Math.max(0.0, Math.min(1.0, offset));
+    }
 }
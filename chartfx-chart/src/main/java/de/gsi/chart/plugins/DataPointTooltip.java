@@ -10,6 +10,7 @@ import java.util.List;
 import de.gsi.chart.Chart;
 import de.gsi.chart.XYChart;
 import de.gsi.chart.axes.Axis;
+import de.gsi.chart.renderer.spi.utils.ArrayPool;
 import de.gsi.dataset.DataSet;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleDoubleProperty;
@@ -47,6 +48,7 @@ public class DataPointTooltip extends AbstractDataFormattingPlugin {
 
     private static final int LABEL_X_OFFSET = 15;
     private static final int LABEL_Y_OFFSET = 5;
+    private static final int SEARCH_BLOCK_SIZE = 4096; // number of x coordinates bulk-copied per search step
 
     private final Label label = new Label();
 
@@ -136,25 +138,32 @@ public class DataPointTooltip extends AbstractDataFormattingPlugin {
         double nextX = Double.MAX_VALUE;
 
         final int nDataCount = dataSet.getDataCount(DataSet.DIM_X);
-        for (int i = 0, size = nDataCount; i < size; i++) {
-            final double currentX = dataSet.get(DataSet.DIM_X, i);
-
-            if (currentX < searchedX) {
-                if (prevX < currentX) {
-                    prevIndex = i;
-                    prevX = currentX;
+        // bulk-copy the x coordinates block-wise rather than querying them point-by-point
+        final double[] xBlock = ArrayPool.DOUBLE_ARRAYS.get(Math.min(nDataCount, SEARCH_BLOCK_SIZE));
+        for (int blockStart = 0; blockStart < nDataCount; blockStart += SEARCH_BLOCK_SIZE) {
+            final int blockLength = Math.min(SEARCH_BLOCK_SIZE, nDataCount - blockStart);
+            dataSet.copyValues(DataSet.DIM_X, blockStart, xBlock, 0, blockLength);
+            for (int j = 0; j < blockLength; j++) {
+                final double currentX = xBlock[j];
+
+                if (currentX < searchedX) {
+                    if (prevX < currentX) {
+                        prevIndex = blockStart + j;
+                        prevX = currentX;
+                    }
+                } else if (nextX > currentX) {
+                    nextIndex = blockStart + j;
+                    nextX = currentX;
                 }
-            } else if (nextX > currentX) {
-                nextIndex = i;
-                nextX = currentX;
             }
         }
+        ArrayPool.DOUBLE_ARRAYS.release(xBlock);
         final DataPoint prevPoint = prevIndex == -1 ? null
                 : new DataPoint(getChart(), dataSet.get(DataSet.DIM_X, prevIndex),
                         dataSet.get(DataSet.DIM_Y, prevIndex), getDataLabelSafe(dataSet, prevIndex));
         final DataPoint nextPoint = nextIndex == -1 || nextIndex == prevIndex ? null
                 : new DataPoint(getChart(), dataSet.get(DataSet.DIM_X, nextIndex),
-                        dataSet.get(DataSet.DIM_X, nextIndex), getDataLabelSafe(dataSet, nextIndex));
+                        dataSet.get(DataSet.DIM_Y, nextIndex), getDataLabelSafe(dataSet, nextIndex));
 
         return new Pair<>(prevPoint, nextPoint);
     }
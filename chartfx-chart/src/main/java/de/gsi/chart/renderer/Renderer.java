@@ -34,6 +34,18 @@ public interface Renderer {
 
     ObservableList<DataSet> getDatasetsCopy();
 
+    /**
+     * Indicates whether the output of {@link #render} may be cached as a bitmap layer by the chart (see
+     * {@link de.gsi.chart.XYChart#cachedRendererLayersProperty()}), i.e. it depends only on the renderer's data sets,
+     * the axes and the canvas geometry, and rendering has no other side effects (e.g. modifying axes, scene-graph
+     * nodes or the renderer's own state).
+     *
+     * @return {@code true} if the renderer's output may be cached (default: {@code false})
+     */
+    default boolean isCacheable() {
+        return false;
+    }
+
     void render(GraphicsContext gc, Chart chart, int dataSetOffset, ObservableList<DataSet> datasets);
 
     /**
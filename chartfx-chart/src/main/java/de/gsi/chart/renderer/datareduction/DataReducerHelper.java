@@ -0,0 +1,80 @@
+package de.gsi.chart.renderer.datareduction;
+
+/**
+ * package private helper routines shared by the in-place {@link de.gsi.chart.renderer.RendererDataReducer}
+ * implementations (N.B. error arrays may be {@code null} due to a CachedDataPoints optimisation)
+ *
+ * @author rstein
+ */
+final class DataReducerHelper {
+
+    private DataReducerHelper() {
+        // utility class
+    }
+
+    /**
+     * moves point 'fromIndex' to 'toIndex' for all non-null arrays
+     */
+    protected static void movePoint(final double[] xValues, final double[] yValues, final double[] xPointErrorsPos,
+            final double[] xPointErrorsNeg, final double[] yPointErrorsPos, final double[] yPointErrorsNeg,
+            final String[] styles, final boolean[] pointSelected, final int fromIndex, final int toIndex) {
+        if (fromIndex == toIndex) {
+            return;
+        }
+        xValues[toIndex] = xValues[fromIndex];
+        yValues[toIndex] = yValues[fromIndex];
+        if (xPointErrorsPos != null) {
+            xPointErrorsPos[toIndex] = xPointErrorsPos[fromIndex];
+        }
+        if (xPointErrorsNeg != null) {
+            xPointErrorsNeg[toIndex] = xPointErrorsNeg[fromIndex];
+        }
+        if (yPointErrorsPos != null) {
+            yPointErrorsPos[toIndex] = yPointErrorsPos[fromIndex];
+        }
+        if (yPointErrorsNeg != null) {
+            yPointErrorsNeg[toIndex] = yPointErrorsNeg[fromIndex];
+        }
+        if (styles != null) {
+            styles[toIndex] = styles[fromIndex];
+        }
+        if (pointSelected != null) {
+            pointSelected[toIndex] = pointSelected[fromIndex];
+        }
+    }
+
+    /**
+     * shifts the range [indexMin, indexMax[ of all non-null arrays to the front
+     *
+     * @return number of points
+     */
+    protected static int shiftToFront(final double[] xValues, final double[] yValues, final double[] xPointErrorsPos,
+            final double[] xPointErrorsNeg, final double[] yPointErrorsPos, final double[] yPointErrorsNeg,
+            final String[] styles, final boolean[] pointSelected, final int indexMin, final int indexMax) {
+        final int size = indexMax - indexMin;
+        if (indexMin == 0) {
+            return size;
+        }
+        System.arraycopy(xValues, indexMin, xValues, 0, size);
+        System.arraycopy(yValues, indexMin, yValues, 0, size);
+        if (xPointErrorsPos != null) {
+            System.arraycopy(xPointErrorsPos, indexMin, xPointErrorsPos, 0, size);
+        }
+        if (xPointErrorsNeg != null) {
+            System.arraycopy(xPointErrorsNeg, indexMin, xPointErrorsNeg, 0, size);
+        }
+        if (yPointErrorsPos != null) {
+            System.arraycopy(yPointErrorsPos, indexMin, yPointErrorsPos, 0, size);
+        }
+        if (yPointErrorsNeg != null) {
+            System.arraycopy(yPointErrorsNeg, indexMin, yPointErrorsNeg, 0, size);
+        }
+        if (styles != null) {
+            System.arraycopy(styles, indexMin, styles, 0, size);
+        }
+        if (pointSelected != null) {
+            System.arraycopy(pointSelected, indexMin, pointSelected, 0, size);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,166 @@
+package de.gsi.chart.renderer.datareduction;
+
+import java.security.InvalidParameterException;
+import java.util.stream.IntStream;
+
+import de.gsi.chart.renderer.RendererDataReducer;
+import de.gsi.chart.renderer.spi.utils.ArrayPool;
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.ProcessingProfiler;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+
+/**
+ * Largest-Triangle-Three-Buckets (LTTB) data reduction (S. Steinarsson, "Downsampling Time Series for Visual
+ * Representation", MSc thesis, University of Iceland, 2013). <br>
+ * The visible range is split into equally populated buckets (by default two per horizontal pixel). The first and last
+ * point are always retained and from each bucket the point forming the largest triangle with the previously selected
+ * point and the average of the next bucket is kept. <br>
+ * N.B. numerical complexity: O(n). The bucket averages of large ranges are computed in parallel, the selection is a
+ * single sequential pass that compacts the data in-place. Buckets without valid points are retained as line gaps.
+ *
+ * @author rstein
+ */
+public class LargestTriangleThreeBucketsDataReducer implements RendererDataReducer {
+    private static final int MIN_PARALLEL_SIZE = 1 << 16;
+
+    protected IntegerProperty pointsPerPixel = new SimpleIntegerProperty(this, "pointsPerPixel", 2) {
+        @Override
+        public void set(final int value) {
+            if (value <= 0) {
+                throw new InvalidParameterException("pointsPerPixel " + value + " must be greater than zero");
+            }
+            super.set(value);
+        }
+    };
+
+    /**
+     * @return number of retained points (buckets) per horizontal pixel
+     */
+    public final int getPointsPerPixel() {
+        return pointsPerPixelProperty().get();
+    }
+
+    public final IntegerProperty pointsPerPixelProperty() {
+        return pointsPerPixel;
+    }
+
+    @Override
+    public int reducePoints(final double[] xValues, final double[] yValues, final double[] xPointErrorsPos,
+            final double[] xPointErrorsNeg, final double[] yPointErrorsPos, final double[] yPointErrorsNeg,
+            final String[] styles, final boolean[] pointSelected, final int indexMin, final int indexMax) {
+        AssertUtils.notNull("xValues", xValues);
+        AssertUtils.notNull("yValues", yValues);
+        AssertUtils.gtEqThanZero("indexMin", indexMin);
+        AssertUtils.indexOrder(indexMin, "indexMin", indexMax, "indexMax");
+        final long start = ProcessingProfiler.getTimeStamp();
+        final int size = indexMax - indexMin;
+        final double span = Math.abs(xValues[Math.max(indexMin, indexMax - 1)] - xValues[indexMin]);
+        final double targetBuckets = Double.isFinite(span) ? Math.ceil(span * getPointsPerPixel()) : size;
+        if (size <= 3 || targetBuckets >= size - 2) {
+            return DataReducerHelper.shiftToFront(xValues, yValues, xPointErrorsPos, xPointErrorsNeg, yPointErrorsPos,
+                    yPointErrorsNeg, styles, pointSelected, indexMin, indexMax);
+        }
+        final int nBuckets = Math.max(1, (int) targetBuckets);
+        final double bucketWidth = (size - 2) / (double) nBuckets;
+
+        // bucket averages, N.B. the last entry is the last data point
+        final double[] averageX = ArrayPool.DOUBLE_ARRAYS.get(nBuckets + 1);
+        final double[] averageY = ArrayPool.DOUBLE_ARRAYS.get(nBuckets + 1);
+        if (size < MIN_PARALLEL_SIZE) {
+            for (int bucket = 0; bucket < nBuckets; bucket++) {
+                computeAverage(xValues, yValues, averageX, averageY, bucket, indexMin, indexMax, bucketWidth, nBuckets);
+            }
+        } else {
+            IntStream.range(0, nBuckets).parallel().forEach(bucket -> computeAverage(xValues, yValues, averageX,
+                    averageY, bucket, indexMin, indexMax, bucketWidth, nBuckets));
+        }
+        averageX[nBuckets] = xValues[indexMax - 1];
+        averageY[nBuckets] = yValues[indexMax - 1];
+
+        // N.B. the bucket start is always larger than the target index 'count' -> safe in-place compaction
+        double ax = xValues[indexMin];
+        double ay = yValues[indexMin];
+        DataReducerHelper.movePoint(xValues, yValues, xPointErrorsPos, xPointErrorsNeg, yPointErrorsPos,
+                yPointErrorsNeg, styles, pointSelected, indexMin, 0);
+        int count = 1;
+        for (int bucket = 0; bucket < nBuckets; bucket++) {
+            final int from = getBucketStart(bucket, indexMin, indexMax, bucketWidth, nBuckets);
+            final int to = getBucketStart(bucket + 1, indexMin, indexMax, bucketWidth, nBuckets);
+            double cx = averageX[bucket + 1];
+            double cy = averageY[bucket + 1];
+            if (Double.isNaN(cx) || Double.isNaN(cy)) {
+                // next bucket is empty -> fall back to the last point
+                cx = averageX[nBuckets];
+                cy = averageY[nBuckets];
+            }
+            int selected = from; // default: gap if the bucket contains only NaN values
+            double maxArea = -1.0;
+            for (int i = from; i < to; i++) {
+                final double y = yValues[i];
+                final double x = xValues[i];
+                if (Double.isNaN(x) || Double.isNaN(y)) {
+                    continue;
+                }
+                // N.B. twice the triangle area (factor is irrelevant for the comparison)
+                final double area = Math.abs((ax - cx) * (y - ay) - (ax - x) * (cy - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    selected = i;
+                }
+            }
+            final double sx = xValues[selected];
+            final double sy = yValues[selected];
+            if (!Double.isNaN(sx) && !Double.isNaN(sy)) {
+                ax = sx;
+                ay = sy;
+            }
+            DataReducerHelper.movePoint(xValues, yValues, xPointErrorsPos, xPointErrorsNeg, yPointErrorsPos,
+                    yPointErrorsNeg, styles, pointSelected, selected, count++);
+        }
+        DataReducerHelper.movePoint(xValues, yValues, xPointErrorsPos, xPointErrorsNeg, yPointErrorsPos,
+                yPointErrorsNeg, styles, pointSelected, indexMax - 1, count++);
+        ArrayPool.DOUBLE_ARRAYS.release(averageX);
+        ArrayPool.DOUBLE_ARRAYS.release(averageY);
+
+        ProcessingProfiler.getTimeDiff(start, String.format("LTTB data reduction (from %d to %d)", size, count));
+        return count;
+    }
+
+    /**
+     * Sets the <code>pointsPerPixel</code> to the specified value.
+     *
+     * @param nPoints number of retained points (buckets) per horizontal pixel
+     */
+    public final void setPointsPerPixel(final int nPoints) {
+        pointsPerPixelProperty().setValue(nPoints);
+    }
+
+    private static void computeAverage(final double[] xValues, final double[] yValues, final double[] averageX,
+            final double[] averageY, final int bucket, final int indexMin, final int indexMax,
+            final double bucketWidth, final int nBuckets) {
+        final int from = getBucketStart(bucket, indexMin, indexMax, bucketWidth, nBuckets);
+        final int to = getBucketStart(bucket + 1, indexMin, indexMax, bucketWidth, nBuckets);
+        double sumX = 0.0;
+        double sumY = 0.0;
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            final double x = xValues[i];
+            final double y = yValues[i];
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                continue;
+            }
+            sumX += x;
+            sumY += y;
+            n++;
+        }
+        averageX[bucket] = n == 0 ? Double.NaN : sumX / n;
+        averageY[bucket] = n == 0 ? Double.NaN : sumY / n;
+    }
+
+    private static int getBucketStart(final int bucket, final int indexMin, final int indexMax,
+            final double bucketWidth, final int nBuckets) {
+        // N.B. bucket 'nBuckets' denotes the last point
+        return bucket >= nBuckets ? indexMax - 1 : indexMin + 1 + (int) (bucket * bucketWidth);
+    }
+}
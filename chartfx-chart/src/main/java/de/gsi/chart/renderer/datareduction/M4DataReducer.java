@@ -0,0 +1,185 @@
+package de.gsi.chart.renderer.datareduction;
+
+import java.security.InvalidParameterException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import de.gsi.chart.renderer.RendererDataReducer;
+import de.gsi.chart.renderer.spi.utils.ArrayPool;
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.ProcessingProfiler;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+
+/**
+ * M4 data reduction: for each pixel column (bin) only the first, last, minimum and maximum point are retained which
+ * renders line plots pixel-exact w.r.t. the non-reduced data (Jugel et al., "M4: A Visualization-Oriented Time Series
+ * Data Aggregation", VLDB 2014). <br>
+ * N.B. numerical complexity: O(n), single pass. Large ranges are split at column boundaries into chunks that are
+ * processed in parallel, the retained points are compacted in-place afterwards. {@code NaN} points are kept as line
+ * gaps (consecutive ones are merged).
+ *
+ * @author rstein
+ */
+public class M4DataReducer implements RendererDataReducer {
+    private static final int MIN_PARALLEL_CHUNK_SIZE = 1 << 16;
+
+    protected IntegerProperty pixelBinWidth = new SimpleIntegerProperty(this, "pixelBinWidth", 1) {
+        @Override
+        public void set(final int value) {
+            if (value <= 0) {
+                throw new InvalidParameterException("pixelBinWidth " + value + " must be greater than zero");
+            }
+            super.set(value);
+        }
+    };
+
+    /**
+     * @return width of the bins (in pixel) for which first, last, min and max points are retained
+     */
+    public final int getPixelBinWidth() {
+        return pixelBinWidthProperty().get();
+    }
+
+    public final IntegerProperty pixelBinWidthProperty() {
+        return pixelBinWidth;
+    }
+
+    @Override
+    public int reducePoints(final double[] xValues, final double[] yValues, final double[] xPointErrorsPos,
+            final double[] xPointErrorsNeg, final double[] yPointErrorsPos, final double[] yPointErrorsNeg,
+            final String[] styles, final boolean[] pointSelected, final int indexMin, final int indexMax) {
+        AssertUtils.notNull("xValues", xValues);
+        AssertUtils.notNull("yValues", yValues);
+        AssertUtils.gtEqThanZero("indexMin", indexMin);
+        AssertUtils.indexOrder(indexMin, "indexMin", indexMax, "indexMax");
+        final long start = ProcessingProfiler.getTimeStamp();
+        final int size = indexMax - indexMin;
+        if (size <= 4) {
+            return DataReducerHelper.shiftToFront(xValues, yValues, xPointErrorsPos, xPointErrorsNeg, yPointErrorsPos,
+                    yPointErrorsNeg, styles, pointSelected, indexMin, indexMax);
+        }
+        final double binWidth = getPixelBinWidth();
+
+        // split into chunks at bin boundaries
+        final int nChunks = size < 2 * MIN_PARALLEL_CHUNK_SIZE ? 1
+                : Math.min(4 * ForkJoinPool.getCommonPoolParallelism(), size / MIN_PARALLEL_CHUNK_SIZE);
+        final int[] bounds = new int[nChunks + 1];
+        bounds[0] = indexMin;
+        bounds[nChunks] = indexMax;
+        for (int k = 1; k < nChunks; k++) {
+            int index = Math.max(bounds[k - 1], indexMin + (int) ((long) size * k / nChunks));
+            while (index < indexMax && isSameBin(xValues, yValues, index - 1, index, binWidth)) {
+                index++;
+            }
+            bounds[k] = index;
+        }
+
+        // select retained indices (stored relative to each chunk start)
+        final int[] selected = ArrayPool.INT_ARRAYS.get(size);
+        final int[] counts = new int[nChunks];
+        if (nChunks == 1) {
+            counts[0] = selectIndices(xValues, yValues, indexMin, indexMax, binWidth, selected, 0);
+        } else {
+            IntStream.range(0, nChunks).parallel().forEach(k -> counts[k] = selectIndices(xValues, yValues,
+                    bounds[k], bounds[k + 1], binWidth, selected, bounds[k] - indexMin));
+        }
+
+        // compact in-place -- N.B. selected indices are strictly increasing and never smaller than the target index
+        int count = 0;
+        for (int k = 0; k < nChunks; k++) {
+            final int offset = bounds[k] - indexMin;
+            for (int i = 0; i < counts[k]; i++) {
+                DataReducerHelper.movePoint(xValues, yValues, xPointErrorsPos, xPointErrorsNeg, yPointErrorsPos,
+                        yPointErrorsNeg, styles, pointSelected, selected[offset + i], count++);
+            }
+        }
+        ArrayPool.INT_ARRAYS.release(selected);
+
+        ProcessingProfiler.getTimeDiff(start, String.format("M4 data reduction (from %d to %d)", size, count));
+        return count;
+    }
+
+    /**
+     * Sets the <code>pixelBinWidth</code> to the specified value.
+     *
+     * @param binWidth width of the bins (in pixel) for which first, last, min and max points are retained
+     */
+    public final void setPixelBinWidth(final int binWidth) {
+        pixelBinWidthProperty().setValue(binWidth);
+    }
+
+    private static int addRun(final int[] selected, final int position, final int first, final int min,
+            final int max, final int last) {
+        final int lower = Math.min(min, max);
+        final int upper = Math.max(min, max);
+        int pos = position;
+        // N.B. first <= lower <= upper <= last
+        selected[pos++] = first;
+        if (lower > first) {
+            selected[pos++] = lower;
+        }
+        if (upper > lower) {
+            selected[pos++] = upper;
+        }
+        if (last > upper) {
+            selected[pos++] = last;
+        }
+        return pos;
+    }
+
+    private static boolean isSameBin(final double[] xValues, final double[] yValues, final int index1,
+            final int index2, final double binWidth) {
+        if (Double.isNaN(xValues[index1]) || Double.isNaN(yValues[index1]) || Double.isNaN(xValues[index2])
+                || Double.isNaN(yValues[index2])) {
+            return false;
+        }
+        return Math.floor(xValues[index1] / binWidth) == Math.floor(xValues[index2] / binWidth);
+    }
+
+    private static int selectIndices(final double[] xValues, final double[] yValues, final int from, final int to,
+            final double binWidth, final int[] selected, final int offset) {
+        int pos = offset;
+        boolean lastWasGap = false;
+        int first = -1;
+        int last = -1;
+        int min = -1;
+        int max = -1;
+        double bin = Double.NaN;
+        for (int i = from; i < to; i++) {
+            final double x = xValues[i];
+            final double y = yValues[i];
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                if (first >= 0) {
+                    pos = addRun(selected, pos, first, min, max, last);
+                    first = -1;
+                }
+                if (!lastWasGap) {
+                    selected[pos++] = i;
+                    lastWasGap = true;
+                }
+                continue;
+            }
+            lastWasGap = false;
+            final double newBin = Math.floor(x / binWidth);
+            if (first >= 0 && newBin == bin) {
+                last = i;
+                if (y < yValues[min]) {
+                    min = i;
+                } else if (y > yValues[max]) {
+                    max = i;
+                }
+                continue;
+            }
+            if (first >= 0) {
+                pos = addRun(selected, pos, first, min, max, last);
+            }
+            first = last = min = max = i;
+            bin = newBin;
+        }
+        if (first >= 0) {
+            pos = addRun(selected, pos, first, min, max, last);
+        }
+        return pos - offset;
+    }
+}
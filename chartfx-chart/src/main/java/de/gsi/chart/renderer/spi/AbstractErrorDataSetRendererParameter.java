@@ -42,6 +42,7 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
             "rendererDataReducer", new DefaultDataReducer());
     private final BooleanProperty pointReduction = new SimpleBooleanProperty(this, "pointReduction", true);
     private final BooleanProperty assumeSortedData = new SimpleBooleanProperty(this, "assumeSortedData", true);
+    private final BooleanProperty minMaxPyramid = new SimpleBooleanProperty(this, "minMaxPyramid", true);
     private final ReadOnlyBooleanWrapper actualPointReduction = new ReadOnlyBooleanWrapper(this, "actualPointReduction",
             true);
     private final IntegerProperty dashSize = new SimpleIntegerProperty(this, "dashSize", 3);
@@ -110,6 +111,7 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         errorStyleProperty().bind(other.errorStyleProperty());
         pointReductionProperty().bind(other.pointReductionProperty());
         assumeSortedDataProperty().bind(other.assumeSortedDataProperty());
+        minMaxPyramidProperty().bind(other.minMaxPyramidProperty());
         dashSizeProperty().bind(other.dashSizeProperty());
         minRequiredReductionSizeProperty().bind(other.minRequiredReductionSizeProperty());
         markerSizeProperty().bind(other.markerSizeProperty());
@@ -326,6 +328,13 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         return dynamicBarWidth.get();
     }
 
+    /**
+     * @return true if the min/max pyramid (level-of-detail index) is used to reduce large sorted data sets
+     */
+    public boolean isMinMaxPyramid() {
+        return minMaxPyramid.get();
+    }
+
     /**
      * whether renderer should aim at parallelising sub-functionalities
      *
@@ -357,6 +366,19 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         return markerSize;
     }
 
+    /**
+     * Sets whether sorted data sets with many more points than horizontal pixels are reduced to the first, minimum,
+     * maximum and last point of each pixel column ('M4') using a min/max pyramid attached to the data set (see
+     * {@link de.gsi.dataset.utils.MinMaxPyramid}). This renders in O(pixels &middot; log n) independent of the data set
+     * size while preserving peaks. Requires point reduction, sorted data and data sets that track their modifications
+     * (ie. {@link de.gsi.dataset.spi.DoubleErrorDataSet}).
+     *
+     * @return property
+     */
+    public BooleanProperty minMaxPyramidProperty() {
+        return minMaxPyramid;
+    }
+
     public IntegerProperty minRequiredReductionSizeProperty() {
         return minRequiredReductionSize;
     }
@@ -532,6 +554,15 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         return getThis();
     }
 
+    /**
+     * @param state true if the min/max pyramid (level-of-detail index) shall be used to reduce large sorted data sets
+     * @return itself (fluent design)
+     */
+    public R setMinMaxPyramid(final boolean state) {
+        minMaxPyramid.set(state);
+        return getThis();
+    }
+
     /**
      * @param size the minimum number of samples before performing data reduction
      * @return itself (fluent design)
@@ -3,23 +3,19 @@ package de.gsi.chart.renderer.spi;
 import static de.gsi.dataset.DataSet.DIM_X;
 import static de.gsi.dataset.DataSet.DIM_Y;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import de.gsi.chart.XYChartCss;
 import de.gsi.chart.axes.Axis;
 import de.gsi.chart.renderer.ErrorStyle;
 import de.gsi.chart.renderer.RendererDataReducer;
-import de.gsi.chart.renderer.spi.utils.Cache;
+import de.gsi.chart.renderer.spi.utils.ArrayPool;
 import de.gsi.chart.utils.StyleParser;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.DataSet2D;
 import de.gsi.dataset.DataSetError;
 import de.gsi.dataset.DataSetError.ErrorType;
-import de.gsi.dataset.utils.CachedDaemonThreadFactory;
 import de.gsi.dataset.utils.ProcessingProfiler;
 import de.gsi.math.ArrayUtils;
 
@@ -31,15 +27,12 @@ import de.gsi.math.ArrayUtils;
  */
 @SuppressWarnings({ "PMD.TooManyMethods", "PMD.TooManyFields" }) // designated purpose of this class
 class CachedDataPoints {
-    private static final String STYLES2 = "styles";
-    private static final String SELECTED2 = "selected";
-    private static final String ERROR_X_POS = "errorXPos";
-    private static final String ERROR_X_NEG = "errorXNeg";
-    private static final String ERROR_Y_POS = "errorYPos";
-    private static final String ERROR_Y_NEG = "errorYNeg";
-    private static final String Y_VALUES = "yValues";
-    private static final String X_VALUES = "xValues";
     private static final double DEG_TO_RAD = Math.PI / 180.0;
+    private static final long TARGET_TASK_NANOS = 50_000; // targeted execution time of a single fork-join leaf task
+    private static final int MIN_CHUNK_SIZE = 256;
+    private static final int MAX_CHUNK_SIZE = 1 << 20;
+    // measured transform cost per point (moving average, shared by all instances, updates may race -- by design)
+    private static volatile double nanosPerPoint = 200.0;
 
     protected double[] xValues;
     protected double[] yValues;
@@ -59,6 +52,7 @@ class CachedDataPoints {
     protected int indexMin;
     protected int indexMax;
     protected int minDistanceX = +Integer.MAX_VALUE;
+    protected int minDistanceXFull = +Integer.MAX_VALUE; // min distance prior to data reduction (if known)
     protected double xZero; // reference zero 'x' axis coordinate
     protected double yZero; // reference zero 'y' axis coordinate
     protected double yMin;
@@ -76,18 +70,18 @@ class CachedDataPoints {
 
     public CachedDataPoints(final int indexMin, final int indexMax, final int dataLength, final boolean full) {
         maxDataCount = dataLength;
-        xValues = Cache.getCachedDoubleArray(X_VALUES, maxDataCount);
-        yValues = Cache.getCachedDoubleArray(Y_VALUES, maxDataCount);
-        styles = Cache.getCachedStringArray(STYLES2, dataLength);
+        xValues = ArrayPool.DOUBLE_ARRAYS.get(maxDataCount);
+        yValues = ArrayPool.DOUBLE_ARRAYS.get(maxDataCount);
+        styles = ArrayPool.STRING_ARRAYS.get(dataLength);
         this.indexMin = indexMin;
         this.indexMax = indexMax;
-        errorYNeg = Cache.getCachedDoubleArray(ERROR_Y_NEG, maxDataCount);
-        errorYPos = Cache.getCachedDoubleArray(ERROR_Y_POS, maxDataCount);
+        errorYNeg = ArrayPool.DOUBLE_ARRAYS.get(maxDataCount);
+        errorYPos = ArrayPool.DOUBLE_ARRAYS.get(maxDataCount);
         if (full) {
-            errorXNeg = Cache.getCachedDoubleArray(ERROR_X_NEG, maxDataCount);
-            errorXPos = Cache.getCachedDoubleArray(ERROR_X_POS, maxDataCount);
+            errorXNeg = ArrayPool.DOUBLE_ARRAYS.get(maxDataCount);
+            errorXPos = ArrayPool.DOUBLE_ARRAYS.get(maxDataCount);
         }
-        selected = Cache.getCachedBooleanArray(SELECTED2, dataLength);
+        selected = ArrayPool.BOOLEAN_ARRAYS.get(dataLength);
         ArrayUtils.fillArray(styles, null);
     }
 
@@ -236,36 +230,33 @@ class CachedDataPoints {
         }
     }
 
+    /**
+     * fork-join based version of {@link #computeScreenCoordinatesNonThreaded}: the index range is recursively split
+     * into chunks that are sized according to the measured per-point transform cost (ie. to amortise the task
+     * overhead) and executed on the common fork-join pool. Each chunk fuses the coordinate transform (incl. NaN
+     * handling, errors and styles) with the search for the minimum horizontal point distance, which otherwise would
+     * require an additional serial pass.
+     *
+     * @param xAxis horizontal axis
+     * @param yAxis vertical axis
+     * @param dataSet source data set
+     * @param min first index (inclusive)
+     * @param max last index (exclusive)
+     */
     protected void computeScreenCoordinatesParallel(final Axis xAxis, final Axis yAxis, final DataSet dataSet,
             final int min, final int max) {
-        final int minthreshold = 1000;
-        final int divThread = (int) Math
-                .ceil(Math.abs(max - min) / (double) CachedDaemonThreadFactory.getNumbersOfThreads());
-        final int stepSize = Math.max(divThread, minthreshold);
-        final List<Callable<Boolean>> workers = new ArrayList<>();
-        for (int i = min; i < max; i += stepSize) {
-            final int start = i;
-            workers.add(() -> {
-                if (polarPlot) {
-                    computeScreenCoordinatesPolar(yAxis, dataSet, start, Math.min(max, start + stepSize));
-                } else {
-                    computeScreenCoordinatesEuclidean(xAxis, yAxis, dataSet, start, Math.min(max, start + stepSize));
-                }
-                return Boolean.TRUE;
-            });
-        }
-
-        try {
-            final List<Future<Boolean>> jobs = CachedDaemonThreadFactory.getCommonPool().invokeAll(workers);
-            for (final Future<Boolean> future : jobs) {
-                final Boolean r = future.get();
-                if (!r) {
-                    throw new IllegalStateException("one parallel worker thread finished execution with error");
-                }
-            }
-        } catch (final InterruptedException | ExecutionException e) {
-            throw new IllegalStateException("one parallel worker thread finished execution with error", e);
+        final int nPoints = max - min;
+        final int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        final int costBasedChunkSize = (int) Math.min(MAX_CHUNK_SIZE, TARGET_TASK_NANOS / Math.max(nanosPerPoint, 1.0));
+        // N.B. do not split beyond what is needed to keep all workers busy
+        final int chunkSize = Math.max(MIN_CHUNK_SIZE, Math.max(costBasedChunkSize, nPoints / (8 * parallelism)));
+        final ScreenCoordinateTask task = new ScreenCoordinateTask(xAxis, yAxis, dataSet, min, max, chunkSize);
+        if (nPoints <= chunkSize || parallelism <= 1) {
+            task.compute(); // not worth forking
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
         }
+        minDistanceXFull = task.minDistance;
     }
 
     private void computeScreenCoordinatesPolar(final Axis yAxis, final DataSet dataSet, final int min, final int max) {
@@ -293,15 +284,19 @@ class CachedDataPoints {
                 final double[] valuesEP = dimIndex == DIM_X ? errorXPos : errorYPos;
                 final double minValue = dimIndex == DIM_X ? xMin : yMin;
                 final DataSetError ds = (DataSetError) dataSet;
+                // bulk copy of the raw values and errors, transformed in-place below
+                ds.copyValues(dimIndex, min, values, min, max - min);
+                ds.copyErrorsNegative(dimIndex, min, valuesEN, min, max - min);
+                ds.copyErrorsPositive(dimIndex, min, valuesEP, min, max - min);
                 for (int index = min; index < max; index++) {
-                    final double value = dataSet.get(dimIndex, index);
+                    final double value = values[index];
 
                     values[index] = yAxis.getDisplayPosition(value);
 
                     if (!Double.isNaN(values[index])) {
                         // if (Double.isFinite(values[index])) {
-                        valuesEN[index] = yAxis.getDisplayPosition(value - ds.getErrorNegative(dimIndex, index));
-                        valuesEP[index] = yAxis.getDisplayPosition(value + ds.getErrorPositive(dimIndex, index));
+                        valuesEN[index] = yAxis.getDisplayPosition(value - valuesEN[index]);
+                        valuesEP[index] = yAxis.getDisplayPosition(value + valuesEP[index]);
                         continue;
                     }
                     values[index] = minValue;
@@ -318,9 +313,10 @@ class CachedDataPoints {
             final double[] valuesEN = dimIndex == DIM_X ? errorXNeg : errorYNeg;
             final double[] valuesEP = dimIndex == DIM_X ? errorXPos : errorYPos;
             final double minValue = dimIndex == DIM_X ? xMin : yMin;
+            dataSet.copyValues(dimIndex, min, values, min, max - min);
 
             for (int index = min; index < max; index++) {
-                values[index] = yAxis.getDisplayPosition(dataSet.get(dimIndex, index));
+                values[index] = yAxis.getDisplayPosition(values[index]);
                 if (Double.isFinite(values[index])) {
                     valuesEN[index] = values[index];
                     valuesEP[index] = values[index];
@@ -341,8 +337,12 @@ class CachedDataPoints {
                 final double[] valuesEN = dimIndex == DIM_X ? errorXNeg : errorYNeg;
                 final double[] valuesEP = dimIndex == DIM_X ? errorXPos : errorYPos;
                 final DataSetError ds = (DataSetError) dataSet;
+                // bulk copy of the raw values and errors, transformed in-place below
+                ds.copyValues(dimIndex, min, values, min, max - min);
+                ds.copyErrorsNegative(dimIndex, min, valuesEN, min, max - min);
+                ds.copyErrorsPositive(dimIndex, min, valuesEP, min, max - min);
                 for (int index = min; index < max; index++) {
-                    final double value = dataSet.get(dimIndex, index);
+                    final double value = values[index];
 
                     if (!Double.isFinite(value)) {
                         values[index] = Double.NaN;
@@ -352,8 +352,8 @@ class CachedDataPoints {
                     }
 
                     values[index] = yAxis.getDisplayPosition(value);
-                    valuesEN[index] = yAxis.getDisplayPosition(value - ds.getErrorNegative(dimIndex, index));
-                    valuesEP[index] = yAxis.getDisplayPosition(value + ds.getErrorPositive(dimIndex, index));
+                    valuesEN[index] = yAxis.getDisplayPosition(value - valuesEN[index]);
+                    valuesEP[index] = yAxis.getDisplayPosition(value + valuesEP[index]);
                 }
             });
             return;
@@ -364,9 +364,10 @@ class CachedDataPoints {
             final double[] values = dimIndex == DIM_X ? xValues : yValues;
             final double[] valuesEN = dimIndex == DIM_X ? errorXNeg : errorYNeg;
             final double[] valuesEP = dimIndex == DIM_X ? errorXPos : errorYPos;
+            dataSet.copyValues(dimIndex, min, values, min, max - min);
 
             for (int index = min; index < max; index++) {
-                values[index] = yAxis.getDisplayPosition(dataSet.get(dimIndex, index));
+                values[index] = yAxis.getDisplayPosition(values[index]);
 
                 if (Double.isFinite(values[index])) {
                     valuesEN[index] = values[index];
@@ -386,10 +387,9 @@ class CachedDataPoints {
         dataSet.lock().readLockGuardOptimistic(() -> {
             final double[] values = dimIndex == DIM_X ? xValues : yValues;
             final double minValue = dimIndex == DIM_X ? xMin : yMin;
+            dataSet.copyValues(dimIndex, min, values, min, max - min);
             for (int index = min; index < max; index++) {
-                final double value = dataSet.get(dimIndex, index);
-
-                values[index] = axis.getDisplayPosition(value);
+                values[index] = axis.getDisplayPosition(values[index]);
 
                 // if (!Double.isFinite(values[index])) {
                 if (Double.isNaN(values[index])) {
@@ -409,8 +409,9 @@ class CachedDataPoints {
         // no error attached
         dataSet.lock().readLockGuardOptimistic(() -> {
             final double[] values = dimIndex == DIM_X ? xValues : yValues;
+            dataSet.copyValues(dimIndex, min, values, min, max - min);
             for (int index = min; index < max; index++) {
-                final double value = dataSet.get(dimIndex, index);
+                final double value = values[index];
 
                 if (Double.isFinite(value)) {
                     values[index] = axis.getDisplayPosition(value);
@@ -497,6 +498,10 @@ class CachedDataPoints {
 
         if (!isReducePoints || (Math.abs(indexMax - indexMin) < minRequiredReductionSize)) {
             actualDataCount = indexMax - indexMin;
+            if (minDistanceXFull < Integer.MAX_VALUE) {
+                // already computed by the parallel transform
+                minDistanceX = actualDataCount <= 1 ? 1 : minDistanceXFull;
+            }
             System.arraycopy(xValues, indexMin, xValues, 0, actualDataCount);
             System.arraycopy(yValues, indexMin, yValues, 0, actualDataCount);
             System.arraycopy(selected, indexMin, selected, 0, actualDataCount);
@@ -529,14 +534,14 @@ class CachedDataPoints {
     }
 
     public void release() {
-        Cache.release(X_VALUES, xValues);
-        Cache.release(Y_VALUES, yValues);
-        Cache.release(ERROR_Y_NEG, errorYNeg);
-        Cache.release(ERROR_Y_POS, errorYPos);
-        Cache.release(ERROR_X_NEG, errorXNeg);
-        Cache.release(ERROR_X_POS, errorXPos);
-        Cache.release(SELECTED2, selected);
-        Cache.release(STYLES2, styles);
+        ArrayPool.DOUBLE_ARRAYS.release(xValues);
+        ArrayPool.DOUBLE_ARRAYS.release(yValues);
+        ArrayPool.DOUBLE_ARRAYS.release(errorYNeg);
+        ArrayPool.DOUBLE_ARRAYS.release(errorYPos);
+        ArrayPool.DOUBLE_ARRAYS.release(errorXNeg);
+        ArrayPool.DOUBLE_ARRAYS.release(errorXPos);
+        ArrayPool.BOOLEAN_ARRAYS.release(selected);
+        ArrayPool.STRING_ARRAYS.release(styles);
     }
 
     private void setBoundaryConditions(final Axis xAxis, final Axis yAxis, final DataSet dataSet, final int dsIndex,
@@ -591,4 +596,60 @@ class CachedDataPoints {
         dataSetStyleIndex = layoutOffset == null ? 0 : layoutOffset.intValue();
         dataSetIndex = dsIndexLocal == null ? dsIndex : dsIndexLocal.intValue();
     }
+
+    /**
+     * recursive fork-join task computing the screen coordinates of a sub-range of points
+     */
+    private class ScreenCoordinateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient Axis xAxis;
+        private final transient Axis yAxis;
+        private final transient DataSet dataSet;
+        private final int start;
+        private final int end;
+        private final int chunkSize;
+        protected int minDistance = Integer.MAX_VALUE; // min. horizontal distance between consecutive points
+
+        protected ScreenCoordinateTask(final Axis xAxis, final Axis yAxis, final DataSet dataSet, final int start,
+                final int end, final int chunkSize) {
+            super();
+            this.xAxis = xAxis;
+            this.yAxis = yAxis;
+            this.dataSet = dataSet;
+            this.start = start;
+            this.end = end;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > chunkSize) {
+                final int middle = (start + end) >>> 1;
+                final ScreenCoordinateTask left = new ScreenCoordinateTask(xAxis, yAxis, dataSet, start, middle,
+                        chunkSize);
+                final ScreenCoordinateTask right = new ScreenCoordinateTask(xAxis, yAxis, dataSet, middle, end,
+                        chunkSize);
+                invokeAll(left, right);
+                final int boundaryDistance = (int) Math.abs(xValues[middle] - xValues[middle - 1]);
+                minDistance = Math.min(Math.min(left.minDistance, right.minDistance), boundaryDistance);
+                return;
+            }
+
+            final long startTime = System.nanoTime();
+            if (polarPlot) {
+                computeScreenCoordinatesPolar(yAxis, dataSet, start, end);
+            } else {
+                computeScreenCoordinatesEuclidean(xAxis, yAxis, dataSet, start, end);
+            }
+            // fused search for the minimum horizontal point distance
+            int localMinDistance = Integer.MAX_VALUE;
+            for (int index = start + 1; index < end; index++) {
+                localMinDistance = Math.min(localMinDistance, (int) Math.abs(xValues[index] - xValues[index - 1]));
+            }
+            minDistance = localMinDistance;
+
+            final double nanos = (double) (System.nanoTime() - startTime) / Math.max(1, end - start);
+            nanosPerPoint = 0.9 * nanosPerPoint + 0.1 * nanos;
+        }
+    }
 }
@@ -6,8 +6,11 @@ import static javafx.scene.paint.CycleMethod.NO_CYCLE;
 
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import de.gsi.chart.Chart;
 import de.gsi.chart.XYChart;
@@ -21,8 +24,11 @@ import de.gsi.chart.renderer.spi.hexagon.Hexagon;
 import de.gsi.chart.renderer.spi.hexagon.HexagonMap;
 import de.gsi.chart.renderer.spi.hexagon.HexagonMap.Direction;
 import de.gsi.chart.renderer.spi.marchingsquares.GeneralPath;
-import de.gsi.chart.renderer.spi.marchingsquares.MarchingSquares;
+import de.gsi.chart.renderer.spi.marchingsquares.IsolineCache;
+import de.gsi.chart.renderer.spi.utils.ArrayPool;
 import de.gsi.chart.renderer.spi.utils.ColorGradient;
+import de.gsi.chart.renderer.spi.utils.ColorLookUpTable;
+import de.gsi.chart.renderer.spi.utils.HeatMapEngine;
 import de.gsi.chart.ui.geometry.Side;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.DataSet3D;
@@ -33,6 +39,7 @@ import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.geometry.Orientation;
 import javafx.scene.Node;
@@ -59,8 +66,15 @@ import javafx.scene.shape.StrokeType;
  * @author rstein
  */
 public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDataSetRenderer> implements Renderer {
+    private static final int MIN_PARALLEL_SIZE = 1 << 14; // minimum number of data points for parallel processing
 
     private final Cache localCache = new Cache();
+    private final HeatMapEngine heatMapEngine = new HeatMapEngine();
+    private final IsolineCache isolineCache = new IsolineCache(8);
+    // N.B. the caches register listeners on the rendered data set, which would otherwise keep this renderer alive
+    private final ListChangeListener<Renderer> rendererListListener = this::rendererListChanged;
+    private Chart attachedChart;
+    private WritableImage contourImage;
     private Axis zAxis;
     protected final Rectangle gradientRect = new Rectangle();
 
@@ -109,12 +123,28 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
 
     public ContourDataSetRenderer() {
         super();
+        getDatasets().addListener((ListChangeListener<DataSet>) change -> {
+            while (change.next()) {
+                if (change.wasRemoved()) {
+                    clearCaches();
+                    return;
+                }
+            }
+        });
     }
 
     private int clamp(int value, int range) {
         return Math.max(Math.min(value, range), 0);
     }
 
+    /**
+     * releases the heat-map and isoline caches and detaches them from the last rendered data set
+     */
+    private void clearCaches() {
+        heatMapEngine.clear();
+        isolineCache.clear();
+    }
+
     /**
      * Color gradient (linear) used to encode data point values.
      *
@@ -152,46 +182,48 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
     }
 
     private void drawContour(final GraphicsContext gc, final AxisTransform axisTransform, final Cache lCache) {
-        final double scaleX = Math.max(lCache.xAxisWidth / lCache.xSize, 1.0);
-        final double scaleY = Math.max(lCache.yAxisHeight / lCache.ySize, 1.0);
+        if (lCache.indexXMax <= lCache.indexXMin || lCache.indexYMax <= lCache.indexYMin) {
+            return;
+        }
+        final double scaleX = lCache.xAxisWidth / lCache.xSize;
+        final double scaleY = lCache.yAxisHeight / lCache.ySize;
         final double zMin = axisTransform.forward(lCache.zMin);
         final double zMax = axisTransform.forward(lCache.zMax);
-        final int indexXMin = lCache.indexXMin;
-        final int indexYMax = lCache.indexYMax;
         final DataSet3D dataSet = lCache.dataSet3D;
 
         final double[] levels = new double[getNumberQuantisationLevels()];
+        final double[] isoValues = new double[levels.length];
         for (int i = 0; i < levels.length; i++) {
             levels[i] = (i + 1) / (double) levels.length;
+            isoValues[i] = zMin + levels[i] * (zMax - zMin);
         }
-        final double[][] data = new double[lCache.ySize][lCache.xSize];
-        for (int xIndex = lCache.indexXMin; xIndex < lCache.indexXMax; xIndex++) {
-            for (int yIndex = lCache.indexYMin; yIndex < lCache.indexYMax; yIndex++) {
-                final double z = dataSet.getZ(xIndex, yIndex);
-                final double offset = (axisTransform.forward(z) - zMin) / (zMax - zMin);
-                data[indexYMax - 1 - yIndex][xIndex - indexXMin] = offset;
-            }
-        }
-        final MarchingSquares marchingSquares = new MarchingSquares();
+        // N.B. only the visible index range is contoured (and cached per range) so that the segment limit applies
+        // to what is actually drawn
         try {
+            final GeneralPath[] isolines = isolineCache.getIsolines(dataSet, axisTransform, isoValues,
+                    lCache.indexXMin, lCache.indexXMax, lCache.indexYMin, lCache.indexYMax);
+            final ColorLookUpTable lut = getColorLookUpTable();
 
             gc.save();
-            gc.scale(scaleX, scaleY);
+            gc.beginPath();
+            gc.rect(0, 0, lCache.xAxisWidth, lCache.yAxisHeight);
+            gc.clip();
+            // isoline index coordinates -> centre of the corresponding heat-map pixel
+            gc.translate(0.5 * scaleX, lCache.yAxisHeight - 0.5 * scaleY);
+            gc.scale(scaleX, -scaleY);
 
-            final GeneralPath[] isolines = marchingSquares.buildContours(data, levels);
             int levelCount = 0;
             for (final GeneralPath path : isolines) {
                 if (path.size() > getMaxContourSegments()) {
                     levelCount++;
                     continue;
                 }
-                final Color color = lCache.zInverted ? getColor(1 - levels[levelCount++])
-                        : getColor(levels[levelCount++]);
+                final Color color = lut.getColor(lCache.zInverted ? 1 - levels[levelCount++] : levels[levelCount++]);
                 gc.setStroke(color);
                 gc.setLineDashes(1.0);
                 gc.setMiterLimit(10);
                 gc.setFill(color);
-                gc.setLineWidth(0.5);
+                gc.setLineWidth(Math.max(0.5, 1.0 / Math.min(scaleX, scaleY)));
                 path.draw(gc);
             }
             gc.restore();
@@ -211,17 +243,18 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
         final double zMin = axisTransform.forward(lCache.zMin);
         final double zMax = axisTransform.forward(lCache.zMax);
         final int indexXMin = lCache.indexXMin;
-        final int indexXMax = lCache.indexXMax;
         final int indexYMin = lCache.indexYMin;
         final int indexYMax = lCache.indexYMax;
         final DataSet3D dataSet = lCache.dataSet3D;
+        if (lCache.indexXMax <= indexXMin || indexYMax <= indexYMin) {
+            return;
+        }
 
-        getNumberQuantisationLevels();
-
-        // filter for contour
-        final double[][] input = new double[xSize][ySize];
-        final double[][] output = new double[xSize][ySize];
-        final double[][] output2 = new double[xSize][ySize];
+        // filter for contour: flat column-major matrices, element (x, y) at [x * ySize + y]
+        // N.B. one pooled array per matrix (pooled arrays may be longer than 'xSize * ySize')
+        final double[] input = ArrayPool.DOUBLE_ARRAYS.get(xSize * ySize);
+        final double[] output = ArrayPool.DOUBLE_ARRAYS.get(xSize * ySize);
+        final double[] output2 = ArrayPool.DOUBLE_ARRAYS.get(xSize * ySize);
 
         // setup quantisation levels
         final double[] levels = new double[getNumberQuantisationLevels()];
@@ -230,98 +263,71 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
         }
 
         // setup input
-        for (int xIndex = indexXMin; xIndex < indexXMax; xIndex++) {
+        forEachColumn(xSize, ySize, x -> {
+            final int column = x * ySize;
             for (int yIndex = indexYMin; yIndex < indexYMax; yIndex++) {
-                final double z = dataSet.getZ(xIndex, yIndex);
-                final int x = xIndex - indexXMin;
-                final int y = indexYMax - 1 - yIndex;
-                final double offset = (axisTransform.forward(z) - zMin) / (zMax - zMin);
-                input[x][y] = offset;
+                final double z = dataSet.getZ(indexXMin + x, yIndex);
+                input[column + indexYMax - 1 - yIndex] = (axisTransform.forward(z) - zMin) / (zMax - zMin);
             }
-        }
-
-        final WritableImage image = new WritableImage(xSize * scaleX, ySize * scaleY);
-        final PixelWriter pixelWriter = image.getPixelWriter();
+        });
 
+        // N.B. pixels are accumulated into one (transparent) ARGB buffer that is uploaded in one go
+        final int width = xSize * scaleX;
+        final int height = ySize * scaleY;
+        final ColorLookUpTable lut = getColorLookUpTable();
+        final int[] pixels = ArrayPool.INT_ARRAYS.get(width * height);
+        Arrays.fill(pixels, 0, width * height, 0);
         for (final double level : levels) {
-            ContourDataSetRenderer.sobelOperator(input, output2, zMin, zMax, level);
-            ContourDataSetRenderer.erosionOperator(output2, output, zMin, zMax, level);
+            ContourDataSetRenderer.sobelOperator(input, output2, xSize, ySize, level);
+            ContourDataSetRenderer.erosionOperator(output2, output, xSize, ySize, level);
             // erosionOperator2(output2, output, zMin, zMax, levels[i]);
 
-            for (int xIndex = indexXMin; xIndex < indexXMax; xIndex++) {
-                for (int yIndex = indexYMin; yIndex < indexYMax; yIndex++) {
-                    // final double z = dataSet3D.getZ(xIndex, yIndex);
-                    final double z = output[xIndex - indexXMin][yIndex - indexYMin];
-
-                    // Color color = getColor(z);
-                    Color color = lCache.zInverted ? getColor(1 - z) : getColor(z);
-                    if (z > 0) {
-                        color = lCache.zInverted ? getColor(1 - level) : getColor(level);
-                    } else {
-                        color = Color.TRANSPARENT;
+            final int argb = lut.getArgb(lCache.zInverted ? 1 - level : level);
+            forEachColumn(xSize, ySize, x -> {
+                final int column = x * ySize;
+                for (int y = 0; y < ySize; y++) {
+                    if (output[column + y] <= 0) {
                         continue;
                     }
-
-                    for (int dx = 0; dx < scaleX; dx++) {
-                        for (int dy = 0; dy < scaleY; dy++) {
-                            final int x = (xIndex - indexXMin) * scaleX;
-                            final int y = (indexYMax - 1 - yIndex) * scaleY;
-                            pixelWriter.setColor(x + dx, y + dy, color);
-                        }
+                    for (int dy = 0; dy < scaleY; dy++) {
+                        final int pixel = (y * scaleY + dy) * width + x * scaleX;
+                        Arrays.fill(pixels, pixel, pixel + scaleX, argb);
                     }
                 }
-            }
+            });
         }
 
-        gc.drawImage(image, 0, 0, lCache.xAxisWidth, lCache.yAxisHeight);
+        ArrayPool.DOUBLE_ARRAYS.release(input);
+        ArrayPool.DOUBLE_ARRAYS.release(output);
+        ArrayPool.DOUBLE_ARRAYS.release(output2);
+
+        contourImage = HeatMapEngine.writePixels(contourImage, pixels, width, height);
+        ArrayPool.INT_ARRAYS.release(pixels);
+        gc.drawImage(contourImage, 0, 0, lCache.xAxisWidth, lCache.yAxisHeight);
         ProcessingProfiler.getTimeDiff(start, "sobel");
     }
 
-    private void drawHeatMap(final GraphicsContext gc, final AxisTransform axisTransform, final Cache lCache) {
+    private void drawHeatMap(final GraphicsContext gc, final XYChart chart, final AxisTransform axisTransform,
+            final Cache lCache) {
         final long start = ProcessingProfiler.getTimeStamp();
-        // this.setSmooth(false);
+        if (lCache.indexXMax <= lCache.indexXMin || lCache.indexYMax <= lCache.indexYMin) {
+            return;
+        }
         final int scaleX = isSmooth() ? 1 : Math.max((int) lCache.xAxisWidth / lCache.xSize, 1);
         final int scaleY = isSmooth() ? 1 : Math.max((int) lCache.yAxisHeight / lCache.ySize, 1);
-        final int xSize = lCache.xSize;
-        final int ySize = lCache.ySize;
         final double zMin = axisTransform.forward(lCache.zMin);
         final double zMax = axisTransform.forward(lCache.zMax);
-        final int indexXMin = lCache.indexXMin;
-        final int indexXMax = lCache.indexXMax;
-        final int indexYMin = lCache.indexYMin;
-        final int indexYMax = lCache.indexYMax;
-        final DataSet3D dataSet = lCache.dataSet3D;
-
-        final int nQuant = getNumberQuantisationLevels();
 
-        final WritableImage image = new WritableImage(xSize * scaleX, ySize * scaleY);
-        final PixelWriter pixelWriter = image.getPixelWriter();
-        for (int xIndex = indexXMin; xIndex < indexXMax; xIndex++) {
-            for (int yIndex = indexYMin; yIndex < indexYMax; yIndex++) {
-                final double z = dataSet.getZ(xIndex, yIndex);
-                final double offset = (axisTransform.forward(z) - zMin) / (zMax - zMin);
-                final Color color = lCache.zInverted ? getColor(ContourDataSetRenderer.quantize(1 - offset, nQuant))
-                        : getColor(ContourDataSetRenderer.quantize(offset, nQuant));
-
-                final int x = (xIndex - indexXMin) * scaleX;
-                final int y = (indexYMax - 1 - yIndex) * scaleY;
-                for (int dx = 0; dx < scaleX; dx++) {
-                    for (int dy = 0; dy < scaleY; dy++) {
-                        pixelWriter.setColor(x + dx, y + dy, color);
-                    }
-                }
-            }
-        }
-
-        gc.drawImage(image, 0, 0, lCache.xAxisWidth, lCache.yAxisHeight);
+        final HeatMapEngine.Frame frame = new HeatMapEngine.Frame(lCache.dataSet3D, lCache.indexXMin,
+                lCache.indexXMax, lCache.indexYMin, lCache.indexYMax, scaleX, scaleY, axisTransform, zMin, zMax,
+                lCache.zInverted, getColorLookUpTable());
+        heatMapEngine.render(gc, chart, frame, lCache.xAxisWidth, lCache.yAxisHeight);
         ProcessingProfiler.getTimeDiff(start, "drawHeatMap");
     }
 
     private void drawHexagonHeatMap(final GraphicsContext gc, final AxisTransform axisTransform, final Cache lCache,
             boolean test) {
         final long start = ProcessingProfiler.getTimeStamp();
-        final int xSize = lCache.xSize;
-        final int ySize = lCache.ySize;
         final double zMin = axisTransform.forward(lCache.zMin);
         final double zMax = axisTransform.forward(lCache.zMax);
         final int indexXMin = lCache.indexXMin;
@@ -330,22 +336,8 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
         final int indexYMax = lCache.indexYMax;
         final DataSet3D dataSet = lCache.dataSet3D;
 
-        final int nQuant = getNumberQuantisationLevels();
-
-        final WritableImage image = new WritableImage(xSize, ySize);
-        final PixelWriter pixelWriter = image.getPixelWriter();
-        for (int xIndex = indexXMin; xIndex < indexXMax; xIndex++) {
-            for (int yIndex = indexYMin; yIndex < indexYMax; yIndex++) {
-                final double z = dataSet.getZ(xIndex, yIndex);
-                final double offset = (axisTransform.forward(z) - zMin) / (zMax - zMin);
-                final Color color = lCache.zInverted ? getColor(ContourDataSetRenderer.quantize(1 - offset, nQuant))
-                        : getColor(ContourDataSetRenderer.quantize(offset, nQuant));
-
-                final int x = xIndex - indexXMin;
-                final int y = indexYMax - 1 - yIndex;
-                pixelWriter.setColor(x, y, color);
-            }
-        }
+        final Image image = HeatMapEngine.computeImage(new HeatMapEngine.Frame(dataSet, indexXMin, indexXMax,
+                indexYMin, indexYMax, 1, 1, axisTransform, zMin, zMax, lCache.zInverted, getColorLookUpTable()), null);
         final int targetWidth = (int) localCache.xAxisWidth;
         final int targetHeight = (int) localCache.yAxisHeight;
         final Image image2 = test ? scale(image, targetWidth, targetHeight, false)
@@ -375,8 +367,6 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
 
         Math.max((int) lCache.xAxisWidth / lCache.xSize, 1);
         Math.max((int) lCache.yAxisHeight / lCache.ySize, 1);
-        final int xSize = lCache.xSize;
-        final int ySize = lCache.ySize;
         final double zMin = axisTransform.forward(lCache.zMin);
         final double zMax = axisTransform.forward(lCache.zMax);
         final int indexXMin = lCache.indexXMin;
@@ -385,8 +375,6 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
         final int indexYMax = lCache.indexYMax;
         final DataSet3D dataSet = lCache.dataSet3D;
 
-        final int nQuant = getNumberQuantisationLevels();
-
         // final int hexagonHeight = 5;
         // final int paddingX = 0;
         // final int paddingY = 0;
@@ -420,20 +408,8 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
         // }
         // }
 
-        final WritableImage image = new WritableImage(xSize, ySize);
-        final PixelWriter pixelWriter = image.getPixelWriter();
-        for (int xIndex = indexXMin; xIndex < indexXMax; xIndex++) {
-            for (int yIndex = indexYMin; yIndex < indexYMax; yIndex++) {
-                final double z = dataSet.getZ(xIndex, yIndex);
-                final double offset = (axisTransform.forward(z) - zMin) / (zMax - zMin);
-                final Color color = lCache.zInverted ? getColor(ContourDataSetRenderer.quantize(1 - offset, nQuant))
-                        : getColor(ContourDataSetRenderer.quantize(offset, nQuant));
-
-                final int x = xIndex - indexXMin;
-                final int y = indexYMax - 1 - yIndex;
-                pixelWriter.setColor(x, y, color);
-            }
-        }
+        final Image image = HeatMapEngine.computeImage(new HeatMapEngine.Frame(dataSet, indexXMin, indexXMax,
+                indexYMin, indexYMax, 1, 1, axisTransform, zMin, zMax, lCache.zInverted, getColorLookUpTable()), null);
         final int targetWidth = (int) localCache.xAxisWidth;
         final int targetHeight = (int) localCache.yAxisHeight;
         final Image image2 = test ? scale(image, targetWidth, targetHeight, false)
@@ -472,6 +448,7 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
         final DataSet3D dataSet = lCache.dataSet3D;
 
         final int nQuant = getNumberQuantisationLevels();
+        final ColorLookUpTable lut = getColorLookUpTable();
 
         final double imageWidth = lCache.xAxisWidth;
         final double imageHeight = lCache.yAxisHeight;
@@ -524,7 +501,7 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
                 final double offset = (axisTransform.forward(z) - zMin) / (zMax - zMin);
                 final double quant = lCache.zInverted ? ContourDataSetRenderer.quantize(1 - offset, nQuant)
                         : ContourDataSetRenderer.quantize(offset, nQuant);
-                final Color color = getColor(quant);
+                final Color color = lut.getColor(quant);
 
                 hex.setStroke(color);
                 hex.setFill(Color.TRANSPARENT);
@@ -577,28 +554,8 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
         return null;
     }
 
-    private Color getColor(final double offset) {
-        double lowerOffset = 0.0;
-        double upperOffset = 1.0;
-        Color lowerColor = Color.TRANSPARENT;
-        Color upperColor = Color.TRANSPARENT;
-
-        for (final Stop stop : getColorGradient().getStops()) {
-            final double currentOffset = stop.getOffset();
-            if (currentOffset == offset) {
-                return stop.getColor();
-            } else if (currentOffset < offset) {
-                lowerOffset = currentOffset;
-                lowerColor = stop.getColor();
-            } else {
-                upperOffset = currentOffset;
-                upperColor = stop.getColor();
-                break;
-            }
-        }
-
-        final double interpolationOffset = (offset - lowerOffset) / (upperOffset - lowerOffset);
-        return lowerColor.interpolate(upperColor, interpolationOffset);
+    private ColorLookUpTable getColorLookUpTable() {
+        return ColorLookUpTable.get(getColorGradient(), getNumberQuantisationLevels());
     }
 
     /**
@@ -756,7 +713,7 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
             break;
         case HEATMAP:
         default:
-            drawHeatMap(gc, axisTransform, localCache);
+            drawHeatMap(gc, chart, axisTransform, localCache);
             break;
         }
     }
@@ -774,6 +731,13 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
                     "must be derivative of XYChart for renderer - " + this.getClass().getSimpleName());
         }
         final XYChart xyChart = (XYChart) chart;
+        if (attachedChart != chart) { // NOPMD - identity check intended
+            if (attachedChart != null) {
+                attachedChart.getRenderers().removeListener(rendererListListener);
+            }
+            attachedChart = chart;
+            chart.getRenderers().addListener(rendererListListener);
+        }
 
         // make local copy and add renderer specific data sets
         final List<DataSet> localDataSetList = new ArrayList<>(datasets);
@@ -781,6 +745,7 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
 
         // If there are no data sets
         if (localDataSetList.isEmpty()) {
+            clearCaches();
             return;
         }
 
@@ -847,6 +812,18 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
         ProcessingProfiler.getTimeDiff(start);
     }
 
+    private void rendererListChanged(final ListChangeListener.Change<? extends Renderer> change) {
+        while (change.next()) {
+            if (change.wasRemoved() && change.getRemoved().contains(this) && !change.getList().contains(this)) {
+                // renderer dropped from the chart
+                change.getList().removeListener(rendererListListener);
+                attachedChart = null;
+                clearCaches();
+                return;
+            }
+        }
+    }
+
     private Image resample(Image input, int targetWidth, int targetHeight) {
         if (input.getWidth() == 0 || input.getHeight() == 0) {
             return input;
@@ -1026,13 +1003,26 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
 
         double zMin = +Double.MAX_VALUE;
         double zMax = -Double.MAX_VALUE;
-        for (int xIndex = indexXMin; xIndex < indexXMax; xIndex++) {
+        final int nX = Math.max(indexXMax - indexXMin, 0);
+        final double[] columnMin = ArrayPool.DOUBLE_ARRAYS.get(nX);
+        final double[] columnMax = ArrayPool.DOUBLE_ARRAYS.get(nX);
+        forEachColumn(nX, indexYMax - indexYMin, x -> {
+            double min = +Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
             for (int yIndex = indexYMin; yIndex < indexYMax; yIndex++) {
-                final double z = dataSet3D.getZ(xIndex, yIndex);
-                zMin = Math.min(zMin, z);
-                zMax = Math.max(zMax, z);
+                final double z = dataSet3D.getZ(indexXMin + x, yIndex);
+                min = Math.min(min, z);
+                max = Math.max(max, z);
             }
+            columnMin[x] = min;
+            columnMax[x] = max;
+        });
+        for (int x = 0; x < nX; x++) {
+            zMin = Math.min(zMin, columnMin[x]);
+            zMax = Math.max(zMax, columnMax[x]);
         }
+        ArrayPool.DOUBLE_ARRAYS.release(columnMin);
+        ArrayPool.DOUBLE_ARRAYS.release(columnMax);
 
         if (zAxis.isAutoRanging()) {
             zAxis.set(zMin, zMax);
@@ -1081,53 +1071,57 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
         return sum;
     }
 
-    private static void erosionOperator(final double[][] input, final double[][] output, final double zMin,
-            final double zMax, final double level) {
-        final int width = input.length;
-        final int height = input[0].length;
-        final double[][] gX = new double[width][height];
-        final double[][] gY = new double[width][height];
-
-        final double[][] pixelMatrix = new double[3][3];
-        for (int i = 0; i < width; i++) {
+    private static void erosionOperator(final double[] input, final double[] output, final int width,
+            final int height, final double level) {
+        // N.B. element (i, j) at [i * height + j]
+        forEachColumn(width, height, i -> {
+            final double[][] pixelMatrix = new double[3][3];
             for (int j = 0; j < height; j++) {
+                final int index = i * height + j;
                 if (i == 0 || i == width - 1 || j == 0 || j == height - 1) {
-                    gX[i][j] = gY[i][j] = output[i][j] = 0;
+                    output[index] = 0;
                 } else {
-                    pixelMatrix[0][0] = input[i - 1][j - 1] > level ? 1.0 : 0.0;
-                    pixelMatrix[0][1] = input[i - 1][j] > level ? 1.0 : 0.0;
-                    pixelMatrix[0][2] = input[i - 1][j + 1] > level ? 1.0 : 0.0;
-                    pixelMatrix[1][0] = input[i][j - 1] > level ? 1.0 : 0.0;
-                    pixelMatrix[1][2] = input[i][j + 1] > level ? 1.0 : 0.0;
-                    pixelMatrix[2][0] = input[i + 1][j - 1] > level ? 1.0 : 0.0;
-                    pixelMatrix[2][1] = input[i + 1][j] > level ? 1.0 : 0.0;
-                    pixelMatrix[2][2] = input[i + 1][j + 1] > level ? 1.0 : 0.0;
+                    pixelMatrix[0][0] = input[index - height - 1] > level ? 1.0 : 0.0;
+                    pixelMatrix[0][1] = input[index - height] > level ? 1.0 : 0.0;
+                    pixelMatrix[0][2] = input[index - height + 1] > level ? 1.0 : 0.0;
+                    pixelMatrix[1][0] = input[index - 1] > level ? 1.0 : 0.0;
+                    pixelMatrix[1][2] = input[index + 1] > level ? 1.0 : 0.0;
+                    pixelMatrix[2][0] = input[index + height - 1] > level ? 1.0 : 0.0;
+                    pixelMatrix[2][1] = input[index + height] > level ? 1.0 : 0.0;
+                    pixelMatrix[2][2] = input[index + height + 1] > level ? 1.0 : 0.0;
 
                     final double zNorm = ContourDataSetRenderer.erosionConvolution(pixelMatrix);
-                    output[i][j] = zNorm > 4 ? 1.0 : 0.0;
+                    output[index] = zNorm > 4 ? 1.0 : 0.0;
 
-                    // output[i][j] = zNorm;
+                    // output[index] = zNorm;
                 }
             }
+        });
+    }
+
+    private static void forEachColumn(final int width, final int height, final IntConsumer columnOperator) {
+        if ((long) width * height < MIN_PARALLEL_SIZE) {
+            for (int i = 0; i < width; i++) {
+                columnOperator.accept(i);
+            }
+            return;
         }
+        IntStream.range(0, width).parallel().forEach(columnOperator);
     }
 
     private static double quantize(final double value, final int nLevels) {
         return Math.round(value * nLevels) / (double) nLevels;
     }
 
-    private static void sobelOperator(final double[][] input, final double[][] output, final double zMin,
-            final double zMax, final double level) {
-        final int width = input.length;
-        final int height = input[0].length;
-        final double[][] gX = new double[width][height];
-        final double[][] gY = new double[width][height];
-
-        final double[][] pixelMatrix = new double[3][3];
-        for (int i = 0; i < width; i++) {
+    private static void sobelOperator(final double[] input, final double[] output, final int width,
+            final int height, final double level) {
+        // N.B. element (i, j) at [i * height + j]
+        forEachColumn(width, height, i -> {
+            final double[][] pixelMatrix = new double[3][3];
             for (int j = 0; j < height; j++) {
+                final int index = i * height + j;
                 if (i == 0 || i == width - 1 || j == 0 || j == height - 1) {
-                    gX[i][j] = gY[i][j] = output[i][j] = 0;
+                    output[index] = 0;
                 } else {
                     // Gx[i][j] = input[i + 1][j - 1] + 2 * input[i + 1][j] +
                     // input[i + 1][j + 1];
@@ -1139,35 +1133,35 @@ public class ContourDataSetRenderer extends AbstractDataSetManagement<ContourDat
                     // input[i + 1][j - 1];
 
                     // Roberts Cross
-                    gX[i][j] = -1.0 * input[i][j - 1] - 0.0 * input[i][j] + 0.0 * input[i][j + 1];
-                    gX[i][j] += 0.0 * input[i][j - 1] + 1.0 * input[i][j] + 0.0 * input[i + 1][j + 1];
+                    double gX = -1.0 * input[index - 1] - 0.0 * input[index] + 0.0 * input[index + 1];
+                    gX += 0.0 * input[index - 1] + 1.0 * input[index] + 0.0 * input[index + height + 1];
 
-                    gY[i][j] = 0.0 * input[i][j - 1] - 1.0 * input[i][j] + 0.0 * input[i][j + 1];
-                    gY[i][j] += 1.0 * input[i][j - 1] - 0.0 * input[i][j] + 0.0 * input[i + 1][j + 1];
+                    double gY = 0.0 * input[index - 1] - 1.0 * input[index] + 0.0 * input[index + 1];
+                    gY += 1.0 * input[index - 1] - 0.0 * input[index] + 0.0 * input[index + height + 1];
 
-                    double zNorm = Math.abs(gX[i][j]) + Math.abs(gY[i][j]);// -
+                    double zNorm = Math.abs(gX) + Math.abs(gY);// -
                                                                            // zMin)
                                                                            // /
                                                                            // (zMax
                                                                            // -
                                                                            // zMin);
 
-                    pixelMatrix[0][0] = input[i - 1][j - 1] > level ? 1.0 : 0.0;
-                    pixelMatrix[0][1] = input[i - 1][j] > level ? 1.0 : 0.0;
-                    pixelMatrix[0][2] = input[i - 1][j + 1] > level ? 1.0 : 0.0;
-                    pixelMatrix[1][0] = input[i][j - 1] > level ? 1.0 : 0.0;
-                    pixelMatrix[1][2] = input[i][j + 1] > level ? 1.0 : 0.0;
-                    pixelMatrix[2][0] = input[i + 1][j - 1] > level ? 1.0 : 0.0;
-                    pixelMatrix[2][1] = input[i + 1][j] > level ? 1.0 : 0.0;
-                    pixelMatrix[2][2] = input[i + 1][j + 1] > level ? 1.0 : 0.0;
+                    pixelMatrix[0][0] = input[index - height - 1] > level ? 1.0 : 0.0;
+                    pixelMatrix[0][1] = input[index - height] > level ? 1.0 : 0.0;
+                    pixelMatrix[0][2] = input[index - height + 1] > level ? 1.0 : 0.0;
+                    pixelMatrix[1][0] = input[index - 1] > level ? 1.0 : 0.0;
+                    pixelMatrix[1][2] = input[index + 1] > level ? 1.0 : 0.0;
+                    pixelMatrix[2][0] = input[index + height - 1] > level ? 1.0 : 0.0;
+                    pixelMatrix[2][1] = input[index + height] > level ? 1.0 : 0.0;
+                    pixelMatrix[2][2] = input[index + height + 1] > level ? 1.0 : 0.0;
 
                     zNorm = ContourDataSetRenderer.convolution(pixelMatrix);
-                    output[i][j] = zNorm;// > level ? 1.0 : 0.0;
+                    output[index] = zNorm;// > level ? 1.0 : 0.0;
 
-                    // output[i][j] = zNorm;
+                    // output[index] = zNorm;
                 }
             }
-        }
+        });
     }
 
     private class Cache {
@@ -2,6 +2,7 @@ package de.gsi.chart.renderer.spi;
 
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -20,12 +21,15 @@ import de.gsi.chart.marker.Marker;
 import de.gsi.chart.renderer.ErrorStyle;
 import de.gsi.chart.renderer.Renderer;
 import de.gsi.chart.renderer.spi.utils.BezierCurve;
-import de.gsi.chart.renderer.spi.utils.Cache;
+import de.gsi.chart.renderer.spi.utils.ArrayPool;
 import de.gsi.chart.renderer.spi.utils.DefaultRenderColorScheme;
 import de.gsi.chart.utils.StyleParser;
 import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSetError;
 import de.gsi.dataset.DataSetError.ErrorType;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
 import de.gsi.dataset.spi.utils.Triple;
+import de.gsi.dataset.utils.MinMaxPyramid;
 import de.gsi.dataset.utils.ProcessingProfiler;
 import javafx.collections.ObservableList;
 import javafx.geometry.Orientation;
@@ -50,18 +54,7 @@ import javafx.scene.shape.FillRule;
 public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<ErrorDataSetRenderer>
         implements Renderer {
     private static final Logger LOGGER = LoggerFactory.getLogger(ErrorDataSetRenderer.class);
-    private static final String Y_BEZIER_SECOND_CONTROL_POINT = "yBezierSecondControlPoint";
-    private static final String X_BEZIER_SECOND_CONTROL_POINT = "xBezierSecondControlPoint";
-    private static final String Y_BEZIER_FIRST_CONTROL_POINT = "yBezierFirstControlPoint";
-    private static final String X_BEZIER_FIRST_CONTROL_POINT = "xBezierFirstControlPoint";
-    private static final String Y_DRAW_POLY_LINE_STAIR_CASE = "yDrawPolyLineStairCase";
-    private static final String X_DRAW_POLY_LINE_STAIR_CASE = "xDrawPolyLineStairCase";
-    private static final String Y_DRAW_POLY_LINE_AREA = "yDrawPolyLineArea";
-    private static final String X_DRAW_POLY_LINE_AREA = "xDrawPolyLineArea";
-    private static final String Y_VALUES_SURFACE = "yValuesSurface";
-    private static final String X_VALUES_SURFACE = "xValuesSurface";
-    private static final String Y_DRAW_POLY_LINE_HISTOGRAM = "yDrawPolyLineHistogram";
-    private static final String X_DRAW_POLY_LINE_HISTOGRAM = "xDrawPolyLineHistogram";
+    private static final int MIN_PYRAMID_POINTS_PER_PIXEL = 8; // min. visible points per pixel to use the pyramid
     private Marker marker = DefaultMarker.RECTANGLE; // default: rectangle
     private long stopStamp;
 
@@ -329,8 +322,8 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
 
         final int nDataCount = localCachedPoints.actualDataCount;
         final int nPolygoneEdges = 2 * nDataCount;
-        final double[] xValuesSurface = Cache.getCachedDoubleArray(X_VALUES_SURFACE, nPolygoneEdges);
-        final double[] yValuesSurface = Cache.getCachedDoubleArray(Y_VALUES_SURFACE, nPolygoneEdges);
+        final double[] xValuesSurface = ArrayPool.DOUBLE_ARRAYS.get(nPolygoneEdges);
+        final double[] yValuesSurface = ArrayPool.DOUBLE_ARRAYS.get(nPolygoneEdges);
 
         final int xend = nPolygoneEdges - 1;
         for (int i = 0; i < nDataCount; i++) {
@@ -354,8 +347,8 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         drawMarker(gc, localCachedPoints);
         drawBubbles(gc, localCachedPoints);
 
-        Cache.release(X_VALUES_SURFACE, xValuesSurface);
-        Cache.release(Y_VALUES_SURFACE, yValuesSurface);
+        ArrayPool.DOUBLE_ARRAYS.release(xValuesSurface);
+        ArrayPool.DOUBLE_ARRAYS.release(yValuesSurface);
 
         ProcessingProfiler.getTimeDiff(start);
     }
@@ -376,8 +369,8 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
 
         final int nDataCount = localCachedPoints.actualDataCount;
         final int nPolygoneEdges = 2 * nDataCount;
-        final double[] xValuesSurface = Cache.getCachedDoubleArray(X_VALUES_SURFACE, nPolygoneEdges);
-        final double[] yValuesSurface = Cache.getCachedDoubleArray(Y_VALUES_SURFACE, nPolygoneEdges);
+        final double[] xValuesSurface = ArrayPool.DOUBLE_ARRAYS.get(nPolygoneEdges);
+        final double[] yValuesSurface = ArrayPool.DOUBLE_ARRAYS.get(nPolygoneEdges);
 
         final int xend = nPolygoneEdges - 1;
         int count = 0;
@@ -421,8 +414,8 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         drawMarker(gc, localCachedPoints);
         drawBubbles(gc, localCachedPoints);
 
-        Cache.release(X_VALUES_SURFACE, xValuesSurface);
-        Cache.release(Y_VALUES_SURFACE, yValuesSurface);
+        ArrayPool.DOUBLE_ARRAYS.release(xValuesSurface);
+        ArrayPool.DOUBLE_ARRAYS.release(yValuesSurface);
 
         ProcessingProfiler.getTimeDiff(start);
     }
@@ -624,6 +617,11 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         return this;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     @Override
     public void render(final GraphicsContext gc, final Chart chart, final int dataSetOffset,
             final ObservableList<DataSet> datasets) {
@@ -706,19 +704,30 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
                 stopStamp = ProcessingProfiler.getTimeDiff(stopStamp,
                         "get min/max" + String.format(" from:%d to:%d", indexMin, indexMax));
 
+                // large sorted data sets: use per-pixel-column summary derived from the min/max pyramid
+                final boolean isPolarPlot = ((XYChart) chart).isPolarPlot();
+                final DataSet renderDataSet = isMinMaxPyramidApplicable(dataSet, xAxis, indexMin, indexMax, isPolarPlot)
+                                                      ? reduceToPixelColumns(dataSet, xAxis, indexMin, indexMax)
+                                                      : dataSet;
+                if (renderDataSet != dataSet) {
+                    indexMin = 0;
+                    indexMax = renderDataSet.getDataCount(DataSet.DIM_X);
+                    stopStamp = ProcessingProfiler.getTimeDiff(stopStamp, "min/max pyramid reduction");
+                }
+
                 final CachedDataPoints localCachedPoints = new CachedDataPoints(indexMin, indexMax,
-                        dataSet.getDataCount(DataSet.DIM_X), true);
+                        renderDataSet.getDataCount(DataSet.DIM_X), true);
                 stopStamp = ProcessingProfiler.getTimeDiff(stopStamp, "get CachedPoints");
 
                 // compute local screen coordinates
-                final boolean isPolarPlot = ((XYChart) chart).isPolarPlot();
                 if (isParallelImplementation()) {
-                    localCachedPoints.computeScreenCoordinatesInParallel(xAxis, yAxis, dataSet,
+                    localCachedPoints.computeScreenCoordinatesInParallel(xAxis, yAxis, renderDataSet,
                             dataSetOffset + ldataSetIndex, indexMin, indexMax, getErrorType(), isPolarPlot,
                             isallowNaNs());
                 } else {
-                    localCachedPoints.computeScreenCoordinates(xAxis, yAxis, dataSet, dataSetOffset + ldataSetIndex,
-                            indexMin, indexMax, getErrorType(), isPolarPlot, isallowNaNs());
+                    localCachedPoints.computeScreenCoordinates(xAxis, yAxis, renderDataSet,
+                            dataSetOffset + ldataSetIndex, indexMin, indexMax, getErrorType(), isPolarPlot,
+                            isallowNaNs());
                 }
                 stopStamp = ProcessingProfiler.getTimeDiff(stopStamp, "computeScreenCoordinates()");
                 return Optional.of(localCachedPoints);
@@ -743,6 +752,102 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
 
     }
 
+    private boolean isMinMaxPyramidApplicable(final DataSet dataSet, final Axis xAxis, final int indexMin,
+            final int indexMax, final boolean isPolarPlot) {
+        if (!isMinMaxPyramid() || !isActualReducePoints() || isPolarPlot || xAxis.isInvertedAxis()
+                || indexMax - indexMin <= MIN_PYRAMID_POINTS_PER_PIXEL * xAxis.getWidth()) {
+            return false;
+        }
+        // N.B. requires the change log to keep the pyramid consistent (ie. no x-errors that would need to be preserved)
+        return dataSet instanceof DoubleErrorDataSet;
+    }
+
+    /**
+     * Reduces the given (sorted) index range to the first, minimum, maximum and last point of each horizontal pixel
+     * column ('M4' reduction) using the min/max pyramid attached to the data set, i.e. in O(pixels &middot; log n)
+     * independent of the number of data points. N.B. needs to be called while holding the data set's read-lock.
+     *
+     * @param dataSet source data set (sorted in x)
+     * @param xAxis horizontal axis defining the pixel columns
+     * @param indexMin first index (inclusive)
+     * @param indexMax last index (exclusive)
+     * @return reduced data set including y-errors, data point styles and the data set style
+     */
+    protected static DataSet reduceToPixelColumns(final DataSet dataSet, final Axis xAxis, final int indexMin,
+            final int indexMax) {
+        final MinMaxPyramid pyramid = MinMaxPyramid.attach(dataSet);
+        pyramid.update(dataSet);
+
+        final int nColumns = Math.max(1, (int) Math.ceil(xAxis.getWidth()));
+        int[] indices = new int[4 * nColumns];
+        final int[] candidates = new int[4];
+        final int[] minMax = new int[2];
+        int nIndices = 0;
+        int from = indexMin;
+        for (int column = 1; column <= nColumns && from < indexMax; column++) {
+            final int to = column == nColumns ? indexMax
+                                              : lowerBound(dataSet, xAxis.getValueForDisplay(column), from, indexMax);
+            if (to <= from) {
+                continue;
+            }
+            pyramid.getMinMaxIndices(dataSet, from, to, minMax);
+            candidates[0] = from;
+            candidates[1] = minMax[0];
+            candidates[2] = minMax[1];
+            candidates[3] = to - 1;
+            Arrays.sort(candidates);
+            if (nIndices + candidates.length > indices.length) {
+                indices = Arrays.copyOf(indices, 2 * indices.length);
+            }
+            for (final int index : candidates) {
+                if (index >= 0 && (nIndices == 0 || index != indices[nIndices - 1])) {
+                    indices[nIndices++] = index;
+                }
+            }
+            from = to;
+        }
+
+        final DataSetError errorDataSet = dataSet instanceof DataSetError ? (DataSetError) dataSet : null;
+        final double[] xValues = new double[nIndices];
+        final double[] yValues = new double[nIndices];
+        final double[] yErrorsNeg = new double[nIndices];
+        final double[] yErrorsPos = new double[nIndices];
+        for (int i = 0; i < nIndices; i++) {
+            final int index = indices[i];
+            xValues[i] = dataSet.get(DataSet.DIM_X, index);
+            yValues[i] = dataSet.get(DataSet.DIM_Y, index);
+            if (errorDataSet != null) {
+                yErrorsNeg[i] = errorDataSet.getErrorNegative(DataSet.DIM_Y, index);
+                yErrorsPos[i] = errorDataSet.getErrorPositive(DataSet.DIM_Y, index);
+            }
+        }
+        final DoubleErrorDataSet reduced = new DoubleErrorDataSet(dataSet.getName(), xValues, yValues, yErrorsNeg,
+                yErrorsPos, nIndices, false);
+        reduced.setStyle(dataSet.getStyle());
+        for (int i = 0; i < nIndices; i++) {
+            final String style = dataSet.getStyle(indices[i]);
+            if (style != null) {
+                reduced.addDataStyle(i, style);
+            }
+        }
+        return reduced;
+    }
+
+    private static int lowerBound(final DataSet dataSet, final double xValue, final int fromIndex, final int toIndex) {
+        // first index within [fromIndex, toIndex) with x >= xValue
+        int low = fromIndex;
+        int high = toIndex;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (dataSet.get(DataSet.DIM_X, mid) < xValue) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
     /**
      * Replaces marker used by this renderer.
      *
@@ -766,8 +871,8 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         }
 
         // need to allocate new array :-(
-        final double[] newX = Cache.getCachedDoubleArray(X_DRAW_POLY_LINE_AREA, n + 2);
-        final double[] newY = Cache.getCachedDoubleArray(Y_DRAW_POLY_LINE_AREA, n + 2);
+        final double[] newX = ArrayPool.DOUBLE_ARRAYS.get(n + 2);
+        final double[] newY = ArrayPool.DOUBLE_ARRAYS.get(n + 2);
 
         final double zero = localCachedPoints.yZero;
         System.arraycopy(localCachedPoints.xValues, 0, newX, 0, n);
@@ -786,9 +891,9 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         gc.fillPolygon(newX, newY, n + 2);
         gc.restore();
 
-        // release arrays to cache
-        Cache.release(X_DRAW_POLY_LINE_AREA, newX);
-        Cache.release(Y_DRAW_POLY_LINE_AREA, newY);
+        // release arrays to pool
+        ArrayPool.DOUBLE_ARRAYS.release(newX);
+        ArrayPool.DOUBLE_ARRAYS.release(newY);
     }
 
     protected static void drawPolyLineHistogram(final GraphicsContext gc, final CachedDataPoints localCachedPoints) {
@@ -798,8 +903,8 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         }
 
         // need to allocate new array :-(
-        final double[] newX = Cache.getCachedDoubleArray(X_DRAW_POLY_LINE_HISTOGRAM, 2 * (n + 1));
-        final double[] newY = Cache.getCachedDoubleArray(Y_DRAW_POLY_LINE_HISTOGRAM, 2 * (n + 1));
+        final double[] newX = ArrayPool.DOUBLE_ARRAYS.get(2 * (n + 1));
+        final double[] newY = ArrayPool.DOUBLE_ARRAYS.get(2 * (n + 1));
 
         final double xRange = localCachedPoints.xMax - localCachedPoints.xMin;
         double diffLeft;
@@ -837,9 +942,9 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
 
         gc.restore();
 
-        // release arrays to cache
-        Cache.release(X_DRAW_POLY_LINE_HISTOGRAM, newX);
-        Cache.release(Y_DRAW_POLY_LINE_HISTOGRAM, newY);
+        // release arrays to pool
+        ArrayPool.DOUBLE_ARRAYS.release(newX);
+        ArrayPool.DOUBLE_ARRAYS.release(newY);
     }
 
     protected static void drawPolyLineHistogramBezier(final GraphicsContext gc,
@@ -851,10 +956,10 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         }
 
         // need to allocate new array :-(
-        final double[] xCp1 = Cache.getCachedDoubleArray(X_BEZIER_FIRST_CONTROL_POINT, n);
-        final double[] yCp1 = Cache.getCachedDoubleArray(Y_BEZIER_FIRST_CONTROL_POINT, n);
-        final double[] xCp2 = Cache.getCachedDoubleArray(X_BEZIER_SECOND_CONTROL_POINT, n);
-        final double[] yCp2 = Cache.getCachedDoubleArray(Y_BEZIER_SECOND_CONTROL_POINT, n);
+        final double[] xCp1 = ArrayPool.DOUBLE_ARRAYS.get(n);
+        final double[] yCp1 = ArrayPool.DOUBLE_ARRAYS.get(n);
+        final double[] xCp2 = ArrayPool.DOUBLE_ARRAYS.get(n);
+        final double[] yCp2 = ArrayPool.DOUBLE_ARRAYS.get(n);
 
         BezierCurve.calcCurveControlPoints(localCachedPoints.xValues, localCachedPoints.yValues, xCp1, yCp1, xCp2, yCp2,
                 localCachedPoints.actualDataCount);
@@ -887,11 +992,11 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         gc.stroke();
         gc.restore();
 
-        // release arrays to Cache
-        Cache.release(X_BEZIER_FIRST_CONTROL_POINT, xCp1);
-        Cache.release(Y_BEZIER_FIRST_CONTROL_POINT, yCp1);
-        Cache.release(X_BEZIER_SECOND_CONTROL_POINT, xCp2);
-        Cache.release(Y_BEZIER_SECOND_CONTROL_POINT, yCp2);
+        // release arrays to pool
+        ArrayPool.DOUBLE_ARRAYS.release(xCp1);
+        ArrayPool.DOUBLE_ARRAYS.release(yCp1);
+        ArrayPool.DOUBLE_ARRAYS.release(xCp2);
+        ArrayPool.DOUBLE_ARRAYS.release(yCp2);
     }
 
     protected static void drawPolyLineHistogramFilled(final GraphicsContext gc,
@@ -902,8 +1007,8 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         }
 
         // need to allocate new array :-(
-        final double[] newX = Cache.getCachedDoubleArray(X_DRAW_POLY_LINE_HISTOGRAM, 2 * (n + 1));
-        final double[] newY = Cache.getCachedDoubleArray(Y_DRAW_POLY_LINE_HISTOGRAM, 2 * (n + 1));
+        final double[] newX = ArrayPool.DOUBLE_ARRAYS.get(2 * (n + 1));
+        final double[] newY = ArrayPool.DOUBLE_ARRAYS.get(2 * (n + 1));
 
         final double xRange = localCachedPoints.xMax - localCachedPoints.xMin;
         double diffLeft;
@@ -935,9 +1040,9 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         gc.fillPolygon(newX, newY, 2 * (n + 1));
         gc.restore();
 
-        // release arrays to cache
-        Cache.release(X_DRAW_POLY_LINE_HISTOGRAM, newX);
-        Cache.release(Y_DRAW_POLY_LINE_HISTOGRAM, newY);
+        // release arrays to pool
+        ArrayPool.DOUBLE_ARRAYS.release(newX);
+        ArrayPool.DOUBLE_ARRAYS.release(newY);
     }
 
     protected static void drawPolyLineLine(final GraphicsContext gc, final CachedDataPoints localCachedPoints) {
@@ -998,8 +1103,8 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         }
 
         // need to allocate new array :-(
-        final double[] newX = Cache.getCachedDoubleArray(X_DRAW_POLY_LINE_STAIR_CASE, 2 * n);
-        final double[] newY = Cache.getCachedDoubleArray(Y_DRAW_POLY_LINE_STAIR_CASE, 2 * n);
+        final double[] newX = ArrayPool.DOUBLE_ARRAYS.get(2 * n);
+        final double[] newY = ArrayPool.DOUBLE_ARRAYS.get(2 * n);
 
         for (int i = 0; i < n - 1; i++) {
             newX[2 * i] = localCachedPoints.xValues[i];
@@ -1029,8 +1134,8 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
 
         gc.restore();
 
-        // release arrays to cache
-        Cache.release(X_DRAW_POLY_LINE_STAIR_CASE, newX);
-        Cache.release(Y_DRAW_POLY_LINE_STAIR_CASE, newY);
+        // release arrays to pool
+        ArrayPool.DOUBLE_ARRAYS.release(newX);
+        ArrayPool.DOUBLE_ARRAYS.release(newY);
     }
 }
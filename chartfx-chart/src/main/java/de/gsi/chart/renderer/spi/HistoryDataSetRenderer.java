@@ -19,13 +19,26 @@ import de.gsi.chart.utils.StyleParser;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.EditableDataSet;
 import de.gsi.dataset.utils.ProcessingProfiler;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
 
 /**
  * Renders the data set with the pre-described
+ * <p>
+ * By default, each history level is kept as a deep copy of the data sets and re-rendered from vector data every
+ * frame. In the bitmap history mode (see {@link #bitmapHistoryProperty()}) each historic frame is instead rasterised
+ * once on {@link #shiftHistory()} into a (re-used) bitmap layer and the layers are composited with fading alpha,
+ * i.e. N history levels cost N image blits rather than N full renders and N data set copies. Layers follow zooming
+ * and panning by re-mapping the axis range captured with the layer onto the current axis range.
  *
  * @author R.J. Steinhagen
  */
@@ -37,6 +50,14 @@ public class HistoryDataSetRenderer extends ErrorDataSetRenderer implements Rend
     protected final ObservableList<DataSet> chartDataSetsCopy = FXCollections.observableArrayList();
     protected final ObservableList<ErrorDataSetRenderer> renderers = FXCollections.observableArrayList();
     protected boolean itself = false;
+    private final int historyDepth;
+    private final BooleanProperty bitmapHistory = new SimpleBooleanProperty(this, "bitmapHistory", false);
+    private final HistoryLayer[] historyLayers;
+    private int historyLayerHead;
+    private int historyLayerCount;
+    private Canvas layerCanvas;
+    private Chart lastChart;
+    private int lastDataSetOffset;
 
     public HistoryDataSetRenderer() {
         this(HistoryDataSetRenderer.DEFAULT_HISTORY_DEPTH);
@@ -50,16 +71,15 @@ public class HistoryDataSetRenderer extends ErrorDataSetRenderer implements Rend
                     String.format("historyDepth=='%d' should be larger than '0'", historyDepth));
         }
 
+        this.historyDepth = historyDepth;
+        historyLayers = new HistoryLayer[historyDepth];
         for (int i = 0; i < historyDepth; i++) {
-            final ErrorDataSetRenderer newRenderer = new ErrorDataSetRenderer();
-            newRenderer.bind(this);
-            // do not show history sets in legend (single exception to binding)
-            newRenderer.showInLegendProperty().unbind();
-            newRenderer.setShowInLegend(false);
-            renderers.add(newRenderer);
+            historyLayers[i] = new HistoryLayer();
         }
+        // N.B. the data set copy renderer chain is built lazily, i.e. only if the default history mode is used
 
         getAxes().addListener(HistoryDataSetRenderer.this::axisChanged);
+        bitmapHistory.addListener((ch, o, n) -> clearHistory());
 
         // special data set handling to re-add local datasets from dependent
         // renderers
@@ -103,10 +123,52 @@ public class HistoryDataSetRenderer extends ErrorDataSetRenderer implements Rend
         }
     }
 
+    /**
+     * @return property controlling whether history levels are persisted as bitmap layers (true) or as data set copies
+     *         that are re-rendered every frame (false, default). N.B. changing the mode clears the history
+     */
+    public BooleanProperty bitmapHistoryProperty() {
+        return bitmapHistory;
+    }
+
+    /**
+     * advances the bitmap layer ring: the oldest layer is recycled as the newest one
+     *
+     * @return array index of the newest layer
+     */
+    int advanceHistoryLayer() {
+        synchronized (historyLayers) {
+            historyLayerHead = (historyLayerHead + 1) % historyLayers.length;
+            historyLayerCount = Math.min(historyLayerCount + 1, historyLayers.length);
+            return historyLayerHead;
+        }
+    }
+
+    /**
+     * builds the chain of history renderers used by the default (data set copy) mode if not already present
+     */
+    protected void buildRendererChain() {
+        if (!renderers.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < historyDepth; i++) {
+            final ErrorDataSetRenderer newRenderer = new ErrorDataSetRenderer();
+            newRenderer.bind(this);
+            // do not show history sets in legend (single exception to binding)
+            newRenderer.showInLegendProperty().unbind();
+            newRenderer.setShowInLegend(false);
+            newRenderer.getAxes().addAll(getAxes());
+            renderers.add(newRenderer);
+        }
+    }
+
     /**
      * clear renderer history
      */
     public void clearHistory() {
+        synchronized (historyLayers) {
+            historyLayerCount = 0;
+        }
         for (final Renderer renderer : renderers) {
             try {
                 FXUtils.runAndWait(() -> {
@@ -119,6 +181,126 @@ public class HistoryDataSetRenderer extends ErrorDataSetRenderer implements Rend
         }
     }
 
+    /**
+     * @param level history level (0: most recent)
+     * @return opacity of the given history level
+     */
+    double getHistoryAlpha(final int level) {
+        return Math.pow(getIntensityFading(), level + 2.0);
+    }
+
+    /**
+     * @return number of valid bitmap history layers
+     */
+    int getHistoryLayerCount() {
+        synchronized (historyLayers) {
+            return historyLayerCount;
+        }
+    }
+
+    /**
+     * @param level history level (0: most recent)
+     * @return array index of the bitmap layer holding the given history level
+     */
+    int getHistoryLayerIndex(final int level) {
+        synchronized (historyLayers) {
+            return (historyLayerHead - level + historyLayers.length) % historyLayers.length;
+        }
+    }
+
+    /**
+     * @return {@code true} if history levels are persisted as bitmap layers
+     */
+    public boolean isBitmapHistory() {
+        return bitmapHistory.get();
+    }
+
+    /**
+     * @return {@code false}: the rendered history depends on the renderer's internal state
+     */
+    @Override
+    public boolean isCacheable() {
+        return false;
+    }
+
+    /**
+     * @param state {@code true}: persist history levels as bitmap layers, {@code false}: as data set copies
+     */
+    public void setBitmapHistory(final boolean state) {
+        bitmapHistory.set(state);
+    }
+
+    /**
+     * rasterises the current (non-history) data sets into the oldest bitmap layer which becomes the newest history
+     * level. N.B. needs to be called from within the FX application thread
+     *
+     * @param chart chart the layer is rendered for
+     * @param dataSetOffset data set index offset
+     */
+    protected void captureHistoryLayer(final Chart chart, final int dataSetOffset) {
+        final Axis xAxis = getFirstAxis(Orientation.HORIZONTAL);
+        final Axis yAxis = getFirstAxis(Orientation.VERTICAL);
+        final int width = (int) Math.ceil(chart.getCanvas().getWidth());
+        final int height = (int) Math.ceil(chart.getCanvas().getHeight());
+        if (xAxis == null || yAxis == null || width <= 0 || height <= 0) {
+            return;
+        }
+
+        if (layerCanvas == null) {
+            layerCanvas = new Canvas(width, height);
+        } else {
+            layerCanvas.setWidth(width);
+            layerCanvas.setHeight(height);
+        }
+        final GraphicsContext layerGc = layerCanvas.getGraphicsContext2D();
+        layerGc.clearRect(0, 0, width, height);
+        super.render(layerGc, chart, dataSetOffset, emptyList);
+
+        final SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        synchronized (historyLayers) {
+            final HistoryLayer layer = historyLayers[advanceHistoryLayer()];
+            final boolean reuse = layer.image != null && (int) layer.image.getWidth() == width
+                                  && (int) layer.image.getHeight() == height;
+            layer.image = layerCanvas.snapshot(parameters, reuse ? layer.image : null);
+            layer.xMin = xAxis.getValueForDisplay(0);
+            layer.xMax = xAxis.getValueForDisplay(width);
+            layer.yMin = yAxis.getValueForDisplay(height);
+            layer.yMax = yAxis.getValueForDisplay(0);
+        }
+    }
+
+    /**
+     * composites the bitmap history layers (oldest first) with fading alpha onto the given graphics context
+     *
+     * @param gc graphics context to draw onto
+     */
+    protected void drawHistoryLayers(final GraphicsContext gc) {
+        final Axis xAxis = getFirstAxis(Orientation.HORIZONTAL);
+        final Axis yAxis = getFirstAxis(Orientation.VERTICAL);
+        if (xAxis == null || yAxis == null) {
+            return;
+        }
+        gc.save();
+        synchronized (historyLayers) {
+            for (int index = historyLayerCount - 1; index >= 0; index--) {
+                final HistoryLayer layer = historyLayers[getHistoryLayerIndex(index)];
+                // N.B. valid for linear and logarithmic axes: both map to display coordinates via an affine transform
+                final double x0 = xAxis.getDisplayPosition(layer.xMin);
+                final double x1 = xAxis.getDisplayPosition(layer.xMax);
+                final double y0 = yAxis.getDisplayPosition(layer.yMax);
+                final double y1 = yAxis.getDisplayPosition(layer.yMin);
+                if (!Double.isFinite(x0 + x1 + y0 + y1) || x1 <= x0 || y1 <= y0) {
+                    // range not representable (e.g. inverted axis) -> skip layer
+                    continue;
+                }
+                gc.setGlobalAlpha(getHistoryAlpha(index));
+                gc.drawImage(layer.image, x0, y0, x1 - x0, y1 - y0);
+            }
+        }
+        gc.restore();
+    }
+
     /**
      * @return all DataSets that are either from the calling graph or this first specific renderer
      */
@@ -177,11 +359,18 @@ public class HistoryDataSetRenderer extends ErrorDataSetRenderer implements Rend
             dsIndex++;
         }
 
-        // render in reverse order
-        final int nRenderer = renderers.size();
-        for (int index = nRenderer - 1; index >= 0; index--) {
-            final ErrorDataSetRenderer renderer = renderers.get(index);
-            renderer.render(gc, chart, dataSetOffset, emptyList);
+        lastChart = chart;
+        lastDataSetOffset = dataSetOffset;
+        if (isBitmapHistory()) {
+            drawHistoryLayers(gc);
+        } else {
+            buildRendererChain();
+            // render in reverse order
+            final int nRenderer = renderers.size();
+            for (int index = nRenderer - 1; index >= 0; index--) {
+                final ErrorDataSetRenderer renderer = renderers.get(index);
+                renderer.render(gc, chart, dataSetOffset, emptyList);
+            }
         }
 
         super.render(gc, chart, dataSetOffset, emptyList);
@@ -190,11 +379,35 @@ public class HistoryDataSetRenderer extends ErrorDataSetRenderer implements Rend
     }
 
     public void shiftHistory() {
-        final int nRenderer = renderers.size();
-        if (nRenderer <= 0) {
+        if (historyDepth <= 0) {
             return;
         }
 
+        if (isBitmapHistory()) {
+            final Chart chart = lastChart;
+            if (chart == null) {
+                // nothing rendered yet -> nothing to persist
+                return;
+            }
+            try {
+                FXUtils.runAndWait(() -> captureHistoryLayer(chart, lastDataSetOffset));
+            } catch (InterruptedException | ExecutionException e) {
+                HistoryDataSetRenderer.LOGGER.error("capture history layer", e);
+            }
+            chart.requestPulseUpdate();
+            return;
+        }
+
+        if (renderers.isEmpty()) {
+            try {
+                FXUtils.runAndWait(this::buildRendererChain);
+            } catch (InterruptedException | ExecutionException e) {
+                HistoryDataSetRenderer.LOGGER.error("build renderer chain", e);
+                return;
+            }
+        }
+        final int nRenderer = renderers.size();
+
         final ObservableList<DataSet> oldDataSetsToRemove = renderers.get(nRenderer - 1).getDatasets();
         if (!oldDataSetsToRemove.isEmpty()) {
             try {
@@ -215,7 +428,7 @@ public class HistoryDataSetRenderer extends ErrorDataSetRenderer implements Rend
 
             final ObservableList<DataSet> copyList = isFirstRenderer ? copyDataSet : previousRenderer.getDatasets();
 
-            final int fading = (int) (Math.pow(getIntensityFading(), index + 2.0) * 100);
+            final int fading = (int) (getHistoryAlpha(index) * 100);
             for (final DataSet ds : copyList) {
                 if (ds instanceof EditableDataSet) {
                     ((EditableDataSet) ds).setName(ds.getName().split("_")[0] + "History_{-" + index + "}");
@@ -258,4 +471,12 @@ public class HistoryDataSetRenderer extends ErrorDataSetRenderer implements Rend
         return StyleParser.mapToString(map);
     }
 
+    private static class HistoryLayer {
+        private WritableImage image;
+        // axis range covered by the image
+        private double xMin;
+        private double xMax;
+        private double yMin;
+        private double yMax;
+    }
 }
@@ -36,6 +36,11 @@ public class LineRenderer extends AbstractDataSetManagement<LineRenderer> implem
         return this;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     @Override
     public void render(final GraphicsContext gc, final Chart chart, final int dataSetOffset,
             final ObservableList<DataSet> datasets) {
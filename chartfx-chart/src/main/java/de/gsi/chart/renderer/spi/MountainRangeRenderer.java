@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import de.gsi.chart.Chart;
@@ -97,6 +98,14 @@ public class MountainRangeRenderer extends ErrorDataSetRenderer implements Rende
         return mountainRangeOffset;
     }
 
+    /**
+     * @return {@code false}: rendering modifies the y-axis range
+     */
+    @Override
+    public boolean isCacheable() {
+        return false;
+    }
+
     @Override
     public void render(final GraphicsContext gc, final Chart chart, final int dataSetOffset,
             final ObservableList<DataSet> datasets) {
@@ -182,7 +191,7 @@ public class MountainRangeRenderer extends ErrorDataSetRenderer implements Rende
         private final int yIndex;
         private final int yMax;
         private double yShift;
-        private final transient List<EventListener> updateListener = new ArrayList<>();
+        private final transient List<EventListener> updateListener = new CopyOnWriteArrayList<>();
         private final transient List<AxisDescription> axesDescriptions = new ArrayList<>(Arrays.asList( //
                 new DefaultAxisDescription(Demux3dTo2dDataSet.this, "x-Axis", "a.u."), //
                 new DefaultAxisDescription(Demux3dTo2dDataSet.this, "y-Axis", "a.u.")));
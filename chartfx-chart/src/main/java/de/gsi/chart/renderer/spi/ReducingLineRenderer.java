@@ -58,6 +58,11 @@ public class ReducingLineRenderer extends AbstractDataSetManagement<ReducingLine
         return this;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     @Override
     public void render(final GraphicsContext gc, final Chart chart, final int dataSetOffset,
             final ObservableList<DataSet> datasets) {
@@ -1,15 +1,24 @@
 package de.gsi.chart.renderer.spi.marchingsquares;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import javafx.scene.canvas.GraphicsContext;
 
 /**
+ * Isoline path stored as primitive (type, x, y) arrays
+ *
  * @author rstein
  */
 public class GeneralPath /* extends Path2D */ {
-    private final List<Segment> drawList = new ArrayList<>();
+    private static final int INITIAL_CAPACITY = 64;
+    private static final byte GC_LINETO = 0;
+    private static final byte GC_MOVETO = 1;
+    private static final byte GC_BEGINPATH = 2;
+    private static final byte GC_CLOSEPATH = 3;
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private float[] xValues = new float[INITIAL_CAPACITY];
+    private float[] yValues = new float[INITIAL_CAPACITY];
+    private int size;
 
     GeneralPath() {
         // super(Path2D.WIND_EVEN_ODD);
@@ -17,23 +26,23 @@ public class GeneralPath /* extends Path2D */ {
     }
 
     public final void beginPath() {
-        drawList.add(new Segment(PathType.GC_BEGINPATH, 0, 0));
+        add(GC_BEGINPATH, 0, 0);
     }
 
     public void closePath() {
-        drawList.add(new Segment(PathType.GC_CLOSEPATH, 0, 0));
+        add(GC_CLOSEPATH, 0, 0);
     }
 
     public int draw(final GraphicsContext gc) {
         int count = 0;
-        for (final Segment segment : drawList) {
-            switch (segment.type) {
+        for (int i = 0; i < size; i++) {
+            switch (types[i]) {
             case GC_LINETO:
-                gc.lineTo(segment.x, segment.y);
+                gc.lineTo(xValues[i], yValues[i]);
                 count++;
                 break;
             case GC_MOVETO:
-                gc.moveTo(segment.x, segment.y);
+                gc.moveTo(xValues[i], yValues[i]);
                 count++;
                 break;
             case GC_BEGINPATH:
@@ -50,31 +59,76 @@ public class GeneralPath /* extends Path2D */ {
         return count;
     }
 
+    /**
+     * @param index segment index
+     * @return horizontal coordinate of the given segment (N.B. zero for 'beginPath' and 'closePath' segments)
+     */
+    public float getX(final int index) {
+        return xValues[index];
+    }
+
+    /**
+     * @param index segment index
+     * @return vertical coordinate of the given segment (N.B. zero for 'beginPath' and 'closePath' segments)
+     */
+    public float getY(final int index) {
+        return yValues[index];
+    }
+
+    /**
+     * @param index segment index
+     * @return {@code true} if the given segment is a 'lineTo' or 'moveTo' segment
+     */
+    public boolean isPoint(final int index) {
+        return types[index] == GC_LINETO || types[index] == GC_MOVETO;
+    }
+
     public void lineTo(final float x, final float y) {
-        drawList.add(new Segment(PathType.GC_LINETO, x, y));
+        add(GC_LINETO, x, y);
     }
 
     public void moveTo(final float x, final float y) {
-        drawList.add(new Segment(PathType.GC_MOVETO, x, y));
+        add(GC_MOVETO, x, y);
     }
 
     public int size() {
-        return drawList.size();
+        return size;
     }
 
-    enum PathType {
-        GC_LINETO, GC_MOVETO, GC_BEGINPATH, GC_CLOSEPATH
+    /**
+     * shrinks the internal arrays to the actual path size
+     */
+    public void trimToSize() {
+        types = Arrays.copyOf(types, size);
+        xValues = Arrays.copyOf(xValues, size);
+        yValues = Arrays.copyOf(yValues, size);
     }
 
-    private class Segment {
-        public double x;
-        public double y;
-        public PathType type;
+    /**
+     * shifts all path coordinates by the given offsets
+     *
+     * @param dx horizontal offset
+     * @param dy vertical offset
+     */
+    protected void translate(final float dx, final float dy) {
+        for (int i = 0; i < size; i++) {
+            if (isPoint(i)) {
+                xValues[i] += dx;
+                yValues[i] += dy;
+            }
+        }
+    }
 
-        Segment(final PathType type, final double x, final double y) {
-            this.type = type;
-            this.x = x;
-            this.y = y;
+    private void add(final byte type, final float x, final float y) {
+        if (size == types.length) {
+            final int newCapacity = Math.max(INITIAL_CAPACITY, 2 * size);
+            types = Arrays.copyOf(types, newCapacity);
+            xValues = Arrays.copyOf(xValues, newCapacity);
+            yValues = Arrays.copyOf(yValues, newCapacity);
         }
+        types[size] = type;
+        xValues[size] = x;
+        yValues[size] = y;
+        size++;
     }
 }
@@ -0,0 +1,207 @@
+package de.gsi.chart.renderer.spi.marchingsquares;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import de.gsi.chart.axes.AxisTransform;
+import de.gsi.dataset.DataSet3D;
+import de.gsi.dataset.event.EventListener;
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.ProcessingProfiler;
+
+/**
+ * Least-recently-used cache of {@link MarchingSquares} isolines keyed by (data set version, z-axis transform, levels,
+ * index sub-range) so that repeated renders of an unchanged data set, or returning to a previously contoured range
+ * (e.g. zoom history), re-use the computed paths instead of recomputing the grid.
+ * <p>
+ * The cache follows a single data set at a time: its version is incremented on every data set update notification
+ * (which implicitly invalidates all entries) and the cache is cleared whenever a different data set is requested.
+ * <p>
+ * The returned isolines are given in index coordinates relative to the sub-range origin, i.e. {@code (0, 0)}
+ * corresponds to the data point {@code (xMin, yMin)}.
+ *
+ * @author rstein
+ */
+public class IsolineCache {
+    private final int capacity;
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final EventListener dataSetListener = evt -> invalidate();
+    private final Map<Key, GeneralPath[]> cache;
+    private DataSet3D dataSet;
+
+    /**
+     * @param capacity maximum number of retained isoline sets
+     */
+    public IsolineCache(final int capacity) {
+        AssertUtils.gtThanZero("capacity", capacity);
+        this.capacity = capacity;
+        cache = new LinkedHashMap<>(capacity, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, GeneralPath[]> eldest) {
+                return size() > IsolineCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * drops all cached isolines and detaches from the followed data set
+     */
+    public synchronized void clear() {
+        cache.clear();
+        if (dataSet != null) {
+            dataSet.removeListener(dataSetListener);
+            dataSet = null;
+        }
+    }
+
+    /**
+     * @return maximum number of retained isoline sets
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return number of requests served from the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the (possibly cached) isolines of the given data set sub-range.
+     *
+     * @param dataSet source data set
+     * @param axisTransform z-axis transform applied to the data prior to contouring
+     * @param levels isoline levels (in transformed coordinates)
+     * @param xMin minimum x index (inclusive)
+     * @param xMax maximum x index (exclusive)
+     * @param yMin minimum y index (inclusive)
+     * @param yMax maximum y index (exclusive)
+     * @return isolines (one per level, N.B. must not be modified) in index coordinates relative to (xMin, yMin)
+     * @throws InterruptedException see {@link MarchingSquares#buildContours(double[][], double[])}
+     * @throws ExecutionException see {@link MarchingSquares#buildContours(double[][], double[])}
+     */
+    public GeneralPath[] getIsolines(final DataSet3D dataSet, final AxisTransform axisTransform, final double[] levels,
+            final int xMin, final int xMax, final int yMin, final int yMax)
+            throws InterruptedException, ExecutionException {
+        AssertUtils.notNull("dataSet", dataSet);
+        AssertUtils.notNull("axisTransform", axisTransform);
+        AssertUtils.notNull("levels", levels);
+        AssertUtils.indexOrder(xMin, "xMin", xMax, "xMax");
+        AssertUtils.indexOrder(yMin, "yMin", yMax, "yMax");
+        final long start = ProcessingProfiler.getTimeStamp();
+        final Key key;
+        synchronized (this) {
+            follow(dataSet);
+            key = new Key(dataVersion.get(), axisTransform, levels, xMin, xMax, yMin, yMax);
+            final GeneralPath[] cached = cache.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+
+        final int nX = xMax - xMin;
+        final double[][] data = new double[yMax - yMin][nX];
+        dataSet.lock().readLockGuard(() -> IntStream.range(0, data.length).parallel().forEach(row -> {
+            final double[] rowData = data[row];
+            for (int x = 0; x < nX; x++) {
+                rowData[x] = axisTransform.forward(dataSet.getZ(xMin + x, yMin + row));
+            }
+        }));
+        final GeneralPath[] isolines = new MarchingSquares().buildContours(data, levels);
+
+        synchronized (this) {
+            // N.B. do not retain isolines of data that has been updated in the meantime
+            if (this.dataSet == dataSet && key.version == dataVersion.get()) { // NOPMD - identity check intended
+                cache.put(key, isolines);
+            }
+        }
+        ProcessingProfiler.getTimeDiff(start, "computed isolines");
+        return isolines;
+    }
+
+    /**
+     * @return number of requests that required a (re-)computation
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of currently retained isoline sets
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    private void follow(final DataSet3D newDataSet) {
+        if (dataSet == newDataSet) { // NOPMD - identity check intended
+            return;
+        }
+        clear();
+        dataSet = newDataSet;
+        dataSet.addListener(dataSetListener);
+        dataVersion.incrementAndGet();
+    }
+
+    private synchronized void invalidate() {
+        dataVersion.incrementAndGet();
+        cache.clear();
+    }
+
+    private static class Key {
+        private final long version;
+        private final AxisTransform axisTransform;
+        private final double[] levels;
+        private final int xMin;
+        private final int xMax;
+        private final int yMin;
+        private final int yMax;
+        private final int hashCode;
+
+        protected Key(final long version, final AxisTransform axisTransform, final double[] levels, final int xMin,
+                final int xMax, final int yMin, final int yMax) {
+            this.version = version;
+            this.axisTransform = axisTransform;
+            this.levels = levels.clone();
+            this.xMin = xMin;
+            this.xMax = xMax;
+            this.yMin = yMin;
+            this.yMax = yMax;
+            hashCode = Objects.hash(version, System.identityHashCode(axisTransform), Arrays.hashCode(this.levels),
+                    xMin, xMax, yMin, yMax);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return version == other.version && axisTransform == other.axisTransform // NOPMD - identity intended
+                    && xMin == other.xMin && xMax == other.xMax && yMin == other.yMin && yMax == other.yMax
+                    && Arrays.equals(levels, other.levels);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -1,24 +1,24 @@
 package de.gsi.chart.renderer.spi.marchingsquares;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
-import de.gsi.dataset.utils.CachedDaemonThreadFactory;
 import de.gsi.dataset.utils.ProcessingProfiler;
 
 /**
  * <p>
  * Implementation of the Marching Squares algorithm described in: {@code https://en.wikipedia.org/wiki/Marching_squares}
  * </p>
+ * <p>
+ * The contours of the individual levels are computed in parallel (common fork-join pool). For large grids, the cell
+ * classification of each level is further split into tiles of rows that are processed in parallel, while the
+ * (sequential) path tracing is performed per level. The resulting paths are given in data (i.e. column, row) index
+ * coordinates.
+ * </p>
  */
 public class MarchingSquares {
-    private static final ExecutorService ES = Executors.newCachedThreadPool(CachedDaemonThreadFactory.getInstance());
+    private static final int MIN_TILE_SIZE = 1 << 14; // minimum number of cells per parallel tile
     private double[] isovalues;
 
     public GeneralPath[] buildContours(final double[][] data, final double[] levels)
@@ -58,20 +58,30 @@ public class MarchingSquares {
     }
 
     private GeneralPath[] doConcurrent(final double[][] data) throws InterruptedException, ExecutionException {
-        final Collection<Callable<Result>> workers = new ArrayList<>();
-        for (int i = 0; i < isovalues.length; i++) {
-            workers.add(new Task(i, data, isovalues[i]));
-        }
-
-        final List<Future<Result>> jobs = MarchingSquares.ES.invokeAll(workers);
         final GeneralPath[] result = new GeneralPath[isovalues.length];
-        for (final Future<Result> future : jobs) {
-            final Result r = future.get();
-            result[r.ndx] = r.path;
+        try {
+            IntStream.range(0, isovalues.length).parallel().forEach(ndx -> result[ndx] = contourPath(data, ndx));
+        } catch (final IllegalArgumentException e) {
+            throw new ExecutionException(e);
         }
         return result;
     }
 
+    private GeneralPath contourPath(final double[][] data, final int ndx) {
+        final double level = isovalues[ndx];
+        try {
+            final GeneralPath path = new PathGenerator().generalPath(MarchingSquares.contour(data, level));
+            // N.B. compensate for the guard padding
+            path.translate(-1.0f, -1.0f);
+            path.trimToSize();
+            return path;
+        } catch (final Exception x) { // NOPMD - wrap and rethrow all
+            final String m = "Failed making contour at index #" + ndx + " for level " + level + ": "
+                    + x.getLocalizedMessage();
+            throw new IllegalArgumentException(m, x);
+        }
+    }
+
     private static Grid contour(final double[][] data, final double isovalue) {
         final int rowCount = data.length;
         final int colCount = data[0].length;
@@ -81,7 +91,22 @@ public class MarchingSquares {
         // this contouring grid is one cell smaller in each direction than the
         // original 2D field.
         final Cell[][] cells = new Cell[rowCount - 1][colCount - 1];
-        for (int r = 0; r < rowCount - 1; r++) {
+        final int nTiles = (int) Math.min(4L * ForkJoinPool.getCommonPoolParallelism(),
+                Math.max(1L, (long) rowCount * colCount / MIN_TILE_SIZE));
+        if (nTiles <= 1) {
+            classifyCells(data, isovalue, cells, 0, rowCount - 1);
+        } else {
+            final long nCellRows = rowCount - 1L;
+            IntStream.range(0, nTiles).parallel().forEach(tile -> classifyCells(data, isovalue, cells,
+                    (int) (nCellRows * tile / nTiles), (int) (nCellRows * (tile + 1) / nTiles)));
+        }
+        return new Grid(cells, isovalue);
+    }
+
+    private static void classifyCells(final double[][] data, final double isovalue, final Cell[][] cells,
+            final int rowMin, final int rowMax) {
+        final int colCount = data[0].length;
+        for (int r = rowMin; r < rowMax; r++) {
             for (int c = 0; c < colCount - 1; c++) {
                 // Compose the 4 bits at the corners of the cell to build a binary
                 // index: walk around the cell in a clockwise direction appending
@@ -167,8 +192,6 @@ public class MarchingSquares {
                 }
             }
         }
-        final Grid result = new Grid(cells, isovalue);
-        return result;
     }
 
     /**
@@ -204,50 +227,4 @@ public class MarchingSquares {
 
         return result;
     }
-
-    private static final class Result {
-        private final int ndx;
-        private final GeneralPath path;
-        private String str;
-
-        Result(final int ndx, final GeneralPath path) {
-            super();
-            this.ndx = ndx;
-            this.path = path;
-        }
-
-        @Override
-        public String toString() {
-            if (str == null) {
-                str = "Result{ndx=" + ndx + ", bbox=" + '}';
-            }
-            return str;
-        }
-    }
-
-    private final class Task implements Callable<Result> {
-        private final int ndx;
-        private final double[][] data;
-        private final double level;
-
-        Task(final int ndx, final double[][] data, final double level) {
-            super();
-            this.ndx = ndx;
-            this.data = data;
-            this.level = level;
-        }
-
-        @Override
-        public Result call() throws Exception {
-            GeneralPath path = null;
-            try {
-                path = new PathGenerator().generalPath(MarchingSquares.contour(data, level));
-            } catch (final Exception x) {
-                final String m = "Failed making contour at index #" + ndx + " for level " + level + ": "
-                        + x.getLocalizedMessage();
-                throw new IllegalArgumentException(m, x);
-            }
-            return new Result(ndx, path);
-        }
-    }
 }
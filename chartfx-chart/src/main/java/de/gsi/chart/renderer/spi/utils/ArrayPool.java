@@ -0,0 +1,294 @@
+package de.gsi.chart.renderer.spi.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Typed, striped array pool with power-of-two size classes shared by the renderers to keep steady-state rendering
+ * allocation-free.
+ * <p>
+ * Arrays are handed out with a capacity of the next power-of-two &gt;= the requested size, i.e. users must not rely on
+ * {@code array.length} but keep track of the requested size themselves. Returned arrays are not cleared and may
+ * contain stale data.
+ * <p>
+ * Released arrays are kept in one of several lock-striped stacks (selected by the releasing thread), the total
+ * retained memory is bound by a configurable byte budget and arrays that are not re-used within the configured idle
+ * time are evicted and left to the garbage collector. Hit, miss and eviction counters permit monitoring the pool
+ * efficiency.
+ *
+ * @author rstein
+ * @param <T> array type (e.g. {@code double[]})
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class ArrayPool<T> {
+    private static final int MIN_SIZE_CLASS = 4; // smallest pooled capacity: 16 elements
+    private static final int MAX_SIZE_CLASS = 30;
+    private static final int STRIPE_DEPTH = 8; // max number of retained arrays per stripe and size class
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final long DEFAULT_MAX_RETAINED_BYTES = 64L << 20;
+    private static final long DEFAULT_MAX_IDLE_NANOS = TimeUnit.SECONDS.toNanos(30);
+    // N.B. shared pools must be declared after the (non compile-time constant) defaults they are initialised with
+    public static final ArrayPool<double[]> DOUBLE_ARRAYS = new ArrayPool<>(double[]::new, a -> a.length, Double.BYTES);
+    public static final ArrayPool<int[]> INT_ARRAYS = new ArrayPool<>(int[]::new, a -> a.length, Integer.BYTES);
+    public static final ArrayPool<boolean[]> BOOLEAN_ARRAYS = new ArrayPool<>(boolean[]::new, a -> a.length, 1);
+    // N.B. estimate assumes (compressed) object references
+    public static final ArrayPool<String[]> STRING_ARRAYS = new ArrayPool<>(String[]::new, a -> a.length, 8);
+
+    private final IntFunction<T> allocator;
+    private final ToIntFunction<T> lengthFunction;
+    private final int elementBytes;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile long maxRetainedBytes = DEFAULT_MAX_RETAINED_BYTES;
+    private volatile long maxIdleNanos = DEFAULT_MAX_IDLE_NANOS;
+    private volatile long lastSweep = System.nanoTime();
+
+    /**
+     * @param allocator array constructor (e.g. {@code double[]::new})
+     * @param lengthFunction returns the length of a given array (e.g. {@code a -> a.length})
+     * @param elementBytes estimated number of bytes per array element (used for the retained-bytes budget)
+     */
+    public ArrayPool(final IntFunction<T> allocator, final ToIntFunction<T> lengthFunction, final int elementBytes) {
+        AssertUtils.notNull("allocator", allocator);
+        AssertUtils.notNull("lengthFunction", lengthFunction);
+        AssertUtils.gtThanZero("elementBytes", elementBytes);
+        this.allocator = allocator;
+        this.lengthFunction = lengthFunction;
+        this.elementBytes = elementBytes;
+        final int nStripes = Integer.highestOneBit(Math.max(1, 2 * Runtime.getRuntime().availableProcessors() - 1));
+        stripes = new Stripe[nStripes];
+        for (int i = 0; i < nStripes; i++) {
+            stripes[i] = new Stripe();
+        }
+        stripeMask = nStripes - 1;
+    }
+
+    /**
+     * drops all retained arrays (counters are not reset)
+     */
+    public void clear() {
+        for (final Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (int sizeClass = 0; sizeClass <= MAX_SIZE_CLASS; sizeClass++) {
+                    while (stripe.count[sizeClass] > 0) {
+                        stripe.removeOldest(sizeClass);
+                        retainedBytes.addAndGet(-getBytes(sizeClass));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * evicts all arrays that have not been used for longer than {@link #getMaxIdleTime(TimeUnit)}
+     */
+    public void evictExpired() {
+        final long now = System.nanoTime();
+        lastSweep = now;
+        for (final Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (int sizeClass = 0; sizeClass <= MAX_SIZE_CLASS; sizeClass++) {
+                    evictExpired(stripe, sizeClass, now);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param minSize minimum required array size
+     * @return pooled or newly allocated array with {@code length >= minSize}
+     */
+    public T get(final int minSize) {
+        AssertUtils.gtEqThanZero("minSize", minSize);
+        final int sizeClass = getSizeClassForRequest(minSize);
+        if (sizeClass > MAX_SIZE_CLASS) {
+            misses.increment();
+            return allocator.apply(minSize);
+        }
+        final long now = System.nanoTime();
+        sweepIfNeeded(now);
+        final int home = getStripeIndex();
+        for (int i = 0; i < stripes.length; i++) {
+            final Stripe stripe = stripes[(home + i) & stripeMask];
+            synchronized (stripe) {
+                if (stripe.count[sizeClass] > 0) {
+                    @SuppressWarnings("unchecked")
+                    final T array = (T) stripe.pop(sizeClass);
+                    retainedBytes.addAndGet(-getBytes(sizeClass));
+                    hits.increment();
+                    return array;
+                }
+            }
+        }
+        misses.increment();
+        return allocator.apply(1 << sizeClass);
+    }
+
+    /**
+     * @return number of arrays dropped due to exceeding the budget, the per-size-class depth or the idle time
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return number of requests served from the pool
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @param unit time unit of the returned value
+     * @return maximum time an array may remain unused in the pool before it is evicted
+     */
+    public long getMaxIdleTime(final TimeUnit unit) {
+        return unit.convert(maxIdleNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return upper bound of the (estimated) memory retained by this pool in bytes
+     */
+    public long getMaxRetainedBytes() {
+        return maxRetainedBytes;
+    }
+
+    /**
+     * @return number of requests that required a new allocation
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return estimated memory currently retained by this pool in bytes
+     */
+    public long getRetainedBytes() {
+        return retainedBytes.get();
+    }
+
+    /**
+     * Returns an array to the pool. The array must not be used by the caller afterwards. Arrays not fitting into the
+     * pool (too small/large, budget exhausted) are silently left to the garbage collector.
+     *
+     * @param array to be recycled ({@code null} is ignored)
+     */
+    public void release(final T array) {
+        if (array == null) {
+            return;
+        }
+        // N.B. floor: a foreign (non power-of-two) array still satisfies all requests of its size class
+        final int length = lengthFunction.applyAsInt(array);
+        final int sizeClass = 31 - Integer.numberOfLeadingZeros(length);
+        if (sizeClass < MIN_SIZE_CLASS || sizeClass > MAX_SIZE_CLASS) {
+            return;
+        }
+        final long bytes = getBytes(sizeClass);
+        final long now = System.nanoTime();
+        sweepIfNeeded(now);
+        final Stripe stripe = stripes[getStripeIndex()];
+        synchronized (stripe) {
+            evictExpired(stripe, sizeClass, now);
+            if (stripe.count[sizeClass] == STRIPE_DEPTH) {
+                stripe.removeOldest(sizeClass);
+                retainedBytes.addAndGet(-bytes);
+                evictions.increment();
+            }
+            if (retainedBytes.addAndGet(bytes) > maxRetainedBytes) {
+                retainedBytes.addAndGet(-bytes);
+                evictions.increment();
+                return;
+            }
+            stripe.push(sizeClass, array, now);
+        }
+    }
+
+    /**
+     * @param maxIdleTime maximum time an array may remain unused in the pool before it is evicted
+     * @param unit time unit of {@code maxIdleTime}
+     */
+    public void setMaxIdleTime(final long maxIdleTime, final TimeUnit unit) {
+        AssertUtils.gtThanZero("maxIdleTime", maxIdleTime);
+        AssertUtils.notNull("unit", unit);
+        maxIdleNanos = unit.toNanos(maxIdleTime);
+    }
+
+    /**
+     * @param maxRetainedBytes upper bound of the (estimated) memory retained by this pool in bytes
+     */
+    public void setMaxRetainedBytes(final long maxRetainedBytes) {
+        AssertUtils.gtEqThanZero("maxRetainedBytes", maxRetainedBytes);
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return ArrayPool.class.getSimpleName() + "[hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + ", retainedBytes=" + getRetainedBytes() + "]";
+    }
+
+    private void evictExpired(final Stripe stripe, final int sizeClass, final long now) {
+        // N.B. oldest entries are at the bottom of the stack
+        while (stripe.count[sizeClass] > 0 && now - stripe.lastUsed[sizeClass][0] > maxIdleNanos) {
+            stripe.removeOldest(sizeClass);
+            retainedBytes.addAndGet(-getBytes(sizeClass));
+            evictions.increment();
+        }
+    }
+
+    private long getBytes(final int sizeClass) {
+        return ((long) elementBytes << sizeClass) + ARRAY_HEADER_BYTES;
+    }
+
+    private int getStripeIndex() {
+        return (int) Thread.currentThread().getId() & stripeMask;
+    }
+
+    private void sweepIfNeeded(final long now) {
+        if (now - lastSweep > maxIdleNanos) {
+            evictExpired();
+        }
+    }
+
+    private static int getSizeClassForRequest(final int minSize) {
+        if (minSize <= 1 << MIN_SIZE_CLASS) {
+            return MIN_SIZE_CLASS;
+        }
+        return 32 - Integer.numberOfLeadingZeros(minSize - 1);
+    }
+
+    private static class Stripe {
+        protected final Object[][] arrays = new Object[MAX_SIZE_CLASS + 1][STRIPE_DEPTH];
+        protected final long[][] lastUsed = new long[MAX_SIZE_CLASS + 1][STRIPE_DEPTH];
+        protected final int[] count = new int[MAX_SIZE_CLASS + 1];
+
+        protected Object pop(final int sizeClass) {
+            final int index = --count[sizeClass];
+            final Object array = arrays[sizeClass][index];
+            arrays[sizeClass][index] = null;
+            return array;
+        }
+
+        protected void push(final int sizeClass, final Object array, final long timeStamp) {
+            final int index = count[sizeClass]++;
+            arrays[sizeClass][index] = array;
+            lastUsed[sizeClass][index] = timeStamp;
+        }
+
+        protected void removeOldest(final int sizeClass) {
+            final int n = --count[sizeClass];
+            System.arraycopy(arrays[sizeClass], 1, arrays[sizeClass], 0, n);
+            System.arraycopy(lastUsed[sizeClass], 1, lastUsed[sizeClass], 0, n);
+            arrays[sizeClass][n] = null;
+        }
+    }
+}
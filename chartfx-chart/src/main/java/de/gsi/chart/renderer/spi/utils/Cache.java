@@ -1,110 +1,91 @@
 package de.gsi.chart.renderer.spi.utils;
 
-import java.util.WeakHashMap;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 
-@SuppressWarnings({ "PMD.AvoidSynchronizedAtMethodLevel" })
+/**
+ * Legacy name-based array cache, kept for backward compatibility.
+ * <p>
+ * All requests are delegated to the typed, size-classed {@link ArrayPool} instances (the array names are ignored).
+ * Unlike the pool, this facade retains the legacy contract that the returned arrays have exactly the requested
+ * length. Since the pool hands out power-of-two sized arrays, only power-of-two sized requests are served from the
+ * pool, all other requests are newly allocated.
+ *
+ * @author rstein
+ * @deprecated use {@link ArrayPool#DOUBLE_ARRAYS}, {@link ArrayPool#INT_ARRAYS}, {@link ArrayPool#BOOLEAN_ARRAYS} or
+ *             {@link ArrayPool#STRING_ARRAYS} instead
+ */
+@Deprecated
 public final class Cache { // NOPMD nomen est omen
-    // TODO: consider HashMap<variableNime,WeakHashMap<int array, int size>>
-    // TODO: incorporate nice feature of timed cache rather than WeakHashMap see for example
-    // https://github.com/HanSolo/cache/blob/master/src/main/java/eu/hansolo/cache/Cache.java
 
-    // was: ConcurrentHashMap
-    private static WeakHashMap<String, WeakHashMap<Integer, double[]>> doubleArrayCache = new WeakHashMap<>();
-    private static WeakHashMap<String, WeakHashMap<Integer, int[]>> intArrayCache = new WeakHashMap<>();
-    private static WeakHashMap<String, WeakHashMap<Integer, boolean[]>> booleanArrayCache = new WeakHashMap<>();
-    private static WeakHashMap<String, WeakHashMap<Integer, String[]>> stringArrayCache = new WeakHashMap<>();
+    private Cache() {
+        // utility class
+    }
 
-    public static synchronized boolean[] getCachedBooleanArray(final String arrayName, final int size) {
-        final WeakHashMap<Integer, boolean[]> nameHashMap = booleanArrayCache.computeIfAbsent(arrayName,
-                key -> new WeakHashMap<>());
-        boolean[] cachedArray = nameHashMap.get(size);
-        if (cachedArray == null) {
-            cachedArray = new boolean[size];
-        } else {
-            booleanArrayCache.get(arrayName).remove(size);
-        }
-        return cachedArray;
+    /**
+     * @param arrayName ignored
+     * @param size required array size
+     * @return pooled or newly allocated array with {@code length == size}
+     */
+    public static boolean[] getCachedBooleanArray(final String arrayName, final int size) {
+        return getExact(ArrayPool.BOOLEAN_ARRAYS, size, boolean[]::new, a -> a.length);
     }
 
-    public static synchronized double[] getCachedDoubleArray(final String arrayName, final int size) {
-        final WeakHashMap<Integer, double[]> nameHashMap = doubleArrayCache.computeIfAbsent(arrayName,
-                key -> new WeakHashMap<>());
-        double[] cachedArray = nameHashMap.get(size);
-        if (cachedArray == null) {
-            cachedArray = new double[size];
-        } else {
-            doubleArrayCache.get(arrayName).remove(size);
-        }
-        return cachedArray;
+    /**
+     * @param arrayName ignored
+     * @param size required array size
+     * @return pooled or newly allocated array with {@code length == size}
+     */
+    public static double[] getCachedDoubleArray(final String arrayName, final int size) {
+        return getExact(ArrayPool.DOUBLE_ARRAYS, size, double[]::new, a -> a.length);
     }
 
-    public static synchronized int[] getCachedIntArray(final String arrayName, final int size) {
-        final WeakHashMap<Integer, int[]> nameHashMap = intArrayCache.computeIfAbsent(arrayName,
-                key -> new WeakHashMap<>());
-        int[] cachedArray = nameHashMap.get(size);
-        if (cachedArray == null) {
-            cachedArray = new int[size];
-        } else {
-            intArrayCache.get(arrayName).remove(size);
-        }
-        return cachedArray;
+    /**
+     * @param arrayName ignored
+     * @param size required array size
+     * @return pooled or newly allocated array with {@code length == size}
+     */
+    public static int[] getCachedIntArray(final String arrayName, final int size) {
+        return getExact(ArrayPool.INT_ARRAYS, size, int[]::new, a -> a.length);
     }
 
-    public static synchronized String[] getCachedStringArray(final String arrayName, final int size) {
-        final WeakHashMap<Integer, String[]> nameHashMap = stringArrayCache.computeIfAbsent(arrayName,
-                key -> new WeakHashMap<>());
-        String[] cachedArray = nameHashMap.get(size);
-        if (cachedArray == null) {
-            cachedArray = new String[size];
-        } else {
-            stringArrayCache.get(arrayName).remove(size);
-        }
-        return cachedArray;
+    /**
+     * @param arrayName ignored
+     * @param size required array size
+     * @return pooled or newly allocated array with {@code length == size}
+     */
+    public static String[] getCachedStringArray(final String arrayName, final int size) {
+        return getExact(ArrayPool.STRING_ARRAYS, size, String[]::new, a -> a.length);
     }
 
-    public static synchronized void release(final String arrayName, final boolean[] cachedArray) {
-        if (cachedArray == null) {
-            return;
-        }
-        booleanArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+    public static void release(final String arrayName, final boolean[] cachedArray) {
+        ArrayPool.BOOLEAN_ARRAYS.release(cachedArray);
     }
 
-    public static synchronized void release(final String arrayName, final double[] cachedArray) {
-        if (cachedArray == null) {
-            return;
-        }
-        doubleArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+    public static void release(final String arrayName, final double[] cachedArray) {
+        ArrayPool.DOUBLE_ARRAYS.release(cachedArray);
     }
 
-    public static synchronized void release(final String arrayName, final int[] cachedArray) {
-        if (cachedArray == null) {
-            return;
-        }
-        intArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+    public static void release(final String arrayName, final int[] cachedArray) {
+        ArrayPool.INT_ARRAYS.release(cachedArray);
     }
 
-    public static synchronized void release(final String arrayName, final String[] cachedArray) {
-        if (cachedArray == null) {
-            return;
-        }
-        stringArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+    public static void release(final String arrayName, final String[] cachedArray) {
+        ArrayPool.STRING_ARRAYS.release(cachedArray);
     }
 
-    // public static void main(String argv[]) {
-    // // https://www.baeldung.com/guava-cache
-    // CacheLoader<String, String> loader;
-    // loader = new CacheLoader<String, String>() {
-    // @Override
-    // public String load(String key) {
-    // return key.toUpperCase();
-    // }
-    // };
-    //
-    // LoadingCache<String, String> cache;
-    // cache = CacheBuilder.newBuilder().build(loader);
-    //
-    //// assertEquals(0, cache.size());
-    //// assertEquals("HELLO", cache.getUnchecked("hello"));
-    //// assertEquals(1, cache.size());
-    // }
+    private static <T> T getExact(final ArrayPool<T> pool, final int size, final IntFunction<T> allocator,
+            final ToIntFunction<T> lengthFunction) {
+        if (Integer.bitCount(size) != 1) {
+            // N.B. would never match the pool's power-of-two size classes
+            return allocator.apply(size);
+        }
+        final T array = pool.get(size);
+        if (lengthFunction.applyAsInt(array) == size) {
+            return array;
+        }
+        // foreign (longer) array retained in the pool
+        pool.release(array);
+        return allocator.apply(size);
+    }
 }
@@ -164,6 +164,37 @@ public class ColorGradient {
         return stops;
     }
 
+    /**
+     * Linearly interpolates the gradient stops at the given offset.
+     *
+     * @param offset normalised offset in [0, 1]
+     * @return the interpolated colour
+     * @see ColorLookUpTable for a quantised and faster alternative
+     */
+    public Color getColor(final double offset) {
+        double lowerOffset = 0.0;
+        double upperOffset = 1.0;
+        Color lowerColor = Color.TRANSPARENT;
+        Color upperColor = Color.TRANSPARENT;
+
+        for (final Stop stop : stops) {
+            final double currentOffset = stop.getOffset();
+            if (currentOffset == offset) {
+                return stop.getColor();
+            } else if (currentOffset < offset) {
+                lowerOffset = currentOffset;
+                lowerColor = stop.getColor();
+            } else {
+                upperOffset = currentOffset;
+                upperColor = stop.getColor();
+                break;
+            }
+        }
+
+        final double interpolationOffset = (offset - lowerOffset) / (upperOffset - lowerOffset);
+        return lowerColor.interpolate(upperColor, interpolationOffset);
+    }
+
     @Override
     public String toString() {
         return name;
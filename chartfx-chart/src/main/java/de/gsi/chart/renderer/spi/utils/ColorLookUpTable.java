@@ -0,0 +1,200 @@
+package de.gsi.chart.renderer.spi.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import de.gsi.dataset.utils.AssertUtils;
+import javafx.scene.paint.Color;
+
+/**
+ * Quantised colour look-up table of a {@link ColorGradient}: maps normalised values in [0, 1] to one of
+ * {@code resolution + 1} pre-computed ARGB colours (i.e. the value is rounded to the nearest multiple of
+ * {@code 1/resolution}) so that per-pixel colour mapping reduces to a single array index.
+ * <p>
+ * Optionally, the normalised value is transformed prior to the gradient interpolation by a logarithmic mapping
+ * spanning a given number of decades and/or a gamma correction ({@code value^gamma}, i.e. gamma &lt; 1 enhances the
+ * contrast for small values).
+ * <p>
+ * Tables are immutable and cached by gradient, resolution and mapping, use {@link #get(ColorGradient, int)} or
+ * {@link #get(ColorGradient, int, double, int)} to obtain a (shared) instance.
+ *
+ * @author rstein
+ */
+public final class ColorLookUpTable {
+    private static final int MAX_CACHED_TABLES = 32;
+    private static final Map<Key, ColorLookUpTable> CACHE = new LinkedHashMap<>(MAX_CACHED_TABLES, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, ColorLookUpTable> eldest) {
+            return size() > MAX_CACHED_TABLES;
+        }
+    };
+    private final ColorGradient gradient;
+    private final double gamma;
+    private final int logDecades;
+    private final int[] argb;
+    private final Color[] colors;
+
+    private ColorLookUpTable(final ColorGradient gradient, final int resolution, final double gamma,
+            final int logDecades) {
+        this.gradient = gradient;
+        this.gamma = gamma;
+        this.logDecades = logDecades;
+        argb = new int[resolution + 1];
+        colors = new Color[resolution + 1];
+        for (int level = 0; level <= resolution; level++) {
+            colors[level] = gradient.getColor(map(level / (double) resolution, gamma, logDecades));
+            argb[level] = toArgb(colors[level]);
+        }
+    }
+
+    /**
+     * @param normalisedValue value in [0, 1] (N.B. values outside are clamped, {@code NaN} is mapped to 0)
+     * @return ARGB colour of the quantised value
+     */
+    public int getArgb(final double normalisedValue) {
+        return argb[getIndex(normalisedValue)];
+    }
+
+    /**
+     * @param index table index in [0, resolution]
+     * @return ARGB colour of the given table index
+     */
+    public int getArgbByIndex(final int index) {
+        return argb[index];
+    }
+
+    /**
+     * @param normalisedValue value in [0, 1] (N.B. values outside are clamped, {@code NaN} is mapped to 0)
+     * @return (cached) colour of the quantised value
+     */
+    public Color getColor(final double normalisedValue) {
+        return colors[getIndex(normalisedValue)];
+    }
+
+    /**
+     * @return the gamma correction exponent (1.0: none)
+     */
+    public double getGamma() {
+        return gamma;
+    }
+
+    /**
+     * @return the underlying colour gradient
+     */
+    public ColorGradient getGradient() {
+        return gradient;
+    }
+
+    /**
+     * @param normalisedValue value in [0, 1] (N.B. values outside are clamped, {@code NaN} is mapped to 0)
+     * @return table index of the quantised value
+     */
+    public int getIndex(final double normalisedValue) {
+        final long index = Math.round(normalisedValue * (argb.length - 1));
+        return index <= 0 ? 0 : index >= argb.length ? argb.length - 1 : (int) index; // NOPMD
+    }
+
+    /**
+     * @return number of decades spanned by the logarithmic mapping (0: linear mapping)
+     */
+    public int getLogDecades() {
+        return logDecades;
+    }
+
+    /**
+     * @return number of quantisation steps (N.B. the table holds {@code resolution + 1} colours)
+     */
+    public int getResolution() {
+        return argb.length - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "ColorLookUpTable[gradient=" + gradient + ", resolution=" + getResolution() + ", gamma=" + gamma
+                + ", logDecades=" + logDecades + "]";
+    }
+
+    /**
+     * @param gradient colour gradient
+     * @param resolution number of quantisation steps (&gt; 0)
+     * @return cached linear look-up table
+     */
+    public static ColorLookUpTable get(final ColorGradient gradient, final int resolution) {
+        return get(gradient, resolution, 1.0, 0);
+    }
+
+    /**
+     * @param gradient colour gradient
+     * @param resolution number of quantisation steps (&gt; 0)
+     * @param gamma gamma correction exponent (&gt; 0, 1.0: none)
+     * @param logDecades number of decades spanned by the logarithmic mapping (0: linear mapping)
+     * @return cached look-up table
+     */
+    public static ColorLookUpTable get(final ColorGradient gradient, final int resolution, final double gamma,
+            final int logDecades) {
+        AssertUtils.notNull("gradient", gradient);
+        AssertUtils.gtThanZero("resolution", resolution);
+        AssertUtils.gtThanZero("gamma", gamma);
+        AssertUtils.gtEqThanZero("logDecades", logDecades);
+        final Key key = new Key(gradient, resolution, gamma, logDecades);
+        synchronized (CACHE) {
+            return CACHE.computeIfAbsent(key, k -> new ColorLookUpTable(gradient, resolution, gamma, logDecades));
+        }
+    }
+
+    /**
+     * @param color JavaFX colour
+     * @return corresponding non-premultiplied ARGB value
+     */
+    public static int toArgb(final Color color) {
+        final int a = (int) Math.round(color.getOpacity() * 255);
+        final int r = (int) Math.round(color.getRed() * 255);
+        final int g = (int) Math.round(color.getGreen() * 255);
+        final int b = (int) Math.round(color.getBlue() * 255);
+        return a << 24 | r << 16 | g << 8 | b;
+    }
+
+    private static double map(final double value, final double gamma, final int logDecades) {
+        double mapped = value;
+        if (logDecades > 0) {
+            mapped = Math.log10(1.0 + (Math.pow(10, logDecades) - 1.0) * mapped) / logDecades;
+        }
+        return gamma == 1.0 ? mapped : Math.pow(mapped, gamma);
+    }
+
+    private static class Key {
+        private final ColorGradient gradient;
+        private final int resolution;
+        private final double gamma;
+        private final int logDecades;
+
+        protected Key(final ColorGradient gradient, final int resolution, final double gamma, final int logDecades) {
+            this.gradient = gradient;
+            this.resolution = resolution;
+            this.gamma = gamma;
+            this.logDecades = logDecades;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            // N.B. gradients are immutable and compared by identity
+            return gradient == other.gradient && resolution == other.resolution // NOPMD
+                    && Double.compare(gamma, other.gamma) == 0 && logDecades == other.logDecades;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(gradient), resolution, gamma, logDecades);
+        }
+    }
+}
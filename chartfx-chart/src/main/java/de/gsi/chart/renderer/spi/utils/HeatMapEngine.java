@@ -0,0 +1,393 @@
+package de.gsi.chart.renderer.spi.utils;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gsi.chart.Chart;
+import de.gsi.chart.axes.AxisTransform;
+import de.gsi.dataset.DataSet3D;
+import de.gsi.dataset.event.EventListener;
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.ProcessingProfiler;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Heat-map image engine: converts the visible range of a {@link DataSet3D} into an ARGB image via a quantised
+ * {@link ColorLookUpTable}.
+ * <p>
+ * The ARGB values are computed row-wise in parallel into pooled {@code int[]} buffers and uploaded to a re-used
+ * {@link WritableImage} with a single {@code setPixels(IntBuffer)} call. Data-only updates (i.e. same data set and
+ * visible index range) are computed asynchronously: the last completed image is drawn until the new one is ready, at
+ * which point a chart update is requested. Geometry changes (new data set, zoom, resize) are computed synchronously
+ * to avoid showing images that are not aligned with the axes.
+ * <p>
+ * N.B. {@link #render} must be called from the JavaFX application thread.
+ *
+ * @author rstein
+ */
+public class HeatMapEngine {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HeatMapEngine.class);
+    private static final int MIN_PARALLEL_SIZE = 1 << 14; // minimum number of pixels for parallel computation
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final AtomicReference<Frame> completedFrame = new AtomicReference<>();
+    private final Object jobLock = new Object();
+    private long generation; // guarded by jobLock, incremented by clear() to discard results of running jobs
+    private final EventListener dataSetListener = evt -> {
+        dataVersion.incrementAndGet();
+        requestChartUpdate();
+    };
+    private DataSet3D dataSet;
+    private volatile Chart chart; // NOPMD - written on FX thread, read by worker thread
+    private WritableImage image;
+    private Frame uploadedFrame;
+    private Frame submittedFrame;
+    private boolean jobInFlight;
+    private int[] spareBuffer;
+
+    /**
+     * Computes the ARGB image of the given frame into {@code frame.buffer} (N.B. parallel for large images)
+     *
+     * @param frame frame to be computed
+     */
+    protected static void computeArgb(final Frame frame) {
+        final int width = frame.getWidth();
+        final int height = frame.getHeight();
+        final int nRows = frame.indexYMax - frame.indexYMin;
+        if (width * height < MIN_PARALLEL_SIZE) {
+            for (int row = 0; row < nRows; row++) {
+                computeRow(frame, row);
+            }
+            return;
+        }
+        final int nChunks = Math.min(nRows, 4 * ForkJoinPool.getCommonPoolParallelism());
+        IntStream.range(0, nChunks).parallel().forEach(chunk -> {
+            final int rowEnd = (int) ((long) nRows * (chunk + 1) / nChunks);
+            for (int row = (int) ((long) nRows * chunk / nChunks); row < rowEnd; row++) {
+                computeRow(frame, row);
+            }
+        });
+    }
+
+    /**
+     * Synchronously computes the image of the given frame (N.B. parallel for large images).
+     *
+     * @param frame description of the visible data range and colour mapping
+     * @param reuse image to be re-used (may be {@code null})
+     * @return {@code reuse} if it has the requested dimension, a newly allocated image otherwise
+     */
+    public static WritableImage computeImage(final Frame frame, final WritableImage reuse) {
+        AssertUtils.notNull("frame", frame);
+        final int[] buffer = ArrayPool.INT_ARRAYS.get(frame.getWidth() * frame.getHeight());
+        final Frame computeFrame = frame.withBuffer(buffer, 0);
+        frame.dataSet.lock().readLockGuard(() -> computeArgb(computeFrame));
+        final WritableImage image = writePixels(reuse, buffer, frame.getWidth(), frame.getHeight());
+        ArrayPool.INT_ARRAYS.release(buffer);
+        return image;
+    }
+
+    /**
+     * Uploads ARGB pixels in one call into an image that is re-used if its size matches.
+     *
+     * @param reuse image to be re-used (may be {@code null})
+     * @param argb non-premultiplied ARGB pixels in row-major order (N.B. may be larger than width*height)
+     * @param width image width
+     * @param height image height
+     * @return {@code reuse} if it has the requested dimension, a newly allocated image otherwise
+     */
+    public static WritableImage writePixels(final WritableImage reuse, final int[] argb, final int width,
+            final int height) {
+        AssertUtils.notNull("argb", argb);
+        AssertUtils.gtThanZero("width", width);
+        AssertUtils.gtThanZero("height", height);
+        final WritableImage target = reuse != null && (int) reuse.getWidth() == width
+                && (int) reuse.getHeight() == height ? reuse : new WritableImage(width, height);
+        target.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(),
+                IntBuffer.wrap(argb, 0, width * height), width);
+        return target;
+    }
+
+    private static void computeRow(final Frame frame, final int row) {
+        final int width = frame.getWidth();
+        final int nX = frame.indexXMax - frame.indexXMin;
+        final ColorLookUpTable lut = frame.colorLookUpTable;
+        final double zRange = frame.zMax - frame.zMin;
+        final int yIndex = frame.indexYMax - 1 - row;
+        final int rowStart = row * frame.scaleY * width;
+        final int[] buffer = frame.buffer;
+        for (int x = 0; x < nX; x++) {
+            final double z = frame.dataSet.getZ(frame.indexXMin + x, yIndex);
+            final double offset = (frame.axisTransform.forward(z) - frame.zMin) / zRange;
+            final int argb = lut.getArgb(frame.zInverted ? 1.0 - offset : offset);
+            final int pixel = rowStart + x * frame.scaleX;
+            if (frame.scaleX == 1) {
+                buffer[pixel] = argb;
+            } else {
+                Arrays.fill(buffer, pixel, pixel + frame.scaleX, argb);
+            }
+        }
+        for (int dy = 1; dy < frame.scaleY; dy++) {
+            System.arraycopy(buffer, rowStart, buffer, rowStart + dy * width, width);
+        }
+    }
+
+    /**
+     * releases the retained buffers and image and detaches from the current data set
+     */
+    public void clear() {
+        setDataSet(null);
+        image = null;
+        uploadedFrame = null;
+        submittedFrame = null;
+        jobInFlight = false;
+        final Frame frame;
+        synchronized (jobLock) {
+            generation++;
+            frame = completedFrame.getAndSet(null);
+        }
+        if (frame != null) {
+            recycle(frame.buffer);
+        }
+        if (spareBuffer != null) {
+            ArrayPool.INT_ARRAYS.release(spareBuffer);
+            spareBuffer = null;
+        }
+    }
+
+    /**
+     * Draws the heat-map of the given data set range onto the graphics context (N.B. needs to be called from the
+     * JavaFX application thread).
+     *
+     * @param gc graphics context to draw on
+     * @param chart chart that is notified whenever an asynchronously computed image becomes available
+     * @param frame description of the visible data range and colour mapping
+     * @param targetWidth width of the drawn image on the canvas
+     * @param targetHeight height of the drawn image on the canvas
+     */
+    public void render(final GraphicsContext gc, final Chart chart, final Frame frame, final double targetWidth,
+            final double targetHeight) {
+        AssertUtils.notNull("gc", gc);
+        AssertUtils.notNull("frame", frame);
+        final long start = ProcessingProfiler.getTimeStamp();
+        this.chart = chart;
+        setDataSet(frame.dataSet);
+
+        final Frame completed = completedFrame.getAndSet(null);
+        if (completed != null) {
+            jobInFlight = false;
+            if (completed.isSameGeometry(frame)) {
+                upload(completed);
+            }
+            recycle(completed.buffer);
+        }
+
+        if (image == null || uploadedFrame == null || !frame.isSameGeometry(uploadedFrame)) {
+            // new geometry -> compute synchronously (in parallel) to keep the image aligned with the axes
+            final Frame syncFrame = frame.withBuffer(acquire(frame.getWidth() * frame.getHeight()),
+                    dataVersion.get());
+            frame.dataSet.lock().readLockGuard(() -> computeArgb(syncFrame));
+            submittedFrame = syncFrame;
+            upload(syncFrame);
+            recycle(syncFrame.buffer);
+        } else if (!jobInFlight && (submittedFrame == null || submittedFrame.version != dataVersion.get()
+                                           || !frame.isSameMapping(submittedFrame))) {
+            submitAsync(frame.withBuffer(acquire(frame.getWidth() * frame.getHeight()), dataVersion.get()));
+        }
+
+        gc.drawImage(image, 0, 0, targetWidth, targetHeight);
+        ProcessingProfiler.getTimeDiff(start, "HeatMapEngine::render");
+    }
+
+    private int[] acquire(final int size) {
+        if (spareBuffer != null && spareBuffer.length >= size) {
+            final int[] buffer = spareBuffer;
+            spareBuffer = null;
+            return buffer;
+        }
+        return ArrayPool.INT_ARRAYS.get(size);
+    }
+
+    private void recycle(final int[] buffer) {
+        if (spareBuffer == null) {
+            spareBuffer = buffer;
+            return;
+        }
+        // keep the larger of the two buffers
+        ArrayPool.INT_ARRAYS.release(spareBuffer.length < buffer.length ? spareBuffer : buffer);
+        spareBuffer = spareBuffer.length < buffer.length ? buffer : spareBuffer;
+    }
+
+    private void requestChartUpdate() {
+        final Chart localChart = chart;
+        if (localChart != null) {
+            localChart.requestPulseUpdate();
+        }
+    }
+
+    private void setDataSet(final DataSet3D newDataSet) {
+        if (dataSet == newDataSet) { // NOPMD - identity check intended
+            return;
+        }
+        if (dataSet != null) {
+            dataSet.removeListener(dataSetListener);
+        }
+        dataSet = newDataSet;
+        if (dataSet != null) {
+            dataSet.addListener(dataSetListener);
+        }
+        dataVersion.incrementAndGet();
+    }
+
+    /**
+     * @return {@code true} if an asynchronously computed frame is ready to be uploaded (N.B. for testing)
+     */
+    boolean hasCompletedFrame() {
+        return completedFrame.get() != null;
+    }
+
+    /**
+     * @return {@code true} if an asynchronous computation has been submitted but not yet been consumed (N.B. for
+     *         testing)
+     */
+    boolean isJobInFlight() {
+        return jobInFlight;
+    }
+
+    void submitAsync(final Frame frame) {
+        jobInFlight = true;
+        submittedFrame = frame;
+        final long jobGeneration;
+        synchronized (jobLock) {
+            jobGeneration = generation;
+        }
+        ForkJoinPool.commonPool().execute(() -> {
+            try {
+                frame.dataSet.lock().readLockGuard(() -> computeArgb(frame));
+            } catch (final Exception e) { // NOPMD - need to catch all to not stall the engine
+                LOGGER.error("could not compute heat-map image", e);
+            }
+            synchronized (jobLock) {
+                if (jobGeneration != generation) {
+                    // engine has been cleared in the meantime -> drop the stale result
+                    ArrayPool.INT_ARRAYS.release(frame.buffer);
+                    return;
+                }
+                completedFrame.set(frame);
+            }
+            requestChartUpdate();
+        });
+    }
+
+    private void upload(final Frame frame) {
+        image = writePixels(image, frame.buffer, frame.getWidth(), frame.getHeight());
+        uploadedFrame = frame;
+    }
+
+    /**
+     * Immutable description of the heat-map to be computed: visible data range, output pixel scaling and colour
+     * mapping.
+     */
+    public static class Frame {
+        protected final DataSet3D dataSet;
+        protected final int indexXMin;
+        protected final int indexXMax;
+        protected final int indexYMin;
+        protected final int indexYMax;
+        protected final int scaleX;
+        protected final int scaleY;
+        protected final AxisTransform axisTransform;
+        protected final double zMin;
+        protected final double zMax;
+        protected final boolean zInverted;
+        protected final ColorLookUpTable colorLookUpTable;
+        protected final int[] buffer;
+        protected final long version;
+
+        /**
+         * @param dataSet source data set
+         * @param indexXMin minimum x index (inclusive)
+         * @param indexXMax maximum x index (exclusive)
+         * @param indexYMin minimum y index (inclusive)
+         * @param indexYMax maximum y index (exclusive)
+         * @param scaleX number of horizontal image pixels per data point
+         * @param scaleY number of vertical image pixels per data point
+         * @param axisTransform z-axis transform
+         * @param zMin minimum z value (in transformed coordinates)
+         * @param zMax maximum z value (in transformed coordinates)
+         * @param zInverted {@code true} if the colour mapping is inverted
+         * @param colorLookUpTable colour mapping of the normalised z values
+         */
+        public Frame(final DataSet3D dataSet, final int indexXMin, final int indexXMax, final int indexYMin,
+                final int indexYMax, final int scaleX, final int scaleY, final AxisTransform axisTransform,
+                final double zMin, final double zMax, final boolean zInverted,
+                final ColorLookUpTable colorLookUpTable) {
+            this(dataSet, indexXMin, indexXMax, indexYMin, indexYMax, scaleX, scaleY, axisTransform, zMin, zMax,
+                    zInverted, colorLookUpTable, null, 0);
+        }
+
+        private Frame(final DataSet3D dataSet, final int indexXMin, final int indexXMax, final int indexYMin,
+                final int indexYMax, final int scaleX, final int scaleY, final AxisTransform axisTransform,
+                final double zMin, final double zMax, final boolean zInverted, final ColorLookUpTable colorLookUpTable,
+                final int[] buffer, final long version) {
+            AssertUtils.notNull("dataSet", dataSet);
+            AssertUtils.notNull("axisTransform", axisTransform);
+            AssertUtils.notNull("colorLookUpTable", colorLookUpTable);
+            AssertUtils.indexOrder(indexXMin, "indexXMin", indexXMax, "indexXMax");
+            AssertUtils.indexOrder(indexYMin, "indexYMin", indexYMax, "indexYMax");
+            AssertUtils.gtThanZero("scaleX", scaleX);
+            AssertUtils.gtThanZero("scaleY", scaleY);
+            this.dataSet = dataSet;
+            this.indexXMin = indexXMin;
+            this.indexXMax = indexXMax;
+            this.indexYMin = indexYMin;
+            this.indexYMax = indexYMax;
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+            this.axisTransform = axisTransform;
+            this.zMin = zMin;
+            this.zMax = zMax;
+            this.zInverted = zInverted;
+            this.colorLookUpTable = colorLookUpTable;
+            this.buffer = buffer;
+            this.version = version;
+        }
+
+        /**
+         * @return height of the computed image
+         */
+        public int getHeight() {
+            return (indexYMax - indexYMin) * scaleY;
+        }
+
+        /**
+         * @return width of the computed image
+         */
+        public int getWidth() {
+            return (indexXMax - indexXMin) * scaleX;
+        }
+
+        protected boolean isSameGeometry(final Frame other) {
+            return dataSet == other.dataSet && indexXMin == other.indexXMin && indexXMax == other.indexXMax // NOPMD
+                    && indexYMin == other.indexYMin && indexYMax == other.indexYMax && scaleX == other.scaleX
+                    && scaleY == other.scaleY;
+        }
+
+        protected boolean isSameMapping(final Frame other) {
+            return axisTransform == other.axisTransform && zMin == other.zMin && zMax == other.zMax // NOPMD
+                    && zInverted == other.zInverted && colorLookUpTable == other.colorLookUpTable;
+        }
+
+        protected Frame withBuffer(final int[] newBuffer, final long newVersion) {
+            return new Frame(dataSet, indexXMin, indexXMax, indexYMin, indexYMax, scaleX, scaleY, axisTransform,
+                    zMin, zMax, zInverted, colorLookUpTable, newBuffer, newVersion);
+        }
+    }
+}
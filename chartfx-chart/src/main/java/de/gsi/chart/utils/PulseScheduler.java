@@ -0,0 +1,115 @@
+package de.gsi.chart.utils;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Scene;
+
+/**
+ * Frame-synchronised task scheduler: one {@link AnimationTimer} per {@link Scene} executes all tasks that have been
+ * scheduled since the last JavaFX pulse. Tasks are executed during the animation phase of the pulse, i.e. before the
+ * CSS and layout passes. Thus, any 'requestLayout()' issued by a task is performed within the same pulse and
+ * multiple invalidations (e.g. from many {@code DataSet} updates) collapse into at most one layout and render per
+ * pulse.
+ * <p>
+ * {@link #schedule(Runnable)} may be called from any thread and does not block. The timer stops itself after
+ * {@link #IDLE_PULSES} pulses without work and is restarted on demand.
+ *
+ * @author rstein
+ */
+public final class PulseScheduler {
+    /** number of idle pulses after which the underlying animation timer is stopped */
+    public static final int IDLE_PULSES = 60;
+    private static final Map<Scene, PulseScheduler> SCHEDULERS = new WeakHashMap<>(); // NOPMD - accessed via FX thread
+    private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Runnable startPulses;
+    private final Runnable stopPulses;
+    private int idleCount;
+
+    private PulseScheduler() {
+        // use factory method
+        final AnimationTimer timer = new AnimationTimer() {
+            @Override
+            public void handle(final long now) {
+                handlePulse();
+            }
+        };
+        startPulses = () -> FXUtils.runFX(timer::start);
+        stopPulses = timer::stop;
+    }
+
+    /**
+     * @param startPulses starts the periodic invocation of {@link #handlePulse()} (N.B. may be called from any thread)
+     * @param stopPulses stops the periodic invocation of {@link #handlePulse()} (called from within the pulse)
+     */
+    PulseScheduler(final Runnable startPulses, final Runnable stopPulses) {
+        this.startPulses = startPulses;
+        this.stopPulses = stopPulses;
+    }
+
+    /**
+     * executes the tasks pending at the start of this pulse or stops the pulses after {@link #IDLE_PULSES} idle
+     * invocations (N.B. JavaFX thread)
+     */
+    void handlePulse() {
+        if (pendingTasks.isEmpty()) {
+            if (++idleCount >= IDLE_PULSES) {
+                idleCount = 0;
+                stopPulses.run();
+                running.set(false);
+                // re-check to avoid lost wake-ups
+                if (!pendingTasks.isEmpty()) {
+                    startTimer();
+                }
+            }
+            return;
+        }
+        idleCount = 0;
+        // execute only the tasks that are pending at the start of this pulse
+        for (int n = pendingTasks.size(); n > 0; n--) {
+            final Runnable task = pendingTasks.poll();
+            if (task == null) {
+                break;
+            }
+            task.run();
+        }
+    }
+
+    /**
+     * @return {@code true} if the underlying pulse source is (being) started
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * schedules the task to be executed on the JavaFX thread during the next pulse. N.B. the caller is responsible
+     * for de-duplicating tasks (e.g. via an atomic 'dirty' flag).
+     *
+     * @param task task to be executed
+     */
+    public void schedule(final Runnable task) {
+        pendingTasks.add(task);
+        startTimer();
+    }
+
+    private void startTimer() {
+        if (running.compareAndSet(false, true)) {
+            startPulses.run();
+        }
+    }
+
+    /**
+     * @param scene the scene for which the scheduler is requested
+     * @return the scheduler associated with the given scene (N.B. must be called from the JavaFX thread)
+     */
+    public static PulseScheduler getInstance(final Scene scene) {
+        FXUtils.assertJavaFxThread();
+        return SCHEDULERS.computeIfAbsent(scene, s -> new PulseScheduler());
+    }
+}
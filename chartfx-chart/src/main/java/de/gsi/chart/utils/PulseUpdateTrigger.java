@@ -0,0 +1,77 @@
+package de.gsi.chart.utils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * 'Dirty' flag that collects invalidations from arbitrary threads and executes the associated update at most once
+ * per JavaFX pulse via the {@link PulseScheduler} of the owner's scene.
+ * <p>
+ * Invalidations issued while the owner is not (yet) attached to a scene are retained and scheduled once a scheduler
+ * is set.
+ *
+ * @author rstein
+ */
+public final class PulseUpdateTrigger {
+    private final AtomicBoolean invalidated = new AtomicBoolean(false);
+    private final Runnable update;
+    private final Runnable task = this::runUpdate;
+    private volatile PulseScheduler scheduler; // NOPMD - written on FX thread, read by notifying thread
+
+    /**
+     * @param update the update to be executed (on the JavaFX thread) during the pulse following an invalidation
+     */
+    public PulseUpdateTrigger(final Runnable update) {
+        AssertUtils.notNull("update", update);
+        this.update = update;
+    }
+
+    /**
+     * @return the present scheduler ({@code null} if not attached to a scene)
+     */
+    public PulseScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * marks the owner as invalid and schedules the update if none is pending. N.B. may be called from any thread and
+     * does not block
+     */
+    public void invalidate() {
+        if (!invalidated.compareAndSet(false, true)) {
+            // update already pending
+            return;
+        }
+        final PulseScheduler localScheduler = scheduler;
+        if (localScheduler != null) {
+            localScheduler.schedule(task);
+        }
+        // N.B. owners not (yet) attached to a scene are scheduled once they are
+    }
+
+    /**
+     * @return {@code true} if an update is pending
+     */
+    public boolean isInvalidated() {
+        return invalidated.get();
+    }
+
+    /**
+     * @param newScheduler scheduler of the owner's (new) scene or {@code null} if detached. Pending updates are
+     *        scheduled with the new scheduler. N.B. to be called from the JavaFX thread
+     */
+    public void setScheduler(final PulseScheduler newScheduler) {
+        scheduler = newScheduler;
+        // N.B. re-check after publishing the scheduler, concurrent invalidations may otherwise be lost
+        if (newScheduler != null && invalidated.get()) {
+            newScheduler.schedule(task);
+        }
+    }
+
+    private void runUpdate() {
+        if (invalidated.getAndSet(false)) {
+            update.run();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package de.gsi.chart;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.gsi.chart.RendererLayerCache.Action;
+import de.gsi.chart.axes.Axis;
+import de.gsi.chart.renderer.Renderer;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.spi.DoubleDataSet;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * Tests the invalidation rules of the {@link XYChart} renderer layer cache
+ *
+ * @author rstein
+ */
+class RendererLayerCacheTest {
+    private static final double[] GEOMETRY = { 400, 300, 0 };
+    private static final List<DataSet> NO_DATASETS = Collections.emptyList();
+
+    @Test
+    @DisplayName("Test layer caching and geometry invalidation")
+    public void testGeometryChange() {
+        final RendererLayerCache<String> cache = new RendererLayerCache<>();
+        final TestRenderer renderer = new TestRenderer(true, new DoubleDataSet("a"));
+        final List<Renderer> renderers = Collections.singletonList(renderer);
+
+        assertEquals(Action.CAPTURE, redraw(cache, renderers, NO_DATASETS, GEOMETRY, false)[0]);
+        cache.setImage(renderer, "image");
+        assertEquals(Action.COMPOSITE, redraw(cache, renderers, NO_DATASETS, GEOMETRY, false)[0]);
+        assertEquals("image", cache.getImage(renderer));
+
+        // canvas/axis geometry change or explicit invalidation
+        assertEquals(Action.CAPTURE, redraw(cache, renderers, NO_DATASETS, new double[] { 401, 300, 0 }, false)[0]);
+        assertEquals(Action.COMPOSITE, redraw(cache, renderers, NO_DATASETS, new double[] { 401, 300, 0 }, false)[0]);
+        assertEquals(Action.CAPTURE, redraw(cache, renderers, NO_DATASETS, new double[] { 401, 300, 0 }, true)[0]);
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(Action.CAPTURE, redraw(cache, renderers, NO_DATASETS, GEOMETRY, false)[0]);
+    }
+
+    @Test
+    @DisplayName("Test per data set invalidation")
+    public void testDataSetUpdate() {
+        final RendererLayerCache<String> cache = new RendererLayerCache<>();
+        final DataSet dataSetA = new DoubleDataSet("a");
+        final DataSet dataSetB = new DoubleDataSet("b");
+        final DataSet chartDataSet = new DoubleDataSet("chart");
+        final TestRenderer rendererA = new TestRenderer(true, dataSetA);
+        final TestRenderer rendererB = new TestRenderer(true, dataSetB);
+        final List<Renderer> renderers = Arrays.asList(rendererA, rendererB);
+        final List<DataSet> chartDataSets = Collections.singletonList(chartDataSet);
+        settle(cache, renderers, chartDataSets);
+
+        // only the layer of the renderer owning the updated data set is re-rendered
+        assertEquals(Arrays.asList(Action.CAPTURE, Action.COMPOSITE),
+                Arrays.asList(redraw(cache, renderers, chartDataSets, GEOMETRY, false, dataSetA)));
+        settle(cache, renderers, chartDataSets);
+        assertEquals(Arrays.asList(Action.COMPOSITE, Action.CAPTURE),
+                Arrays.asList(redraw(cache, renderers, chartDataSets, GEOMETRY, false, dataSetB)));
+        settle(cache, renderers, chartDataSets);
+
+        // chart data sets are drawn by every renderer
+        assertEquals(Arrays.asList(Action.CAPTURE, Action.CAPTURE),
+                Arrays.asList(redraw(cache, renderers, chartDataSets, GEOMETRY, false, chartDataSet)));
+        settle(cache, renderers, chartDataSets);
+
+        // N.B. identity rather than content equality: an equal (empty) data set does not trigger the update
+        assertEquals(Arrays.asList(Action.COMPOSITE, Action.COMPOSITE),
+                Arrays.asList(redraw(cache, renderers, chartDataSets, GEOMETRY, false, new DoubleDataSet("a"))));
+    }
+
+    @Test
+    @DisplayName("Test renderer and data set list changes")
+    public void testRendererListChange() {
+        final RendererLayerCache<String> cache = new RendererLayerCache<>();
+        final TestRenderer rendererA = new TestRenderer(true, new DoubleDataSet("a"));
+        final TestRenderer rendererB = new TestRenderer(true, new DoubleDataSet("b"));
+        List<Renderer> renderers = Arrays.asList(rendererA, rendererB);
+        settle(cache, renderers, NO_DATASETS);
+        assertEquals(2, cache.size());
+
+        // removed renderers drop their layer, the offset of the remaining one changed
+        renderers = Collections.singletonList(rendererB);
+        assertEquals(Action.CAPTURE, redraw(cache, renderers, NO_DATASETS, GEOMETRY, false)[0]);
+        assertEquals(1, cache.size());
+        assertNull(cache.getImage(rendererA));
+        settle(cache, renderers, NO_DATASETS);
+
+        // data set added to the renderer
+        rendererB.getDatasets().add(new DoubleDataSet("c"));
+        assertEquals(Action.CAPTURE, redraw(cache, renderers, NO_DATASETS, GEOMETRY, false)[0]);
+        settle(cache, renderers, NO_DATASETS);
+
+        // renderers are not compared by equality
+        renderers = Arrays.asList(rendererB, rendererA);
+        assertEquals(Arrays.asList(Action.COMPOSITE, Action.CAPTURE),
+                Arrays.asList(redraw(cache, renderers, NO_DATASETS, GEOMETRY, false)));
+    }
+
+    @Test
+    @DisplayName("Test continuously updated and non-cacheable renderers")
+    public void testBypass() {
+        final RendererLayerCache<String> cache = new RendererLayerCache<>();
+        final DataSet live = new DoubleDataSet("live");
+        final TestRenderer liveRenderer = new TestRenderer(true, live);
+        final TestRenderer sideEffectRenderer = new TestRenderer(false, new DoubleDataSet("b"));
+        final List<Renderer> renderers = Arrays.asList(liveRenderer, sideEffectRenderer);
+
+        assertEquals(Arrays.asList(Action.CAPTURE, Action.RENDER),
+                Arrays.asList(redraw(cache, renderers, NO_DATASETS, GEOMETRY, false)));
+        cache.setImage(liveRenderer, "image");
+        assertEquals(Arrays.asList(Action.COMPOSITE, Action.RENDER),
+                Arrays.asList(redraw(cache, renderers, NO_DATASETS, GEOMETRY, false)));
+        assertEquals(1, cache.size(), "no layer for non-cacheable renderers");
+
+        // consecutive updates -> rendered directly and no longer cached
+        assertEquals(Action.CAPTURE, redraw(cache, renderers, NO_DATASETS, GEOMETRY, false, live)[0]);
+        cache.setImage(liveRenderer, "image");
+        assertEquals(Action.RENDER, redraw(cache, renderers, NO_DATASETS, GEOMETRY, false, live)[0]);
+        assertNull(cache.getImage(liveRenderer));
+        assertEquals(Action.RENDER, redraw(cache, renderers, NO_DATASETS, GEOMETRY, false, live)[0]);
+
+        // settled again -> cached again
+        assertEquals(Action.CAPTURE, redraw(cache, renderers, NO_DATASETS, GEOMETRY, false)[0]);
+        cache.setImage(liveRenderer, "image");
+        assertEquals(Action.COMPOSITE, redraw(cache, renderers, NO_DATASETS, GEOMETRY, false)[0]);
+    }
+
+    private static Action[] redraw(final RendererLayerCache<String> cache, final List<Renderer> renderers,
+            final List<DataSet> chartDataSets, final double[] geometry, final boolean invalid,
+            final DataSet... updated) {
+        cache.startRedraw(renderers, chartDataSets, geometry.clone(), invalid, Arrays.asList(updated));
+        final Action[] actions = new Action[renderers.size()];
+        int dataSetOffset = 0;
+        for (int i = 0; i < renderers.size(); i++) {
+            final Renderer renderer = renderers.get(i);
+            actions[i] = cache.getAction(renderer, dataSetOffset);
+            if (actions[i] == Action.CAPTURE) {
+                cache.setImage(renderer, "image");
+            }
+            dataSetOffset += chartDataSets.size() + renderer.getDatasets().size();
+        }
+        return actions;
+    }
+
+    private static void settle(final RendererLayerCache<String> cache, final List<Renderer> renderers,
+            final List<DataSet> chartDataSets) {
+        redraw(cache, renderers, chartDataSets, GEOMETRY, false);
+        for (final Action action : redraw(cache, renderers, chartDataSets, GEOMETRY, false)) {
+            assertEquals(Action.COMPOSITE, action);
+        }
+    }
+
+    private static class TestRenderer implements Renderer {
+        private final boolean cacheable;
+        private final ObservableList<DataSet> dataSets = FXCollections.observableArrayList();
+        private final BooleanProperty showInLegend = new SimpleBooleanProperty(this, "showInLegend", true);
+
+        protected TestRenderer(final boolean cacheable, final DataSet... dataSets) {
+            this.cacheable = cacheable;
+            this.dataSets.addAll(dataSets);
+        }
+
+        @Override
+        public Canvas drawLegendSymbol(final DataSet dataSet, final int dsIndex, final int width, final int height) {
+            return null;
+        }
+
+        @Override
+        public ObservableList<Axis> getAxes() {
+            return FXCollections.observableArrayList();
+        }
+
+        @Override
+        public ObservableList<DataSet> getDatasets() {
+            return dataSets;
+        }
+
+        @Override
+        public ObservableList<DataSet> getDatasetsCopy() {
+            return FXCollections.observableArrayList(dataSets);
+        }
+
+        @Override
+        public boolean isCacheable() {
+            return cacheable;
+        }
+
+        @Override
+        public void render(final GraphicsContext gc, final Chart chart, final int dataSetOffset,
+                final ObservableList<DataSet> datasets) {
+            // not needed for the test
+        }
+
+        @Override
+        public Renderer setShowInLegend(final boolean state) {
+            showInLegend.set(state);
+            return this;
+        }
+
+        @Override
+        public boolean showInLegend() {
+            return showInLegend.get();
+        }
+
+        @Override
+        public BooleanProperty showInLegendProperty() {
+            return showInLegend;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package de.gsi.chart.renderer.datareduction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.InvalidParameterException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test M4DataReducer and LargestTriangleThreeBucketsDataReducer
+ *
+ * @author rstein
+ */
+class DataReducerTest {
+    private static final int N_PIXEL = 1000;
+
+    @Test
+    @DisplayName("Test M4 pixel-exact reduction")
+    public void testM4DataReducer() {
+        final M4DataReducer reducer = new M4DataReducer();
+        for (final int nSamples : new int[] { 3, 5000, 1_000_000 }) {
+            final double[] xValues = new double[nSamples + 10];
+            final double[] yValues = new double[nSamples + 10];
+            final String[] styles = new String[nSamples + 10];
+            final boolean[] selected = new boolean[nSamples + 10];
+            fillTestData(xValues, yValues, 10, nSamples);
+            final double[] xOrig = Arrays.copyOf(xValues, xValues.length);
+            final double[] yOrig = Arrays.copyOf(yValues, yValues.length);
+
+            final int count = reducer.reducePoints(xValues, yValues, null, null, null, null, styles, selected, 10,
+                    nSamples + 10);
+            if (nSamples <= 4) {
+                assertEquals(nSamples, count);
+                continue;
+            }
+            assertTrue(count <= 4 * N_PIXEL + 2, "count = " + count);
+
+            // per-column min/max and first/last must be preserved
+            final double[][] expected = getColumnEnvelope(xOrig, yOrig, 10, nSamples + 10);
+            final double[][] actual = getColumnEnvelope(xValues, yValues, 0, count);
+            assertTrue(Arrays.deepEquals(expected, actual));
+            for (int i = 1; i < count; i++) {
+                assertTrue(xValues[i] >= xValues[i - 1], "ordering at " + i);
+            }
+        }
+        assertThrows(InvalidParameterException.class, () -> reducer.setPixelBinWidth(0));
+    }
+
+    @Test
+    @DisplayName("Test LTTB reduction")
+    public void testLargestTriangleThreeBucketsDataReducer() {
+        final LargestTriangleThreeBucketsDataReducer reducer = new LargestTriangleThreeBucketsDataReducer();
+        assertEquals(2, reducer.getPointsPerPixel());
+        for (final int nSamples : new int[] { 1500, 1_000_000 }) {
+            final double[] xValues = new double[nSamples];
+            final double[] yValues = new double[nSamples];
+            fillTestData(xValues, yValues, 0, nSamples);
+            yValues[nSamples / 2] = 1e3; // spike must survive
+            final double first = yValues[0];
+            final double last = yValues[nSamples - 1];
+
+            final int count = reducer.reducePoints(xValues, yValues, null, null, null, null, null, null, 0, nSamples);
+            if (nSamples < 2 * N_PIXEL) {
+                assertEquals(nSamples, count);
+                continue;
+            }
+            assertEquals(2 * N_PIXEL + 2, count); // buckets + first + last point
+            assertEquals(first, yValues[0]);
+            assertEquals(last, yValues[count - 1]);
+            assertEquals(1e3, Arrays.stream(yValues, 0, count).max().getAsDouble());
+            for (int i = 1; i < count; i++) {
+                assertTrue(xValues[i] > xValues[i - 1], "ordering at " + i);
+            }
+        }
+        assertThrows(InvalidParameterException.class, () -> reducer.setPointsPerPixel(0));
+    }
+
+    private static void fillTestData(final double[] xValues, final double[] yValues, final int offset,
+            final int nSamples) {
+        final Random random = new Random(42);
+        for (int i = 0; i < nSamples; i++) {
+            xValues[offset + i] = N_PIXEL * (double) i / nSamples;
+            yValues[offset + i] = 100 * Math.sin(0.001 * i) + random.nextGaussian();
+        }
+    }
+
+    private static double[][] getColumnEnvelope(final double[] xValues, final double[] yValues, final int from,
+            final int to) {
+        final double[][] envelope = new double[N_PIXEL][4];
+        for (final double[] column : envelope) {
+            column[0] = Double.NaN;
+        }
+        for (int i = from; i < to; i++) {
+            final double[] column = envelope[(int) Math.floor(xValues[i])];
+            if (Double.isNaN(column[0])) {
+                column[0] = yValues[i];
+                column[1] = yValues[i];
+                column[2] = yValues[i];
+            }
+            column[1] = Math.min(column[1], yValues[i]);
+            column[2] = Math.max(column[2], yValues[i]);
+            column[3] = yValues[i];
+        }
+        return envelope;
+    }
+}
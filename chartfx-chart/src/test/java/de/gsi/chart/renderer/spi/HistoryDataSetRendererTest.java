@@ -0,0 +1,81 @@
+package de.gsi.chart.renderer.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the bitmap history mode of the HistoryDataSetRenderer
+ *
+ * @author rstein
+ */
+class HistoryDataSetRendererTest {
+
+    @Test
+    @DisplayName("Test bitmap layer ring rotation and capacity")
+    public void testLayerRing() {
+        final int depth = 3;
+        final HistoryDataSetRenderer renderer = new HistoryDataSetRenderer(depth);
+        renderer.setBitmapHistory(true);
+        assertEquals(0, renderer.getHistoryLayerCount());
+
+        final int[] newest = new int[2 * depth + 1];
+        for (int i = 0; i < newest.length; i++) {
+            newest[i] = renderer.advanceHistoryLayer();
+            assertEquals(Math.min(i + 1, depth), renderer.getHistoryLayerCount(), "capacity limited to depth");
+            assertEquals(newest[i], renderer.getHistoryLayerIndex(0));
+            if (i > 0) {
+                assertEquals((newest[i - 1] + 1) % depth, newest[i], "ring advances by one");
+            }
+            if (i >= depth) {
+                assertEquals(newest[i - depth], newest[i], "oldest layer is recycled");
+            }
+        }
+
+        // level k refers to the layer captured k shifts ago
+        final int last = newest.length - 1;
+        for (int level = 0; level < depth; level++) {
+            assertEquals(newest[last - level], renderer.getHistoryLayerIndex(level));
+        }
+    }
+
+    @Test
+    @DisplayName("Test alpha fading per history level")
+    public void testAlphaFading() {
+        final HistoryDataSetRenderer renderer = new HistoryDataSetRenderer();
+        renderer.setIntensityFading(0.5);
+        assertEquals(0.25, renderer.getHistoryAlpha(0), 1e-12);
+        assertEquals(0.125, renderer.getHistoryAlpha(1), 1e-12);
+        assertEquals(0.0625, renderer.getHistoryAlpha(2), 1e-12);
+        for (int level = 1; level < 5; level++) {
+            assertTrue(renderer.getHistoryAlpha(level) < renderer.getHistoryAlpha(level - 1), "older is fainter");
+        }
+    }
+
+    @Test
+    @DisplayName("Test history clearing on mode change and lazy renderer chain")
+    public void testClearOnToggle() {
+        final HistoryDataSetRenderer renderer = new HistoryDataSetRenderer(4);
+        renderer.setBitmapHistory(true);
+        renderer.advanceHistoryLayer();
+        renderer.advanceHistoryLayer();
+        assertEquals(2, renderer.getHistoryLayerCount());
+
+        renderer.setBitmapHistory(false);
+        assertEquals(0, renderer.getHistoryLayerCount());
+
+        renderer.setBitmapHistory(true);
+        renderer.advanceHistoryLayer();
+        renderer.clearHistory();
+        assertEquals(0, renderer.getHistoryLayerCount());
+
+        // bitmap mode does not require the data set copy renderer chain
+        assertTrue(renderer.renderers.isEmpty());
+        renderer.buildRendererChain();
+        assertEquals(4, renderer.renderers.size());
+        renderer.buildRendererChain();
+        assertEquals(4, renderer.renderers.size(), "chain is built only once");
+    }
+}
@@ -0,0 +1,140 @@
+package de.gsi.chart.renderer.spi.marchingsquares;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.gsi.chart.axes.AxisTransform;
+import de.gsi.dataset.event.UpdatedDataEvent;
+import de.gsi.dataset.spi.DoubleDataSet3D;
+
+/**
+ * Test the parallel MarchingSquares isoline extraction and IsolineCache
+ *
+ * @author rstein
+ */
+class IsolineCacheTest {
+    private static final int N_SAMPLES = 301; // N.B. > MarchingSquares tile size -> parallel cell classification
+    private static final double CENTRE = 150.0;
+
+    @Test
+    @DisplayName("Test isoline geometry")
+    public void testIsolineGeometry() throws InterruptedException, ExecutionException {
+        final DoubleDataSet3D dataSet = createConeDataSet();
+        final double[] radii = { 20.0, 50.0, 100.0 };
+        final double[] levels = new double[radii.length];
+        for (int i = 0; i < radii.length; i++) {
+            levels[i] = -radii[i];
+        }
+        final int offset = 10;
+        final GeneralPath[] isolines = new IsolineCache(1).getIsolines(dataSet, new IdentityTransform(), levels, offset,
+                N_SAMPLES, offset, N_SAMPLES);
+        assertEquals(radii.length, isolines.length);
+        for (int i = 0; i < radii.length; i++) {
+            final GeneralPath path = isolines[i];
+            int nPoints = 0;
+            for (int k = 0; k < path.size(); k++) {
+                if (!path.isPoint(k)) {
+                    continue;
+                }
+                // N.B. coordinates are relative to the sub-range origin
+                final double radius = Math.hypot(path.getX(k) + offset - CENTRE, path.getY(k) + offset - CENTRE);
+                assertEquals(radii[i], radius, 1.0, "level " + i + " point " + k);
+                nPoints++;
+            }
+            assertTrue(nPoints > 4 * radii[i], "level " + i + " #points = " + nPoints);
+        }
+    }
+
+    @Test
+    @DisplayName("Test isoline caching and invalidation")
+    public void testCaching() throws InterruptedException, ExecutionException {
+        final DoubleDataSet3D dataSet = createConeDataSet();
+        final IsolineCache cache = new IsolineCache(2);
+        final AxisTransform transform = new IdentityTransform();
+        final double[] levels = { -20.0, -50.0 };
+
+        final GeneralPath[] first = cache.getIsolines(dataSet, transform, levels, 0, N_SAMPLES, 0, N_SAMPLES);
+        assertSame(first, cache.getIsolines(dataSet, transform, levels, 0, N_SAMPLES, 0, N_SAMPLES));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // different sub-range and levels
+        final GeneralPath[] zoomed = cache.getIsolines(dataSet, transform, levels, 100, 200, 100, 200);
+        assertNotSame(first, zoomed);
+        cache.getIsolines(dataSet, transform, new double[] { -30.0 }, 0, N_SAMPLES, 0, N_SAMPLES);
+        assertEquals(2, cache.size()); // LRU capacity
+        assertEquals(3, cache.getMissCount());
+
+        // data update invalidates the cache (N.B. asynchronous notification)
+        dataSet.fireInvalidated(new UpdatedDataEvent(dataSet, "test"));
+        for (int i = 0; i < 100 && cache.size() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, cache.size());
+        assertNotSame(zoomed, cache.getIsolines(dataSet, transform, levels, 100, 200, 100, 200));
+        assertEquals(4, cache.getMissCount());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    private static DoubleDataSet3D createConeDataSet() {
+        // z = - distance from centre -> circular isolines
+        final double[][] zValues = new double[N_SAMPLES][N_SAMPLES];
+        for (int y = 0; y < N_SAMPLES; y++) {
+            for (int x = 0; x < N_SAMPLES; x++) {
+                zValues[y][x] = -Math.hypot(x - CENTRE, y - CENTRE);
+            }
+        }
+        return new DoubleDataSet3D("cone", zValues);
+    }
+
+    private static class IdentityTransform implements AxisTransform {
+        @Override
+        public double backward(final double val) {
+            return val;
+        }
+
+        @Override
+        public double forward(final double val) {
+            return val;
+        }
+
+        @Override
+        public double getMaximumRange() {
+            return Double.MAX_VALUE;
+        }
+
+        @Override
+        public double getMinimumRange() {
+            return -Double.MAX_VALUE;
+        }
+
+        @Override
+        public double getRoundedMaximumRange(final double val) {
+            return val;
+        }
+
+        @Override
+        public double getRoundedMinimumRange(final double val) {
+            return val;
+        }
+
+        @Override
+        public void setMaximumRange(final double val) {
+            // not needed
+        }
+
+        @Override
+        public void setMinimumRange(final double val) {
+            // not needed
+        }
+    }
+}
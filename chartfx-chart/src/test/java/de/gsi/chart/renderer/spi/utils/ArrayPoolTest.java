@@ -0,0 +1,105 @@
+package de.gsi.chart.renderer.spi.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test ArrayPool
+ *
+ * @author rstein
+ */
+class ArrayPoolTest {
+
+    @Test
+    @DisplayName("Test size classes and hit/miss counters")
+    public void testSizeClasses() {
+        final ArrayPool<double[]> pool = new ArrayPool<>(double[]::new, a -> a.length, Double.BYTES);
+        final double[] array1 = pool.get(1000);
+        assertEquals(1024, array1.length);
+        assertEquals(16, pool.get(0).length);
+        assertEquals(0, pool.getHitCount());
+        assertEquals(2, pool.getMissCount());
+
+        pool.release(array1);
+        assertEquals(1024 * Double.BYTES + 16, pool.getRetainedBytes());
+        assertSame(array1, pool.get(513));
+        assertEquals(1, pool.getHitCount());
+        assertEquals(0, pool.getRetainedBytes());
+
+        // foreign array: floor size class
+        final double[] foreign = new double[1500];
+        pool.release(foreign);
+        assertNotSame(foreign, pool.get(1025));
+        assertSame(foreign, pool.get(1024));
+
+        // too small or null arrays are ignored
+        pool.release(new double[3]);
+        pool.release(null);
+        assertEquals(0, pool.getRetainedBytes());
+
+        assertThrows(IllegalArgumentException.class, () -> pool.get(-1));
+    }
+
+    @Test
+    @DisplayName("Test retained-bytes budget and time-based eviction")
+    public void testEviction() throws InterruptedException {
+        final ArrayPool<int[]> pool = new ArrayPool<>(int[]::new, a -> a.length, Integer.BYTES);
+        pool.setMaxRetainedBytes(10_000);
+        assertEquals(10_000, pool.getMaxRetainedBytes());
+        pool.release(new int[1024]);
+        pool.release(new int[1024]);
+        pool.release(new int[1024]); // exceeds budget
+        assertEquals(2 * (1024 * Integer.BYTES + 16), pool.getRetainedBytes());
+        assertEquals(1, pool.getEvictionCount());
+
+        pool.setMaxIdleTime(1, TimeUnit.MILLISECONDS);
+        assertEquals(1, pool.getMaxIdleTime(TimeUnit.MILLISECONDS));
+        Thread.sleep(20);
+        pool.evictExpired();
+        assertEquals(0, pool.getRetainedBytes());
+        assertEquals(3, pool.getEvictionCount());
+
+        pool.setMaxIdleTime(1, TimeUnit.HOURS);
+        pool.release(new int[64]);
+        pool.clear();
+        assertEquals(0, pool.getRetainedBytes());
+        assertTrue(pool.toString().contains("evictions=3"));
+
+        // shared pools use the same defaults as user-created pools
+        for (final ArrayPool<?> shared : new ArrayPool<?>[] { ArrayPool.DOUBLE_ARRAYS, ArrayPool.INT_ARRAYS,
+                     ArrayPool.BOOLEAN_ARRAYS, ArrayPool.STRING_ARRAYS }) {
+            assertEquals(30, shared.getMaxIdleTime(TimeUnit.SECONDS));
+            assertEquals(64L << 20, shared.getMaxRetainedBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Test concurrent get/release")
+    public void testConcurrentAccess() throws InterruptedException {
+        final ArrayPool<double[]> pool = new ArrayPool<>(double[]::new, a -> a.length, Double.BYTES);
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    final double[] array = pool.get(100 + i % 3000);
+                    array[0] = i;
+                    pool.release(array);
+                }
+            });
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40_000, pool.getHitCount() + pool.getMissCount());
+        assertTrue(pool.getHitCount() > pool.getMissCount());
+    }
+}
@@ -0,0 +1,39 @@
+package de.gsi.chart.renderer.spi.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test legacy Cache facade
+ *
+ * @author rstein
+ */
+@SuppressWarnings("deprecation")
+class CacheTest {
+
+    @Test
+    @DisplayName("Test exact array lengths")
+    public void testExactLength() {
+        for (final int size : new int[] { 0, 1, 3, 16, 100, 1000, 1024 }) {
+            assertEquals(size, Cache.getCachedBooleanArray("test", size).length);
+            assertEquals(size, Cache.getCachedDoubleArray("test", size).length);
+            assertEquals(size, Cache.getCachedIntArray("test", size).length);
+            assertEquals(size, Cache.getCachedStringArray("test", size).length);
+        }
+
+        // released arrays are recycled
+        final double[] array = Cache.getCachedDoubleArray("test", 512);
+        Cache.release("test", array);
+        assertSame(array, Cache.getCachedDoubleArray("other", 512));
+
+        // pooled arrays longer than requested are not handed out
+        final int[] foreign = new int[300];
+        Cache.release("test", foreign);
+        assertEquals(256, Cache.getCachedIntArray("test", 256).length);
+        Cache.release("test", new int[100]);
+        assertEquals(100, Cache.getCachedIntArray("test", 100).length);
+    }
+}
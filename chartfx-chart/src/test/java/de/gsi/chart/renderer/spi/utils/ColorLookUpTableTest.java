@@ -0,0 +1,68 @@
+package de.gsi.chart.renderer.spi.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Test ColorLookUpTable w.r.t. the direct ColorGradient interpolation
+ *
+ * @author rstein
+ */
+class ColorLookUpTableTest {
+    @Test
+    @DisplayName("Test ARGB colour conversion")
+    public void testToArgb() {
+        assertEquals(0xFFFF0000, ColorLookUpTable.toArgb(Color.RED));
+        assertEquals(0x00000000, ColorLookUpTable.toArgb(Color.TRANSPARENT));
+        assertEquals(0x800000FF, ColorLookUpTable.toArgb(Color.rgb(0, 0, 255, 128 / 255.0)));
+    }
+
+    @Test
+    @DisplayName("Test quantised linear mapping")
+    public void testLinearMapping() {
+        final int resolution = 20;
+        final ColorLookUpTable lut = ColorLookUpTable.get(ColorGradient.JET, resolution);
+        assertSame(lut, ColorLookUpTable.get(ColorGradient.JET, resolution));
+        assertNotSame(lut, ColorLookUpTable.get(ColorGradient.HOT, resolution));
+        assertEquals(resolution, lut.getResolution());
+        for (int i = 0; i <= 1000; i++) {
+            final double value = i / 1000.0;
+            final double quantised = Math.round(value * resolution) / (double) resolution;
+            final Color expected = ColorGradient.JET.getColor(quantised);
+            assertEquals(expected, lut.getColor(value), "value = " + value);
+            assertEquals(ColorLookUpTable.toArgb(expected), lut.getArgb(value), "value = " + value);
+        }
+        // clamping
+        assertEquals(lut.getArgb(0.0), lut.getArgb(-5.0));
+        assertEquals(lut.getArgb(0.0), lut.getArgb(Double.NaN));
+        assertEquals(lut.getArgb(1.0), lut.getArgb(+5.0));
+
+        assertThrows(IllegalArgumentException.class, () -> ColorLookUpTable.get(ColorGradient.JET, 0));
+        assertThrows(IllegalArgumentException.class, () -> ColorLookUpTable.get(ColorGradient.JET, 10, 0.0, 0));
+    }
+
+    @Test
+    @DisplayName("Test gamma and logarithmic mapping")
+    public void testNonLinearMapping() {
+        final ColorLookUpTable gamma = ColorLookUpTable.get(ColorGradient.BLACK_WHITE, 100, 0.5, 0);
+        assertEquals(0.5, gamma.getGamma());
+        // sqrt(0.25) = 0.5 -> mid-grey
+        assertEquals(ColorGradient.BLACK_WHITE.getColor(0.5), gamma.getColor(0.25));
+
+        final ColorLookUpTable log = ColorLookUpTable.get(ColorGradient.BLACK_WHITE, 999, 1.0, 3);
+        assertEquals(3, log.getLogDecades());
+        assertEquals(ColorGradient.BLACK_WHITE.getColor(0.0), log.getColor(0.0));
+        assertEquals(ColorGradient.BLACK_WHITE.getColor(1.0), log.getColor(1.0));
+        // log10(1 + 999 * 9/999) / 3 = 1/3
+        assertEquals(ColorGradient.BLACK_WHITE.getColor(1.0 / 3.0), log.getColor(9.0 / 999.0));
+        assertTrue(log.getColor(0.1).getBrightness() > 0.6);
+    }
+}
@@ -0,0 +1,136 @@
+package de.gsi.chart.renderer.spi.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.gsi.chart.axes.AxisTransform;
+import de.gsi.dataset.spi.DoubleDataSet3D;
+
+/**
+ * Test the parallel ARGB computation of the HeatMapEngine against a naive per-pixel reference
+ *
+ * @author rstein
+ */
+class HeatMapEngineTest {
+    private static final int N_QUANT = 20;
+
+    @Test
+    @DisplayName("Test heat-map ARGB computation")
+    public void testComputeArgb() {
+        final ColorLookUpTable lut = ColorLookUpTable.get(ColorGradient.JET, N_QUANT);
+        for (final int[] dimension : new int[][] { { 10, 7 }, { 400, 300 } }) {
+            final int nX = dimension[0];
+            final int nY = dimension[1];
+            final double[][] zValues = new double[nY][nX];
+            for (int y = 0; y < nY; y++) {
+                for (int x = 0; x < nX; x++) {
+                    zValues[y][x] = Math.sin(0.1 * x) * Math.cos(0.05 * y);
+                }
+            }
+            zValues[0][0] = Double.NaN;
+            final DoubleDataSet3D dataSet = new DoubleDataSet3D("test", zValues);
+
+            for (final boolean zInverted : new boolean[] { false, true }) {
+                for (final int[] scale : new int[][] { { 1, 1 }, { 2, 3 } }) {
+                    final HeatMapEngine.Frame frame = new HeatMapEngine.Frame(dataSet, 1, nX - 1, 2, nY, scale[0],
+                            scale[1], new IdentityTransform(), -0.5, 0.5, zInverted, lut);
+                    final int width = frame.getWidth();
+                    final int height = frame.getHeight();
+                    assertEquals((nX - 2) * scale[0], width);
+                    assertEquals((nY - 2) * scale[1], height);
+
+                    final int[] expected = new int[width * height];
+                    for (int px = 0; px < width; px++) {
+                        for (int py = 0; py < height; py++) {
+                            // N.B. y-axis points upwards
+                            final double z = zValues[nY - 1 - py / scale[1]][1 + px / scale[0]];
+                            final double offset = (z + 0.5) / 1.0;
+                            final long level = Math.round((zInverted ? 1 - offset : offset) * N_QUANT);
+                            expected[py * width + px] = lut.getArgbByIndex((int) Math.max(0, Math.min(N_QUANT, level)));
+                        }
+                    }
+                    final HeatMapEngine.Frame computed = frame.withBuffer(new int[width * height], 0);
+                    HeatMapEngine.computeArgb(computed);
+                    assertArrayEquals(expected, computed.buffer, "nX=" + nX + " scale=" + scale[0] + "x" + scale[1]);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test clear() with completed and still running asynchronous jobs")
+    public void testClearAsyncJob() {
+        final DoubleDataSet3D dataSet = new DoubleDataSet3D("test", new double[20][30]);
+        final HeatMapEngine.Frame frame = new HeatMapEngine.Frame(dataSet, 0, 30, 0, 20, 1, 1,
+                new IdentityTransform(), -1.0, 1.0, false, ColorLookUpTable.get(ColorGradient.JET, N_QUANT));
+        final HeatMapEngine engine = new HeatMapEngine();
+
+        // job completed but not yet consumed by render() when the engine is cleared
+        engine.submitAsync(frame.withBuffer(new int[30 * 20], 1));
+        assertTrue(engine.isJobInFlight());
+        assertTrue(ForkJoinPool.commonPool().awaitQuiescence(10, TimeUnit.SECONDS));
+        assertTrue(engine.hasCompletedFrame());
+        engine.clear();
+        assertFalse(engine.isJobInFlight(), "engine would never submit new jobs");
+        assertFalse(engine.hasCompletedFrame());
+
+        // job still running when the engine is cleared -> result must be dropped
+        dataSet.lock().writeLockGuard(() -> {
+            engine.submitAsync(frame.withBuffer(new int[30 * 20], 2));
+            engine.clear();
+        });
+        assertTrue(ForkJoinPool.commonPool().awaitQuiescence(10, TimeUnit.SECONDS));
+        assertFalse(engine.isJobInFlight());
+        assertFalse(engine.hasCompletedFrame(), "stale frame handed to the next data set");
+    }
+
+    private static class IdentityTransform implements AxisTransform {
+        @Override
+        public double backward(final double val) {
+            return val;
+        }
+
+        @Override
+        public double forward(final double val) {
+            return val;
+        }
+
+        @Override
+        public double getMaximumRange() {
+            return Double.MAX_VALUE;
+        }
+
+        @Override
+        public double getMinimumRange() {
+            return -Double.MAX_VALUE;
+        }
+
+        @Override
+        public double getRoundedMaximumRange(final double val) {
+            return val;
+        }
+
+        @Override
+        public double getRoundedMinimumRange(final double val) {
+            return val;
+        }
+
+        @Override
+        public void setMaximumRange(final double val) {
+            // not needed
+        }
+
+        @Override
+        public void setMinimumRange(final double val) {
+            // not needed
+        }
+    }
+}
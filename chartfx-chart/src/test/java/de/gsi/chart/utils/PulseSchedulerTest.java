@@ -0,0 +1,141 @@
+package de.gsi.chart.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test PulseScheduler and PulseUpdateTrigger using a manually driven pulse source
+ *
+ * @author rstein
+ */
+class PulseSchedulerTest {
+
+    @Test
+    @DisplayName("Test task execution, idle stop and restart")
+    public void testIdleStopAndRestart() {
+        final AtomicInteger nStarts = new AtomicInteger();
+        final AtomicInteger nStops = new AtomicInteger();
+        final PulseScheduler scheduler = new PulseScheduler(nStarts::incrementAndGet, nStops::incrementAndGet);
+        final AtomicInteger nRuns = new AtomicInteger();
+        assertFalse(scheduler.isRunning());
+
+        scheduler.schedule(nRuns::incrementAndGet);
+        scheduler.schedule(nRuns::incrementAndGet);
+        assertTrue(scheduler.isRunning());
+        assertEquals(1, nStarts.get(), "single start for multiple tasks");
+        scheduler.handlePulse();
+        assertEquals(2, nRuns.get());
+
+        // tasks scheduled by tasks are executed in the following pulse
+        scheduler.schedule(() -> scheduler.schedule(nRuns::incrementAndGet));
+        scheduler.handlePulse();
+        assertEquals(2, nRuns.get());
+        scheduler.handlePulse();
+        assertEquals(3, nRuns.get());
+
+        // idle -> stop
+        for (int i = 0; i < PulseScheduler.IDLE_PULSES - 1; i++) {
+            scheduler.handlePulse();
+        }
+        assertTrue(scheduler.isRunning());
+        assertEquals(0, nStops.get());
+        scheduler.handlePulse();
+        assertFalse(scheduler.isRunning());
+        assertEquals(1, nStops.get());
+
+        // restart on demand
+        scheduler.schedule(nRuns::incrementAndGet);
+        assertTrue(scheduler.isRunning());
+        assertEquals(2, nStarts.get());
+        scheduler.handlePulse();
+        assertEquals(4, nRuns.get());
+    }
+
+    @Test
+    @DisplayName("Test no lost wake-up for tasks scheduled while stopping")
+    public void testNoLostWakeUp() {
+        final AtomicInteger nStarts = new AtomicInteger();
+        final AtomicInteger nRuns = new AtomicInteger();
+        final AtomicReference<PulseScheduler> schedulerRef = new AtomicReference<>();
+        // task scheduled concurrently after the pulse source has been stopped but before it is marked as idle
+        final PulseScheduler scheduler = new PulseScheduler(nStarts::incrementAndGet,
+                () -> schedulerRef.get().schedule(nRuns::incrementAndGet));
+        schedulerRef.set(scheduler);
+
+        scheduler.schedule(() -> {});
+        scheduler.handlePulse();
+        for (int i = 0; i < PulseScheduler.IDLE_PULSES; i++) {
+            scheduler.handlePulse();
+        }
+        assertEquals(2, nStarts.get(), "pulse source must be restarted");
+        assertTrue(scheduler.isRunning());
+        scheduler.handlePulse();
+        assertEquals(1, nRuns.get());
+    }
+
+    @Test
+    @DisplayName("Test dirty flag collapsing invalidations into one update")
+    public void testUpdateCollapsing() throws InterruptedException {
+        final PulseScheduler scheduler = new PulseScheduler(() -> {}, () -> {});
+        final AtomicInteger nUpdates = new AtomicInteger();
+        final PulseUpdateTrigger trigger = new PulseUpdateTrigger(nUpdates::incrementAndGet);
+        trigger.setScheduler(scheduler);
+
+        final Thread[] notifiers = new Thread[4];
+        for (int i = 0; i < notifiers.length; i++) {
+            notifiers[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    trigger.invalidate();
+                }
+            });
+            notifiers[i].start();
+        }
+        for (final Thread notifier : notifiers) {
+            notifier.join();
+        }
+        assertTrue(trigger.isInvalidated());
+        scheduler.handlePulse();
+        assertEquals(1, nUpdates.get());
+        assertFalse(trigger.isInvalidated());
+        scheduler.handlePulse();
+        assertEquals(1, nUpdates.get(), "no further update without invalidation");
+
+        trigger.invalidate();
+        scheduler.handlePulse();
+        assertEquals(2, nUpdates.get());
+    }
+
+    @Test
+    @DisplayName("Test invalidation prior to scene attachment")
+    public void testLateAttachment() {
+        final AtomicInteger nUpdates = new AtomicInteger();
+        final PulseUpdateTrigger trigger = new PulseUpdateTrigger(nUpdates::incrementAndGet);
+        trigger.invalidate();
+        trigger.invalidate();
+        assertTrue(trigger.isInvalidated());
+
+        final AtomicInteger nStarts = new AtomicInteger();
+        final PulseScheduler scheduler = new PulseScheduler(nStarts::incrementAndGet, () -> {});
+        trigger.setScheduler(scheduler);
+        assertEquals(scheduler, trigger.getScheduler());
+        assertEquals(1, nStarts.get(), "pending update scheduled on attachment");
+        scheduler.handlePulse();
+        assertEquals(1, nUpdates.get());
+
+        // detached: invalidations are retained until re-attached
+        trigger.setScheduler(null);
+        trigger.invalidate();
+        scheduler.handlePulse();
+        assertEquals(1, nUpdates.get());
+        trigger.setScheduler(scheduler);
+        scheduler.handlePulse();
+        assertEquals(2, nUpdates.get());
+    }
+}
@@ -18,6 +18,26 @@ public interface DataSet extends EventSource, Serializable {
     final int DIM_Y = 1;
     final int DIM_Z = 2;
 
+    /**
+     * Copies the values of the index range [fromIndex, fromIndex + length[ of the given dimension into a caller-supplied
+     * array. Implementations backed by primitive arrays override this with a bulk copy, which avoids the per-point
+     * (megamorphic) {@link #get(int, int)} calls in tight loops (e.g. screen coordinate transforms in renderers).
+     *
+     * @param dimIndex the dimension index (ie. '0' equals 'X', '1' equals 'Y')
+     * @param fromIndex first data point index to be copied
+     * @param destination storage container (needs to hold at least {@code destinationOffset + length} elements)
+     * @param destinationOffset first index in the destination array
+     * @param length number of data points to be copied
+     * @return the destination array
+     */
+    default double[] copyValues(final int dimIndex, final int fromIndex, final double[] destination,
+            final int destinationOffset, final int length) {
+        for (int i = 0; i < length; i++) {
+            destination[destinationOffset + i] = get(dimIndex, fromIndex + i);
+        }
+        return destination;
+    }
+
     /**
      * Gets the x value of the data point with the index i
      * 
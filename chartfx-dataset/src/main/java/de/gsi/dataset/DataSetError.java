@@ -10,6 +10,44 @@ package de.gsi.dataset;
  */
 public interface DataSetError extends DataSet {
 
+    /**
+     * Copies the negative errors of the index range [fromIndex, fromIndex + length[ of the given dimension into a
+     * caller-supplied array. @see DataSet#copyValues(int, int, double[], int, int)
+     *
+     * @param dimIndex the dimension index (ie. '0' equals 'X', '1' equals 'Y')
+     * @param fromIndex first data point index to be copied
+     * @param destination storage container (needs to hold at least {@code destinationOffset + length} elements)
+     * @param destinationOffset first index in the destination array
+     * @param length number of data points to be copied
+     * @return the destination array
+     */
+    default double[] copyErrorsNegative(final int dimIndex, final int fromIndex, final double[] destination,
+            final int destinationOffset, final int length) {
+        for (int i = 0; i < length; i++) {
+            destination[destinationOffset + i] = getErrorNegative(dimIndex, fromIndex + i);
+        }
+        return destination;
+    }
+
+    /**
+     * Copies the positive errors of the index range [fromIndex, fromIndex + length[ of the given dimension into a
+     * caller-supplied array. @see DataSet#copyValues(int, int, double[], int, int)
+     *
+     * @param dimIndex the dimension index (ie. '0' equals 'X', '1' equals 'Y')
+     * @param fromIndex first data point index to be copied
+     * @param destination storage container (needs to hold at least {@code destinationOffset + length} elements)
+     * @param destinationOffset first index in the destination array
+     * @param length number of data points to be copied
+     * @return the destination array
+     */
+    default double[] copyErrorsPositive(final int dimIndex, final int fromIndex, final double[] destination,
+            final int destinationOffset, final int length) {
+        for (int i = 0; i < length; i++) {
+            destination[destinationOffset + i] = getErrorPositive(dimIndex, fromIndex + i);
+        }
+        return destination;
+    }
+
     /**
      * Returns the negative error along the 'dimIndex' axis of a point specified by the <code>x</code> coordinate.
      * Please note that errors are assumed to be always positive!
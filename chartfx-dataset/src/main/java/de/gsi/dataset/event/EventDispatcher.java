@@ -0,0 +1,202 @@
+package de.gsi.dataset.event;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non-blocking, coalescing event dispatcher used by {@link EventSource#invokeListener(UpdateEvent, boolean)}.
+ * <p>
+ * Each listener owns a small mailbox holding only the latest pending event per (source, event type and -- for
+ * {@link AxisChangeEvent}s -- dimension). Posting an event merely replaces the equivalent mailbox entry and -- if the
+ * listener is not yet scheduled -- submits one drain task to the {@link EventThreadHelper#getExecutorService() event
+ * executor}. Thus, the producing thread never blocks on the listener and update storms (e.g. many {@code DataSet}s
+ * updated at high rates) collapse into at most one {@link EventListener#handle(UpdateEvent)} call per listener and
+ * equivalence class for each drain cycle.
+ * <p>
+ * Pending events are delivered in the order they were (last) posted, i.e. a replaced event moves behind all events
+ * posted before its replacement.
+ * <p>
+ * N.B. handler calls for a given listener are serialised (never executed concurrently) but different listeners are
+ * notified in parallel. Exceptions thrown by listeners are logged and do not propagate to the producer.
+ *
+ * @author rstein
+ */
+public final class EventDispatcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventDispatcher.class);
+    private static final EventDispatcher SELF = new EventDispatcher(EventThreadHelper.getExecutorService());
+    private final ExecutorService executor;
+    private final Map<EventListener, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    /**
+     * @param executor the executor service used to notify the listener
+     */
+    public EventDispatcher(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Waits until all events that have been posted are delivered, i.e. no listener has pending events or is being
+     * notified (e.g. for tests or orderly shut-down).
+     *
+     * @param timeout maximum time to wait
+     * @param unit time unit of the timeout argument
+     * @return {@code true} if all events have been delivered, {@code false} if the timeout elapsed before
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean flush(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (mailboxes) {
+            while (!mailboxes.isEmpty()) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(mailboxes, remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return number of listeners that presently have pending (not yet delivered) events
+     */
+    public int getPendingListenerCount() {
+        return mailboxes.size();
+    }
+
+    /**
+     * posts the event to the given listener. Returns immediately. Any pending event of the same source, type and (for
+     * {@link AxisChangeEvent}s) dimension that has not yet been delivered to this listener is replaced.
+     *
+     * @param listener the listener to be notified
+     * @param event the update event (N.B. event source must not be {@code null})
+     */
+    public void post(final EventListener listener, final UpdateEvent event) {
+        final EventKey key = new EventKey(event);
+        final Mailbox mailbox = mailboxes.compute(listener, (l, box) -> {
+            // N.B. insertion within 'compute' to be atomic w.r.t. the mailbox clean-up in 'drain'
+            final Mailbox retVal = box == null ? new Mailbox(l) : box;
+            retVal.put(key, event);
+            return retVal;
+        });
+
+        if (mailbox.scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(mailbox);
+            } catch (final RejectedExecutionException e) {
+                mailbox.scheduled.set(false);
+                LOGGER.atError().setCause(e).addArgument(listener).log("could not schedule notification for {}");
+            }
+        }
+    }
+
+    /**
+     * @return global dispatcher instance
+     */
+    public static EventDispatcher getInstance() {
+        return SELF;
+    }
+
+    /**
+     * coalescing key: events with equal keys are considered equivalent (N.B. identity of the source)
+     */
+    private static final class EventKey {
+        private final Object source;
+        private final Class<?> type;
+        private final int dimension;
+
+        private EventKey(final UpdateEvent event) {
+            source = event.getSource();
+            type = event.getClass();
+            dimension = event instanceof AxisChangeEvent ? ((AxisChangeEvent) event).getDimension() : -1;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof EventKey)) {
+                return false;
+            }
+            final EventKey other = (EventKey) obj;
+            return source == other.source && type == other.type && dimension == other.dimension; // NOPMD
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * System.identityHashCode(source) + type.hashCode()) + dimension;
+        }
+    }
+
+    private final class Mailbox implements Runnable {
+        private final EventListener listener;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // N.B. insertion ordered, guarded by itself
+        private final Map<EventKey, UpdateEvent> pending = new LinkedHashMap<>(8);
+
+        private Mailbox(final EventListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            do {
+                UpdateEvent event;
+                while ((event = poll()) != null) { // NOPMD - assignment in operand intended
+                    notifyListener(event);
+                }
+                scheduled.set(false);
+                // re-check to avoid lost wake-ups w.r.t. events posted while notifying
+            } while (hasPendingEvents() && scheduled.compareAndSet(false, true));
+
+            // release mailbox if idle, 'post' will re-create it when needed
+            mailboxes.computeIfPresent(listener, (l, box) -> box.scheduled.get() || box.hasPendingEvents() ? box : null);
+            if (mailboxes.isEmpty()) {
+                synchronized (mailboxes) {
+                    mailboxes.notifyAll();
+                }
+            }
+        }
+
+        private boolean hasPendingEvents() {
+            synchronized (pending) {
+                return !pending.isEmpty();
+            }
+        }
+
+        private UpdateEvent poll() {
+            synchronized (pending) {
+                final Iterator<UpdateEvent> iterator = pending.values().iterator();
+                if (!iterator.hasNext()) {
+                    return null;
+                }
+                final UpdateEvent event = iterator.next();
+                iterator.remove();
+                return event;
+            }
+        }
+
+        private void put(final EventKey key, final UpdateEvent event) {
+            synchronized (pending) {
+                // N.B. remove first so that the replacement moves to the end of the delivery order
+                pending.remove(key);
+                pending.put(key, event);
+            }
+        }
+
+        private void notifyListener(final UpdateEvent event) {
+            try {
+                listener.handle(event);
+            } catch (final Exception e) { // NOPMD -- listener errors must not stop the dispatcher
+                LOGGER.atError().setCause(e).addArgument(listener).log("listener {} finished with error");
+            }
+        }
+    }
+}
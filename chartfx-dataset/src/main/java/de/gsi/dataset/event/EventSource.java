@@ -1,11 +1,8 @@
 package de.gsi.dataset.event;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -67,45 +64,26 @@ public interface EventSource {
 
     /**
      * invoke object within update listener list
+     * <p>
+     * N.B. the parallel notification is non-blocking (fire-and-forget) and coalescing: events are posted to the
+     * {@link EventDispatcher} which delivers only the latest pending event per source and event type to each listener.
      * 
      * @param updateEvent the event the listeners are notified with
      * @param executeParallel {@code true} execute event listener via parallel executor service
      */
     default void invokeListener(final UpdateEvent updateEvent, final boolean executeParallel) {
-        synchronized (autoNotification()) {
-            if (!autoNotification().get() || updateEventListener() == null) {
-                return;
-            }
+        final List<EventListener> listeners = updateEventListener();
+        if (listeners == null || !autoNotification().get() || listeners.isEmpty()) {
+            return;
         }
-        synchronized (updateEventListener()) {
-            if (!executeParallel) {
-                // alt implementation:
-                for (EventListener listener : updateEventListener()) {
-                    listener.handle(updateEvent);
-                }
-                return;
-            }
-            final UpdateEvent event = updateEvent == null ? new UpdateEvent(this) : updateEvent;
-
-            final List<Callable<Boolean>> workers = new ArrayList<>();
-            for (EventListener listener : updateEventListener()) {
-                workers.add(() -> {
-                    listener.handle(event);
-                    return Boolean.TRUE;
-                });
-            }
-
-            try {
-                final List<Future<Boolean>> jobs = EventThreadHelper.getExecutorService().invokeAll(workers);
-                for (final Future<Boolean> future : jobs) {
-                    final Boolean execstate = future.get();
-                    if (!execstate) {
-                        throw new IllegalStateException("one parallel worker thread finished execution with error");
-                    }
-                }
-            } catch (final InterruptedException | ExecutionException e) {
-                throw new IllegalStateException("one parallel worker thread finished execution with error", e);
-            }
+        final UpdateEvent event = updateEvent == null && executeParallel ? new UpdateEvent(this) : updateEvent;
+        if (listeners instanceof CopyOnWriteArrayList) {
+            // N.B. copy-on-write listener lists permit lock-free (snapshot) iteration
+            notifyListeners(listeners, event, executeParallel);
+            return;
+        }
+        synchronized (listeners) {
+            notifyListeners(listeners, event, executeParallel);
         }
     }
 
@@ -139,8 +117,23 @@ public interface EventSource {
         }
     }
 
+    private static void notifyListeners(final List<EventListener> listeners, final UpdateEvent event,
+            final boolean executeParallel) {
+        if (!executeParallel) {
+            for (final EventListener listener : listeners) {
+                listener.handle(event);
+            }
+            return;
+        }
+        final EventDispatcher dispatcher = EventDispatcher.getInstance();
+        for (final EventListener listener : listeners) {
+            dispatcher.post(listener, event);
+        }
+    }
+
     /**
-     * @return list containing all update event listener (needs to be provided by implementing class)
+     * @return list containing all update event listener (needs to be provided by implementing class, preferably as
+     *         {@link CopyOnWriteArrayList} to permit lock-free event notification)
      */
     List<EventListener> updateEventListener();
 }
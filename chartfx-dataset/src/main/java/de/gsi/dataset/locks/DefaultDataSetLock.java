@@ -2,6 +2,7 @@ package de.gsi.dataset.locks;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.Supplier;
 
@@ -54,6 +55,10 @@ public class DefaultDataSetLock<D extends DataSet> implements DataSetLock<D> {
     private transient Thread writeLockedByThread; // NOPMD
     private final transient AtomicInteger readerCount = new AtomicInteger(0);
     private final transient AtomicInteger writerCount = new AtomicInteger(0);
+    private final transient LongAdder readerWaitTime = new LongAdder();
+    private final transient LongAdder writerWaitTime = new LongAdder();
+    private final transient LongAdder readerContention = new LongAdder();
+    private final transient LongAdder writerContention = new LongAdder();
     private final transient AtomicBoolean autoNotifyState = new AtomicBoolean(true);
     private final transient D dataSet;
 
@@ -132,6 +137,27 @@ public class DefaultDataSetLock<D extends DataSet> implements DataSetLock<D> {
         return readerCount.get();
     }
 
+    /**
+     * @return number of read lock acquisitions that had to wait for a writer
+     */
+    public long getReaderContentionCount() {
+        return readerContention.sum();
+    }
+
+    /**
+     * @return accumulated time [ns] readers waited to acquire the read lock
+     */
+    public long getReaderWaitTime() {
+        return readerWaitTime.sum();
+    }
+
+    /**
+     * @return number of write lock acquisitions that had to wait for readers or other writers
+     */
+    public long getWriterContentionCount() {
+        return writerContention.sum();
+    }
+
     /**
      * @return number of writers presently locked on this data set (N.B. all from the same thread)
      */
@@ -139,10 +165,34 @@ public class DefaultDataSetLock<D extends DataSet> implements DataSetLock<D> {
         return writerCount.get();
     }
 
+    /**
+     * @return accumulated time [ns] writers waited to acquire the write lock
+     */
+    public long getWriterWaitTime() {
+        return writerWaitTime.sum();
+    }
+
+    /**
+     * resets the accumulated lock wait time and contention statistics
+     */
+    public void resetLockStatistics() {
+        readerWaitTime.reset();
+        writerWaitTime.reset();
+        readerContention.reset();
+        writerContention.reset();
+    }
+
     @Override
     public D readLock() {
         if (readerCount.getAndIncrement() == 0) {
-            lastReadStamp = stampedLock.readLock();
+            long stamp = stampedLock.tryReadLock();
+            if (stamp == 0L) {
+                final long start = System.nanoTime();
+                stamp = stampedLock.readLock();
+                readerWaitTime.add(System.nanoTime() - start);
+                readerContention.increment();
+            }
+            lastReadStamp = stamp;
         }
 
         return dataSet;
@@ -217,7 +267,14 @@ public class DefaultDataSetLock<D extends DataSet> implements DataSetLock<D> {
     public D writeLock() {
         final Thread callingThread = Thread.currentThread();
         while (threadsAreUnequal(callingThread, writeLockedByThread)) {
-            lastWriteStamp = stampedLock.writeLock();
+            long stamp = stampedLock.tryWriteLock();
+            if (stamp == 0L) {
+                final long start = System.nanoTime();
+                stamp = stampedLock.writeLock();
+                writerWaitTime.add(System.nanoTime() - start);
+                writerContention.increment();
+            }
+            lastWriteStamp = stamp;
             synchronized (stampedLock) {
                 // copy threadID
                 writeLockedByThread = callingThread;
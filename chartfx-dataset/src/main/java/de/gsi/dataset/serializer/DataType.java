@@ -38,6 +38,11 @@ public enum DataType {
     CHAR_ARRAY(108, "char_array", "[C", 2, Cat.ARRAY, char[].class, Character[].class),
     STRING_ARRAY(109, "string_array", "[java.lang.String", 1, Cat.ARRAY, String[].class),
 
+    // compressed double arrays (decoded transparently by BinarySerialiser#getDoubleArray(IoBuffer, DataType))
+    DOUBLE_ARRAY_XOR(110, "double_array_xor", "[D", 1, Cat.ARRAY),
+    DOUBLE_ARRAY_DOD(111, "double_array_dod", "[D", 1, Cat.ARRAY),
+    DOUBLE_ARRAY_QUANTISED(112, "double_array_quantised", "[D", 1, Cat.ARRAY),
+
     // complex objects
     COLLECTION(200, "collection", "", 1, Cat.ARRAY, Collection.class),
     ENUM(201, "enum", "java.lang.Enum", 4, Cat.ARRAY, Enum.class), LIST(202, "list", "", 1, Cat.ARRAY, List.class),
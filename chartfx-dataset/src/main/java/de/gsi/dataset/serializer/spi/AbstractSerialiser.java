@@ -21,6 +21,7 @@ public abstract class AbstractSerialiser {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractSerialiser.class);
     private static final Map<String, Constructor<Object>> CLASS_CONSTRUCTOR_MAP = new ConcurrentHashMap<>();
     private final Map<Class<?>, List<FieldSerialiser>> classMap = new ConcurrentHashMap<>();
+    private final Map<ClassFieldDescription, Optional<FieldSerialiser>> serialiserCache = new ConcurrentHashMap<>();
     protected Consumer<String> startMarkerFunction;
     protected Consumer<String> endMarkerFunction;
 
@@ -40,6 +41,8 @@ public abstract class AbstractSerialiser {
         if (list.isEmpty() || !list.contains(serialiser)) {
             list.add(serialiser);
         }
+        // N.B. new definition may change the serialiser resolution of already known fields
+        serialiserCache.clear();
     }
 
     protected boolean checkClassCompatibility(List<Class<?>> ref1, List<Class<?>> ref2) {
@@ -79,6 +82,22 @@ public abstract class AbstractSerialiser {
 
     public abstract Object deserialiseObject(final Object obj) throws IllegalAccessException;
 
+    /**
+     * cached variant of {@link #findFieldSerialiserForKnownClassOrInterface(Class, List)}: the serialiser is resolved
+     * once per field description, subsequent look-ups are O(1) and allocation-free
+     *
+     * @param field the class field description
+     * @return matching field serialiser (if any)
+     */
+    public Optional<FieldSerialiser> findFieldSerialiser(final ClassFieldDescription field) {
+        final Optional<FieldSerialiser> serialiser = serialiserCache.get(field);
+        if (serialiser != null) { // NOPMD - Optional is never null when cached
+            return serialiser;
+        }
+        return serialiserCache.computeIfAbsent(field,
+                f -> findFieldSerialiserForKnownClassOrInterface(f.getType(), f.getActualTypeArguments()));
+    }
+
     public Optional<FieldSerialiser> findFieldSerialiserForKnownClassOrInterface(Class<?> clazz,
             List<Class<?>> classGenericArguments) {
         if (clazz == null) {
@@ -151,27 +170,16 @@ public abstract class AbstractSerialiser {
 
     public void serialiseObject(final Object obj, final ClassFieldDescription root, final int recursionDepth)
             throws IllegalAccessException {
-        final Class<?> fieldClass = root.getType();
-        List<Class<?>> fieldGenericTypes = root.getActualTypeArguments();
-
-        if (isClassKnown(fieldClass, fieldGenericTypes) && recursionDepth != 0) {
+        final Optional<FieldSerialiser> serialiser = findFieldSerialiser(root);
+        if (serialiser.isPresent() && recursionDepth != 0) {
             // serialise known class object
-            Optional<FieldSerialiser> serialiser = findFieldSerialiserForKnownClassOrInterface(fieldClass,
-                    root.getActualTypeArguments());
-
-            if (serialiser.isPresent()) {
-                Object classObj = root.getMemberClassObject(obj);
-                if (classObj == null) {
-                    throw new IllegalStateException("classObj of type '" + root.getTypeName() + "' for '"
-                            + root.getFieldNameRelative() + "' is null");
-                }
-                serialiser.get().getWriterFunction().exec(classObj, root);
-                return;
+            final Object classObj = root.getMemberClassObject(obj);
+            if (classObj == null) {
+                throw new IllegalStateException("classObj of type '" + root.getTypeName() + "' for '"
+                        + root.getFieldNameRelative() + "' is null");
             }
-
-            // should not happen (because of 'isClassKnown')
-            throw new IllegalStateException("should not happen -- cannot serialise field - "
-                    + root.getFieldNameRelative() + " - class type = " + root.getTypeName());
+            serialiser.get().getWriterFunction().exec(classObj, root);
+            return;
         }
         // cannot serialise field check whether this is a container class and contains
         // serialisable children
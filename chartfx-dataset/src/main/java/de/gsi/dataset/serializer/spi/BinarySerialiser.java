@@ -169,6 +169,10 @@ public class BinarySerialiser { // NOPMD - omen est omen
             return toDoubles(BinarySerialiser.getFloatArray(readBuffer));
         case DOUBLE_ARRAY:
             return BinarySerialiser.getDoubleArray(readBuffer);
+        case DOUBLE_ARRAY_XOR:
+        case DOUBLE_ARRAY_DOD:
+        case DOUBLE_ARRAY_QUANTISED:
+            return getEncodedDoubleArray(readBuffer, dataType);
         case CHAR_ARRAY:
             return toDoubles(BinarySerialiser.getCharArray(readBuffer));
         case STRING_ARRAY:
@@ -178,6 +182,32 @@ public class BinarySerialiser { // NOPMD - omen est omen
         }
     }
 
+    /**
+     * decodes a compressed double array as written by
+     * {@link #put(IoBuffer, String, double[], int[], DataType, double)}
+     *
+     * @param readBuffer buffer positioned after the array dimensions
+     * @param encoding one of {@link DataType#DOUBLE_ARRAY_XOR}, {@link DataType#DOUBLE_ARRAY_DOD} or
+     *        {@link DataType#DOUBLE_ARRAY_QUANTISED}
+     * @return decoded array
+     */
+    public static double[] getEncodedDoubleArray(final IoBuffer readBuffer, final DataType encoding) {
+        final int nElements = readBuffer.getInt();
+        final double precision = encoding == DataType.DOUBLE_ARRAY_QUANTISED ? readBuffer.getDouble() : 0.0;
+        final byte[] payload = readBuffer.getByteArray();
+        final double[] values = new double[nElements];
+        switch (encoding) {
+        case DOUBLE_ARRAY_XOR:
+            return DoubleArrayCodec.decodeXor(payload, values, nElements);
+        case DOUBLE_ARRAY_DOD:
+            return DoubleArrayCodec.decodeDeltaOfDelta(payload, values, nElements);
+        case DOUBLE_ARRAY_QUANTISED:
+            return DoubleArrayCodec.decodeQuantised(payload, values, nElements, precision);
+        default:
+            throw new IllegalArgumentException("dataType '" + encoding + "' is not a compressed double array");
+        }
+    }
+
     @SuppressWarnings({ "unused", "PMD.PrematureDeclaration" }) // variables need to be read from stream
     public static Enum<?> getEnum(final IoBuffer readBuffer, final Enum<?> enumeration) {
         // read value vector
@@ -551,6 +581,49 @@ public class BinarySerialiser { // NOPMD - omen est omen
         adjustDataByteSizeBlock(buffer, sizeMarkerStart);
     }
 
+    /**
+     * writes a double array using an optional compression codec. The encoding is transparent to the reader, i.e.
+     * {@link #getDoubleArray(IoBuffer, DataType)} decodes all encodings.
+     *
+     * @param buffer buffer to write to
+     * @param fieldName field name
+     * @param arrayValue values to be written
+     * @param dims array dimensions
+     * @param encoding one of {@link DataType#DOUBLE_ARRAY} (uncompressed), {@link DataType#DOUBLE_ARRAY_XOR}
+     *        (lossless, smooth signals), {@link DataType#DOUBLE_ARRAY_DOD} (lossless, monotonic axes) or
+     *        {@link DataType#DOUBLE_ARRAY_QUANTISED} (lossy, absolute error bound by {@code precision/2})
+     * @param precision quantisation step (only used for {@link DataType#DOUBLE_ARRAY_QUANTISED})
+     */
+    public static void put(final IoBuffer buffer, final String fieldName, final double[] arrayValue, final int[] dims,
+            final DataType encoding, final double precision) {
+        final byte[] payload;
+        final int nElements = Math.min(getNumberOfElements(dims), arrayValue.length);
+        switch (encoding) {
+        case DOUBLE_ARRAY:
+            put(buffer, fieldName, arrayValue, dims);
+            return;
+        case DOUBLE_ARRAY_XOR:
+            payload = DoubleArrayCodec.encodeXor(arrayValue, nElements);
+            break;
+        case DOUBLE_ARRAY_DOD:
+            payload = DoubleArrayCodec.encodeDeltaOfDelta(arrayValue, nElements);
+            break;
+        case DOUBLE_ARRAY_QUANTISED:
+            payload = DoubleArrayCodec.encodeQuantised(arrayValue, nElements, precision);
+            break;
+        default:
+            throw new IllegalArgumentException("dataType '" + encoding + "' is not a double array encoding");
+        }
+        // N.B. payload length + nElements, precision and byte array length
+        final long sizeMarkerStart = putArrayHeader(buffer, fieldName, encoding, dims, payload.length + 16);
+        buffer.putInt(nElements);
+        if (encoding == DataType.DOUBLE_ARRAY_QUANTISED) {
+            buffer.putDouble(precision);
+        }
+        buffer.putByteArray(payload);
+        adjustDataByteSizeBlock(buffer, sizeMarkerStart);
+    }
+
     public static void put(final IoBuffer buffer, final String fieldName, final Enum<?> enumeration) {
         if (enumeration == null) {
             return;
@@ -858,6 +931,12 @@ public class BinarySerialiser { // NOPMD - omen est omen
             size = readBuffer.getInt();
             leftOver = BinarySerialiser.getStringArray(readBuffer);
             break;
+        case DOUBLE_ARRAY_XOR:
+        case DOUBLE_ARRAY_DOD:
+        case DOUBLE_ARRAY_QUANTISED:
+            leftOver = getEncodedDoubleArray(readBuffer, fieldHeader.getDataType());
+            size = ((double[]) leftOver).length;
+            break;
         case MAP:
             size = readBuffer.getInt();
             leftOver = BinarySerialiser.getMap(readBuffer, new ConcurrentHashMap<>());
@@ -7,6 +7,7 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +32,7 @@ public class ClassFieldDescription implements Iterable<ClassFieldDescription> {
      * infinite recursion
      */
     public static int maxRecursionLevel = 10;
+    private static final ClassFieldDescription[] NO_PATH = new ClassFieldDescription[0];
     private String toStringName; // computed on demand and cached
     private final int hierarchyDepth;
     private final Field field; // since we cannot derive from 'final class Field'
@@ -39,6 +41,10 @@ public class ClassFieldDescription implements Iterable<ClassFieldDescription> {
     private final Optional<ClassFieldDescription> parent;
     private final List<ClassFieldDescription> children = new ArrayList<>();
     private final Map<String, ClassFieldDescription> hashMap = new ConcurrentHashMap<>();
+    private volatile Map<String, ClassFieldDescription> subTreeIndex; // computed on demand and cached
+    private volatile Map<String, ClassFieldDescription> childIndex; // computed on demand and cached
+    private volatile FieldAccessor fieldAccessor; // computed on demand and cached
+    private volatile ClassFieldDescription[] memberClassPath; // computed on demand and cached
 
     private final Class<?> classType;
     private final DataType dataType;
@@ -195,6 +201,39 @@ public class ClassFieldDescription implements Iterable<ClassFieldDescription> {
         return null;
     }
 
+    /**
+     * @param fieldName name of the direct child field
+     * @return first direct child with the given name (N.B. O(1) hash lookup) or {@code null} if not found
+     */
+    public ClassFieldDescription findChild(final String fieldName) {
+        Map<String, ClassFieldDescription> index = childIndex;
+        if (index == null) {
+            index = new HashMap<>(); // NOPMD - read-only after publication
+            for (final ClassFieldDescription child : children) {
+                index.putIfAbsent(child.getFieldName(), child);
+            }
+            childIndex = index;
+        }
+        return index.get(fieldName);
+    }
+
+    /**
+     * @param fieldName name of the field
+     * @return first field (in depth-first order, including this) with the given name within the hierarchy of this
+     *         field description (N.B. O(1) hash lookup) or {@code null} if not found
+     */
+    public ClassFieldDescription findField(final String fieldName) {
+        Map<String, ClassFieldDescription> index = subTreeIndex;
+        if (index == null) {
+            index = new HashMap<>(); // NOPMD - read-only after publication
+            for (final ClassFieldDescription field : this) {
+                index.putIfAbsent(field.getFieldName(), field);
+            }
+            subTreeIndex = index;
+        }
+        return index.get(fieldName);
+    }
+
     /**
      * @return generic type argument name of the class (e.g. for List&lt;String&gt; this would return
      *         'java.lang.String')
@@ -253,6 +292,19 @@ public class ClassFieldDescription implements Iterable<ClassFieldDescription> {
         return field;
     }
 
+    /**
+     * @return method-handle based accessor to the underlying field (created once and cached) or {@code null} if it's a
+     *         root node
+     */
+    public FieldAccessor getFieldAccessor() {
+        FieldAccessor accessor = fieldAccessor;
+        if (accessor == null && field != null) {
+            accessor = new FieldAccessor(field);
+            fieldAccessor = accessor;
+        }
+        return accessor;
+    }
+
     /**
      * @return the hashMap containing the child references by field name
      */
@@ -319,21 +371,20 @@ public class ClassFieldDescription implements Iterable<ClassFieldDescription> {
         if (isRoot()) {
             return rootObject;
         }
-        final int depth = getHierarchyDepth() - 1;
+        final ClassFieldDescription[] path = getMemberClassPath();
+        if (path == null) {
+            return rootObject;
+        }
         Object temp = rootObject;
         Object parent1 = rootObject;
-        for (int i = 0; i < depth; i++) {
-            final ClassFieldDescription localParent = getParent(this, depth - i);
-
+        for (final ClassFieldDescription localParent : path) {
             try {
-                if (localParent.getField() == null) {
-                    return rootObject;
-                }
-                temp = localParent.getField().get(parent1);
+                final FieldAccessor accessor = localParent.getFieldAccessor();
+                temp = accessor.get(parent1);
                 if (temp == null) {
-                    temp = allocateMemberClassField(parent1, localParent);
+                    allocateMemberClassField(parent1, localParent);
                 }
-                if ((temp = localParent.getField().get(parent1)) == null) {
+                if ((temp = accessor.get(parent1)) == null) {
                     throw new IllegalStateException(
                             "could not allocate inner class object field = " + field.toString());
                 }
@@ -349,6 +400,28 @@ public class ClassFieldDescription implements Iterable<ClassFieldDescription> {
         return temp;
     }
 
+    /**
+     * @return chain of enclosing member class fields from the root object to this field's parent, {@code null} if the
+     *         field is directly accessible from the root object (computed once and cached)
+     */
+    private ClassFieldDescription[] getMemberClassPath() {
+        ClassFieldDescription[] path = memberClassPath;
+        if (path == null) {
+            final int depth = getHierarchyDepth() - 1;
+            path = new ClassFieldDescription[depth];
+            for (int i = 0; i < depth; i++) {
+                path[i] = getParent(this, depth - i);
+                if (path[i].getField() == null) {
+                    // N.B. root object reached
+                    path = NO_PATH;
+                    break;
+                }
+            }
+            memberClassPath = path;
+        }
+        return path == NO_PATH ? null : path; // NOPMD - intended identity check
+    }
+
     /**
      * @return the modifierID
      */
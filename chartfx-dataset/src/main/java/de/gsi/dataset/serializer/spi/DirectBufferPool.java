@@ -0,0 +1,150 @@
+package de.gsi.dataset.serializer.spi;
+
+import java.nio.ByteOrder;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Pool of direct (off-heap) {@link java.nio.ByteBuffer}s organised in power-of-two size classes.
+ * <p>
+ * Buffers are handed out in native byte order with a capacity equal to the next size class of the requested capacity
+ * and are returned to the pool via {@link #release(java.nio.ByteBuffer)}. The pool retains at most
+ * {@link #getMaxPooledBytes()} bytes; buffers exceeding this budget or the largest size class are left to the garbage
+ * collector.
+ *
+ * @author rstein
+ */
+public class DirectBufferPool {
+    public static final int MIN_SIZE_CLASS = 10; // 1 kB
+    public static final int MAX_SIZE_CLASS = 28; // 256 MB
+    private static final long DEFAULT_MAX_POOLED_BYTES = 64L << 20; // 64 MB
+    private static final DirectBufferPool DEFAULT_POOL = new DirectBufferPool(DEFAULT_MAX_POOLED_BYTES);
+    private final ConcurrentLinkedQueue<java.nio.ByteBuffer>[] freeLists;
+    private final long maxPooledBytes;
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * @param maxPooledBytes maximum number of bytes retained by free buffers in this pool
+     */
+    @SuppressWarnings("unchecked")
+    public DirectBufferPool(final long maxPooledBytes) {
+        AssertUtils.gtEqThanZero("maxPooledBytes", maxPooledBytes);
+        this.maxPooledBytes = maxPooledBytes;
+        freeLists = new ConcurrentLinkedQueue[MAX_SIZE_CLASS + 1];
+        for (int i = MIN_SIZE_CLASS; i <= MAX_SIZE_CLASS; i++) {
+            freeLists[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * @param minCapacity minimum required capacity in bytes
+     * @return cleared direct buffer in native byte order with a capacity of at least {@code minCapacity}
+     */
+    public java.nio.ByteBuffer acquire(final int minCapacity) {
+        AssertUtils.gtEqThanZero("minCapacity", minCapacity);
+        final int sizeClass = sizeClass(minCapacity);
+        if (sizeClass > MAX_SIZE_CLASS) {
+            missCount.incrementAndGet();
+            return java.nio.ByteBuffer.allocateDirect(minCapacity).order(ByteOrder.nativeOrder());
+        }
+        final java.nio.ByteBuffer buffer = freeLists[sizeClass].poll();
+        if (buffer == null) {
+            missCount.incrementAndGet();
+            return java.nio.ByteBuffer.allocateDirect(1 << sizeClass).order(ByteOrder.nativeOrder());
+        }
+        pooledBytes.addAndGet(-buffer.capacity());
+        hitCount.incrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * drops all free buffers retained by this pool
+     */
+    public void clear() {
+        for (int i = MIN_SIZE_CLASS; i <= MAX_SIZE_CLASS; i++) {
+            java.nio.ByteBuffer buffer;
+            while ((buffer = freeLists[i].poll()) != null) { // NOPMD - assignment in operand is intended
+                pooledBytes.addAndGet(-buffer.capacity());
+            }
+        }
+    }
+
+    /**
+     * @return number of {@link #acquire(int)} calls served from the pool
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return maximum number of bytes retained by free buffers in this pool
+     */
+    public long getMaxPooledBytes() {
+        return maxPooledBytes;
+    }
+
+    /**
+     * @return number of {@link #acquire(int)} calls that required a new allocation
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return number of bytes currently retained by free buffers in this pool
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /**
+     * returns a buffer to the pool. N.B. the buffer must not be used by the caller after this call.
+     *
+     * @param buffer buffer previously obtained through {@link #acquire(int)}
+     * @return {@code true} if the buffer has been retained by the pool
+     */
+    public boolean release(final java.nio.ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect() || Integer.bitCount(buffer.capacity()) != 1) {
+            return false;
+        }
+        final int sizeClass = Integer.numberOfTrailingZeros(buffer.capacity());
+        if (sizeClass < MIN_SIZE_CLASS || sizeClass > MAX_SIZE_CLASS) {
+            return false;
+        }
+        if (pooledBytes.addAndGet(buffer.capacity()) > maxPooledBytes) {
+            pooledBytes.addAndGet(-buffer.capacity());
+            return false;
+        }
+        freeLists[sizeClass].offer(buffer);
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return DirectBufferPool.class.getSimpleName() + " [pooled=" + pooledBytes.get() + "/" + maxPooledBytes
+                + " bytes, hits=" + hitCount.get() + ", misses=" + missCount.get() + "]";
+    }
+
+    /**
+     * @return default pool shared by all {@link PooledByteBuffer}s not explicitly bound to another pool
+     */
+    public static DirectBufferPool getInstance() {
+        return DEFAULT_POOL;
+    }
+
+    /**
+     * @param capacity requested capacity in bytes
+     * @return power-of-two exponent of the smallest size class that can hold {@code capacity} bytes
+     */
+    public static int sizeClass(final int capacity) {
+        if (capacity <= (1 << MIN_SIZE_CLASS)) {
+            return MIN_SIZE_CLASS;
+        }
+        return Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1);
+    }
+}
@@ -0,0 +1,348 @@
+package de.gsi.dataset.serializer.spi;
+
+import java.util.Arrays;
+
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Compression codecs for double arrays used by {@link BinarySerialiser} for the
+ * {@link de.gsi.dataset.serializer.DataType#DOUBLE_ARRAY_XOR},
+ * {@link de.gsi.dataset.serializer.DataType#DOUBLE_ARRAY_DOD} and
+ * {@link de.gsi.dataset.serializer.DataType#DOUBLE_ARRAY_QUANTISED} encodings:
+ * <ul>
+ * <li>XOR: lossless Gorilla-style compression, each value is XOR-ed with its predecessor and only the meaningful bits
+ * (w/o leading and trailing zeros) are stored -- efficient for smooth or slowly varying signals</li>
+ * <li>DOD: lossless delta-of-delta compression of the IEEE-754 bit patterns -- efficient for monotonic, (nearly)
+ * equidistant data such as time or x-axes (typically 1-2 bit per sample)</li>
+ * <li>QUANTISED: lossy fixed-point quantisation with a declared precision, the differences of consecutive quantised
+ * values are stored as zig-zag variable-length integers -- the absolute error is bound by {@code precision/2}.
+ * Non-finite or out-of-range values are stored verbatim.</li>
+ * </ul>
+ *
+ * @author rstein
+ */
+public final class DoubleArrayCodec {
+    private static final long MAX_QUANTISED = 1L << 52; // beyond this the quantised value is not exact anymore
+    private static final int QUANTISED_ESCAPE = 0; // marks verbatim encoded values
+
+    private DoubleArrayCodec() {
+        // utility class
+    }
+
+    /**
+     * @param data encoded delta-of-delta byte stream
+     * @param dst destination array (needs to hold at least {@code nElements})
+     * @param nElements number of elements to decode
+     * @return destination array
+     */
+    public static double[] decodeDeltaOfDelta(final byte[] data, final double[] dst, final int nElements) {
+        if (nElements == 0) {
+            return dst;
+        }
+        final BitReader reader = new BitReader(data);
+        long value = reader.read(64);
+        dst[0] = Double.longBitsToDouble(value);
+        if (nElements == 1) {
+            return dst;
+        }
+        long delta = reader.read(64);
+        value += delta;
+        dst[1] = Double.longBitsToDouble(value);
+        for (int i = 2; i < nElements; i++) {
+            final long dod;
+            if (reader.read(1) == 0) {
+                dod = 0;
+            } else if (reader.read(1) == 0) {
+                dod = unZigZag(reader.read(7));
+            } else if (reader.read(1) == 0) {
+                dod = unZigZag(reader.read(9));
+            } else if (reader.read(1) == 0) {
+                dod = unZigZag(reader.read(12));
+            } else if (reader.read(1) == 0) {
+                dod = unZigZag(reader.read(32));
+            } else {
+                dod = unZigZag(reader.read(64));
+            }
+            delta += dod;
+            value += delta;
+            dst[i] = Double.longBitsToDouble(value);
+        }
+        return dst;
+    }
+
+    /**
+     * @param data encoded quantised byte stream
+     * @param dst destination array (needs to hold at least {@code nElements})
+     * @param nElements number of elements to decode
+     * @param precision quantisation step used for encoding
+     * @return destination array
+     */
+    public static double[] decodeQuantised(final byte[] data, final double[] dst, final int nElements,
+            final double precision) {
+        final int[] position = { 0 };
+        long quantised = 0;
+        for (int i = 0; i < nElements; i++) {
+            final long code = readVarLong(data, position);
+            if (code == QUANTISED_ESCAPE) {
+                long bits = 0;
+                for (int k = 0; k < Long.BYTES; k++) {
+                    bits |= (data[position[0]++] & 0xFFL) << (8 * k);
+                }
+                dst[i] = Double.longBitsToDouble(bits);
+                continue;
+            }
+            quantised += unZigZag(code - 1);
+            dst[i] = quantised * precision;
+        }
+        return dst;
+    }
+
+    /**
+     * @param data encoded XOR byte stream
+     * @param dst destination array (needs to hold at least {@code nElements})
+     * @param nElements number of elements to decode
+     * @return destination array
+     */
+    public static double[] decodeXor(final byte[] data, final double[] dst, final int nElements) {
+        if (nElements == 0) {
+            return dst;
+        }
+        final BitReader reader = new BitReader(data);
+        long previous = reader.read(64);
+        dst[0] = Double.longBitsToDouble(previous);
+        int leadingZeros = 0;
+        int trailingZeros = 0;
+        for (int i = 1; i < nElements; i++) {
+            if (reader.read(1) != 0) {
+                if (reader.read(1) != 0) {
+                    leadingZeros = (int) reader.read(5);
+                    final int meaningfulBits = (int) reader.read(6) + 1;
+                    trailingZeros = Long.SIZE - leadingZeros - meaningfulBits;
+                }
+                previous ^= reader.read(Long.SIZE - leadingZeros - trailingZeros) << trailingZeros;
+            }
+            dst[i] = Double.longBitsToDouble(previous);
+        }
+        return dst;
+    }
+
+    /**
+     * @param values source values
+     * @param nElements number of elements to encode
+     * @return delta-of-delta encoded byte stream
+     */
+    public static byte[] encodeDeltaOfDelta(final double[] values, final int nElements) {
+        checkArguments(values, nElements);
+        final BitWriter writer = new BitWriter(nElements / 4 + 24);
+        if (nElements == 0) {
+            return writer.toByteArray();
+        }
+        long previous = Double.doubleToRawLongBits(values[0]);
+        writer.write(previous, 64);
+        if (nElements == 1) {
+            return writer.toByteArray();
+        }
+        long value = Double.doubleToRawLongBits(values[1]);
+        long previousDelta = value - previous;
+        writer.write(previousDelta, 64);
+        previous = value;
+        for (int i = 2; i < nElements; i++) {
+            value = Double.doubleToRawLongBits(values[i]);
+            final long delta = value - previous;
+            final long dod = zigZag(delta - previousDelta);
+            if (dod == 0) {
+                writer.write(0b0, 1);
+            } else if (dod < 0) {
+                // zig-zag value exceeds the signed range (ie. difference >= 2^62)
+                writer.write(0b11111, 5);
+                writer.write(dod, 64);
+            } else if (dod < (1L << 7)) {
+                writer.write(0b10, 2);
+                writer.write(dod, 7);
+            } else if (dod < (1L << 9)) {
+                writer.write(0b110, 3);
+                writer.write(dod, 9);
+            } else if (dod < (1L << 12)) {
+                writer.write(0b1110, 4);
+                writer.write(dod, 12);
+            } else if (dod < (1L << 32)) {
+                writer.write(0b11110, 5);
+                writer.write(dod, 32);
+            } else {
+                writer.write(0b11111, 5);
+                writer.write(dod, 64);
+            }
+            previousDelta = delta;
+            previous = value;
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * @param values source values
+     * @param nElements number of elements to encode
+     * @param precision quantisation step (ie. absolute error is bound by {@code precision/2})
+     * @return quantised byte stream
+     */
+    public static byte[] encodeQuantised(final double[] values, final int nElements, final double precision) {
+        checkArguments(values, nElements);
+        AssertUtils.gtThanZero("precision", precision);
+        byte[] data = new byte[nElements * 2 + 16];
+        int position = 0;
+        long previous = 0;
+        for (int i = 0; i < nElements; i++) {
+            if (data.length - position < 10 + Long.BYTES) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            final double scaled = values[i] / precision;
+            if (!Double.isFinite(scaled) || Math.abs(scaled) >= MAX_QUANTISED) {
+                position = writeVarLong(data, position, QUANTISED_ESCAPE);
+                final long bits = Double.doubleToRawLongBits(values[i]);
+                for (int k = 0; k < Long.BYTES; k++) {
+                    data[position++] = (byte) (bits >>> (8 * k));
+                }
+                continue;
+            }
+            final long quantised = Math.round(scaled);
+            position = writeVarLong(data, position, zigZag(quantised - previous) + 1);
+            previous = quantised;
+        }
+        return Arrays.copyOf(data, position);
+    }
+
+    /**
+     * @param values source values
+     * @param nElements number of elements to encode
+     * @return XOR encoded byte stream
+     */
+    public static byte[] encodeXor(final double[] values, final int nElements) {
+        checkArguments(values, nElements);
+        final BitWriter writer = new BitWriter(nElements * 2 + 16);
+        if (nElements == 0) {
+            return writer.toByteArray();
+        }
+        long previous = Double.doubleToRawLongBits(values[0]);
+        writer.write(previous, 64);
+        int previousLeadingZeros = Integer.MAX_VALUE; // no valid block yet
+        int previousTrailingZeros = 0;
+        for (int i = 1; i < nElements; i++) {
+            final long value = Double.doubleToRawLongBits(values[i]);
+            final long xor = value ^ previous;
+            previous = value;
+            if (xor == 0) {
+                writer.write(0b0, 1);
+                continue;
+            }
+            // N.B. leading zeros are limited to 5 bits
+            final int leadingZeros = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            final int trailingZeros = Long.numberOfTrailingZeros(xor);
+            if (leadingZeros >= previousLeadingZeros && trailingZeros >= previousTrailingZeros) {
+                // re-use previous block position
+                writer.write(0b10, 2);
+                writer.write(xor >>> previousTrailingZeros, Long.SIZE - previousLeadingZeros - previousTrailingZeros);
+            } else {
+                final int meaningfulBits = Long.SIZE - leadingZeros - trailingZeros;
+                writer.write(0b11, 2);
+                writer.write(leadingZeros, 5);
+                writer.write(meaningfulBits - 1L, 6);
+                writer.write(xor >>> trailingZeros, meaningfulBits);
+                previousLeadingZeros = leadingZeros;
+                previousTrailingZeros = trailingZeros;
+            }
+        }
+        return writer.toByteArray();
+    }
+
+    private static void checkArguments(final double[] values, final int nElements) {
+        AssertUtils.notNull("values", values);
+        if (nElements < 0 || nElements > values.length) {
+            throw new IllegalArgumentException("nElements " + nElements + " out of range [0, " + values.length + "]");
+        }
+    }
+
+    private static long readVarLong(final byte[] data, final int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position[0]++];
+            value |= (b & 0x7FL) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int writeVarLong(final byte[] data, final int position, final long value) {
+        int pos = position;
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            data[pos++] = (byte) ((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        data[pos++] = (byte) remaining;
+        return pos;
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static class BitReader {
+        private final byte[] data;
+        private long bitPosition;
+
+        protected BitReader(final byte[] data) {
+            this.data = data;
+        }
+
+        protected long read(final int nBits) {
+            long value = 0;
+            int remaining = nBits;
+            while (remaining > 0) {
+                final int byteIndex = (int) (bitPosition >>> 3);
+                final int bitOffset = (int) (bitPosition & 7);
+                final int available = 8 - bitOffset;
+                final int n = Math.min(available, remaining);
+                final int bits = ((data[byteIndex] & 0xFF) >>> (available - n)) & ((1 << n) - 1);
+                value = (value << n) | bits;
+                remaining -= n;
+                bitPosition += n;
+            }
+            return value;
+        }
+    }
+
+    private static class BitWriter {
+        private byte[] data;
+        private long bitPosition;
+
+        protected BitWriter(final int initialCapacity) {
+            data = new byte[Math.max(16, initialCapacity)];
+        }
+
+        protected byte[] toByteArray() {
+            return Arrays.copyOf(data, (int) ((bitPosition + 7) >>> 3));
+        }
+
+        protected void write(final long value, final int nBits) {
+            if (((bitPosition + nBits) >>> 3) + 1 >= data.length) {
+                data = Arrays.copyOf(data, data.length * 2 + 16);
+            }
+            int remaining = nBits;
+            while (remaining > 0) {
+                final int byteIndex = (int) (bitPosition >>> 3);
+                final int bitOffset = (int) (bitPosition & 7);
+                final int available = 8 - bitOffset;
+                final int n = Math.min(available, remaining);
+                final int bits = (int) (value >>> (remaining - n)) & ((1 << n) - 1);
+                data[byteIndex] |= (byte) (bits << (available - n));
+                remaining -= n;
+                bitPosition += n;
+            }
+        }
+    }
+}
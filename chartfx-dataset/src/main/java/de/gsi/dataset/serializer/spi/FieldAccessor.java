@@ -0,0 +1,247 @@
+package de.gsi.dataset.serializer.spi;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * fast access to a given class member field based on {@link MethodHandle}s that are created once per field (see
+ * {@link ClassFieldDescription#getFieldAccessor()}) and adapted to exact primitive signatures, i.e. the get/set
+ * operations require neither reflection access checks nor boxing of primitive values.
+ * <p>
+ * N.B. falls back to plain reflection if the handles cannot be created (e.g. for static fields or module
+ * restrictions). The primitive getter/setter must match the field type exactly.
+ *
+ * @author rstein
+ */
+@SuppressWarnings({ "PMD.AvoidCatchingThrowable", "PMD.AvoidThrowingRawExceptionTypes" }) // MethodHandle API
+public final class FieldAccessor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FieldAccessor.class);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private final Field field;
+    private final MethodHandle getter; // (Object)T with T being the primitive type or Object
+    private final MethodHandle setter; // (Object,T)void with T being the primitive type or Object
+
+    /**
+     * @param field the field to be accessed
+     */
+    public FieldAccessor(final Field field) {
+        if (field == null) {
+            throw new IllegalArgumentException("field must not be null");
+        }
+        this.field = field;
+        MethodHandle localGetter = null;
+        MethodHandle localSetter = null;
+        if (!Modifier.isStatic(field.getModifiers())) {
+            try {
+                final Class<?> type = field.getType().isPrimitive() ? field.getType() : Object.class;
+                final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), LOOKUP);
+                localGetter = lookup.unreflectGetter(field).asType(MethodType.methodType(type, Object.class));
+                localSetter = lookup.unreflectSetter(field)
+                                      .asType(MethodType.methodType(void.class, Object.class, type));
+            } catch (IllegalAccessException | SecurityException | IllegalArgumentException e) {
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.atDebug().setCause(e).addArgument(field).log("fall back to reflection for field '{}'");
+                }
+                localGetter = null;
+                localSetter = null;
+            }
+        }
+        getter = localGetter;
+        setter = localSetter;
+    }
+
+    public Object get(final Object obj) {
+        try {
+            return getter == null ? field.get(obj) : (Object) getter.invokeExact(obj);
+        } catch (final Throwable t) { // NOPMD
+            throw rethrow(t);
+        }
+    }
+
+    public boolean getBoolean(final Object obj) {
+        try {
+            return getter == null ? field.getBoolean(obj) : (boolean) getter.invokeExact(obj);
+        } catch (final Throwable t) { // NOPMD
+            throw rethrow(t);
+        }
+    }
+
+    public byte getByte(final Object obj) {
+        try {
+            return getter == null ? field.getByte(obj) : (byte) getter.invokeExact(obj);
+        } catch (final Throwable t) { // NOPMD
+            throw rethrow(t);
+        }
+    }
+
+    public double getDouble(final Object obj) {
+        try {
+            return getter == null ? field.getDouble(obj) : (double) getter.invokeExact(obj);
+        } catch (final Throwable t) { // NOPMD
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * @return the underlying field
+     */
+    public Field getField() {
+        return field;
+    }
+
+    public float getFloat(final Object obj) {
+        try {
+            return getter == null ? field.getFloat(obj) : (float) getter.invokeExact(obj);
+        } catch (final Throwable t) { // NOPMD
+            throw rethrow(t);
+        }
+    }
+
+    public int getInt(final Object obj) {
+        try {
+            return getter == null ? field.getInt(obj) : (int) getter.invokeExact(obj);
+        } catch (final Throwable t) { // NOPMD
+            throw rethrow(t);
+        }
+    }
+
+    public long getLong(final Object obj) {
+        try {
+            return getter == null ? field.getLong(obj) : (long) getter.invokeExact(obj);
+        } catch (final Throwable t) { // NOPMD
+            throw rethrow(t);
+        }
+    }
+
+    public short getShort(final Object obj) {
+        try {
+            return getter == null ? field.getShort(obj) : (short) getter.invokeExact(obj);
+        } catch (final Throwable t) { // NOPMD
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * @return {@code true} if the field is accessed through method handles, {@code false} if through reflection
+     */
+    public boolean isMethodHandleBased() {
+        return getter != null;
+    }
+
+    public void set(final Object obj, final Object value) {
+        try {
+            if (setter == null) {
+                field.set(obj, value);
+            } else {
+                setter.invokeExact(obj, value);
+            }
+        } catch (final Throwable t) { // NOPMD
+            throw rethrow(t);
+        }
+    }
+
+    public void setBoolean(final Object obj, final boolean value) {
+        try {
+            if (setter == null) {
+                field.setBoolean(obj, value);
+            } else {
+                setter.invokeExact(obj, value);
+            }
+        } catch (final Throwable t) { // NOPMD
+            throw rethrow(t);
+        }
+    }
+
+    public void setByte(final Object obj, final byte value) {
+        try {
+            if (setter == null) {
+                field.setByte(obj, value);
+            } else {
+                setter.invokeExact(obj, value);
+            }
+        } catch (final Throwable t) { // NOPMD
+            throw rethrow(t);
+        }
+    }
+
+    public void setDouble(final Object obj, final double value) {
+        try {
+            if (setter == null) {
+                field.setDouble(obj, value);
+            } else {
+                setter.invokeExact(obj, value);
+            }
+        } catch (final Throwable t) { // NOPMD
+            throw rethrow(t);
+        }
+    }
+
+    public void setFloat(final Object obj, final float value) {
+        try {
+            if (setter == null) {
+                field.setFloat(obj, value);
+            } else {
+                setter.invokeExact(obj, value);
+            }
+        } catch (final Throwable t) { // NOPMD
+            throw rethrow(t);
+        }
+    }
+
+    public void setInt(final Object obj, final int value) {
+        try {
+            if (setter == null) {
+                field.setInt(obj, value);
+            } else {
+                setter.invokeExact(obj, value);
+            }
+        } catch (final Throwable t) { // NOPMD
+            throw rethrow(t);
+        }
+    }
+
+    public void setLong(final Object obj, final long value) {
+        try {
+            if (setter == null) {
+                field.setLong(obj, value);
+            } else {
+                setter.invokeExact(obj, value);
+            }
+        } catch (final Throwable t) { // NOPMD
+            throw rethrow(t);
+        }
+    }
+
+    public void setShort(final Object obj, final short value) {
+        try {
+            if (setter == null) {
+                field.setShort(obj, value);
+            } else {
+                setter.invokeExact(obj, value);
+            }
+        } catch (final Throwable t) { // NOPMD
+            throw rethrow(t);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return FieldAccessor.class.getSimpleName() + " for: " + field;
+    }
+
+    private static RuntimeException rethrow(final Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IllegalStateException("could not access field", t);
+    }
+}
@@ -0,0 +1,593 @@
+package de.gsi.dataset.serializer.spi;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import de.gsi.dataset.serializer.IoBuffer;
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * IoBuffer implementation based on direct (off-heap) {@link java.nio.ByteBuffer}s that are obtained from and returned
+ * to a {@link DirectBufferPool}.
+ * <p>
+ * The data is encoded in native byte order, i.e. binary compatible with {@link FastByteBuffer} on the same platform.
+ * Since the memory is off-heap, the serialised content can be written to or read from files and sockets via
+ * {@link #writeTo(WritableByteChannel)} and {@link #readFrom(ReadableByteChannel, int)} without intermediate heap
+ * copies. Re-using the buffer (or releasing it and acquiring a new one from the pool) avoids per-message allocations.
+ * <p>
+ * The buffer is reference-counted: it is created with a count of one, {@link #retain()} increments and
+ * {@link #release()} decrements the count. The underlying memory is returned to the pool once the count reaches zero
+ * after which the buffer must not be used anymore.
+ * <p>
+ * usage example:
+ *
+ * <pre>
+ * final PooledByteBuffer buffer = new PooledByteBuffer(); // N.B. keep caching this object
+ * DataSetSerialiser.writeDataSetToByteArray(dataSet, buffer, false);
+ * buffer.writeTo(socketChannel);
+ * buffer.reset();
+ * // [..]
+ * buffer.release(); // eventually return memory to pool
+ * </pre>
+ *
+ * @author rstein
+ */
+@SuppressWarnings("PMD.TooManyMethods") // NOPMD - implements IoBuffer interface
+public class PooledByteBuffer implements IoBuffer {
+    private static final int DEFAULT_INITIAL_CAPACITY = 1000;
+    private static final java.nio.ByteBuffer RELEASED = java.nio.ByteBuffer.allocateDirect(0);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicInteger refCount = new AtomicInteger(1);
+    private final DirectBufferPool pool;
+    private java.nio.ByteBuffer nioByteBuffer;
+
+    /**
+     * construct new direct-memory buffer with DEFAULT_INITIAL_CAPACITY from the default pool
+     */
+    public PooledByteBuffer() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * construct new direct-memory buffer from the default pool
+     *
+     * @param capacity minimum initial capacity
+     */
+    public PooledByteBuffer(final int capacity) {
+        this(capacity, DirectBufferPool.getInstance());
+    }
+
+    /**
+     * construct new direct-memory buffer
+     *
+     * @param capacity minimum initial capacity
+     * @param pool buffer pool to acquire memory from and to release memory to
+     */
+    public PooledByteBuffer(final int capacity, final DirectBufferPool pool) {
+        AssertUtils.gtEqThanZero("capacity", capacity);
+        AssertUtils.notNull("pool", pool);
+        this.pool = pool;
+        nioByteBuffer = pool.acquire(capacity);
+    }
+
+    /**
+     * @return underlying direct buffer. N.B. shares position and limit with this IoBuffer and is replaced when the
+     *         buffer needs to grow
+     */
+    public java.nio.ByteBuffer asByteBuffer() {
+        return nioByteBuffer;
+    }
+
+    @Override
+    public int capacity() {
+        return nioByteBuffer.capacity();
+    }
+
+    @Override
+    public IoBuffer clear() {
+        nioByteBuffer.clear();
+        return this;
+    }
+
+    @Override
+    public IoBuffer ensureAdditionalCapacity(final long capacity) {
+        return ensureCapacity(nioByteBuffer.position() + capacity);
+    }
+
+    @Override
+    public IoBuffer ensureCapacity(final long newCapacity) {
+        if (newCapacity <= nioByteBuffer.capacity()) {
+            if (newCapacity > nioByteBuffer.limit()) {
+                nioByteBuffer.limit(nioByteBuffer.capacity());
+            }
+            return this;
+        }
+        // grow geometrically to amortise copies
+        return forceCapacity(Math.max(newCapacity, 2L * nioByteBuffer.capacity()), nioByteBuffer.position());
+    }
+
+    @Override
+    public IoBuffer forceCapacity(final long length, final long preserve) {
+        if (refCount.get() <= 0) {
+            throw new IllegalStateException("buffer has already been released");
+        }
+        if (length == capacity()) {
+            return this;
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("requested capacity " + length + " exceeds maximum buffer size");
+        }
+        final java.nio.ByteBuffer newBuffer = pool.acquire((int) length);
+        final int position = nioByteBuffer.position();
+        final int bytesToCopy = (int) Math.min(Math.min(preserve, nioByteBuffer.capacity()), newBuffer.capacity());
+        nioByteBuffer.clear().limit(bytesToCopy);
+        newBuffer.put(nioByteBuffer);
+        newBuffer.clear().position(Math.min(position, newBuffer.capacity()));
+        pool.release(nioByteBuffer);
+        nioByteBuffer = newBuffer;
+        return this;
+    }
+
+    @Override
+    public boolean getBoolean() {
+        return nioByteBuffer.get() != 0;
+    }
+
+    @Override
+    public boolean[] getBooleanArray(final boolean[] dst, final long offset, final int length) {
+        final int arraySize = getInt();
+        final boolean[] ret = dst == null ? new boolean[arraySize + (int) offset] : dst;
+        final int end = (int) offset + (dst == null ? arraySize : Math.min(arraySize, length));
+        for (int i = (int) offset; i < end; i++) {
+            ret[i] = nioByteBuffer.get() != 0;
+        }
+        return ret;
+    }
+
+    @Override
+    public byte getByte() {
+        return nioByteBuffer.get();
+    }
+
+    @Override
+    public byte[] getByteArray(final byte[] dst, final long offset, final int length) {
+        final int arraySize = getInt();
+        final byte[] ret = dst == null ? new byte[arraySize + (int) offset] : dst;
+        nioByteBuffer.get(ret, (int) offset, dst == null ? arraySize : Math.min(arraySize, length));
+        return ret;
+    }
+
+    @Override
+    public char getChar() {
+        return nioByteBuffer.getChar();
+    }
+
+    @Override
+    public char[] getCharArray(final char[] dst, final long offset, final int length) {
+        final int arraySize = getInt();
+        final char[] ret = dst == null ? new char[arraySize + (int) offset] : dst;
+        final int nElements = dst == null ? arraySize : Math.min(arraySize, length);
+        nioByteBuffer.asCharBuffer().get(ret, (int) offset, nElements);
+        skip(nElements * Character.BYTES);
+        return ret;
+    }
+
+    @Override
+    public double getDouble() {
+        return nioByteBuffer.getDouble();
+    }
+
+    @Override
+    public double[] getDoubleArray(final double[] dst, final long offset, final int length) {
+        final int arraySize = getInt();
+        final double[] ret = dst == null ? new double[arraySize + (int) offset] : dst;
+        final int nElements = dst == null ? arraySize : Math.min(arraySize, length);
+        nioByteBuffer.asDoubleBuffer().get(ret, (int) offset, nElements);
+        skip(nElements * Double.BYTES);
+        return ret;
+    }
+
+    @Override
+    public float getFloat() {
+        return nioByteBuffer.getFloat();
+    }
+
+    @Override
+    public float[] getFloatArray(final float[] dst, final long offset, final int length) {
+        final int arraySize = getInt();
+        final float[] ret = dst == null ? new float[arraySize + (int) offset] : dst;
+        final int nElements = dst == null ? arraySize : Math.min(arraySize, length);
+        nioByteBuffer.asFloatBuffer().get(ret, (int) offset, nElements);
+        skip(nElements * Float.BYTES);
+        return ret;
+    }
+
+    @Override
+    public int getInt() {
+        return nioByteBuffer.getInt();
+    }
+
+    @Override
+    public int[] getIntArray(final int[] dst, final long offset, final int length) {
+        final int arraySize = getInt();
+        final int[] ret = dst == null ? new int[arraySize + (int) offset] : dst;
+        final int nElements = dst == null ? arraySize : Math.min(arraySize, length);
+        nioByteBuffer.asIntBuffer().get(ret, (int) offset, nElements);
+        skip(nElements * Integer.BYTES);
+        return ret;
+    }
+
+    @Override
+    public long getLong() {
+        return nioByteBuffer.getLong();
+    }
+
+    @Override
+    public long[] getLongArray(final long[] dst, final long offset, final int length) {
+        final int arraySize = getInt();
+        final long[] ret = dst == null ? new long[arraySize + (int) offset] : dst;
+        final int nElements = dst == null ? arraySize : Math.min(arraySize, length);
+        nioByteBuffer.asLongBuffer().get(ret, (int) offset, nElements);
+        skip(nElements * Long.BYTES);
+        return ret;
+    }
+
+    @Override
+    public short getShort() { // NOPMD by rstein
+        return nioByteBuffer.getShort();
+    }
+
+    @Override
+    public short[] getShortArray(final short[] dst, final long offset, final int length) { // NOPMD by rstein
+        final int arraySize = getInt();
+        final short[] ret = dst == null ? new short[arraySize + (int) offset] : dst; // NOPMD by rstein
+        final int nElements = dst == null ? arraySize : Math.min(arraySize, length);
+        nioByteBuffer.asShortBuffer().get(ret, (int) offset, nElements);
+        skip(nElements * Short.BYTES);
+        return ret;
+    }
+
+    @Override
+    public String getString() {
+        final int arraySize = getInt() - 1; // for C++ zero terminated string
+        final byte[] values = new byte[arraySize];
+        nioByteBuffer.get(values, 0, arraySize);
+        getByte(); // For C++ zero terminated string
+        return new String(values);
+    }
+
+    @Override
+    public String[] getStringArray(final String[] dst, final long offset, final int length) {
+        final int arraySize = getInt();
+        final String[] ret = dst == null ? new String[arraySize + (int) offset] : dst;
+        final int size = dst == null ? arraySize : Math.min(arraySize, length);
+        for (int k = 0; k < size; k++) {
+            ret[k + (int) offset] = getString();
+        }
+        return ret;
+    }
+
+    @Override
+    public boolean hasRemaining() {
+        return nioByteBuffer.hasRemaining();
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return nioByteBuffer.isReadOnly();
+    }
+
+    @Override
+    public long limit() {
+        return nioByteBuffer.limit();
+    }
+
+    @Override
+    public IoBuffer limit(final int newLimit) {
+        nioByteBuffer.limit(newLimit);
+        return this;
+    }
+
+    @Override
+    public ReadWriteLock lock() {
+        return lock;
+    }
+
+    @Override
+    public long position() {
+        return nioByteBuffer.position();
+    }
+
+    @Override
+    public IoBuffer position(final long newPosition) {
+        nioByteBuffer.position((int) newPosition);
+        return this;
+    }
+
+    @Override
+    public IoBuffer putBoolean(final boolean value) {
+        nioByteBuffer.put((byte) (value ? 1 : 0));
+        return this;
+    }
+
+    @Override
+    public IoBuffer putBooleanArray(final boolean[] src, final long offset, final int nToCopy) {
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        ensureAdditionalCapacity(Integer.BYTES + (long) nElements);
+        putInt(nElements);
+        final int end = (int) offset + nElements;
+        for (int i = (int) offset; i < end; i++) {
+            nioByteBuffer.put((byte) (src[i] ? 1 : 0));
+        }
+        return this;
+    }
+
+    @Override
+    public IoBuffer putByte(final byte value) {
+        nioByteBuffer.put(value);
+        return this;
+    }
+
+    @Override
+    public IoBuffer putByteArray(final byte[] src, final long offset, final int nToCopy) {
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        ensureAdditionalCapacity(Integer.BYTES + (long) nElements);
+        putInt(nElements);
+        nioByteBuffer.put(src, (int) offset, nElements);
+        return this;
+    }
+
+    @Override
+    public IoBuffer putChar(final char value) {
+        nioByteBuffer.putChar(value);
+        return this;
+    }
+
+    @Override
+    public IoBuffer putCharArray(final char[] src, final long offset, final int nToCopy) {
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        ensureAdditionalCapacity(Integer.BYTES + (long) nElements * Character.BYTES);
+        putInt(nElements);
+        nioByteBuffer.asCharBuffer().put(src, (int) offset, nElements);
+        skip(nElements * Character.BYTES);
+        return this;
+    }
+
+    @Override
+    public IoBuffer putDouble(final double value) {
+        nioByteBuffer.putDouble(value);
+        return this;
+    }
+
+    @Override
+    public IoBuffer putDoubleArray(final double[] src, final long offset, final int nToCopy) {
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        ensureAdditionalCapacity(Integer.BYTES + (long) nElements * Double.BYTES);
+        putInt(nElements);
+        nioByteBuffer.asDoubleBuffer().put(src, (int) offset, nElements);
+        skip(nElements * Double.BYTES);
+        return this;
+    }
+
+    @Override
+    public IoBuffer putFloat(final float value) {
+        nioByteBuffer.putFloat(value);
+        return this;
+    }
+
+    @Override
+    public IoBuffer putFloatArray(final float[] src, final long offset, final int nToCopy) {
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        ensureAdditionalCapacity(Integer.BYTES + (long) nElements * Float.BYTES);
+        putInt(nElements);
+        nioByteBuffer.asFloatBuffer().put(src, (int) offset, nElements);
+        skip(nElements * Float.BYTES);
+        return this;
+    }
+
+    @Override
+    public IoBuffer putInt(final int value) {
+        nioByteBuffer.putInt(value);
+        return this;
+    }
+
+    @Override
+    public IoBuffer putIntArray(final int[] src, final long offset, final int nToCopy) {
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        ensureAdditionalCapacity(Integer.BYTES + (long) nElements * Integer.BYTES);
+        putInt(nElements);
+        nioByteBuffer.asIntBuffer().put(src, (int) offset, nElements);
+        skip(nElements * Integer.BYTES);
+        return this;
+    }
+
+    @Override
+    public IoBuffer putLong(final long value) {
+        nioByteBuffer.putLong(value);
+        return this;
+    }
+
+    @Override
+    public IoBuffer putLongArray(final long[] src, final long offset, final int nToCopy) {
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        ensureAdditionalCapacity(Integer.BYTES + (long) nElements * Long.BYTES);
+        putInt(nElements);
+        nioByteBuffer.asLongBuffer().put(src, (int) offset, nElements);
+        skip(nElements * Long.BYTES);
+        return this;
+    }
+
+    @Override
+    public IoBuffer putShort(final short value) { // NOPMD by rstein
+        nioByteBuffer.putShort(value);
+        return this;
+    }
+
+    @Override
+    public IoBuffer putShortArray(final short[] src, final long offset, final int nToCopy) { // NOPMD by rstein
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        ensureAdditionalCapacity(Integer.BYTES + (long) nElements * Short.BYTES);
+        putInt(nElements);
+        nioByteBuffer.asShortBuffer().put(src, (int) offset, nElements);
+        skip(nElements * Short.BYTES);
+        return this;
+    }
+
+    @Override
+    public IoBuffer putString(final String string) {
+        final int strLength = string == null ? 0 : string.length();
+        ensureAdditionalCapacity(Integer.BYTES + strLength + 1L);
+        putInt(strLength + 1); // for C++ zero terminated string
+        for (int i = 0; i < strLength; ++i) {
+            nioByteBuffer.put((byte) string.charAt(i));
+        }
+        nioByteBuffer.put((byte) 0); // For C++ zero terminated string
+        return this;
+    }
+
+    @Override
+    public IoBuffer putStringArray(final String[] src, final long offset, final int nToCopy) {
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        ensureAdditionalCapacity(Integer.BYTES);
+        putInt(nElements);
+        for (int k = 0; k < nElements; k++) {
+            putString(src[k + (int) offset]);
+        }
+        return this;
+    }
+
+    /**
+     * Reads exactly {@code nBytes} from the given channel into the beginning of this buffer. The buffer is grown if
+     * necessary and afterwards positioned at zero with the limit set to {@code nBytes}, ready for de-serialisation.
+     *
+     * @param channel source, e.g. a {@link java.nio.channels.FileChannel} or
+     *        {@link java.nio.channels.SocketChannel}
+     * @param nBytes number of bytes to read
+     * @return itself (fluent design)
+     * @throws IOException in case of channel errors or if the channel reached end-of-stream prematurely
+     */
+    public PooledByteBuffer readFrom(final ReadableByteChannel channel, final int nBytes) throws IOException {
+        AssertUtils.notNull("channel", channel);
+        AssertUtils.gtEqThanZero("nBytes", nBytes);
+        nioByteBuffer.clear();
+        ensureCapacity(nBytes);
+        nioByteBuffer.limit(nBytes);
+        while (nioByteBuffer.hasRemaining()) {
+            if (channel.read(nioByteBuffer) < 0) {
+                throw new IOException("premature end-of-stream after " + nioByteBuffer.position() + " of " + nBytes
+                                      + " bytes");
+            }
+        }
+        nioByteBuffer.flip();
+        return this;
+    }
+
+    /**
+     * @return the current reference count, the buffer has been returned to the pool if this is zero
+     */
+    public int refCount() {
+        return refCount.get();
+    }
+
+    /**
+     * Decrements the reference count and returns the underlying memory to the pool if the count reached zero.
+     *
+     * @return {@code true} if the buffer has been released by this call
+     */
+    public boolean release() {
+        final int count = refCount.decrementAndGet();
+        if (count < 0) {
+            refCount.incrementAndGet();
+            throw new IllegalStateException("buffer has already been released");
+        }
+        if (count > 0) {
+            return false;
+        }
+        final java.nio.ByteBuffer oldBuffer = nioByteBuffer;
+        nioByteBuffer = RELEASED;
+        pool.release(oldBuffer);
+        return true;
+    }
+
+    @Override
+    public long remaining() {
+        return nioByteBuffer.remaining();
+    }
+
+    @Override
+    public IoBuffer reset() {
+        nioByteBuffer.clear();
+        return this;
+    }
+
+    /**
+     * Increments the reference count, e.g. before handing the buffer to another thread that will call
+     * {@link #release()} once it is done.
+     *
+     * @return itself (fluent design)
+     */
+    public PooledByteBuffer retain() {
+        int count;
+        do {
+            count = refCount.get();
+            if (count <= 0) {
+                throw new IllegalStateException("buffer has already been released");
+            }
+        } while (!refCount.compareAndSet(count, count + 1));
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return PooledByteBuffer.class.getSimpleName() + " [position=" + nioByteBuffer.position() + ", limit="
+                + nioByteBuffer.limit() + ", capacity=" + nioByteBuffer.capacity() + ", refCount=" + refCount.get()
+                + "]";
+    }
+
+    @Override
+    public IoBuffer trim() {
+        return trim(nioByteBuffer.position());
+    }
+
+    @Override
+    public IoBuffer trim(final int requestedCapacity) {
+        if (requestedCapacity >= capacity() || nioByteBuffer.position() > requestedCapacity
+                || DirectBufferPool.sizeClass(requestedCapacity) >= DirectBufferPool.sizeClass(capacity())) {
+            // N.B. pooled memory is organised in size classes, trimming within the same class is a no-op
+            return this;
+        }
+        return forceCapacity(requestedCapacity, nioByteBuffer.position());
+    }
+
+    /**
+     * Writes the content between zero and the current position to the given channel. The position and limit of this
+     * buffer are unchanged afterwards.
+     *
+     * @param channel destination, e.g. a {@link java.nio.channels.FileChannel} or
+     *        {@link java.nio.channels.SocketChannel}
+     * @return number of bytes written
+     * @throws IOException in case of channel errors
+     */
+    public int writeTo(final WritableByteChannel channel) throws IOException {
+        AssertUtils.notNull("channel", channel);
+        final int position = nioByteBuffer.position();
+        final int limit = nioByteBuffer.limit();
+        nioByteBuffer.flip();
+        try {
+            while (nioByteBuffer.hasRemaining()) {
+                channel.write(nioByteBuffer);
+            }
+        } finally {
+            nioByteBuffer.limit(limit).position(position);
+        }
+        return position;
+    }
+
+    private void skip(final int nBytes) {
+        nioByteBuffer.position(nioByteBuffer.position() + nBytes);
+    }
+}
@@ -17,12 +17,14 @@ import de.gsi.dataset.AxisDescription;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.DataSetError;
 import de.gsi.dataset.DataSetMetaData;
+import de.gsi.dataset.event.UpdatedDataEvent;
 import de.gsi.dataset.serializer.DataType;
 import de.gsi.dataset.serializer.IoBuffer;
 import de.gsi.dataset.serializer.spi.BinarySerialiser;
 import de.gsi.dataset.serializer.spi.BinarySerialiser.HeaderInfo;
 import de.gsi.dataset.serializer.spi.FieldHeader;
 import de.gsi.dataset.spi.DataSetBuilder;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
 import de.gsi.dataset.utils.AssertUtils;
 import de.gsi.dataset.utils.DataSetUtilsHelper;
 
@@ -34,6 +36,14 @@ import de.gsi.dataset.utils.DataSetUtilsHelper;
  * <li>via {@link #setDataLablesSerialised(boolean)} (default: false) to control whether data labels and styles shall be
  * processed</li>
  * <li>via {@link #setMetaDataSerialised(boolean)} (default: true) to control whether meta data shall be processed</li>
+ * <li>using the incremental wire mode (see
+ * {@link #writeDataSetDeltaToByteArray(DoubleErrorDataSet, IoBuffer, long, boolean)} and
+ * {@link #applyDataSetDeltaFromByteArray(IoBuffer, DoubleErrorDataSet, long)}) that transmits only the index ranges
+ * that were appended or modified since a given version stamp</li>
+ * <li>via {@link #setXArrayEncoding(DataType)}, {@link #setYArrayEncoding(DataType)} and
+ * {@link #setQuantisationPrecision(double)} to select compressed encodings for the 64-bit numeric arrays (e.g.
+ * delta-of-delta for equidistant x-axes or XOR compression for smooth signals). The encoding is detected when
+ * reading.</li>
  * </ul>
  *
  * @author rstein
@@ -61,14 +71,89 @@ public class DataSetSerialiser extends DataSetUtilsHelper {
     private static final String VAL_RMS = "rms";
     private static final String VAL_MEAN = "mean";
     private static final String VAL_INTEGRAL = "integral";
+    private static final String DELTA_VERSION = "deltaVersion";
+    private static final String DELTA_BASE_VERSION = "deltaBaseVersion";
+    private static final String DELTA_DATA_COUNT = "deltaDataCount";
+    private static final String DELTA_RANGES = "deltaRanges";
+    /** base version stamp denoting a full (non-incremental) update */
+    public static final long FULL_UPDATE = -1;
     private static boolean transmitDataLabels = true;
     private static boolean transmitMetaData = true;
+    private static final DataType[] NUMERIC_ARRAY_TYPES = { DataType.DOUBLE_ARRAY, DataType.FLOAT_ARRAY,
+        DataType.DOUBLE_ARRAY_XOR, DataType.DOUBLE_ARRAY_DOD, DataType.DOUBLE_ARRAY_QUANTISED };
+    private static DataType xArrayEncoding = DataType.DOUBLE_ARRAY;
+    private static DataType yArrayEncoding = DataType.DOUBLE_ARRAY;
+    private static double quantisationPrecision = 1e-6;
 
     protected DataSetSerialiser() {
         super();
         // utility class
     }
 
+    /**
+     * Applies an update written by
+     * {@link #writeDataSetDeltaToByteArray(DoubleErrorDataSet, IoBuffer, long, boolean)} to an existing data set, i.e.
+     * resizes it to the sender's data count and overwrites the transmitted index ranges. N.B. data labels, styles and
+     * meta data are not part of the incremental update.
+     *
+     * @param readBuffer IoBuffer containing the update
+     * @param target data set to be updated (e.g. mirror of a remote data set)
+     * @param knownVersion sender's version stamp the target is synchronised to (ie. the return value of the previous
+     *        call), or {@link #FULL_UPDATE} if none
+     * @return sender's version stamp the target is synchronised to after this update
+     * @throws InputMismatchException if the update is incremental and based on a version newer than
+     *         {@code knownVersion} (ie. a full update needs to be requested)
+     */
+    public static long applyDataSetDeltaFromByteArray(final IoBuffer readBuffer, final DoubleErrorDataSet target,
+            final long knownVersion) {
+        AssertUtils.notNull("readBuffer", readBuffer);
+        AssertUtils.notNull("target", target);
+        BinarySerialiser.checkHeaderInfo(readBuffer);
+        final List<FieldHeader> fieldHeaderList = BinarySerialiser.parseIoStream(readBuffer).getChildren();
+
+        final long version = checkFieldCompatibility(readBuffer, fieldHeaderList, DELTA_VERSION, DataType.LONG)
+                                     .map(h -> BinarySerialiser.getLong(readBuffer))
+                                     .orElseThrow(() -> new InputMismatchException("missing field " + DELTA_VERSION));
+        final long baseVersion = checkFieldCompatibility(readBuffer, fieldHeaderList, DELTA_BASE_VERSION,
+                DataType.LONG).map(h -> BinarySerialiser.getLong(readBuffer)).orElse(FULL_UPDATE);
+        if (baseVersion != FULL_UPDATE && (knownVersion == FULL_UPDATE || baseVersion > knownVersion)) {
+            throw new InputMismatchException("incremental update based on version " + baseVersion
+                                             + " cannot be applied to data synchronised to version " + knownVersion);
+        }
+        final int dataCount = checkFieldCompatibility(readBuffer, fieldHeaderList, DELTA_DATA_COUNT, DataType.INT)
+                                      .map(h -> BinarySerialiser.getInteger(readBuffer))
+                                      .orElseThrow(() -> new InputMismatchException("missing " + DELTA_DATA_COUNT));
+        final int[] ranges = checkFieldCompatibility(readBuffer, fieldHeaderList, DELTA_RANGES, DataType.INT_ARRAY)
+                                     .map(h -> BinarySerialiser.getIntArray(readBuffer))
+                                     .orElseGet(() -> new int[0]);
+        final double[] x = getDeltaValues(readBuffer, fieldHeaderList, X_ARRAY_NAME);
+        final double[] y = getDeltaValues(readBuffer, fieldHeaderList, Y_ARRAY_NAME);
+        final double[] yen = getDeltaValues(readBuffer, fieldHeaderList, YEN);
+        final double[] yep = getDeltaValues(readBuffer, fieldHeaderList, YEP);
+
+        final boolean notify = target.autoNotification().getAndSet(false);
+        try {
+            target.lock().writeLockGuard(() -> {
+                target.resize(dataCount);
+                int offset = 0;
+                for (int i = 0; i < ranges.length; i += 2) {
+                    final int length = ranges[i + 1] - ranges[i];
+                    copyRange(x, offset, target.getXValues(), ranges[i], length);
+                    copyRange(y, offset, target.getYValues(), ranges[i], length);
+                    copyRange(yen, offset, target.getErrorsNegative(DIM_Y), ranges[i], length);
+                    copyRange(yep, offset, target.getErrorsPositive(DIM_Y), ranges[i], length);
+                    target.getChangeLog().markModified(ranges[i], ranges[i + 1]);
+                    offset += length;
+                }
+                target.getAxisDescriptions().forEach(AxisDescription::clear);
+            });
+        } finally {
+            target.autoNotification().set(notify);
+        }
+        target.fireInvalidated(new UpdatedDataEvent(target, "applied delta update"));
+        return version;
+    }
+
     protected static Optional<FieldHeader> checkFieldCompatibility(final IoBuffer buffer,
             final List<FieldHeader> fieldHeaderList, final String fieldName, final DataType... requireDataTypes) {
         Optional<FieldHeader> fieldHeader = FieldHeader.findHeaderFor(fieldHeaderList, fieldName);
@@ -96,6 +181,63 @@ public class DataSetSerialiser extends DataSetUtilsHelper {
         return Optional.empty();
     }
 
+    private static DataType checkEncoding(final DataType encoding) {
+        AssertUtils.notNull("encoding", encoding);
+        if (encoding == DataType.FLOAT_ARRAY || !Arrays.asList(NUMERIC_ARRAY_TYPES).contains(encoding)) {
+            throw new IllegalArgumentException("encoding '" + encoding + "' is not a double array encoding");
+        }
+        return encoding;
+    }
+
+    private static void copyRange(final double[] src, final int srcPos, final double[] dest, final int destPos,
+            final int length) {
+        if (src.length < srcPos + length) {
+            throw new InputMismatchException("update contains " + src.length + " values, expected at least "
+                                             + (srcPos + length));
+        }
+        System.arraycopy(src, srcPos, dest, destPos, length);
+    }
+
+    private static double[] getDeltaValues(final IoBuffer readBuffer, final List<FieldHeader> fieldHeaderList,
+            final String fieldName) {
+        final Optional<FieldHeader> header = checkFieldCompatibility(readBuffer, fieldHeaderList, fieldName,
+                NUMERIC_ARRAY_TYPES);
+        return header.isPresent() ? BinarySerialiser.getDoubleArray(readBuffer, header.get().getDataType())
+                                  : new double[0];
+    }
+
+    private static double[] gatherRanges(final double[] values, final int[] ranges, final int nValues) {
+        final double[] ret = new double[nValues];
+        int offset = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            final int length = ranges[i + 1] - ranges[i];
+            System.arraycopy(values, ranges[i], ret, offset, length);
+            offset += length;
+        }
+        return ret;
+    }
+
+    /**
+     * @return quantisation step used for {@link DataType#DOUBLE_ARRAY_QUANTISED} encoded arrays
+     */
+    public static double getQuantisationPrecision() {
+        return quantisationPrecision;
+    }
+
+    /**
+     * @return encoding used for 64-bit x-axis arrays
+     */
+    public static DataType getXArrayEncoding() {
+        return xArrayEncoding;
+    }
+
+    /**
+     * @return encoding used for 64-bit y-axis and error arrays
+     */
+    public static DataType getYArrayEncoding() {
+        return yArrayEncoding;
+    }
+
     public static boolean isDataLablesSerialised() {
         return transmitDataLabels;
     }
@@ -203,34 +345,32 @@ public class DataSetSerialiser extends DataSetUtilsHelper {
 
         Optional<FieldHeader> header;
 
-        header = checkFieldCompatibility(readBuffer, fieldHeaderList, X_ARRAY_NAME, DataType.DOUBLE_ARRAY,
-                DataType.FLOAT_ARRAY);
+        header = checkFieldCompatibility(readBuffer, fieldHeaderList, X_ARRAY_NAME, NUMERIC_ARRAY_TYPES);
         if (header.isPresent()) {
             builder.setXValues(BinarySerialiser.getDoubleArray(readBuffer, header.get().getDataType()));
         }
 
-        header = checkFieldCompatibility(readBuffer, fieldHeaderList, Y_ARRAY_NAME, DataType.DOUBLE_ARRAY,
-                DataType.FLOAT_ARRAY);
+        header = checkFieldCompatibility(readBuffer, fieldHeaderList, Y_ARRAY_NAME, NUMERIC_ARRAY_TYPES);
         if (header.isPresent()) {
             builder.setYValues(BinarySerialiser.getDoubleArray(readBuffer, header.get().getDataType()));
         }
 
-        header = checkFieldCompatibility(readBuffer, fieldHeaderList, XEN, DataType.DOUBLE_ARRAY, DataType.FLOAT_ARRAY);
+        header = checkFieldCompatibility(readBuffer, fieldHeaderList, XEN, NUMERIC_ARRAY_TYPES);
         if (header.isPresent()) {
             builder.setXNegErrorNoCopy(BinarySerialiser.getDoubleArray(readBuffer, header.get().getDataType()));
         }
 
-        header = checkFieldCompatibility(readBuffer, fieldHeaderList, XEP, DataType.DOUBLE_ARRAY, DataType.FLOAT_ARRAY);
+        header = checkFieldCompatibility(readBuffer, fieldHeaderList, XEP, NUMERIC_ARRAY_TYPES);
         if (header.isPresent()) {
             builder.setXPosErrorNoCopy(BinarySerialiser.getDoubleArray(readBuffer, header.get().getDataType()));
         }
 
-        header = checkFieldCompatibility(readBuffer, fieldHeaderList, YEN, DataType.DOUBLE_ARRAY, DataType.FLOAT_ARRAY);
+        header = checkFieldCompatibility(readBuffer, fieldHeaderList, YEN, NUMERIC_ARRAY_TYPES);
         if (header.isPresent()) {
             builder.setYNegErrorNoCopy(BinarySerialiser.getDoubleArray(readBuffer, header.get().getDataType()));
         }
 
-        header = checkFieldCompatibility(readBuffer, fieldHeaderList, YEP, DataType.DOUBLE_ARRAY, DataType.FLOAT_ARRAY);
+        header = checkFieldCompatibility(readBuffer, fieldHeaderList, YEP, NUMERIC_ARRAY_TYPES);
         if (header.isPresent()) {
             builder.setYPosErrorNoCopy(BinarySerialiser.getDoubleArray(readBuffer, header.get().getDataType()));
         }
@@ -278,6 +418,30 @@ public class DataSetSerialiser extends DataSetUtilsHelper {
         transmitMetaData = state;
     }
 
+    /**
+     * @param precision quantisation step used for {@link DataType#DOUBLE_ARRAY_QUANTISED} encoded arrays (absolute
+     *        error is bound by {@code precision/2})
+     */
+    public static void setQuantisationPrecision(final double precision) {
+        AssertUtils.gtThanZero("precision", precision);
+        quantisationPrecision = precision;
+    }
+
+    /**
+     * @param encoding encoding used for 64-bit x-axis arrays (default: {@link DataType#DOUBLE_ARRAY}, typically
+     *        {@link DataType#DOUBLE_ARRAY_DOD} for monotonic axes)
+     */
+    public static void setXArrayEncoding(final DataType encoding) {
+        xArrayEncoding = checkEncoding(encoding);
+    }
+
+    /**
+     * @param encoding encoding used for 64-bit y-axis and error arrays (default: {@link DataType#DOUBLE_ARRAY})
+     */
+    public static void setYArrayEncoding(final DataType encoding) {
+        yArrayEncoding = checkEncoding(encoding);
+    }
+
     private static float[] toFloats(final double[] input) {
         final float[] floatArray = new float[input.length];
         for (int i = 0; i < input.length; i++) {
@@ -311,6 +475,60 @@ public class DataSetSerialiser extends DataSetUtilsHelper {
         }
     }
 
+    /**
+     * Write incremental update of a data set into byte buffer, ie. only the index ranges that were appended or modified
+     * since {@code sinceVersion} together with the new data count. Falls back to a full update if the modified ranges
+     * cannot be derived (e.g. {@code sinceVersion} being {@link #FULL_UPDATE}).
+     *
+     * @param dataSet The DataSet to export
+     * @param buffer byte output buffer (N.B. keep caching this object)
+     * @param sinceVersion version stamp the receiver is synchronised to (ie. the return value of the previous call), or
+     *        {@link #FULL_UPDATE}
+     * @param asFloat {@code true}: encode data as binary floats (smaller size, performance), or {@code false} as double
+     *        (better precision)
+     * @return version stamp of the transmitted data set state
+     */
+    public static long writeDataSetDeltaToByteArray(final DoubleErrorDataSet dataSet, final IoBuffer buffer,
+            final long sinceVersion, final boolean asFloat) {
+        AssertUtils.notNull("dataSet", dataSet);
+        AssertUtils.notNull("buffer", buffer);
+
+        return dataSet.lock().readLockGuard(() -> {
+            final int dataCount = dataSet.getDataCount();
+            final long version = dataSet.getChangeLog().getVersion();
+            int[] ranges = dataSet.getChangeLog().getModifiedRanges(sinceVersion, dataCount);
+            final long baseVersion = ranges == null ? FULL_UPDATE : sinceVersion;
+            if (ranges == null) {
+                ranges = dataCount == 0 ? new int[0] : new int[] { 0, dataCount };
+            }
+            int nValues = 0;
+            for (int i = 0; i < ranges.length; i += 2) {
+                nValues += ranges[i + 1] - ranges[i];
+            }
+
+            BinarySerialiser.putHeaderInfo(buffer);
+            BinarySerialiser.put(buffer, DATA_SET_NAME, dataSet.getName());
+            BinarySerialiser.put(buffer, DELTA_VERSION, version);
+            BinarySerialiser.put(buffer, DELTA_BASE_VERSION, baseVersion);
+            BinarySerialiser.put(buffer, DELTA_DATA_COUNT, dataCount);
+            BinarySerialiser.put(buffer, DELTA_RANGES, ranges);
+            final double[][] columns = { dataSet.getXValues(), dataSet.getYValues(),
+                dataSet.getErrorsNegative(DIM_Y), dataSet.getErrorsPositive(DIM_Y) };
+            final String[] names = { X_ARRAY_NAME, Y_ARRAY_NAME, YEN, YEP };
+            for (int i = 0; i < columns.length; i++) {
+                final double[] values = gatherRanges(columns[i], ranges, nValues);
+                if (asFloat) {
+                    BinarySerialiser.put(buffer, names[i], toFloats(values), new int[] { nValues });
+                } else {
+                    BinarySerialiser.put(buffer, names[i], values, new int[] { nValues },
+                            i == 0 ? xArrayEncoding : yArrayEncoding, quantisationPrecision);
+                }
+            }
+            BinarySerialiser.putEndMarker(buffer, "OBJ_ROOT_END");
+            return version;
+        });
+    }
+
     /**
      * Write data set into byte buffer.
      *
@@ -421,25 +639,29 @@ public class DataSetSerialiser extends DataSetUtilsHelper {
                 }
             }
         } else {
-            BinarySerialiser.put(buffer, X_ARRAY_NAME, dataSet.getValues(DIM_X), new int[] { nsamples });
-            BinarySerialiser.put(buffer, Y_ARRAY_NAME, dataSet.getValues(DIM_Y), new int[] { nsamples });
+            final int[] dims = { nsamples };
+            BinarySerialiser.put(buffer, X_ARRAY_NAME, dataSet.getValues(DIM_X), dims, xArrayEncoding,
+                    quantisationPrecision);
+            BinarySerialiser.put(buffer, Y_ARRAY_NAME, dataSet.getValues(DIM_Y), dims, yArrayEncoding,
+                    quantisationPrecision);
             if (!(dataSet instanceof DataSetError)) {
                 // data set does not have any error definition
                 return;
             }
             final DataSetError ds = (DataSetError) dataSet;
             for (int dimIndex = 0; dimIndex < 2; dimIndex++) {
+                final DataType encoding = dimIndex == DIM_X ? xArrayEncoding : yArrayEncoding;
                 switch (ds.getErrorType(dimIndex)) {
                 default:
                 case SYMMETRIC:
-                    BinarySerialiser.put(buffer, dimIndex == DIM_X ? XEP : YEP, ds.getErrorsPositive(dimIndex),
-                            new int[] { nsamples });
+                    BinarySerialiser.put(buffer, dimIndex == DIM_X ? XEP : YEP, ds.getErrorsPositive(dimIndex), dims,
+                            encoding, quantisationPrecision);
                     break;
                 case ASYMMETRIC:
-                    BinarySerialiser.put(buffer, dimIndex == DIM_X ? XEN : YEN, ds.getErrorsNegative(dimIndex),
-                            new int[] { nsamples });
-                    BinarySerialiser.put(buffer, dimIndex == DIM_X ? XEP : YEP, ds.getErrorsPositive(dimIndex),
-                            new int[] { nsamples });
+                    BinarySerialiser.put(buffer, dimIndex == DIM_X ? XEN : YEN, ds.getErrorsNegative(dimIndex), dims,
+                            encoding, quantisationPrecision);
+                    BinarySerialiser.put(buffer, dimIndex == DIM_X ? XEP : YEP, ds.getErrorsPositive(dimIndex), dims,
+                            encoding, quantisationPrecision);
                     break;
                 }
             }
@@ -27,10 +27,10 @@ public final class FieldDataSetHelper {
 
         // DoubleArrayList serialiser mapper to IoBuffer
         serialiser.addClassDefinition(new IoBufferFieldSerialiser(ioBuffer, //
-                (obj, field) -> field.getField().set(obj,
+                (obj, field) -> field.getFieldAccessor().set(obj,
                         DoubleArrayList.wrap(BinarySerialiser.getDoubleArray(ioBuffer))), // reader
                 (obj, field) -> {
-                    final DoubleArrayList retVal = (DoubleArrayList) field.getField().get(obj);
+                    final DoubleArrayList retVal = (DoubleArrayList) field.getFieldAccessor().get(obj);
                     BinarySerialiser.put(ioBuffer, field.getFieldName(), retVal.elements(),
                             new int[] { retVal.size() });
                 }, // writer
@@ -43,10 +43,10 @@ public final class FieldDataSetHelper {
                         throw new IllegalArgumentException("unknown DataSet type = " + dataSetType);
                     }
 
-                    field.getField().set(obj, DataSetSerialiser.readDataSetFromByteArray(ioBuffer));
+                    field.getFieldAccessor().set(obj, DataSetSerialiser.readDataSetFromByteArray(ioBuffer));
                 }, // reader
                 (obj, field) -> {
-                    final DataSet retVal = (DataSet) (field.getField() == null ? obj : field.getField().get(obj));
+                    final DataSet retVal = (DataSet) (field.getField() == null ? obj : field.getFieldAccessor().get(obj));
                     final long sizeMarkerStart = BinarySerialiser.putArrayHeader(ioBuffer, field.getFieldName(),
                             DataType.OTHER, new int[] { 1 }, 1);
 
@@ -30,53 +30,53 @@ public final class FieldPrimitveValueArrayHelper {
     public static void register(final AbstractSerialiser serialiser, final IoBuffer ioBuffer) {
 
         serialiser.addClassDefinition(new IoBufferFieldSerialiser(ioBuffer, //
-                (obj, field) -> field.getField().set(obj,
-                        ioBuffer.getBooleanArray((boolean[]) field.getField().get(obj))), // reader
+                (obj, field) -> field.getFieldAccessor().set(obj,
+                        ioBuffer.getBooleanArray((boolean[]) field.getFieldAccessor().get(obj))), // reader
                 (obj, field) -> BinarySerialiser.put(ioBuffer, field.getFieldName(),
-                        (boolean[]) field.getField().get(obj)), // writer
+                        (boolean[]) field.getFieldAccessor().get(obj)), // writer
                 boolean[].class));
 
         serialiser.addClassDefinition(new IoBufferFieldSerialiser(ioBuffer, //
-                (obj, field) -> field.getField().set(obj, ioBuffer.getByteArray((byte[]) field.getField().get(obj))), // reader
+                (obj, field) -> field.getFieldAccessor().set(obj, ioBuffer.getByteArray((byte[]) field.getFieldAccessor().get(obj))), // reader
                 (obj, field) -> BinarySerialiser.put(ioBuffer, field.getFieldName(),
-                        (byte[]) field.getField().get(obj)), // writer
+                        (byte[]) field.getFieldAccessor().get(obj)), // writer
                 byte[].class));
 
         serialiser.addClassDefinition(new IoBufferFieldSerialiser(ioBuffer, //
-                (obj, field) -> field.getField().set(obj, ioBuffer.getShortArray((short[]) field.getField().get(obj))), // reader
+                (obj, field) -> field.getFieldAccessor().set(obj, ioBuffer.getShortArray((short[]) field.getFieldAccessor().get(obj))), // reader
                 (obj, field) -> BinarySerialiser.put(ioBuffer, field.getFieldName(),
-                        (short[]) field.getField().get(obj)), // writer
+                        (short[]) field.getFieldAccessor().get(obj)), // writer
                 short[].class));
 
         serialiser.addClassDefinition(new IoBufferFieldSerialiser(ioBuffer, //
-                (obj, field) -> field.getField().set(obj, ioBuffer.getIntArray((int[]) field.getField().get(obj))), // reader
-                (obj, field) -> BinarySerialiser.put(ioBuffer, field.getFieldName(), (int[]) field.getField().get(obj)), // writer
+                (obj, field) -> field.getFieldAccessor().set(obj, ioBuffer.getIntArray((int[]) field.getFieldAccessor().get(obj))), // reader
+                (obj, field) -> BinarySerialiser.put(ioBuffer, field.getFieldName(), (int[]) field.getFieldAccessor().get(obj)), // writer
                 int[].class));
 
         serialiser.addClassDefinition(new IoBufferFieldSerialiser(ioBuffer, //
-                (obj, field) -> field.getField().set(obj, ioBuffer.getLongArray((long[]) field.getField().get(obj))), // reader
+                (obj, field) -> field.getFieldAccessor().set(obj, ioBuffer.getLongArray((long[]) field.getFieldAccessor().get(obj))), // reader
                 (obj, field) -> BinarySerialiser.put(ioBuffer, field.getFieldName(),
-                        (long[]) field.getField().get(obj)), // writer
+                        (long[]) field.getFieldAccessor().get(obj)), // writer
                 long[].class));
 
         serialiser.addClassDefinition(new IoBufferFieldSerialiser(ioBuffer, //
-                (obj, field) -> field.getField().set(obj, ioBuffer.getFloatArray((float[]) field.getField().get(obj))), // reader
+                (obj, field) -> field.getFieldAccessor().set(obj, ioBuffer.getFloatArray((float[]) field.getFieldAccessor().get(obj))), // reader
                 (obj, field) -> BinarySerialiser.put(ioBuffer, field.getFieldName(),
-                        (float[]) field.getField().get(obj)), // writer
+                        (float[]) field.getFieldAccessor().get(obj)), // writer
                 float[].class));
 
         serialiser.addClassDefinition(new IoBufferFieldSerialiser(ioBuffer, //
-                (obj, field) -> field.getField().set(obj,
-                        ioBuffer.getDoubleArray((double[]) field.getField().get(obj))), // reader
+                (obj, field) -> field.getFieldAccessor().set(obj,
+                        ioBuffer.getDoubleArray((double[]) field.getFieldAccessor().get(obj))), // reader
                 (obj, field) -> BinarySerialiser.put(ioBuffer, field.getFieldName(),
-                        (double[]) field.getField().get(obj)), // writer
+                        (double[]) field.getFieldAccessor().get(obj)), // writer
                 double[].class));
 
         serialiser.addClassDefinition(new IoBufferFieldSerialiser(ioBuffer, //
-                (obj, field) -> field.getField().set(obj,
-                        ioBuffer.getStringArray((String[]) field.getField().get(obj))), // reader
+                (obj, field) -> field.getFieldAccessor().set(obj,
+                        ioBuffer.getStringArray((String[]) field.getFieldAccessor().get(obj))), // reader
                 (obj, field) -> BinarySerialiser.put(ioBuffer, field.getFieldName(),
-                        (String[]) field.getField().get(obj)), // writer
+                        (String[]) field.getFieldAccessor().get(obj)), // writer
                 String[].class));
 
         if (LOGGER.isDebugEnabled()) {
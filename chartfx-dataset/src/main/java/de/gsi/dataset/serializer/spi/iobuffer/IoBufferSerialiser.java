@@ -52,14 +52,14 @@ public class IoBufferSerialiser extends AbstractSerialiser {
 
         // Collection serialiser mapper to IoBuffer
         final FieldSerialiserFunction collectionReader = (obj, field) -> {
-            final Collection<?> origCollection = (Collection<?>) field.getField().get(obj);
+            final Collection<?> origCollection = (Collection<?>) field.getFieldAccessor().get(obj);
             origCollection.clear();
 
             final Collection<?> setVal = BinarySerialiser.getCollection(ioBuffer, origCollection);
-            field.getField().set(obj, setVal);
+            field.getFieldAccessor().set(obj, setVal);
         }; // reader
         final FieldSerialiserFunction collectionWriter = (obj, field) -> {
-            final Collection<?> retVal = (Collection<?>) field.getField().get(obj);
+            final Collection<?> retVal = (Collection<?>) field.getFieldAccessor().get(obj);
             BinarySerialiser.put(ioBuffer, field.getFieldName(), retVal); // writer
         };
         addClassDefinition(new IoBufferFieldSerialiser(ioBuffer, collectionReader, collectionWriter, Collection.class));
@@ -69,22 +69,22 @@ public class IoBufferSerialiser extends AbstractSerialiser {
 
         // Enum serialiser mapper to IoBuffer
         addClassDefinition(new IoBufferFieldSerialiser(ioBuffer, //
-                (obj, field) -> field.getField().set(obj,
-                        BinarySerialiser.getEnum(ioBuffer, (Enum<?>) field.getField().get(obj))), // reader
-                (obj, field) -> BinarySerialiser.put(ioBuffer, field.getFieldName(), (Enum<?>) field.getField().get(obj)), // writer
+                (obj, field) -> field.getFieldAccessor().set(obj,
+                        BinarySerialiser.getEnum(ioBuffer, (Enum<?>) field.getFieldAccessor().get(obj))), // reader
+                (obj, field) -> BinarySerialiser.put(ioBuffer, field.getFieldName(), (Enum<?>) field.getFieldAccessor().get(obj)), // writer
                 Enum.class));
 
         // Map serialiser mapper to IoBuffer
         addClassDefinition(new IoBufferFieldSerialiser(ioBuffer, //
                 (obj, field) -> { // reader
-                    final Map<?, ?> origMap = (Map<?, ?>) field.getField().get(obj);
+                    final Map<?, ?> origMap = (Map<?, ?>) field.getFieldAccessor().get(obj);
                     origMap.clear();
                     final Map<?, ?> setVal = BinarySerialiser.getMap(ioBuffer, origMap);
 
-                    field.getField().set(obj, setVal);
+                    field.getFieldAccessor().set(obj, setVal);
                 }, // writer
                 (obj, field) -> {
-                    final Map<?, ?> retVal = (Map<?, ?>) field.getField().get(obj);
+                    final Map<?, ?> retVal = (Map<?, ?>) field.getFieldAccessor().get(obj);
                     BinarySerialiser.put(ioBuffer, field.getFieldName(), retVal);
                 }, Map.class));
 
@@ -102,18 +102,9 @@ public class IoBufferSerialiser extends AbstractSerialiser {
             final ClassFieldDescription classFieldDescription, final int recursionDepth) throws IllegalAccessException {
         final String ioName = fieldRoot.getFieldName();
 
-        ClassFieldDescription firstMatchingField = null;
-
-        // TODO: check expression below (should be correct -> allows for multiple
-        // variables in hierarchy with same name)
-        // firstMatchingField = classFieldDescription.getChildren().stream()
-        // .filter(e -> e.getFieldName().equals(ioName)).findFirst().orElse(null);
-        for (final ClassFieldDescription field : classFieldDescription) {
-            if (field.getFieldName().equals(ioName)) {
-                firstMatchingField = field;
-                break;
-            }
-        }
+        // N.B. O(1) look-up of the first (depth-first) matching field name -- allows for multiple variables in the
+        // hierarchy with the same name
+        final ClassFieldDescription firstMatchingField = classFieldDescription.findField(ioName);
 
         if (firstMatchingField == null) {
             // did not find matching (sub-)field in class
@@ -122,14 +113,7 @@ public class IoBufferSerialiser extends AbstractSerialiser {
             }
 
             // check for potential inner fields
-            for (final FieldHeader fieldHeader : fieldRoot.getChildren()) {
-                final String fieldName = fieldHeader.getFieldName();
-                final Optional<ClassFieldDescription> subFieldDescription = classFieldDescription.getChildren().stream()
-                        .filter(e -> e.getFieldName().equals(fieldName)).findFirst();
-                if (subFieldDescription.isPresent()) {
-                    deserialise(obj, fieldHeader, subFieldDescription.get(), recursionDepth + 1);
-                }
-            }
+            deserialiseChildren(obj, fieldRoot, classFieldDescription, recursionDepth);
             return;
         }
 
@@ -140,37 +124,27 @@ public class IoBufferSerialiser extends AbstractSerialiser {
             return;
         }
 
-        // LOGGER.atInfo().addArgument(firstMatchingField.getFieldName()).log("found
-        // matching field: '{}'");
-
-        // final List<FieldSerialiser> serialiserList =
-        // this.knownClasses().get(fieldClass);
-        final Optional<FieldSerialiser> serialiser = findFieldSerialiserForKnownClassOrInterface(fieldClass,
-                firstMatchingField.getActualTypeArguments());
+        final Optional<FieldSerialiser> serialiser = findFieldSerialiser(firstMatchingField);
 
         if (serialiser.isEmpty()) {
             // no specific serialiser present
             // check for potential inner fields
-            for (final FieldHeader fieldHeader : fieldRoot.getChildren()) {
-                final String fieldName = fieldHeader.getFieldName();
-                final Optional<ClassFieldDescription> subFieldDescription = classFieldDescription.getChildren().stream()
-                        .filter(e -> e.getFieldName().equals(fieldName)).findFirst();
-                if (subFieldDescription.isPresent()) {
-                    deserialise(obj, fieldHeader, subFieldDescription.get(), recursionDepth + 1);
-                }
-            }
+            deserialiseChildren(obj, fieldRoot, classFieldDescription, recursionDepth);
             return;
         }
 
         ioBuffer.position(fieldRoot.getDataBufferPosition());
-        if (serialiser.isPresent()) {
-            serialiser.get().getReaderFunction().exec(firstMatchingField.getMemberClassObject(obj), firstMatchingField);
-            return;
-        }
+        serialiser.get().getReaderFunction().exec(firstMatchingField.getMemberClassObject(obj), firstMatchingField);
+    }
 
-        // should not happen/reach here (because of 'serialiser.isEmpty()' above)
-        throw new IllegalStateException("should not happen -- cannot serialise field - "
-                + firstMatchingField.getFieldNameRelative() + " - class type = " + firstMatchingField.getTypeName());
+    private void deserialiseChildren(final Object obj, final FieldHeader fieldRoot,
+            final ClassFieldDescription classFieldDescription, final int recursionDepth) throws IllegalAccessException {
+        for (final FieldHeader fieldHeader : fieldRoot.getChildren()) {
+            final ClassFieldDescription subField = classFieldDescription.findChild(fieldHeader.getFieldName());
+            if (subField != null) {
+                deserialise(obj, fieldHeader, subField, recursionDepth + 1);
+            }
+        }
     }
 
     @Override
@@ -1,11 +1,10 @@
 package de.gsi.dataset.spi;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
@@ -51,7 +50,7 @@ public abstract class AbstractDataSet<D extends AbstractStylable<D>> extends Abs
     private String name;
     private int dimension;
     private final List<AxisDescription> axesDescriptions = new ArrayList<>();
-    private final transient List<EventListener> updateListeners = Collections.synchronizedList(new LinkedList<>());
+    private final transient List<EventListener> updateListeners = new CopyOnWriteArrayList<>();
     private final transient DataSetLock<? extends DataSet> lock = new DefaultDataSetLock<>(this);
     private StringHashMapList dataLabels = new StringHashMapList();
     private StringHashMapList dataStyles = new StringHashMapList();
@@ -110,6 +109,20 @@ public abstract class AbstractDataSet<D extends AbstractStylable<D>> extends Abs
         return autoNotification;
     }
 
+    /**
+     * checks the index range used by the bulk copy routines (e.g. {@link #copyValues(int, int, double[], int, int)})
+     *
+     * @param fromIndex first data point index to be copied
+     * @param length number of data points to be copied
+     * @param dataCount number of available data points
+     */
+    protected static void checkCopyRange(final int fromIndex, final int length, final int dataCount) {
+        if (fromIndex < 0 || length < 0 || fromIndex + length > dataCount) {
+            throw new IndexOutOfBoundsException("copy range [" + fromIndex + ", " + (fromIndex + length)
+                    + "[ exceeds data range [0, " + dataCount + "[");
+        }
+    }
+
     protected int binarySearchX(final double search, final int indexMin, final int indexMax) {
         if (indexMin == indexMax) {
             return indexMin;
@@ -704,7 +717,7 @@ public abstract class AbstractDataSet<D extends AbstractStylable<D>> extends Abs
     }
 
     @Override
-    public synchronized List<EventListener> updateEventListener() {
+    public List<EventListener> updateEventListener() {
         return updateListeners;
     }
 }
@@ -0,0 +1,149 @@
+package de.gsi.dataset.spi;
+
+import java.util.Arrays;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.event.RemovedDataEvent;
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Implementation of a AbstractDataSet3D backed by a ring of columns, e.g. for rolling spectrograms or waterfall
+ * displays. The z-values are stored in a pre-allocated 2-dim array d[row][column] or d[y][x] and new columns overwrite
+ * the oldest ones once the capacity is reached. The x index 0 always refers to the oldest column.
+ *
+ * @author rstein
+ */
+public class CircularDoubleDataSet3D extends AbstractDataSet3D<CircularDoubleDataSet3D> {
+    private static final long serialVersionUID = -5342370931429425373L;
+    private final double[] xValues;
+    private final double[] yValues;
+    private final double[][] zValues;
+    private final int capacity;
+    private int writeIndex;
+    private int count;
+
+    /**
+     * @param name of data set
+     * @param capacity maximum number of columns (x dimension)
+     * @param yValues array containing the (fixed) Y coordinates (copied)
+     */
+    public CircularDoubleDataSet3D(final String name, final int capacity, final double[] yValues) {
+        super(name);
+        AssertUtils.gtThanZero("capacity", capacity);
+        AssertUtils.nonEmptyArray("yValues", yValues);
+        this.capacity = capacity;
+        this.xValues = new double[capacity];
+        this.yValues = Arrays.copyOf(yValues, yValues.length);
+        this.zValues = new double[yValues.length][capacity];
+        recomputeLimits(DIM_Y);
+    }
+
+    /**
+     * Appends a column, overwriting the oldest column if the capacity has been reached. The z-matrix is not
+     * reallocated.
+     *
+     * @param x new X coordinate (should be larger than the previous one)
+     * @param zColumn new Z coordinates, one for each Y coordinate
+     * @return itself (fluent design)
+     */
+    public CircularDoubleDataSet3D addColumn(final double x, final double[] zColumn) {
+        AssertUtils.checkArrayDimension("zColumn", zColumn, yValues.length);
+        lock().writeLockGuard(() -> {
+            xValues[writeIndex] = x;
+            for (int y = 0; y < yValues.length; y++) {
+                zValues[y][writeIndex] = zColumn[y];
+            }
+            writeIndex = writeIndex + 1 == capacity ? 0 : writeIndex + 1;
+            count = Math.min(count + 1, capacity);
+            // N.B. limits are recomputed lazily on demand rather than for each column
+            getAxisDescription(DIM_X).clear();
+            getAxisDescription(DIM_Z).clear();
+        });
+        return fireInvalidated(new AddedDataEvent(this, "addColumn"));
+    }
+
+    /**
+     * clears all data points
+     *
+     * @return itself (fluent design)
+     */
+    public CircularDoubleDataSet3D clearData() {
+        lock().writeLockGuard(() -> {
+            writeIndex = 0;
+            count = 0;
+            getAxisDescription(DIM_X).clear();
+            getAxisDescription(DIM_Z).clear();
+        });
+        return fireInvalidated(new RemovedDataEvent(this, "clearData()"));
+    }
+
+    @Override
+    public final double get(final int dimIndex, final int index) {
+        switch (dimIndex) {
+        case DIM_X:
+            return xValues[toColumn(index)];
+        case DIM_Y:
+            return yValues[index];
+        case DIM_Z:
+            return getZ(index % count, index / count);
+        default:
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * @return maximum number of columns
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getDataCount(final int dimIndex) {
+        if (dimIndex == DataSet.DIM_X) {
+            return count;
+        } else if (dimIndex == DataSet.DIM_Y) {
+            return yValues.length;
+        }
+        return count * yValues.length;
+    }
+
+    @Override
+    public String getStyle(final int index) {
+        return null;
+    }
+
+    @Override
+    public double[] getValues(final int dimIndex) {
+        switch (dimIndex) {
+        case DIM_X:
+            final double[] ret = new double[count];
+            for (int i = 0; i < count; i++) {
+                ret[i] = xValues[toColumn(i)];
+            }
+            return ret;
+        case DIM_Y:
+            return Arrays.copyOf(yValues, yValues.length);
+        case DIM_Z:
+            return super.getValues(dimIndex);
+        default:
+            return new double[0];
+        }
+    }
+
+    @Override
+    public double getX(final int i) {
+        return xValues[toColumn(i)];
+    }
+
+    @Override
+    public double getZ(final int xIndex, final int yIndex) {
+        return zValues[yIndex][toColumn(xIndex)];
+    }
+
+    private int toColumn(final int xIndex) {
+        final int column = writeIndex - count + xIndex;
+        return column < 0 ? column + capacity : column;
+    }
+}
@@ -1,5 +1,7 @@
 package de.gsi.dataset.spi;
 
+import java.util.Arrays;
+
 import de.gsi.dataset.AxisDescription;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.DataSet2D;
@@ -179,6 +181,35 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
         return dataStyles.get(index);
     }
 
+    @Override
+    public double[] copyErrorsNegative(final int dimIndex, final int fromIndex, final double[] destination,
+            final int destinationOffset, final int length) {
+        checkCopyRange(fromIndex, length, getDataCount());
+        if (dimIndex == DIM_X) {
+            Arrays.fill(destination, destinationOffset, destinationOffset + length, 0.0);
+            return destination;
+        }
+        return yErrorsNeg.get(destination, destinationOffset, fromIndex, length);
+    }
+
+    @Override
+    public double[] copyErrorsPositive(final int dimIndex, final int fromIndex, final double[] destination,
+            final int destinationOffset, final int length) {
+        checkCopyRange(fromIndex, length, getDataCount());
+        if (dimIndex == DIM_X) {
+            Arrays.fill(destination, destinationOffset, destinationOffset + length, 0.0);
+            return destination;
+        }
+        return yErrorsPos.get(destination, destinationOffset, fromIndex, length);
+    }
+
+    @Override
+    public double[] copyValues(final int dimIndex, final int fromIndex, final double[] destination,
+            final int destinationOffset, final int length) {
+        checkCopyRange(fromIndex, length, getDataCount());
+        return (dimIndex == DataSet.DIM_X ? xValues : yValues).get(destination, destinationOffset, fromIndex, length);
+    }
+
     @Override
     public final double get(final int dimIndex, final int index) {
         return dimIndex == DataSet.DIM_X ? xValues.get(index) : yValues.get(index);
@@ -0,0 +1,326 @@
+package de.gsi.dataset.spi;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import de.gsi.dataset.AxisDescription;
+import de.gsi.dataset.DataSet2D;
+import de.gsi.dataset.DataSetError;
+import de.gsi.dataset.event.AxisChangeEvent;
+import de.gsi.dataset.event.AxisNameChangeEvent;
+import de.gsi.dataset.event.AxisRangeChangeEvent;
+import de.gsi.dataset.event.EventListener;
+import de.gsi.dataset.event.UpdateEvent;
+import de.gsi.dataset.event.UpdatedDataEvent;
+import de.gsi.dataset.locks.DefaultDataSetLock;
+
+/**
+ * Double-buffered DataSet: writers fill a private back buffer (see {@link #getBackBuffer()}) and publish it atomically
+ * via {@link #publish()} (deep-copy, for incrementally updated data) or {@link #swap()} (zero-copy, for data that is
+ * completely re-filled each cycle).
+ * <p>
+ * Readers access an immutable snapshot of the last published data: a {@code lock().readLock()} or
+ * {@code lock().readLockGuard(..)} pins the present front buffer for the calling thread without acquiring any lock
+ * that would block the writer, i.e. long reads (e.g. renderer copies) and high-rate writers do not obstruct each
+ * other. Front buffers are recycled as back buffers once they are no longer pinned by any reader. N.B. read access
+ * outside a read lock is permitted but may observe different snapshots between subsequent calls.
+ * <p>
+ * The axis descriptions are those of the (pinned) snapshot: their ranges are computed at publication and are not
+ * modified afterwards, so that they always match the snapshot's data. Axis names and units are carried over from one
+ * snapshot to the next. Axis events of the present front buffer (e.g. caused by modifying its axis descriptions via
+ * {@link #getAxisDescription(int)}) are forwarded to the listeners of this DataSet. The write lock is retained for meta-data (labels, styles) and is still exclusive w.r.t. other
+ * writers. Lock wait statistics are available via {@link DefaultDataSetLock#getWriterWaitTime()} and alike.
+ * <p>
+ * N.B. {@link #publish()} and {@link #swap()} are expected to be called from a single writer thread (the one filling
+ * the back buffer).
+ *
+ * @author rstein
+ */
+public class DoubleBufferedDataSet extends AbstractErrorDataSet<DoubleBufferedDataSet>
+        implements DataSet2D, DataSetError {
+    private static final long serialVersionUID = -2187643213436712085L;
+    private final AtomicReference<Buffer> frontBuffer;
+    private transient DoubleErrorDataSet backBuffer;
+    private transient Buffer spareBuffer;
+    private final transient ThreadLocal<Pin> pins = ThreadLocal.withInitial(Pin::new);
+    private final transient SnapshotLock snapshotLock = new SnapshotLock(this);
+    private final AtomicLong publishCount = new AtomicLong();
+    private final AtomicLong recycleCount = new AtomicLong();
+    private final transient EventListener axisEventForwarder = this::forwardAxisEvent;
+
+    /**
+     * @param name name of this DataSet.
+     */
+    public DoubleBufferedDataSet(final String name) {
+        this(name, 0);
+    }
+
+    /**
+     * @param name name of this DataSet.
+     * @param initalSize initial capacity of the front and back buffers
+     */
+    public DoubleBufferedDataSet(final String name, final int initalSize) {
+        super(name, 2, ErrorType.NO_ERROR, ErrorType.ASYMMETRIC);
+        backBuffer = new DoubleErrorDataSet(name, initalSize);
+        frontBuffer = new AtomicReference<>(new Buffer(new DoubleErrorDataSet(name, initalSize)));
+        frontBuffer.get().data.addListener(axisEventForwarder);
+    }
+
+    /**
+     * @return the back buffer that is filled by the writer. N.B. only the writing thread should access this buffer;
+     *         the reference changes after each {@link #swap()}
+     */
+    public DoubleErrorDataSet getBackBuffer() {
+        return backBuffer;
+    }
+
+    /**
+     * @return axis descriptions of the (pinned) snapshot
+     */
+    @Override
+    public List<AxisDescription> getAxisDescriptions() {
+        if (frontBuffer == null) {
+            // called during construction
+            return super.getAxisDescriptions();
+        }
+        return current().getAxisDescriptions();
+    }
+
+    @Override
+    public int getDataCount() {
+        return current().getDataCount();
+    }
+
+    @Override
+    public String getDataLabel(final int index) {
+        return current().getDataLabel(index);
+    }
+
+    @Override
+    public double getErrorNegative(final int dimIndex, final int index) {
+        return current().getErrorNegative(dimIndex, index);
+    }
+
+    @Override
+    public double getErrorPositive(final int dimIndex, final int index) {
+        return current().getErrorPositive(dimIndex, index);
+    }
+
+    /**
+     * @return number of published front buffers
+     */
+    public long getPublishCount() {
+        return publishCount.get();
+    }
+
+    /**
+     * @return number of front buffers that have been recycled (i.e. publications without new allocation)
+     */
+    public long getRecycleCount() {
+        return recycleCount.get();
+    }
+
+    /**
+     * @return the immutable snapshot of the last published data (or of the pinned data if called within a read lock).
+     *         N.B. the content is guaranteed to remain unchanged only while the calling thread holds the read lock
+     */
+    public DataSetError getSnapshot() {
+        return current();
+    }
+
+    @Override
+    public String getStyle(final int index) {
+        return current().getStyle(index);
+    }
+
+    @Override
+    public double get(final int dimIndex, final int index) {
+        return current().get(dimIndex, index);
+    }
+
+    @Override
+    public DefaultDataSetLock<DoubleBufferedDataSet> lock() {
+        return snapshotLock;
+    }
+
+    /**
+     * The limits of a snapshot are computed when it is published and are not modified afterwards (the snapshot may be
+     * pinned by concurrent readers). Use {@link #getBackBuffer()} and {@link #publish()} to update the data and limits.
+     *
+     * @param dimension the dimension index
+     * @return itself (fluent design)
+     */
+    @Override
+    public DoubleBufferedDataSet recomputeLimits(final int dimension) {
+        return getThis();
+    }
+
+    /**
+     * publishes a deep copy of the back buffer. The back buffer remains untouched and may be further (incrementally)
+     * updated by the writer.
+     *
+     * @return itself (fluent design)
+     */
+    public DoubleBufferedDataSet publish() {
+        final Buffer newFront = takeSpareBuffer();
+        newFront.data.set(backBuffer);
+        return publish(newFront);
+    }
+
+    /**
+     * publishes the back buffer without copying and provides a new (empty) back buffer. Preferred for data that is
+     * entirely re-filled each cycle.
+     *
+     * @return itself (fluent design)
+     */
+    public DoubleBufferedDataSet swap() {
+        final Buffer newFront = new Buffer(backBuffer);
+        final Buffer newBack = takeSpareBuffer();
+        backBuffer = newBack.data.clearData();
+        return publish(newFront);
+    }
+
+    private DoubleErrorDataSet current() {
+        final Pin pin = pins.get();
+        return pin.depth > 0 ? pin.buffer.data : frontBuffer.get().data;
+    }
+
+    private void forwardAxisEvent(final UpdateEvent evt) {
+        if (!(evt instanceof AxisChangeEvent)) {
+            return;
+        }
+        final int dim = ((AxisChangeEvent) evt).getDimension();
+        if (evt instanceof AxisNameChangeEvent) {
+            invokeListener(new AxisNameChangeEvent(this, evt.getMessage(), dim));
+        } else if (evt instanceof AxisRangeChangeEvent) {
+            invokeListener(new AxisRangeChangeEvent(this, evt.getMessage(), dim));
+        } else {
+            invokeListener(new AxisChangeEvent(this, evt.getMessage(), dim));
+        }
+    }
+
+    private DoubleBufferedDataSet publish(final Buffer newFront) {
+        lock().writeLockGuard(() -> {
+            // complete the axis descriptions while the new front is still private to the writer
+            final DoubleErrorDataSet previous = frontBuffer.get().data;
+            for (int dim = 0; dim < getDimension(); dim++) {
+                final AxisDescription axis = newFront.data.getAxisDescription(dim);
+                final AxisDescription previousAxis = previous.getAxisDescription(dim);
+                axis.set(previousAxis.getName(), previousAxis.getUnit());
+                if (!axis.isDefined()) {
+                    newFront.data.recomputeLimits(dim);
+                }
+            }
+            // N.B. only the front buffer forwards its axis events (back buffer updates are not of interest)
+            newFront.data.addListener(axisEventForwarder);
+            final Buffer oldFront = frontBuffer.getAndSet(newFront);
+            oldFront.data.removeListener(axisEventForwarder);
+            publishCount.incrementAndGet();
+            // retire old front for recycling if it is not pinned by any reader
+            if (oldFront.readers.compareAndSet(0, -1)) {
+                spareBuffer = oldFront;
+            }
+        });
+        return fireInvalidated(new UpdatedDataEvent(this, "published new buffer"));
+    }
+
+    private Buffer takeSpareBuffer() {
+        // N.B. the spare buffer is retired by publish(..) under the write lock
+        final Buffer spare = lock().writeLockGuard(() -> {
+            final Buffer buffer = spareBuffer;
+            spareBuffer = null;
+            return buffer;
+        });
+        if (spare == null) {
+            return new Buffer(new DoubleErrorDataSet(getName(), backBuffer.getDataCount()));
+        }
+        recycleCount.incrementAndGet();
+        spare.readers.set(0);
+        return spare;
+    }
+
+    private static class Buffer {
+        protected final DoubleErrorDataSet data;
+        // number of pinning readers, '-1' retired buffer (recycled as back buffer)
+        protected final AtomicInteger readers = new AtomicInteger();
+
+        protected Buffer(final DoubleErrorDataSet data) {
+            this.data = data;
+        }
+    }
+
+    private static class Pin {
+        protected Buffer buffer;
+        protected int depth;
+    }
+
+    /**
+     * lock implementation where readers pin the present front buffer instead of acquiring the (writer-exclusive)
+     * stamped lock
+     */
+    @SuppressWarnings({ "PMD.DoNotUseThreads" }) // Runnable used as functional interface
+    private class SnapshotLock extends DefaultDataSetLock<DoubleBufferedDataSet> {
+        private static final long serialVersionUID = 4393581616085962411L;
+        private final AtomicInteger readerCount = new AtomicInteger();
+
+        protected SnapshotLock(final DoubleBufferedDataSet dataSet) {
+            super(dataSet);
+        }
+
+        @Override
+        public int getReaderCount() {
+            return readerCount.get();
+        }
+
+        @Override
+        public DoubleBufferedDataSet readLock() {
+            final Pin pin = pins.get();
+            if (pin.depth++ == 0) {
+                pin.buffer = pinFront();
+                readerCount.incrementAndGet();
+            }
+            return DoubleBufferedDataSet.this;
+        }
+
+        @Override
+        public DoubleBufferedDataSet readLockGuardOptimistic(final Runnable reading) { // NOPMD
+            return readLockGuard(reading);
+        }
+
+        @Override
+        public <R> R readLockGuardOptimistic(final Supplier<R> reading) {
+            return readLockGuard(reading);
+        }
+
+        @Override
+        public DoubleBufferedDataSet readUnLock() {
+            final Pin pin = pins.get();
+            if (pin.depth <= 0) {
+                throw new IllegalStateException("read lock alread unlocked");
+            }
+            if (--pin.depth == 0) {
+                pin.buffer.readers.decrementAndGet();
+                pin.buffer = null;
+                readerCount.decrementAndGet();
+            }
+            return DoubleBufferedDataSet.this;
+        }
+
+        private Buffer pinFront() {
+            while (true) {
+                final Buffer buffer = frontBuffer.get();
+                final int nReaders = buffer.readers.get();
+                if (nReaders >= 0 && buffer.readers.compareAndSet(nReaders, nReaders + 1)) {
+                    if (frontBuffer.get() == buffer) {
+                        return buffer;
+                    }
+                    // front has been exchanged in the meantime -- retry
+                    buffer.readers.decrementAndGet();
+                }
+            }
+        }
+    }
+}
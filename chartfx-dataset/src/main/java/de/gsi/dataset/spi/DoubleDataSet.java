@@ -241,6 +241,15 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
         return fireInvalidated(new RemovedDataEvent(this, "clearData()"));
     }
 
+    @Override
+    public double[] copyValues(final int dimIndex, final int fromIndex, final double[] destination,
+            final int destinationOffset, final int length) {
+        checkCopyRange(fromIndex, length, getDataCount());
+        System.arraycopy(dimIndex == DataSet.DIM_X ? xValues.elements() : yValues.elements(), fromIndex, destination,
+                destinationOffset, length);
+        return destination;
+    }
+
     @Override
     public final double get(final int dimIndex, final int index) {
         return dimIndex == DataSet.DIM_X ? xValues.elements()[index] : yValues.elements()[index];
@@ -1,5 +1,7 @@
 package de.gsi.dataset.spi;
 
+import java.util.Arrays;
+
 import de.gsi.dataset.AxisDescription;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.DataSet2D;
@@ -9,6 +11,7 @@ import de.gsi.dataset.event.AddedDataEvent;
 import de.gsi.dataset.event.RemovedDataEvent;
 import de.gsi.dataset.event.UpdatedDataEvent;
 import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.IndexRangeChangeLog;
 import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
 
 /**
@@ -26,6 +29,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
     protected DoubleArrayList yValues; // way faster than java default lists
     protected DoubleArrayList yErrorsPos;
     protected DoubleArrayList yErrorsNeg;
+    private final transient IndexRangeChangeLog changeLog = new IndexRangeChangeLog();
 
     /**
      * Creates a new instance of <code>DoubleErrorDataSet</code> as copy of another (deep-copy).
@@ -153,6 +157,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
             yValues.add(y);
             yErrorsNeg.add(yErrorNeg);
             yErrorsPos.add(yErrorPos);
+            changeLog.markModified(xValues.size() - 1, xValues.size());
 
             if (label != null && !label.isEmpty()) {
                 addDataLabel(xValues.size() - 1, label);
@@ -180,6 +185,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
         AssertUtils.notNull("Y coordinates", yValuesNew);
         AssertUtils.equalDoubleArrays(xValuesNew, yValuesNew);
         lock().writeLockGuard(() -> {
+            changeLog.markModified(xValues.size(), xValues.size() + xValuesNew.length);
             xValues.addElements(xValues.size(), xValuesNew);
             yValues.addElements(yValues.size(), yValuesNew);
             yErrorsNeg.addElements(yErrorsNeg.size(), yErrorsNegNew);
@@ -245,6 +251,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
         lock().writeLockGuard(() -> {
             final int indexAt = Math.max(0, Math.min(index, getDataCount() + 1));
 
+            changeLog.markModified(indexAt, IndexRangeChangeLog.TO_END);
             xValues.add(indexAt, x);
             yValues.add(indexAt, y);
             yErrorsNeg.add(indexAt, yErrorNeg);
@@ -279,6 +286,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
 
         lock().writeLockGuard(() -> {
             final int indexAt = Math.max(0, Math.min(index, getDataCount() + 1));
+            changeLog.markModified(indexAt, IndexRangeChangeLog.TO_END);
             xValues.addElements(indexAt, x, 0, min);
             yValues.addElements(indexAt, y, 0, min);
             yErrorsNeg.addElements(indexAt, yErrorNeg, 0, min);
@@ -302,6 +310,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
             yValues.clear();
             yErrorsPos.clear();
             yErrorsNeg.clear();
+            changeLog.markAllModified();
             getDataLabelMap().clear();
             getDataStyleMap().clear();
             clearMetaInfo();
@@ -311,6 +320,39 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
         return fireInvalidated(new RemovedDataEvent(this, "clearData()"));
     }
 
+    @Override
+    public double[] copyErrorsNegative(final int dimIndex, final int fromIndex, final double[] destination,
+            final int destinationOffset, final int length) {
+        checkCopyRange(fromIndex, length, getDataCount());
+        if (dimIndex == DIM_X) {
+            Arrays.fill(destination, destinationOffset, destinationOffset + length, 0.0);
+        } else {
+            System.arraycopy(yErrorsNeg.elements(), fromIndex, destination, destinationOffset, length);
+        }
+        return destination;
+    }
+
+    @Override
+    public double[] copyErrorsPositive(final int dimIndex, final int fromIndex, final double[] destination,
+            final int destinationOffset, final int length) {
+        checkCopyRange(fromIndex, length, getDataCount());
+        if (dimIndex == DIM_X) {
+            Arrays.fill(destination, destinationOffset, destinationOffset + length, 0.0);
+        } else {
+            System.arraycopy(yErrorsPos.elements(), fromIndex, destination, destinationOffset, length);
+        }
+        return destination;
+    }
+
+    @Override
+    public double[] copyValues(final int dimIndex, final int fromIndex, final double[] destination,
+            final int destinationOffset, final int length) {
+        checkCopyRange(fromIndex, length, getDataCount());
+        System.arraycopy(dimIndex == DataSet.DIM_X ? xValues.elements() : yValues.elements(), fromIndex, destination,
+                destinationOffset, length);
+        return destination;
+    }
+
     @Override
     public final double get(final int dimIndex, final int index) {
         return dimIndex == DataSet.DIM_X ? xValues.elements()[index] : yValues.elements()[index];
@@ -323,6 +365,14 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
         return Math.min(xValues.elements().length, yValues.elements().length);
     }
 
+    /**
+     * @return log of modified index ranges, e.g. used to serialise only the parts that changed since a given version
+     *         stamp
+     */
+    public IndexRangeChangeLog getChangeLog() {
+        return changeLog;
+    }
+
     @Override
     public int getDataCount() {
         return Math.min(xValues.size(), yValues.size());
@@ -404,6 +454,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
             AssertUtils.indexInBounds(toIndex, getDataCount(), "toIndex");
             AssertUtils.indexOrder(fromIndex, "fromIndex", toIndex, "toIndex");
 
+            changeLog.markModified(fromIndex, IndexRangeChangeLog.TO_END);
             xValues.removeElements(fromIndex, toIndex);
             yValues.removeElements(fromIndex, toIndex);
             yErrorsNeg.removeElements(fromIndex, toIndex);
@@ -428,6 +479,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
      */
     public DoubleErrorDataSet resize(final int size) {
         lock().writeLockGuard(() -> {
+            changeLog.markModified(Math.min(size, xValues.size()), IndexRangeChangeLog.TO_END);
             xValues.size(size);
             yValues.size(size);
             yErrorsPos.size(size);
@@ -545,6 +597,8 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
                 this.yErrorsPos = DoubleArrayList.wrap(yErrorsPos);
             }
 
+            changeLog.markAllModified();
+
             recomputeLimits(0);
             recomputeLimits(1);
         });
@@ -589,6 +643,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
             final double yErrorPos) {
         lock().writeLockGuard(() -> {
             final int dataCount = Math.max(index + 1, this.getDataCount());
+            changeLog.markModified(Math.min(index, this.getDataCount()), index + 1);
             xValues.size(dataCount);
             yValues.size(dataCount);
             xValues.elements()[index] = x;
@@ -612,6 +667,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
             final double[] yErrorPos) {
         lock().writeLockGuard(() -> {
             resize(Math.max(index + x.length, xValues.size()));
+            changeLog.markModified(index, index + x.length);
             System.arraycopy(x, 0, xValues.elements(), index, x.length);
             System.arraycopy(y, 0, yValues.elements(), index, y.length);
             System.arraycopy(yErrorNeg, 0, yErrorsNeg.elements(), index, yErrorNeg.length);
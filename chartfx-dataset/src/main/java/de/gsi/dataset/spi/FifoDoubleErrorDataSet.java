@@ -1,7 +1,6 @@
 package de.gsi.dataset.spi;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import de.gsi.dataset.AxisDescription;
 import de.gsi.dataset.DataSet;
@@ -9,16 +8,39 @@ import de.gsi.dataset.DataSet2D;
 import de.gsi.dataset.DataSetError;
 import de.gsi.dataset.event.AddedDataEvent;
 import de.gsi.dataset.event.RemovedDataEvent;
-import de.gsi.dataset.spi.utils.DoublePointError;
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.MonotonicDoubleDeque;
 
 /**
+ * FIFO-type DataSet with a fixed maximum capacity and an optional maximum x-range ('maxDistance') beyond which the
+ * oldest data points are being dropped.
+ * <p>
+ * The data is stored column-wise in primitive ring arrays and the axis limits are tracked via monotonic min/max
+ * deques. Thus adding, expiring and limit tracking are amortised O(1) and free of allocations. N.B. expiration
+ * assumes that new samples are (approximately) appended in ascending x order (e.g. time-stamps), i.e. data points are
+ * dropped from the oldest end until the first one within 'maxDistance' is found.
+ *
  * @author rstein
  */
-public class FifoDoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
+@SuppressWarnings("PMD.TooManyFields") // primitive columnar storage by design
+public class FifoDoubleErrorDataSet extends AbstractErrorDataSet<FifoDoubleErrorDataSet>
         implements DataSet2D, DataSetError {
     private static final long serialVersionUID = -7153702141838930486L;
-    protected LimitedQueue<DataBlob> data;
+    protected final int capacity;
+    protected final double[] xValues;
+    protected final double[] yValues;
+    protected final double[] yErrorsNeg;
+    protected final double[] yErrorsPos;
+    protected final String[] dataTags;
+    protected final String[] dataStyles;
     protected double maxDistance = Double.MAX_VALUE;
+    private int head; // ring index of the oldest data point
+    private int count; // number of valid data points
+    private long sequence; // total number of data points added so far
+    private final MonotonicDoubleDeque xMin;
+    private final MonotonicDoubleDeque xMax;
+    private final MonotonicDoubleDeque yMin;
+    private final MonotonicDoubleDeque yMax;
 
     /**
      * Creates a new instance of <code>FifoDoubleErrorDataSet</code>.
@@ -41,7 +63,7 @@ public class FifoDoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorData
      * @throws IllegalArgumentException if <code>name</code> is <code>null</code>
      */
     public FifoDoubleErrorDataSet(final String name, final int initalSize, final double maxDistance) {
-        super(name, 2, ErrorType.SYMMETRIC, ErrorType.SYMMETRIC);
+        super(name, 2, ErrorType.NO_ERROR, ErrorType.ASYMMETRIC);
         if (initalSize <= 0) {
             throw new IllegalArgumentException("negative or zero initalSize = " + initalSize);
         }
@@ -49,7 +71,17 @@ public class FifoDoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorData
             throw new IllegalArgumentException("negative or zero maxDistance = " + maxDistance);
         }
         this.maxDistance = maxDistance;
-        data = new LimitedQueue<>(initalSize);
+        capacity = initalSize;
+        xValues = new double[initalSize];
+        yValues = new double[initalSize];
+        yErrorsNeg = new double[initalSize];
+        yErrorsPos = new double[initalSize];
+        dataTags = new String[initalSize];
+        dataStyles = new String[initalSize];
+        xMin = new MonotonicDoubleDeque(initalSize, false);
+        xMax = new MonotonicDoubleDeque(initalSize, true);
+        yMin = new MonotonicDoubleDeque(initalSize, false);
+        yMax = new MonotonicDoubleDeque(initalSize, true);
     }
 
     /**
@@ -81,7 +113,7 @@ public class FifoDoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorData
     }
 
     /**
-     * Add point to the DoublePoints object
+     * Add point to the DoublePoints object. N.B. points with non-finite x or y coordinates are ignored
      *
      * @param x the new x coordinate
      * @param y the new y coordinate
@@ -94,16 +126,12 @@ public class FifoDoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorData
     public FifoDoubleErrorDataSet add(final double x, final double y, final double yErrorNeg, final double yErrorPos,
             final String tag, final String style) {
         lock().writeLockGuard(() -> {
-            data.add(new DataBlob(x, y, yErrorNeg, yErrorPos, tag, style));
+            addPoint(x, y, yErrorNeg, yErrorPos, tag, style);
             // remove old fields
-            expire(x);
-
-            recomputeLimits(0);
-            recomputeLimits(1);
+            expirePoints(x);
+            updateLimits();
         });
-        fireInvalidated(new AddedDataEvent(this));
-
-        return this;
+        return fireInvalidated(new AddedDataEvent(this));
     }
 
     /**
@@ -112,21 +140,30 @@ public class FifoDoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorData
      * </p>
      * Note: The method copies values from specified double arrays.
      *
-     * @param xValues the new x coordinates
-     * @param yValues the new y coordinates
-     * @param yErrorsNeg the +dy errors
-     * @param yErrorsPos the -dy errors
+     * @param xVals the new x coordinates
+     * @param yVals the new y coordinates
+     * @param yErrNeg the +dy errors
+     * @param yErrPos the -dy errors
      * @return itself
      */
-    public FifoDoubleErrorDataSet add(final double[] xValues, final double[] yValues, final double[] yErrorsNeg,
-            final double[] yErrorsPos) {
+    public FifoDoubleErrorDataSet add(final double[] xVals, final double[] yVals, final double[] yErrNeg,
+            final double[] yErrPos) {
+        AssertUtils.notNull("X coordinates", xVals);
+        AssertUtils.notNull("Y coordinates", yVals);
+        AssertUtils.notNull("Y error neg", yErrNeg);
+        AssertUtils.notNull("Y error pos", yErrPos);
+        AssertUtils.equalDoubleArrays(xVals, yVals);
+        AssertUtils.equalDoubleArrays(xVals, yErrNeg);
+        AssertUtils.equalDoubleArrays(xVals, yErrPos);
+
         lock().writeLockGuard(() -> {
-            for (int i = 0; i < xValues.length; i++) {
-                this.add(xValues[i], yValues[i], yErrorsNeg[i], yErrorsPos[i]);
+            for (int i = 0; i < xVals.length; i++) {
+                addPoint(xVals[i], yVals[i], yErrNeg[i], yErrPos[i], null, null);
+                expirePoints(xVals[i]);
             }
+            updateLimits();
         });
-        fireInvalidated(new AddedDataEvent(this));
-        return this;
+        return fireInvalidated(new AddedDataEvent(this));
     }
 
     /**
@@ -138,36 +175,11 @@ public class FifoDoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorData
      */
     public int expire(final double now) {
         final int dataPointsToRemove = lock().writeLockGuard(() -> {
-            getAxisDescriptions().forEach(AxisDescription::clear);
-
-            final List<DataBlob> toRemoveList = new ArrayList<>();
-            // for (final DataBlob blob : (LimitedQueue<DataBlob>) data.clone()) {
-            for (final DataBlob blob : data) {
-                final double x = blob.getX();
-                final double y = blob.getX();
-
-                if (Double.isFinite(x) && Double.isFinite(y)) {
-                    if (Math.abs(now - x) > maxDistance) {
-                        // data.remove(blob);
-                        toRemoveList.add(blob);
-                    } else {
-
-                        getAxisDescription(0).add(x + blob.getErrorX());
-                        getAxisDescription(0).add(x - blob.getErrorX());
-                        getAxisDescription(1).add(y + blob.getErrorY());
-                        getAxisDescription(1).add(y - blob.getErrorY());
-                    }
-                } else {
-                    // data.remove(blob);
-                    toRemoveList.add(blob);
-                }
+            final int nRemoved = expirePoints(now);
+            if (nRemoved != 0) {
+                updateLimits();
             }
-
-            data.removeAll(toRemoveList);
-            recomputeLimits(0);
-            recomputeLimits(1);
-            // computeLimits(); // N.B. already computed above
-            return toRemoveList.size();
+            return nRemoved;
         });
         if (dataPointsToRemove != 0) {
             fireInvalidated(new RemovedDataEvent(this, "expired data"));
@@ -175,24 +187,31 @@ public class FifoDoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorData
         return dataPointsToRemove;
     }
 
+    /**
+     * @return maximum number of data points that can be stored
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
     @Override
     public int getDataCount() {
-        return data.size();
+        return count;
     }
 
     @Override
     public String getDataLabel(final int index) {
-        return data.get(index).getDataLabel();
+        return dataTags[ringIndex(index)];
     }
 
     @Override
     public double getErrorNegative(final int dimIndex, final int index) {
-        return dimIndex == DIM_X ? data.get(index).getErrorX() : data.get(index).getErrorY();
+        return dimIndex == DIM_X ? 0.0 : yErrorsNeg[ringIndex(index)];
     }
 
     @Override
     public double getErrorPositive(final int dimIndex, final int index) {
-        return dimIndex == DIM_X ? data.get(index).getErrorX() : data.get(index).getErrorY();
+        return dimIndex == DIM_X ? 0.0 : yErrorsPos[ringIndex(index)];
     }
 
     /**
@@ -204,19 +223,38 @@ public class FifoDoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorData
 
     @Override
     public String getStyle(final int index) {
-        return data.get(index).getStyle();
+        return dataStyles[ringIndex(index)];
     }
 
     @Override
     public final double get(final int dimIndex, final int index) {
-        return dimIndex == DataSet.DIM_X ? data.get(index).getX() : data.get(index).getY();
+        return dimIndex == DataSet.DIM_X ? xValues[ringIndex(index)] : yValues[ringIndex(index)];
+    }
+
+    /**
+     * N.B. the limits are tracked incrementally, this merely re-publishes the present window minima/maxima
+     */
+    @Override
+    public FifoDoubleErrorDataSet recomputeLimits(final int dimension) {
+        lock().writeLockGuard(this::updateLimits);
+        return getThis();
     }
 
     /**
      * remove all data points
      */
     public void reset() {
-        data.clear();
+        lock().writeLockGuard(() -> {
+            head = 0;
+            count = 0;
+            Arrays.fill(dataTags, null);
+            Arrays.fill(dataStyles, null);
+            xMin.clear();
+            xMax.clear();
+            yMin.clear();
+            yMax.clear();
+            getAxisDescriptions().forEach(AxisDescription::clear);
+        });
         fireInvalidated(new RemovedDataEvent(this, "reset"));
     }
 
@@ -227,58 +265,68 @@ public class FifoDoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorData
         this.maxDistance = maxDistance;
     }
 
-    protected class DataBlob extends DoublePointError {
-
-        protected String style;
-        protected String tag;
-
-        protected DataBlob(final double x, final double y, final double errorX, final double errorY) {
-            this(x, y, errorX, errorY, null, null);
+    private void addPoint(final double x, final double y, final double yErrorNeg, final double yErrorPos,
+            final String tag, final String style) {
+        if (!Double.isFinite(x) || !Double.isFinite(y)) {
+            return;
         }
-
-        protected DataBlob(final double x, final double y, final double errorX, final double errorY, final String tag,
-                final String style) {
-            super(x, y, errorX, errorY);
-            this.tag = tag;
-            this.style = style;
+        if (count == capacity) {
+            // buffer full: drop oldest sample
+            dropOldest();
         }
+        final int index = ringIndex(count);
+        xValues[index] = x;
+        yValues[index] = y;
+        yErrorsNeg[index] = yErrorNeg;
+        yErrorsPos[index] = yErrorPos;
+        dataTags[index] = tag;
+        dataStyles[index] = style;
+        count++;
+
+        xMin.put(sequence, x);
+        xMax.put(sequence, x);
+        yMin.put(sequence, y - yErrorNeg);
+        yMax.put(sequence, y + yErrorPos);
+        sequence++;
+    }
 
-        public String getDataLabel() {
-            return tag;
-        }
+    private void dropOldest() {
+        dataTags[head] = null;
+        dataStyles[head] = null;
+        head = head + 1 == capacity ? 0 : head + 1;
+        count--;
+        final long oldestValid = sequence - count;
+        xMin.expire(oldestValid);
+        xMax.expire(oldestValid);
+        yMin.expire(oldestValid);
+        yMax.expire(oldestValid);
+    }
 
-        public String getStyle() {
-            return style;
+    private int expirePoints(final double now) {
+        int nRemoved = 0;
+        while (count > 0 && Math.abs(now - xValues[head]) > maxDistance) {
+            dropOldest();
+            nRemoved++;
         }
+        return nRemoved;
     }
 
-    /**
-     * @author rstein
-     * @param <E> generics template reference
-     */
-    public class LimitedQueue<E> extends ArrayList<E> {
-
-        private static final long serialVersionUID = -5751322669709687363L;
-        private final int limit;
-
-        /**
-         * @param limit size of queue
-         */
-        public LimitedQueue(final int limit) {
-            this.limit = limit;
-            if (limit < 1) {
-                throw new IllegalArgumentException("Queue limit must be greater than 0");
-            }
-        }
+    private int ringIndex(final int index) {
+        final int ringIndex = head + index;
+        return ringIndex >= capacity ? ringIndex - capacity : ringIndex;
+    }
 
-        @Override
-        public boolean add(final E o) {
-            final boolean r = super.add(o);
-            if (size() > limit) {
-                super.remove(0);
-            }
-            return r;
+    private void updateLimits() {
+        final AxisDescription xAxis = getAxisDescription(DIM_X);
+        final AxisDescription yAxis = getAxisDescription(DIM_Y);
+        xAxis.clear();
+        yAxis.clear();
+        if (count == 0) {
+            return;
         }
-
+        xAxis.add(xMin.get());
+        xAxis.add(xMax.get());
+        yAxis.add(yMin.get());
+        yAxis.add(yMax.get());
     }
 }
@@ -248,6 +248,17 @@ public class FloatDataSet extends AbstractDataSet<FloatDataSet> implements Edita
         return fireInvalidated(new RemovedDataEvent(this, "clearData()"));
     }
 
+    @Override
+    public double[] copyValues(final int dimIndex, final int fromIndex, final double[] destination,
+            final int destinationOffset, final int length) {
+        checkCopyRange(fromIndex, length, getDataCount());
+        final float[] source = dimIndex == DIM_X ? xValues.elements() : yValues.elements();
+        for (int i = 0; i < length; i++) {
+            destination[destinationOffset + i] = source[fromIndex + i];
+        }
+        return destination;
+    }
+
     @Override
     public double get(final int dimIndex, final int index) {
         return dimIndex == DIM_X ? xValues.elements()[index] : yValues.elements()[index];
@@ -0,0 +1,314 @@
+package de.gsi.dataset.spi;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import de.gsi.dataset.AxisDescription;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSet2D;
+import de.gsi.dataset.DataSetError;
+
+/**
+ * Read-only, zero-copy DataSet view onto a fixed-layout, columnar binary file that is memory-mapped via
+ * {@link FileChannel#map}. Opening a file only parses the small header, the numeric data is paged-in lazily by the
+ * operating system and is never copied onto the Java heap.
+ * <p>
+ * File layout (all numbers in the byte order declared in the header):
+ *
+ * <pre>
+ *  [ 8 bytes] magic "CFXMAP01"
+ *  [ 1 byte ] byte order (0: big-endian, 1: little-endian)
+ *  [ 1 byte ] value size in bytes (4: float32, 8: float64)
+ *  [ 2 bytes] reserved
+ *  [ 4 bytes] header length (== offset of the first column)
+ *  [ 8 bytes] number of samples
+ *  [2 x ...] per dimension: min (double), max (double), name and unit (int length + UTF-8 bytes)
+ *  [ ...    ] data set name (int length + UTF-8 bytes)
+ *  [ ...    ] padding to {@link #ALIGNMENT}
+ *  [ ...    ] columns x, y, eyn, eyp -- each of 'number of samples' values and aligned to {@link #ALIGNMENT}
+ * </pre>
+ *
+ * N.B. each column is mapped separately and thus limited to {@link Integer#MAX_VALUE} bytes.
+ *
+ * @author rstein
+ */
+public class MappedDataSet extends AbstractErrorDataSet<MappedDataSet> implements DataSet2D, DataSetError {
+    private static final long serialVersionUID = -3416720281612035621L;
+    /** file alignment of the column data (typical OS page size) */
+    public static final int ALIGNMENT = 4096;
+    private static final byte[] MAGIC = "CFXMAP01".getBytes(StandardCharsets.US_ASCII);
+    private static final int N_COLUMNS = 4;
+    private static final int FIXED_HEADER_LENGTH = MAGIC.length + 2 * Byte.BYTES + Short.BYTES + Integer.BYTES + Long.BYTES;
+    private final int nSamples;
+    private final transient DoubleBuffer[] doubleColumns = new DoubleBuffer[N_COLUMNS];
+    private final transient FloatBuffer[] floatColumns = new FloatBuffer[N_COLUMNS];
+    private final boolean isFloat32;
+
+    private MappedDataSet(final String name, final int nSamples, final boolean isFloat32) {
+        super(name, 2, ErrorType.NO_ERROR, ErrorType.ASYMMETRIC);
+        this.nSamples = nSamples;
+        this.isFloat32 = isFloat32;
+    }
+
+    @Override
+    public double get(final int dimIndex, final int index) {
+        return value(dimIndex, index);
+    }
+
+    @Override
+    public int getDataCount() {
+        return nSamples;
+    }
+
+    @Override
+    public String getDataLabel(final int index) {
+        return null;
+    }
+
+    @Override
+    public double getErrorNegative(final int dimIndex, final int index) {
+        return dimIndex == DIM_X ? 0.0 : value(2, index);
+    }
+
+    @Override
+    public double getErrorPositive(final int dimIndex, final int index) {
+        return dimIndex == DIM_X ? 0.0 : value(3, index);
+    }
+
+    @Override
+    public String getStyle(final int index) {
+        return null;
+    }
+
+    /**
+     * @return {@code true} if the values are stored as 32-bit floats, {@code false} for 64-bit doubles
+     */
+    public boolean isFloat32() {
+        return isFloat32;
+    }
+
+    /**
+     * N.B. limits are read from the file header and are not recomputed
+     */
+    @Override
+    public MappedDataSet recomputeLimits(final int dimension) {
+        return getThis();
+    }
+
+    private double value(final int column, final int index) {
+        return isFloat32 ? floatColumns[column].get(index) : doubleColumns[column].get(index);
+    }
+
+    /**
+     * opens the given file and maps its content as read-only DataSet
+     *
+     * @param file the file to be opened
+     * @return DataSet view onto the memory-mapped file content
+     * @throws IOException in case of IO problems or if the file is not a valid mapped DataSet file
+     */
+    public static MappedDataSet open(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer fixedHeader = ByteBuffer.allocate(FIXED_HEADER_LENGTH);
+            readFully(channel, fixedHeader, 0);
+            final byte[] magic = new byte[MAGIC.length];
+            fixedHeader.get(magic);
+            if (!Arrays.equals(MAGIC, magic)) {
+                throw new IOException("not a mapped DataSet file: " + file);
+            }
+            final ByteOrder byteOrder = fixedHeader.get() == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            fixedHeader.order(byteOrder);
+            final int valueSize = fixedHeader.get();
+            fixedHeader.getShort(); // reserved
+            final int headerLength = fixedHeader.getInt();
+            final long nSamples = fixedHeader.getLong();
+            if (valueSize != Float.BYTES && valueSize != Double.BYTES) {
+                throw new IOException("unsupported value size: " + valueSize);
+            }
+            if (nSamples < 0 || nSamples * valueSize > Integer.MAX_VALUE) {
+                throw new IOException("unsupported number of samples: " + nSamples);
+            }
+            // N.B. the last column is not padded
+            final long columnSize = nSamples * valueSize;
+            final long columnStride = align(columnSize);
+            final long fileSize = channel.size();
+            if (headerLength < FIXED_HEADER_LENGTH || headerLength > fileSize
+                    || headerLength + (N_COLUMNS - 1) * columnStride + columnSize > fileSize) {
+                throw new IOException("truncated or corrupt mapped DataSet file: " + file + " (header length "
+                                      + headerLength + ", " + nSamples + " samples, file size " + fileSize + ")");
+            }
+
+            final ByteBuffer header = ByteBuffer.allocate(headerLength - FIXED_HEADER_LENGTH).order(byteOrder);
+            readFully(channel, header, FIXED_HEADER_LENGTH);
+            final double[] min = new double[2];
+            final double[] max = new double[2];
+            final String[] names = new String[2];
+            final String[] units = new String[2];
+            final String name;
+            try {
+                for (int dim = 0; dim < 2; dim++) {
+                    min[dim] = header.getDouble();
+                    max[dim] = header.getDouble();
+                    names[dim] = getString(header);
+                    units[dim] = getString(header);
+                }
+                name = getString(header);
+            } catch (final BufferUnderflowException e) {
+                throw new IOException("corrupt mapped DataSet header: " + file, e);
+            }
+            final MappedDataSet dataSet = new MappedDataSet(name, (int) nSamples, valueSize == Float.BYTES);
+            for (int dim = 0; dim < 2; dim++) {
+                final AxisDescription axis = dataSet.getAxisDescription(dim);
+                axis.set(names[dim], units[dim], min[dim], max[dim]);
+            }
+
+            for (int column = 0; column < N_COLUMNS; column++) {
+                // N.B. mapping remains valid after the channel has been closed
+                final MappedByteBuffer mapped = channel.map(MapMode.READ_ONLY,
+                        headerLength + column * columnStride, columnSize);
+                mapped.order(byteOrder);
+                if (dataSet.isFloat32) {
+                    dataSet.floatColumns[column] = mapped.asFloatBuffer();
+                } else {
+                    dataSet.doubleColumns[column] = mapped.asDoubleBuffer();
+                }
+            }
+            return dataSet;
+        }
+    }
+
+    /**
+     * writes the given DataSet into the fixed-layout columnar file format (in native byte order)
+     *
+     * @param dataSet the DataSet to be exported
+     * @param file the destination file (will be overwritten)
+     * @param asFloat {@code true} use 32-bit floats (less memory, faster transfer) instead of 64-bit doubles (DataSet
+     *        default, higher precision)
+     * @throws IOException in case of IO problems
+     */
+    public static void write(final DataSet dataSet, final Path file, final boolean asFloat) throws IOException {
+        dataSet.lock().readLock();
+        try {
+            writeLocked(dataSet, file, asFloat ? Float.BYTES : Double.BYTES);
+        } finally {
+            dataSet.lock().readUnLock();
+        }
+    }
+
+    private static long align(final long length) {
+        return (length + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private static byte[] getBytes(final String string) {
+        return string == null ? new byte[0] : string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String getString(final ByteBuffer buffer) throws IOException {
+        final int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("invalid string length in mapped DataSet header: " + length);
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putString(final ByteBuffer buffer, final byte[] bytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+            throws IOException {
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            final int nRead = channel.read(buffer, pos);
+            if (nRead < 0) {
+                throw new IOException("unexpected end of file");
+            }
+            pos += nRead;
+        }
+        buffer.flip();
+    }
+
+    private static void writeLocked(final DataSet dataSet, final Path file, final int valueSize) throws IOException {
+        final ByteOrder byteOrder = ByteOrder.nativeOrder();
+        final int nSamples = dataSet.getDataCount(DIM_X);
+        if ((long) nSamples * valueSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("number of samples exceeds mappable column size: " + nSamples);
+        }
+        final DataSetError errorDataSet = dataSet instanceof DataSetError ? (DataSetError) dataSet : null;
+
+        final byte[] dataSetName = getBytes(dataSet.getName());
+        int variableLength = dataSetName.length + Integer.BYTES;
+        for (int dim = 0; dim < 2; dim++) {
+            final AxisDescription axis = dataSet.getAxisDescription(dim);
+            variableLength += 2 * Double.BYTES + 2 * Integer.BYTES + getBytes(axis.getName()).length
+                              + getBytes(axis.getUnit()).length;
+        }
+        final int headerLength = (int) align(FIXED_HEADER_LENGTH + variableLength);
+        final ByteBuffer header = ByteBuffer.allocate(headerLength).order(byteOrder);
+        header.put(MAGIC);
+        header.put((byte) (byteOrder == ByteOrder.BIG_ENDIAN ? 0 : 1));
+        header.put((byte) valueSize);
+        header.putShort((short) 0);
+        header.putInt(headerLength);
+        header.putLong(nSamples);
+        for (int dim = 0; dim < 2; dim++) {
+            final AxisDescription axis = dataSet.getAxisDescription(dim);
+            header.putDouble(axis.getMin());
+            header.putDouble(axis.getMax());
+            putString(header, getBytes(axis.getName()));
+            putString(header, getBytes(axis.getUnit()));
+        }
+        putString(header, dataSetName);
+        header.position(0);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            final long columnSize = (long) nSamples * valueSize;
+            final long columnStride = align(columnSize);
+            for (int column = 0; column < N_COLUMNS; column++) {
+                final MappedByteBuffer mapped = channel.map(MapMode.READ_WRITE,
+                        headerLength + column * columnStride, columnSize);
+                mapped.order(byteOrder);
+                for (int i = 0; i < nSamples; i++) {
+                    final double value;
+                    switch (column) {
+                    case 0:
+                        value = dataSet.get(DIM_X, i);
+                        break;
+                    case 1:
+                        value = dataSet.get(DIM_Y, i);
+                        break;
+                    case 2:
+                        value = errorDataSet == null ? 0.0 : errorDataSet.getErrorNegative(DIM_Y, i);
+                        break;
+                    default:
+                        value = errorDataSet == null ? 0.0 : errorDataSet.getErrorPositive(DIM_Y, i);
+                        break;
+                    }
+                    if (valueSize == Float.BYTES) {
+                        mapped.putFloat((float) value);
+                    } else {
+                        mapped.putDouble(value);
+                    }
+                }
+                mapped.force();
+            }
+        }
+    }
+}
@@ -11,14 +11,12 @@ import static de.gsi.dataset.DataSet.DIM_Y;
 import static de.gsi.dataset.utils.DataSetUtils.ErrType.EYN;
 import static de.gsi.dataset.utils.DataSetUtils.ErrType.EYP;
 
-import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.PushbackInputStream;
 import java.nio.ByteBuffer;
@@ -61,6 +59,8 @@ import de.gsi.dataset.spi.DefaultAxisDescription;
 import de.gsi.dataset.spi.DefaultDataSet;
 import de.gsi.dataset.spi.DoubleDataSet3D;
 import de.gsi.dataset.spi.DoubleErrorDataSet;
+import de.gsi.dataset.spi.MappedDataSet;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
 
 /**
  * @author braeun
@@ -488,6 +488,28 @@ public class DataSetUtils extends DataSetUtilsHelper {
         return dataSet;
     }
 
+    /**
+     * Opens a file written by {@link #writeDataSetToMappedFile} as read-only, memory-mapped DataSet. Only the header
+     * is parsed, the data itself is not copied but paged-in lazily on access.
+     *
+     * @param fileName Path and name of the mapped DataSet file
+     * @return DataSet view onto the file content or {@code null} in case of errors
+     */
+    public static MappedDataSet readDataSetFromMappedFile(final String fileName) {
+        if ((fileName == null) || fileName.isEmpty()) {
+            throw new IllegalArgumentException("fileName must not be null or empty");
+        }
+
+        try {
+            return MappedDataSet.open(new File(fileName).toPath());
+        } catch (final IOException e) {
+            if (LOGGER.isErrorEnabled()) {
+                LOGGER.error("could not open/parse file: '" + fileName + "'", e);
+            }
+        }
+        return null;
+    }
+
     /**
      * Read a Dataset from a stream containing comma separated values.<br>
      * The data format is a custom extension of csv with an additional #-commented Metadata Header and a $-commented
@@ -500,7 +522,8 @@ public class DataSetUtils extends DataSetUtilsHelper {
         boolean binary = false;
 
         DataSet dataSet = null;
-        try (BufferedReader inputReader = new BufferedReader(new InputStreamReader(inputStream))) {
+        try {
+            final StreamingCsvParser inputReader = new StreamingCsvParser(inputStream);
             String dataSetName = "unknown data set";
             int nDataCountEstimate = 0;
             final ArrayList<String> info = new ArrayList<>();
@@ -617,8 +640,6 @@ public class DataSetUtils extends DataSetUtilsHelper {
             for (AxisDescription a : axisDesc) {
                 dataSet.getAxisDescriptions().add(new DefaultAxisDescription(dataSet, a));
             }
-
-            // automatically closing reader connection
         } catch (final IOException e) {
             LOGGER.error("could not open/parse inputStream", e);
             return dataSet;
@@ -633,7 +654,7 @@ public class DataSetUtils extends DataSetUtilsHelper {
      * @return the DataSet read from File
      * @throws IOException in case of IO problems
      */
-    private static DataSet readNumericDataFromBinaryFile(final BufferedReader inputReader,
+    private static DataSet readNumericDataFromBinaryFile(final StreamingCsvParser inputReader,
             final SplitCharByteInputStream inputFile, final String dataSetName) throws IOException {
         DataSet result = null;
         String line;
@@ -741,7 +762,7 @@ public class DataSetUtils extends DataSetUtilsHelper {
         return result;
     }
 
-    protected static DataSet readNumericDataFromFile(final BufferedReader inputFile, final String dataSetName,
+    protected static DataSet readNumericDataFromFile(final StreamingCsvParser inputFile, final String dataSetName,
             final boolean is3D, final int nSamplesGuessed) {
         DataSet result = null;
         try {
@@ -751,19 +772,19 @@ public class DataSetUtils extends DataSetUtilsHelper {
                 DoubleBuffer y = DoubleBuffer.allocate(nSamplesGuessed);
                 DoubleBuffer z = DoubleBuffer.allocate(nSamplesGuessed);
 
-                for (String line = inputFile.readLine(); line != null; line = inputFile.readLine()) {
-                    final String[] parse = line.split(",");
-                    if (parse.length == 0) {
-                        continue;
+                final double[] parse = new double[4];
+                for (int nFields = inputFile.readRecord(parse); nFields >= 0; nFields = inputFile.readRecord(parse)) {
+                    if (nFields < parse.length) {
+                        throw new IllegalArgumentException("incomplete line: expected 4 fields but got " + nFields);
                     }
-                    double yNew = Double.parseDouble(parse[2]);
+                    double yNew = parse[2];
                     if (y.position() == 0 || yNew != y.get(y.position() - 1)) {
                         y.put(yNew);
                     }
                     if (y.position() < 2) {
-                        x.put(Double.parseDouble(parse[1]));
+                        x.put(parse[1]);
                     }
-                    z.put(Double.parseDouble(parse[3]));
+                    z.put(parse[3]);
                     i++;
                 }
                 double[] xArray = new double[x.position()];
@@ -779,19 +800,28 @@ public class DataSetUtils extends DataSetUtilsHelper {
                 }
                 result = new DoubleDataSet3D(dataSetName, xArray, yArray, zArray);
             } else {
-                result = new DoubleErrorDataSet(dataSetName);
-                for (String line = inputFile.readLine(); line != null; line = inputFile.readLine()) {
-                    final String[] parse = line.split(",");
-                    if (parse.length == 0) {
-                        continue;
+                // fill growing primitive columns and wrap them without copying (avoids locking and events per point)
+                final int capacity = Math.max(nSamplesGuessed, 16);
+                final DoubleArrayList x = new DoubleArrayList(capacity);
+                final DoubleArrayList y = new DoubleArrayList(capacity);
+                final DoubleArrayList eyn = new DoubleArrayList(capacity);
+                final DoubleArrayList eyp = new DoubleArrayList(capacity);
+                final double[] parse = new double[5];
+                for (int nFields = inputFile.readRecord(parse); nFields >= 0; nFields = inputFile.readRecord(parse)) {
+                    if (nFields < 3) {
+                        throw new IllegalArgumentException("incomplete line: expected 3 fields but got " + nFields);
                     }
-
-                    final double x = Double.parseDouble(parse[1]);
-                    final double y = Double.parseDouble(parse[2]);
-                    final double eyn = parse.length < 5 ? 0.0 : Double.parseDouble(parse[3]);
-                    final double eyp = parse.length < 5 ? 0.0 : Double.parseDouble(parse[4]);
-                    ((DoubleErrorDataSet) result).add(x, y, eyn, eyp);
+                    x.add(parse[1]);
+                    y.add(parse[2]);
+                    eyn.add(nFields < 5 ? 0.0 : parse[3]);
+                    eyp.add(nFields < 5 ? 0.0 : parse[4]);
                 }
+                x.trim();
+                y.trim();
+                eyn.trim();
+                eyp.trim();
+                result = new DoubleErrorDataSet(dataSetName, x.elements(), y.elements(), eyn.elements(),
+                        eyp.elements(), x.size(), false);
             }
         } catch (final Exception e) {
             if (LOGGER.isErrorEnabled()) {
@@ -998,6 +1028,47 @@ public class DataSetUtils extends DataSetUtilsHelper {
         }
     }
 
+    /**
+     * Export the contents of the supplied dataSet to the fixed-layout, columnar binary file format of
+     * {@link MappedDataSet} that can be re-opened without parsing or copying via {@link #readDataSetFromMappedFile}.
+     * The filename may contain the same placeholders as for {@link #writeDataSetToFile}.
+     *
+     * @param dataSet The DataSet to export
+     * @param path Path to the location of the file
+     * @param fileName Filename (with "{metadatafield;type;format}" placeholders for variables)
+     * @param asFloat true: store values as 32-bit floats, false: as 64-bit doubles
+     * @return actual name of the file that was written or none in case of errors
+     */
+    public static String writeDataSetToMappedFile(final DataSet dataSet, final Path path, final String fileName,
+            final boolean asFloat) {
+        if (dataSet == null) {
+            throw new IllegalArgumentException("dataSet must not be null or empty");
+        }
+        if ((fileName == null) || fileName.isEmpty()) {
+            throw new IllegalArgumentException("fileName must not be null or empty");
+        }
+
+        try {
+            final String longFileName = path.toFile() + "/" + getFileName(dataSet, fileName);
+            final File file = new File(longFileName);
+            if (file.getParentFile().mkdirs() && LOGGER.isInfoEnabled()) {
+                LOGGER.atInfo().addArgument(longFileName).log("needed to create directory for file: {}");
+            }
+            MappedDataSet.write(dataSet, file.toPath(), asFloat);
+
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.atDebug().addArgument(dataSet.getName()).addArgument(longFileName)
+                        .log("write data set '{}' to {}");
+            }
+            return longFileName;
+        } catch (final Exception e) {
+            if (LOGGER.isErrorEnabled()) {
+                LOGGER.error("could not write to file: '" + fileName + "'", e);
+            }
+            return null;
+        }
+    }
+
     protected static void writeHeaderDataToStream(final OutputStream outputStream, final DataSet dataSet) {
         try {
             // common header data
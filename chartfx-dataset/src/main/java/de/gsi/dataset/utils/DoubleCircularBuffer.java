@@ -50,15 +50,35 @@ public class DoubleCircularBuffer {
      * @return either into or newly allocated array containing the result
      */
     public double[] get(final double[] into, final int readPos, final int length) {
-        final double[] retVal = into == null ? new double[length] : into;
-        // N.B. actually there seem to be no numerically more efficient
-        // implementation
-        // since the order of the indices for 'into' need to be reverse order
-        // w.r.t. 'elements'
-        for (int i = 0; i < length; i++) {
-            retVal[i] = get(i + readPos);
-        }
+        return get(into, 0, readPos, length);
+    }
 
+    /**
+     * 
+     * @param into storage container
+     * @param intoOffset first index in the storage container
+     * @param readPos circular index (wraps around)
+     * @param length number of elements to be read
+     * @return either into or newly allocated array containing the result
+     */
+    public double[] get(final double[] into, final int intoOffset, final int readPos, final int length) {
+        final double[] retVal = into == null ? new double[intoOffset + length] : into;
+        if (length <= 0) {
+            return retVal;
+        }
+        if (!flipped && readPos < 0) {
+            throw new IllegalArgumentException("writePos = '" + writePos + "' readPos = '" + readPos
+                    + "' is beyond circular buffer capacity limits = [0," + capacity + "]");
+        }
+        // bulk copy of the (at most) two contiguous segments
+        int index = ((flipped ? writePos + readPos : readPos) % capacity + capacity) % capacity;
+        int copied = 0;
+        while (copied < length) {
+            final int n = Math.min(length - copied, capacity - index);
+            System.arraycopy(elements, index, retVal, intoOffset + copied, n);
+            copied += n;
+            index = 0;
+        }
         return retVal;
     }
 
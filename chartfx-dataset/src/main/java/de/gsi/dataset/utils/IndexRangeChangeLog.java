@@ -0,0 +1,137 @@
+package de.gsi.dataset.utils;
+
+import java.util.Arrays;
+
+/**
+ * bounded log of modified index ranges that allows to derive which parts of a data set changed since a given version
+ * stamp, e.g. to transmit only appended or modified samples to remote clients.
+ * <p>
+ * Each modification increments the version and records the affected index range. Ranges adjacent to or overlapping
+ * with the latest entry are merged into it as long as the version has not been queried in between (e.g. consecutive
+ * appends between two transmissions), since receivers can only be synchronised to versions that have been queried.
+ * Once the log is full, the two oldest entries are merged into their bounding range. The latter may only enlarge the
+ * reported ranges, i.e. the set of indices returned by {@link #getModifiedRanges(long, int)} is always a superset of
+ * the actually modified indices.
+ *
+ * @author rstein
+ */
+public class IndexRangeChangeLog {
+    /** index range end marker denoting 'until the end of the data set', e.g. for insertions or removals */
+    public static final int TO_END = Integer.MAX_VALUE;
+    private static final int DEFAULT_CAPACITY = 64;
+    private final long[] versions;
+    private final int[] fromIndices;
+    private final int[] toIndices;
+    private int head;
+    private int size;
+    private long version;
+    private boolean sealed; // whether the version of the latest entry has been published
+
+    /**
+     * creates change log with default capacity
+     */
+    public IndexRangeChangeLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity maximum number of distinct index ranges retained before the oldest ranges are merged
+     */
+    public IndexRangeChangeLog(final int capacity) {
+        AssertUtils.gtThanZero("capacity", capacity);
+        versions = new long[capacity];
+        fromIndices = new int[capacity];
+        toIndices = new int[capacity];
+    }
+
+    /**
+     * @param sinceVersion version stamp the receiver is synchronised to
+     * @param dataCount current number of data points (ranges are clipped to this)
+     * @return sorted, non-overlapping [from, to) index pairs modified after {@code sinceVersion} or {@code null} if the
+     *         ranges cannot be derived (i.e. {@code sinceVersion} is negative or in the future) and a full update is
+     *         required
+     */
+    public synchronized int[] getModifiedRanges(final long sinceVersion, final int dataCount) {
+        sealed = true;
+        if (sinceVersion < 0 || sinceVersion > version) {
+            return null; // NOPMD - null denotes 'full update required'
+        }
+        final long[] ranges = new long[size];
+        int nRanges = 0;
+        for (int i = 0; i < size; i++) {
+            final int index = (head + i) % versions.length;
+            if (versions[index] > sinceVersion && fromIndices[index] < dataCount) {
+                // pack as sortable long: upper 32 bit 'from', lower 32 bit 'to'
+                ranges[nRanges++] = ((long) fromIndices[index] << 32) | Math.min(toIndices[index], dataCount);
+            }
+        }
+        Arrays.sort(ranges, 0, nRanges);
+
+        final int[] merged = new int[2 * nRanges];
+        int nMerged = 0;
+        for (int i = 0; i < nRanges; i++) {
+            final int from = (int) (ranges[i] >>> 32);
+            final int to = (int) ranges[i];
+            if (nMerged > 0 && from <= merged[nMerged - 1]) {
+                merged[nMerged - 1] = Math.max(merged[nMerged - 1], to);
+            } else {
+                merged[nMerged++] = from;
+                merged[nMerged++] = to;
+            }
+        }
+        return nMerged == merged.length ? merged : Arrays.copyOf(merged, nMerged);
+    }
+
+    /**
+     * @return the current version stamp (incremented on each modification)
+     */
+    public synchronized long getVersion() {
+        sealed = true;
+        return version;
+    }
+
+    /**
+     * marks the whole data set as modified
+     *
+     * @return the new version stamp
+     */
+    public long markAllModified() {
+        return markModified(0, TO_END);
+    }
+
+    /**
+     * @param fromIndex first modified index (inclusive)
+     * @param toIndex last modified index (exclusive) or {@link #TO_END}
+     * @return the new version stamp
+     */
+    public synchronized long markModified(final int fromIndex, final int toIndex) {
+        final int from = Math.max(0, fromIndex);
+        final int to = Math.max(from, toIndex);
+        version++;
+        if (size > 0 && !sealed) {
+            final int last = (head + size - 1) % versions.length;
+            if (from <= toIndices[last] && to >= fromIndices[last]) {
+                // overlapping or adjacent (e.g. consecutive appends) and not yet published -> extend latest range
+                fromIndices[last] = Math.min(fromIndices[last], from);
+                toIndices[last] = Math.max(toIndices[last], to);
+                versions[last] = version;
+                return version;
+            }
+        }
+        if (size == versions.length) {
+            // merge the two oldest entries into their bounding range
+            final int next = (head + 1) % versions.length;
+            fromIndices[next] = Math.min(fromIndices[head], fromIndices[next]);
+            toIndices[next] = Math.max(toIndices[head], toIndices[next]);
+            head = next;
+            size--;
+        }
+        final int index = (head + size) % versions.length;
+        versions[index] = version;
+        fromIndices[index] = from;
+        toIndices[index] = to;
+        size++;
+        sealed = false;
+        return version;
+    }
+}
@@ -0,0 +1,301 @@
+package de.gsi.dataset.utils;
+
+import java.util.Arrays;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.event.EventListener;
+import de.gsi.dataset.event.UpdateEvent;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+
+/**
+ * multi-resolution min/max pyramid (level-of-detail index) over the y-values of a DataSet.
+ * <p>
+ * Level 0 stores the minimum and maximum (and their indices) of consecutive blocks of {@link #BLOCK_SIZE} samples,
+ * each further level merges two blocks of the previous level. The extrema of an arbitrary index range are thus
+ * obtained in O(log n + BLOCK_SIZE) rather than O(n), e.g. to compute the per-pixel-column first/min/max/last
+ * ('M4') summary of very large sorted data sets for each pan/zoom in O(pixels &middot; log n) independent of the data
+ * set size while preserving all peaks.
+ * <p>
+ * The pyramid is attached to a data set as {@link EventListener} (see {@link #attach(DataSet)}) and brought
+ * up-to-date lazily by {@link #update(DataSet)}: for {@link DoubleErrorDataSet}s only the blocks covering the index
+ * ranges modified since the last update are recomputed (see {@link DoubleErrorDataSet#getChangeLog()}), for other
+ * data sets the pyramid is rebuilt once after each received update event, data count change or {@link #invalidate()}.
+ * N.B. since update events are delivered asynchronously, the latter may be briefly out-of-date. NaN values are ignored.
+ *
+ * @author rstein
+ */
+public class MinMaxPyramid implements EventListener {
+    /** number of samples summarised by one level-0 block */
+    public static final int BLOCK_SIZE = 64;
+    private static final int INITIAL_BLOCKS = 16;
+    private double[][] minValues = new double[0][];
+    private double[][] maxValues = new double[0][];
+    private int[][] minIndices = new int[0][];
+    private int[][] maxIndices = new int[0][];
+    private int dataCount = -1; // number of samples covered by the pyramid, -1: needs full rebuild
+    private long version = -1; // change log version the pyramid is synchronised to
+    private volatile boolean dirty = true; // set by update events of data sets w/o change log
+
+    /**
+     * @param dataSet data set the pyramid shall be attached to
+     * @return the pyramid already attached to the given data set or a newly created and attached one
+     */
+    public static MinMaxPyramid attach(final DataSet dataSet) {
+        AssertUtils.notNull("dataSet", dataSet);
+        synchronized (dataSet.updateEventListener()) {
+            for (final EventListener listener : dataSet.updateEventListener()) {
+                if (listener instanceof MinMaxPyramid) {
+                    return (MinMaxPyramid) listener;
+                }
+            }
+            final MinMaxPyramid pyramid = new MinMaxPyramid();
+            dataSet.addListener(pyramid);
+            return pyramid;
+        }
+    }
+
+    /**
+     * @param dataSet data set the pyramid shall be detached from
+     */
+    public static void detach(final DataSet dataSet) {
+        AssertUtils.notNull("dataSet", dataSet);
+        synchronized (dataSet.updateEventListener()) {
+            dataSet.updateEventListener().removeIf(MinMaxPyramid.class::isInstance);
+        }
+    }
+
+    /**
+     * @return number of samples covered by the pyramid
+     */
+    public synchronized int getDataCount() {
+        return Math.max(0, dataCount);
+    }
+
+    /**
+     * computes the indices of the minimum and maximum y-value within the given index range. N.B.
+     * {@link #update(DataSet)} should be called beforehand (e.g. within the same read-lock) if the data set may have
+     * changed.
+     *
+     * @param dataSet data set the pyramid has been built for
+     * @param fromIndex first index (inclusive)
+     * @param toIndex last index (exclusive)
+     * @param result storage for the result: {@code result[0]} index of the minimum, {@code result[1]} index of the
+     *        maximum (both {@code -1} if the range is empty or contains only NaN values)
+     * @return the result array
+     */
+    public synchronized int[] getMinMaxIndices(final DataSet dataSet, final int fromIndex, final int toIndex,
+            final int[] result) {
+        result[0] = -1;
+        result[1] = -1;
+        final int to = Math.min(toIndex, getDataCount());
+        int index = Math.max(0, fromIndex);
+        double min = Double.NaN;
+        double max = Double.NaN;
+        // leading samples until the first block boundary
+        while (index < to && (index % BLOCK_SIZE != 0 || index + BLOCK_SIZE > to)) {
+            final double value = dataSet.get(DataSet.DIM_Y, index);
+            // N.B. '!(value >= min)' is also true for the initial min == NaN
+            if (!Double.isNaN(value) && !(value >= min)) {
+                min = value;
+                result[0] = index;
+            }
+            if (!Double.isNaN(value) && !(value <= max)) {
+                max = value;
+                result[1] = index;
+            }
+            index++;
+        }
+        // complete blocks using the coarsest possible level
+        while (index + BLOCK_SIZE <= to) {
+            final int block = index / BLOCK_SIZE;
+            int level = 0;
+            while (level + 1 < minValues.length && (block & ((2 << level) - 1)) == 0
+                    && index + (BLOCK_SIZE << (level + 1)) <= to) {
+                level++;
+            }
+            final int blockIndex = block >> level;
+            final int minIndex = minIndices[level][blockIndex];
+            if (minIndex >= 0 && !(minValues[level][blockIndex] >= min)) {
+                min = minValues[level][blockIndex];
+                result[0] = minIndex;
+            }
+            final int maxIndex = maxIndices[level][blockIndex];
+            if (maxIndex >= 0 && !(maxValues[level][blockIndex] <= max)) {
+                max = maxValues[level][blockIndex];
+                result[1] = maxIndex;
+            }
+            index += BLOCK_SIZE << level;
+        }
+        // trailing samples
+        for (; index < to; index++) {
+            final double value = dataSet.get(DataSet.DIM_Y, index);
+            if (!Double.isNaN(value) && !(value >= min)) {
+                min = value;
+                result[0] = index;
+            }
+            if (!Double.isNaN(value) && !(value <= max)) {
+                max = value;
+                result[1] = index;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void handle(final UpdateEvent event) {
+        dirty = true;
+    }
+
+    /**
+     * forces a full rebuild on the next {@link #update(DataSet)}
+     */
+    public synchronized void invalidate() {
+        dataCount = -1;
+    }
+
+    /**
+     * brings the pyramid up-to-date with the data set. N.B. should be called while holding the data set's read-lock.
+     *
+     * @param dataSet data set the pyramid is attached to
+     * @return number of level-0 blocks that have been recomputed
+     */
+    public synchronized int update(final DataSet dataSet) {
+        final int newCount = dataSet.getDataCount(DataSet.DIM_Y);
+        if (dataSet instanceof DoubleErrorDataSet) {
+            final IndexRangeChangeLog changeLog = ((DoubleErrorDataSet) dataSet).getChangeLog();
+            final long newVersion = changeLog.getVersion();
+            if (dataCount >= 0 && newVersion == version && newCount == dataCount) {
+                return 0;
+            }
+            final int[] ranges = dataCount < 0 ? null : changeLog.getModifiedRanges(version, newCount);
+            version = newVersion;
+            dirty = false;
+            return ranges == null ? rebuild(dataSet, newCount) : update(dataSet, newCount, ranges);
+        }
+        if (!dirty && newCount == dataCount) {
+            return 0;
+        }
+        dirty = false;
+        return rebuild(dataSet, newCount);
+    }
+
+    private void computeBlock(final DataSet dataSet, final int block) {
+        final int from = block * BLOCK_SIZE;
+        final int to = Math.min(from + BLOCK_SIZE, dataCount);
+        double min = Double.NaN;
+        double max = Double.NaN;
+        int minIndex = -1;
+        int maxIndex = -1;
+        for (int index = from; index < to; index++) {
+            final double value = dataSet.get(DataSet.DIM_Y, index);
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            if (minIndex < 0 || value < min) {
+                min = value;
+                minIndex = index;
+            }
+            if (maxIndex < 0 || value > max) {
+                max = value;
+                maxIndex = index;
+            }
+        }
+        minValues[0][block] = min;
+        maxValues[0][block] = max;
+        minIndices[0][block] = minIndex;
+        maxIndices[0][block] = maxIndex;
+    }
+
+    private void ensureCapacity(final int nBlocks) {
+        final int nLevels = 32 - Integer.numberOfLeadingZeros(Math.max(1, nBlocks)); // levels until single block
+        if (minValues.length == nLevels && minValues[0].length >= nBlocks) {
+            return;
+        }
+        final int oldCapacity = minValues.length == 0 ? 0 : minValues[0].length;
+        final int capacity = oldCapacity >= nBlocks ? oldCapacity
+                                                    : Math.max(INITIAL_BLOCKS, Math.max(nBlocks, oldCapacity * 2));
+        final double[][] newMinValues = new double[nLevels][];
+        final double[][] newMaxValues = new double[nLevels][];
+        final int[][] newMinIndices = new int[nLevels][];
+        final int[][] newMaxIndices = new int[nLevels][];
+        for (int level = 0; level < nLevels; level++) {
+            final int levelCapacity = Math.max(1, capacity >> level);
+            final boolean keep = level < minValues.length;
+            newMinValues[level] = keep ? Arrays.copyOf(minValues[level], levelCapacity) : new double[levelCapacity];
+            newMaxValues[level] = keep ? Arrays.copyOf(maxValues[level], levelCapacity) : new double[levelCapacity];
+            newMinIndices[level] = keep ? Arrays.copyOf(minIndices[level], levelCapacity) : new int[levelCapacity];
+            newMaxIndices[level] = keep ? Arrays.copyOf(maxIndices[level], levelCapacity) : new int[levelCapacity];
+        }
+        minValues = newMinValues;
+        maxValues = newMaxValues;
+        minIndices = newMinIndices;
+        maxIndices = newMaxIndices;
+    }
+
+    private void mergeBlocks(final int level, final int fromBlock, final int toBlock) {
+        final double[] childMin = minValues[level - 1];
+        final double[] childMax = maxValues[level - 1];
+        final int[] childMinIndex = minIndices[level - 1];
+        final int[] childMaxIndex = maxIndices[level - 1];
+        for (int block = fromBlock; block < toBlock; block++) {
+            final int left = 2 * block;
+            final int right = left + 1;
+            // N.B. by construction, both children of a level > 0 block exist
+            final boolean rightMin = childMinIndex[right] >= 0
+                                     && (childMinIndex[left] < 0 || childMin[right] < childMin[left]);
+            final boolean rightMax = childMaxIndex[right] >= 0
+                                     && (childMaxIndex[left] < 0 || childMax[right] > childMax[left]);
+            minValues[level][block] = rightMin ? childMin[right] : childMin[left];
+            minIndices[level][block] = rightMin ? childMinIndex[right] : childMinIndex[left];
+            maxValues[level][block] = rightMax ? childMax[right] : childMax[left];
+            maxIndices[level][block] = rightMax ? childMaxIndex[right] : childMaxIndex[left];
+        }
+    }
+
+    private int rebuild(final DataSet dataSet, final int newCount) {
+        dataCount = newCount;
+        return updateBlocks(dataSet, 0, Integer.MAX_VALUE);
+    }
+
+    private int update(final DataSet dataSet, final int newCount, final int[] ranges) {
+        final int oldCount = dataCount;
+        dataCount = newCount;
+        int nBlocks = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            nBlocks += updateBlocks(dataSet, ranges[i], ranges[i + 1]);
+        }
+        final int boundary = Math.min(oldCount, newCount);
+        final int nRanges = ranges.length;
+        final boolean covered = nRanges > 0 && ranges[nRanges - 2] <= boundary && ranges[nRanges - 1] >= newCount;
+        if (oldCount != newCount && !covered) {
+            // (partial) last block and all blocks beyond the previous end
+            nBlocks += updateBlocks(dataSet, boundary, newCount);
+        }
+        return nBlocks;
+    }
+
+    /**
+     * recomputes all level-0 blocks intersecting the index range and propagates the result to the coarser levels
+     *
+     * @return number of recomputed level-0 blocks
+     */
+    private int updateBlocks(final DataSet dataSet, final int fromIndex, final int toIndex) {
+        final int nBlocks = (dataCount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        ensureCapacity(nBlocks);
+        if (nBlocks == 0) {
+            return 0;
+        }
+        final int fromBlock = Math.min(Math.max(0, fromIndex) / BLOCK_SIZE, nBlocks - 1);
+        final long toIndexCeil = (long) Math.max(fromIndex, toIndex) + BLOCK_SIZE - 1;
+        final int toBlock = (int) Math.min(nBlocks, toIndexCeil / BLOCK_SIZE);
+        for (int block = fromBlock; block < toBlock; block++) {
+            computeBlock(dataSet, block);
+        }
+        for (int level = 1; level < minValues.length; level++) {
+            // only complete blocks (ie. with two valid children) are used on the coarser levels
+            final int nLevelBlocks = nBlocks >> level;
+            mergeBlocks(level, fromBlock >> level, Math.min(nLevelBlocks, ((toBlock - 1) >> level) + 1));
+        }
+        return toBlock - fromBlock;
+    }
+}
@@ -0,0 +1,117 @@
+package de.gsi.dataset.utils;
+
+/**
+ * primitive monotonic deque used to track the running minimum or maximum over a sliding (FIFO) window in amortised
+ * O(1) per operation and without any allocation after construction.
+ * <p>
+ * Each element is tagged with a strictly increasing (user-supplied) sequence number, e.g. the running index of the
+ * sample. Elements that can no longer become the extremum are dropped on insertion, elements that left the window are
+ * dropped via {@link #expire(long)}.
+ *
+ * @author rstein
+ */
+public class MonotonicDoubleDeque {
+    private final boolean trackMaximum;
+    private final int capacity;
+    private final double[] values;
+    private final long[] sequence;
+    private int head;
+    private int size;
+
+    /**
+     * @param capacity maximum number of elements that may be simultaneously within the window
+     * @param trackMaximum true: tracks the window maximum, false: tracks the window minimum
+     */
+    public MonotonicDoubleDeque(final int capacity, final boolean trackMaximum) {
+        AssertUtils.gtThanZero("capacity", capacity);
+        this.capacity = capacity;
+        this.trackMaximum = trackMaximum;
+        values = new double[capacity];
+        sequence = new long[capacity];
+    }
+
+    /**
+     * removes all elements
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * removes all elements with a sequence number smaller than the given one
+     *
+     * @param oldestValidSequence the sequence number of the oldest element still within the window
+     */
+    public void expire(final long oldestValidSequence) {
+        while (size > 0 && sequence[head] < oldestValidSequence) {
+            head = head + 1 == capacity ? 0 : head + 1;
+            size--;
+        }
+    }
+
+    /**
+     * @return the window minimum (or maximum) or {@link Double#NaN} if the deque is empty
+     */
+    public double get() {
+        return size == 0 ? Double.NaN : values[head];
+    }
+
+    /**
+     * @return true if there are no elements within the window
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return true: tracks the window maximum, false: tracks the window minimum
+     */
+    public boolean isTrackingMaximum() {
+        return trackMaximum;
+    }
+
+    /**
+     * adds a new element to the tail of the window. N.B. non-finite values are ignored
+     *
+     * @param seqNumber the element's sequence number (must be larger than any previously added one)
+     * @param value the new value
+     */
+    public void put(final long seqNumber, final double value) {
+        if (!Double.isFinite(value)) {
+            return;
+        }
+        // drop tail elements that are dominated by the new value
+        while (size > 0) {
+            final int tail = tailIndex();
+            if (trackMaximum ? values[tail] > value : values[tail] < value) {
+                break;
+            }
+            size--;
+        }
+        if (size == capacity) {
+            // should not happen for a window limited to 'capacity' elements, drop the oldest to be safe
+            head = head + 1 == capacity ? 0 : head + 1;
+            size--;
+        }
+        int index = head + size;
+        if (index >= capacity) {
+            index -= capacity;
+        }
+        values[index] = value;
+        sequence[index] = seqNumber;
+        size++;
+    }
+
+    /**
+     * @return number of elements currently held by the deque (N.B. not the window size)
+     */
+    public int size() {
+        return size;
+    }
+
+    private int tailIndex() {
+        final int index = head + size - 1;
+        return index >= capacity ? index - capacity : index;
+    }
+}
@@ -0,0 +1,487 @@
+package de.gsi.dataset.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+
+/**
+ * Streaming, byte-level tokenizer for numeric comma-separated values as used by the DataSetUtils text format.
+ * <p>
+ * Unlike {@code BufferedReader.readLine()} + {@code String.split(",")} + {@code Double.parseDouble(..)}, numbers are
+ * parsed directly from the underlying byte buffer without creating intermediate {@code String}s: the decimal mantissa
+ * and exponent are accumulated as primitives and converted to the correctly rounded double using Clinger's fast path
+ * or the Eisel-Lemire algorithm. Only the rare ambiguous cases (e.g. more than 18 significant digits) fall back to
+ * {@link Double#parseDouble(String)}.
+ * <p>
+ * Sources are either an {@link InputStream} (read in chunks of {@link #STREAM_CHUNK_SIZE} bytes) or a
+ * {@link ByteBuffer} (heap, direct or memory-mapped). Large buffers can be parsed in parallel via
+ * {@link #parseColumns(ByteBuffer, int)}.
+ *
+ * @author rstein
+ */
+public class StreamingCsvParser {
+    /** chunk size used to read from input streams (N.B. must not exceed push-back buffer sizes of wrapped streams) */
+    public static final int STREAM_CHUNK_SIZE = 8192;
+    /** minimum number of bytes per chunk for parallel parsing */
+    public static final int PARALLEL_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_MANTISSA_DIGITS = 18;
+    private static final int MIN_EXP10 = -348;
+    private static final int MAX_EXP10 = 347;
+    private static final long[] POW10_HI = new long[MAX_EXP10 - MIN_EXP10 + 1];
+    private static final long[] POW10_LO = new long[MAX_EXP10 - MIN_EXP10 + 1];
+    private static final double[] POW10_EXACT = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+        1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+    private static final byte[] NAN = "NaN".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INFINITY = "Infinity".getBytes(StandardCharsets.US_ASCII);
+    private static final int EOF = -1;
+    private final InputStream inputStream;
+    private final ByteBuffer byteBuffer;
+    private byte[] buffer;
+    private int position;
+    private int limit;
+    private byte[] scratch = new byte[64];
+    private int scratchLength;
+
+    static {
+        // 128-bit mantissa approximations (rounded down) of the powers of ten
+        for (int exp10 = MIN_EXP10; exp10 <= MAX_EXP10; exp10++) {
+            final BigInteger value;
+            if (exp10 >= 0) {
+                final BigInteger pow10 = BigInteger.TEN.pow(exp10);
+                final int shift = pow10.bitLength() - 128;
+                value = shift >= 0 ? pow10.shiftRight(shift) : pow10.shiftLeft(-shift);
+            } else {
+                final BigInteger pow10 = BigInteger.TEN.pow(-exp10);
+                value = BigInteger.ONE.shiftLeft(pow10.bitLength() + 127).divide(pow10);
+            }
+            POW10_HI[exp10 - MIN_EXP10] = value.shiftRight(64).longValue();
+            POW10_LO[exp10 - MIN_EXP10] = value.longValue();
+        }
+    }
+
+    /**
+     * @param source byte buffer to be parsed (from its present position to its limit, N.B. the buffer's position is
+     *        not modified)
+     */
+    public StreamingCsvParser(final ByteBuffer source) {
+        AssertUtils.notNull("source", source);
+        inputStream = null;
+        if (source.hasArray()) {
+            byteBuffer = null;
+            buffer = source.array();
+            position = source.arrayOffset() + source.position();
+            limit = source.arrayOffset() + source.limit();
+        } else {
+            byteBuffer = source.duplicate();
+            buffer = new byte[STREAM_CHUNK_SIZE];
+        }
+    }
+
+    /**
+     * @param source input stream to be parsed
+     */
+    public StreamingCsvParser(final InputStream source) {
+        AssertUtils.notNull("source", source);
+        inputStream = source;
+        byteBuffer = null;
+        buffer = new byte[STREAM_CHUNK_SIZE];
+    }
+
+    /**
+     * reads the next line as UTF-8 string (intended for header and meta-data lines)
+     *
+     * @return the line without line-termination characters or {@code null} if the end of the input has been reached
+     * @throws IOException in case of IO problems
+     */
+    public String readLine() throws IOException {
+        scratchLength = 0;
+        int b = read();
+        if (b == EOF) {
+            return null;
+        }
+        for (; b != EOF && b != '\n'; b = read()) {
+            appendScratch(b);
+        }
+        if (scratchLength > 0 && scratch[scratchLength - 1] == '\r') {
+            scratchLength--;
+        }
+        return new String(scratch, 0, scratchLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * parses the next non-empty line of comma-separated numbers without allocating intermediate objects
+     *
+     * @param values storage for the parsed values; surplus fields are skipped
+     * @return number of fields found on the line or '-1' if the end of the input has been reached
+     * @throws IOException in case of IO problems
+     * @throws NumberFormatException in case a field cannot be parsed as number
+     */
+    public int readRecord(final double[] values) throws IOException {
+        int b = read();
+        while (b == '\n' || b == '\r') {
+            b = read();
+        }
+        if (b == EOF) {
+            return -1;
+        }
+        unread();
+
+        int nFields = 0;
+        while (true) {
+            if (nFields < values.length) {
+                values[nFields] = parseNumber();
+            } else {
+                skipField();
+            }
+            nFields++;
+            b = read();
+            if (b != ',') {
+                if (b == '\r') {
+                    b = read();
+                }
+                if (b != '\n' && b != EOF) {
+                    throw new NumberFormatException("unexpected character '" + (char) b + "' in field " + nFields);
+                }
+                return nFields;
+            }
+        }
+    }
+
+    private void appendScratch(final int b) {
+        if (scratchLength == scratch.length) {
+            scratch = Arrays.copyOf(scratch, 2 * scratch.length);
+        }
+        scratch[scratchLength++] = (byte) b;
+    }
+
+    private boolean matches(final byte[] word) throws IOException {
+        for (final byte expected : word) {
+            final int b = read();
+            if (b != expected) {
+                if (b != EOF) {
+                    unread();
+                }
+                return false;
+            }
+            appendScratch(b);
+        }
+        return true;
+    }
+
+    /**
+     * parses one number and stops at (without consuming) the next field delimiter or line end
+     */
+    private double parseNumber() throws IOException {
+        scratchLength = 0;
+        int b = skipBlanks();
+        final boolean negative = b == '-';
+        if (negative || b == '+') {
+            appendScratch(b);
+            b = read();
+        }
+
+        if (b == 'N' || b == 'I') {
+            unread();
+            if (matches(NAN)) {
+                checkFieldEnd();
+                return Double.NaN;
+            }
+            if (matches(INFINITY)) {
+                checkFieldEnd();
+                return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+            }
+            throw numberFormatException();
+        }
+
+        long mantissa = 0;
+        int nDigits = 0; // significant digits stored in 'mantissa'
+        int exp10 = 0;
+        boolean hasDigits = false;
+        boolean truncated = false;
+        boolean fraction = false;
+        for (;; b = read()) {
+            if (b >= '0' && b <= '9') {
+                hasDigits = true;
+                appendScratch(b);
+                if (nDigits < MAX_MANTISSA_DIGITS) {
+                    if (nDigits > 0 || b != '0') {
+                        mantissa = 10 * mantissa + (b - '0');
+                        nDigits++;
+                    }
+                    if (fraction) {
+                        exp10--;
+                    }
+                } else {
+                    truncated |= b != '0';
+                    if (!fraction) {
+                        exp10++;
+                    }
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+                appendScratch(b);
+            } else {
+                break;
+            }
+        }
+        if (!hasDigits) {
+            throw numberFormatException();
+        }
+
+        if (b == 'e' || b == 'E') {
+            appendScratch(b);
+            b = read();
+            final boolean negativeExponent = b == '-';
+            if (negativeExponent || b == '+') {
+                appendScratch(b);
+                b = read();
+            }
+            if (b < '0' || b > '9') {
+                throw numberFormatException();
+            }
+            int exponent = 0;
+            for (; b >= '0' && b <= '9'; b = read()) {
+                appendScratch(b);
+                if (exponent < 100_000) {
+                    exponent = 10 * exponent + (b - '0');
+                }
+            }
+            exp10 += negativeExponent ? -exponent : exponent;
+        }
+        if (b != EOF) {
+            unread();
+            checkFieldEnd();
+        }
+
+        if (!truncated) {
+            final double value = toDouble(mantissa, exp10);
+            if (!Double.isNaN(value)) {
+                return negative ? -value : value;
+            }
+        }
+        // ambiguous or out-of-range: rare fall-back to the JDK implementation
+        return Double.parseDouble(new String(scratch, 0, scratchLength, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * skips trailing blanks and verifies that the next character (not consumed) terminates the field
+     */
+    private void checkFieldEnd() throws IOException {
+        final int b = skipBlanks();
+        if (b == EOF) {
+            return;
+        }
+        unread();
+        if (b != ',' && b != '\n' && b != '\r') {
+            throw numberFormatException();
+        }
+    }
+
+    private NumberFormatException numberFormatException() {
+        final String field = new String(scratch, 0, scratchLength, StandardCharsets.UTF_8);
+        return new NumberFormatException("could not parse number starting with: '" + field + "'");
+    }
+
+    private int read() throws IOException {
+        if (position < limit) {
+            return buffer[position++] & 0xFF;
+        }
+        return refill();
+    }
+
+    private int refill() throws IOException {
+        if (inputStream == null && byteBuffer == null) {
+            return EOF;
+        }
+        int nRead = 0;
+        if (inputStream != null) {
+            while (nRead == 0) {
+                nRead = inputStream.read(buffer, 0, buffer.length);
+            }
+        } else {
+            nRead = Math.min(buffer.length, byteBuffer.remaining());
+            byteBuffer.get(buffer, 0, nRead);
+            if (nRead == 0) {
+                nRead = EOF;
+            }
+        }
+        if (nRead < 0) {
+            return EOF;
+        }
+        position = 1;
+        limit = nRead;
+        return buffer[0] & 0xFF;
+    }
+
+    private int skipBlanks() throws IOException {
+        int b = read();
+        while (b == ' ' || b == '\t') {
+            b = read();
+        }
+        return b;
+    }
+
+    private void skipField() throws IOException {
+        int b = read();
+        while (b != EOF && b != ',' && b != '\n' && b != '\r') {
+            b = read();
+        }
+        if (b != EOF) {
+            unread();
+        }
+    }
+
+    /**
+     * N.B. only valid directly after a successful {@link #read()}
+     */
+    private void unread() {
+        position--;
+    }
+
+    /**
+     * parses the given buffer into columns -- in parallel chunks split at line boundaries if the buffer is larger than
+     * {@link #PARALLEL_CHUNK_SIZE}. Missing fields are set to '0.0'.
+     *
+     * @param data buffer containing comma-separated numeric data (N.B. the buffer's position is not modified)
+     * @param nColumns number of columns to be parsed
+     * @return parsed values as [column][row] arrays
+     */
+    public static double[][] parseColumns(final ByteBuffer data, final int nColumns) {
+        final int start = data.position();
+        final int length = data.remaining();
+        final int nChunks = Math.max(1,
+                Math.min(length / PARALLEL_CHUNK_SIZE, 4 * ForkJoinPool.getCommonPoolParallelism()));
+        final int[] boundaries = new int[nChunks + 1];
+        boundaries[0] = start;
+        boundaries[nChunks] = start + length;
+        for (int i = 1; i < nChunks; i++) {
+            int boundary = Math.max(boundaries[i - 1], start + (int) ((long) i * length / nChunks));
+            while (boundary < start + length && data.get(boundary) != '\n') {
+                boundary++;
+            }
+            boundaries[i] = Math.min(start + length, boundary + 1);
+        }
+
+        final DoubleArrayList[][] chunks = new DoubleArrayList[nChunks][];
+        IntStream.range(0, nChunks).parallel().forEach(i -> {
+            final ByteBuffer chunk = data.duplicate();
+            chunk.limit(boundaries[i + 1]).position(boundaries[i]);
+            chunks[i] = parseChunk(new StreamingCsvParser(chunk.slice()), nColumns, boundaries[i + 1] - boundaries[i]);
+        });
+
+        int nRows = 0;
+        for (final DoubleArrayList[] chunk : chunks) {
+            nRows += chunk[0].size();
+        }
+        final double[][] columns = new double[nColumns][nRows];
+        int offset = 0;
+        for (final DoubleArrayList[] chunk : chunks) {
+            final int size = chunk[0].size();
+            for (int col = 0; col < nColumns; col++) {
+                System.arraycopy(chunk[col].elements(), 0, columns[col], offset, size);
+            }
+            offset += size;
+        }
+        return columns;
+    }
+
+    private static DoubleArrayList[] parseChunk(final StreamingCsvParser parser, final int nColumns,
+            final int nBytes) {
+        final DoubleArrayList[] columns = new DoubleArrayList[nColumns];
+        final int capacityGuess = Math.max(16, nBytes / (12 * nColumns));
+        for (int col = 0; col < nColumns; col++) {
+            columns[col] = new DoubleArrayList(capacityGuess);
+        }
+        final double[] record = new double[nColumns];
+        try {
+            for (int nFields = parser.readRecord(record); nFields >= 0; nFields = parser.readRecord(record)) {
+                for (int col = 0; col < nColumns; col++) {
+                    columns[col].add(col < nFields ? record[col] : 0.0);
+                }
+            }
+        } catch (final IOException e) {
+            // cannot happen for byte buffers
+            throw new UncheckedIOException(e);
+        }
+        return columns;
+    }
+
+    /**
+     * @return correctly rounded absolute value or NaN if the result could not be determined unambiguously
+     */
+    private static double toDouble(final long mantissa, final int exp10) {
+        if (mantissa == 0) {
+            return 0.0;
+        }
+        // Clinger's fast path: mantissa and power of ten are exactly representable
+        if (mantissa < (1L << 53) && exp10 >= -22 && exp10 <= 22) {
+            return exp10 < 0 ? mantissa / POW10_EXACT[-exp10] : mantissa * POW10_EXACT[exp10];
+        }
+        if (exp10 < MIN_EXP10 || exp10 > MAX_EXP10) {
+            return Double.NaN;
+        }
+        final long bits = eiselLemire(mantissa, exp10);
+        return bits < 0 ? Double.NaN : Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * Eisel-Lemire algorithm (see D. Lemire, "Number Parsing at a Gigabyte per Second", 2021)
+     *
+     * @return raw bits of the (positive) double or '-1' if the result is ambiguous
+     */
+    private static long eiselLemire(final long mantissa, final int exp10) {
+        final int clz = Long.numberOfLeadingZeros(mantissa);
+        final long man = mantissa << clz;
+        long retExp2 = ((217_706L * exp10) >> 16) + 64 + 1023 - clz;
+        final int index = exp10 - MIN_EXP10;
+
+        long xHi = unsignedMultiplyHigh(man, POW10_HI[index]);
+        long xLo = man * POW10_HI[index];
+        if ((xHi & 0x1FF) == 0x1FF && Long.compareUnsigned(xLo + man, man) < 0) {
+            // wider approximation
+            final long yHi = unsignedMultiplyHigh(man, POW10_LO[index]);
+            final long yLo = man * POW10_LO[index];
+            long mergedHi = xHi;
+            final long mergedLo = xLo + yHi;
+            if (Long.compareUnsigned(mergedLo, xLo) < 0) {
+                mergedHi++;
+            }
+            if ((mergedHi & 0x1FF) == 0x1FF && mergedLo + 1 == 0 && Long.compareUnsigned(yLo + man, man) < 0) {
+                return -1;
+            }
+            xHi = mergedHi;
+            xLo = mergedLo;
+        }
+
+        final int msb = (int) (xHi >>> 63);
+        long retMantissa = xHi >>> (msb + 9);
+        retExp2 -= 1 ^ msb;
+        if (xLo == 0 && (xHi & 0x1FF) == 0 && (retMantissa & 3) == 1) {
+            // half-way ambiguity
+            return -1;
+        }
+        retMantissa += retMantissa & 1;
+        retMantissa >>>= 1;
+        if ((retMantissa >>> 53) > 0) {
+            retMantissa >>>= 1;
+            retExp2++;
+        }
+        if (Long.compareUnsigned(retExp2 - 1, 0x7FF - 1) >= 0) {
+            // sub-normal or infinite
+            return -1;
+        }
+        return retExp2 << 52 | retMantissa & 0x000F_FFFF_FFFF_FFFFL;
+    }
+
+    private static long unsignedMultiplyHigh(final long a, final long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+}
@@ -0,0 +1,109 @@
+package de.gsi.dataset.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.spi.DoubleDataSet;
+
+/**
+ * Tests the coalescing behaviour of {@link EventDispatcher}
+ *
+ * @author rstein
+ */
+public class EventDispatcherTest {
+
+    @Test
+    public void testCoalescing() throws InterruptedException {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final EventDispatcher dispatcher = new EventDispatcher(executor);
+        final DoubleDataSet source = new DoubleDataSet("test");
+        final CountDownLatch enteredListener = new CountDownLatch(1);
+        final CountDownLatch blockListener = new CountDownLatch(1);
+        final AtomicInteger nCalls = new AtomicInteger();
+        final AtomicReference<UpdateEvent> lastEvent = new AtomicReference<>();
+        final EventListener listener = evt -> {
+            enteredListener.countDown();
+            try {
+                blockListener.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            nCalls.incrementAndGet();
+            lastEvent.set(evt);
+        };
+
+        // first event blocks the listener, the following ones should coalesce into a single pending one
+        dispatcher.post(listener, new AddedDataEvent(source, "first"));
+        assertTrue(enteredListener.await(2, TimeUnit.SECONDS));
+        UpdateEvent last = null;
+        for (int i = 0; i < 1000; i++) {
+            last = new AddedDataEvent(source, "update" + i);
+            dispatcher.post(listener, last);
+        }
+        blockListener.countDown();
+
+        assertTrue(dispatcher.flush(2, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.SECONDS));
+        assertEquals(2, nCalls.get());
+        assertSame(last, lastEvent.get());
+        assertEquals(0, dispatcher.getPendingListenerCount());
+    }
+
+    @Test
+    public void testAxisDimensionsAndOrder() throws InterruptedException {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final EventDispatcher dispatcher = new EventDispatcher(executor);
+        final DoubleDataSet source = new DoubleDataSet("test");
+        final DoubleDataSet other = new DoubleDataSet("other");
+        final CountDownLatch enteredListener = new CountDownLatch(1);
+        final CountDownLatch blockListener = new CountDownLatch(1);
+        final List<UpdateEvent> events = Collections.synchronizedList(new ArrayList<>());
+        final EventListener listener = evt -> {
+            enteredListener.countDown();
+            try {
+                blockListener.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(evt);
+        };
+
+        dispatcher.post(listener, new UpdateEvent(source, "blocking"));
+        assertTrue(enteredListener.await(2, TimeUnit.SECONDS));
+        // axis events of different dimensions are not equivalent
+        final UpdateEvent axisX = new AxisChangeEvent(source, DataSet.DIM_X);
+        final UpdateEvent axisY = new AxisChangeEvent(source, DataSet.DIM_Y);
+        // replaced events move behind the events posted before their replacement
+        final UpdateEvent removed = new RemovedDataEvent(source, "removed");
+        final UpdateEvent added = new AddedDataEvent(source, "added2");
+        final UpdateEvent otherAdded = new AddedDataEvent(other, "other");
+        dispatcher.post(listener, new AddedDataEvent(source, "added1"));
+        dispatcher.post(listener, axisX);
+        dispatcher.post(listener, axisY);
+        dispatcher.post(listener, removed);
+        dispatcher.post(listener, added);
+        dispatcher.post(listener, otherAdded);
+        blockListener.countDown();
+
+        assertTrue(dispatcher.flush(2, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(axisX, axisY, removed, added, otherAdded), events.subList(1, events.size()));
+    }
+}
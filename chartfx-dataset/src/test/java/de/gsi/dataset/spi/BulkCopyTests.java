@@ -0,0 +1,63 @@
+package de.gsi.dataset.spi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSetError;
+
+/**
+ * Tests of the bulk copy routines {@link DataSet#copyValues} and {@link DataSetError#copyErrorsNegative} /
+ * {@link DataSetError#copyErrorsPositive} w.r.t. their per-point counter-parts
+ *
+ * @author rstein
+ */
+public class BulkCopyTests {
+    private static final int N_SAMPLES = 200;
+
+    @Test
+    public void testBulkCopies() {
+        final DoubleDataSet doubleDataSet = new DoubleDataSet("double");
+        final DoubleErrorDataSet doubleErrorDataSet = new DoubleErrorDataSet("doubleError");
+        final FloatDataSet floatDataSet = new FloatDataSet("float");
+        final CircularDoubleErrorDataSet circularDataSet = new CircularDoubleErrorDataSet("circular", 150);
+        for (int i = 0; i < N_SAMPLES; i++) {
+            final double y = Math.sin(0.1 * i);
+            doubleDataSet.add(i, y);
+            doubleErrorDataSet.add(i, y, 0.1 * i, 0.2 * i);
+            floatDataSet.add(i, (float) y);
+            circularDataSet.add(i, y, 0.1 * i, 0.2 * i); // N.B. wraps around
+        }
+
+        for (final DataSet dataSet : new DataSet[] { doubleDataSet, doubleErrorDataSet, floatDataSet,
+                     circularDataSet }) {
+            final int n = dataSet.getDataCount();
+            for (final int[] range : new int[][] { { 0, n }, { 10, 20 }, { n - 7, 7 }, { 3, 0 } }) {
+                for (int dim = 0; dim < 2; dim++) {
+                    final double[] expected = new double[range[1] + 2];
+                    final double[] actual = new double[range[1] + 2];
+                    for (int i = 0; i < range[1]; i++) {
+                        expected[i + 2] = dataSet.get(dim, range[0] + i);
+                    }
+                    assertArrayEquals(expected, dataSet.copyValues(dim, range[0], actual, 2, range[1]));
+                    if (!(dataSet instanceof DataSetError)) {
+                        continue;
+                    }
+                    final DataSetError errorDataSet = (DataSetError) dataSet;
+                    for (int i = 0; i < range[1]; i++) {
+                        expected[i + 2] = errorDataSet.getErrorNegative(dim, range[0] + i);
+                    }
+                    assertArrayEquals(expected, errorDataSet.copyErrorsNegative(dim, range[0], actual, 2, range[1]));
+                    for (int i = 0; i < range[1]; i++) {
+                        expected[i + 2] = errorDataSet.getErrorPositive(dim, range[0] + i);
+                    }
+                    assertArrayEquals(expected, errorDataSet.copyErrorsPositive(dim, range[0], actual, 2, range[1]));
+                }
+            }
+            assertThrows(IndexOutOfBoundsException.class,
+                    () -> dataSet.copyValues(DataSet.DIM_X, n - 5, new double[10], 0, 10));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package de.gsi.dataset.spi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSet;
+
+/**
+ * Checks for the column ring-buffer of {@link CircularDoubleDataSet3D}
+ *
+ * @author rstein
+ */
+public class CircularDoubleDataSet3DTest {
+
+    @Test
+    public void testColumnRing() {
+        final double[] yValues = { 1.0, 2.0, 3.0 };
+        final CircularDoubleDataSet3D dataSet = new CircularDoubleDataSet3D("test", 4, yValues);
+        assertEquals(4, dataSet.getCapacity());
+        assertEquals(0, dataSet.getDataCount(DataSet.DIM_X));
+        assertEquals(3, dataSet.getDataCount(DataSet.DIM_Y));
+        assertEquals(1.0, dataSet.getAxisDescription(DataSet.DIM_Y).getMin());
+        assertEquals(3.0, dataSet.getAxisDescription(DataSet.DIM_Y).getMax());
+
+        for (int x = 0; x < 3; x++) {
+            dataSet.addColumn(x, new double[] { x, 10 * x, 100 * x });
+        }
+        assertEquals(3, dataSet.getDataCount(DataSet.DIM_X));
+        assertEquals(9, dataSet.getDataCount());
+        assertArrayEquals(new double[] { 0, 1, 2 }, dataSet.getValues(DataSet.DIM_X));
+        assertEquals(20.0, dataSet.getZ(2, 1));
+
+        // wrap-around: oldest columns are overwritten, index 0 is the oldest column
+        for (int x = 3; x < 7; x++) {
+            dataSet.addColumn(x, new double[] { x, 10 * x, 100 * x });
+        }
+        assertEquals(4, dataSet.getDataCount(DataSet.DIM_X));
+        assertArrayEquals(new double[] { 3, 4, 5, 6 }, dataSet.getValues(DataSet.DIM_X));
+        for (int x = 0; x < 4; x++) {
+            assertEquals(x + 3.0, dataSet.getX(x));
+            assertEquals(x + 3.0, dataSet.getZ(x, 0));
+            assertEquals(100 * (x + 3.0), dataSet.getZ(x, 2));
+            assertEquals(10 * (x + 3.0), dataSet.get(DataSet.DIM_Z, 4 + x));
+        }
+        assertEquals(2, dataSet.getXIndex(4.9));
+
+        // limits are recomputed on demand
+        assertFalse(dataSet.getAxisDescription(DataSet.DIM_Z).isDefined());
+        dataSet.recomputeLimits(DataSet.DIM_X);
+        dataSet.recomputeLimits(DataSet.DIM_Z);
+        assertEquals(3.0, dataSet.getAxisDescription(DataSet.DIM_X).getMin());
+        assertEquals(6.0, dataSet.getAxisDescription(DataSet.DIM_X).getMax());
+        assertEquals(3.0, dataSet.getAxisDescription(DataSet.DIM_Z).getMin());
+        assertEquals(600.0, dataSet.getAxisDescription(DataSet.DIM_Z).getMax());
+
+        assertThrows(IllegalArgumentException.class, () -> dataSet.addColumn(7, new double[2]));
+
+        dataSet.clearData();
+        assertEquals(0, dataSet.getDataCount(DataSet.DIM_X));
+        assertEquals(3, dataSet.getDataCount(DataSet.DIM_Y));
+    }
+}
@@ -0,0 +1,154 @@
+package de.gsi.dataset.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.event.AxisChangeEvent;
+import de.gsi.dataset.event.AxisNameChangeEvent;
+import de.gsi.dataset.event.EventDispatcher;
+import de.gsi.dataset.event.UpdateEvent;
+
+/**
+ * Tests of the snapshot read path of {@link DoubleBufferedDataSet}
+ *
+ * @author rstein
+ */
+public class DoubleBufferedDataSetTest {
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    public void testPublishAndPinning() throws InterruptedException {
+        final DoubleBufferedDataSet dataSet = new DoubleBufferedDataSet("test");
+        assertEquals(0, dataSet.getDataCount());
+
+        dataSet.getBackBuffer().add(1.0, 2.0);
+        assertEquals(0, dataSet.getDataCount(), "not yet published");
+        dataSet.publish();
+        assertEquals(1, dataSet.getDataCount());
+        assertEquals(2.0, dataSet.get(DataSet.DIM_Y, 0));
+        assertEquals(2.0, dataSet.getAxisDescription(DataSet.DIM_Y).getMax());
+
+        // a reader pins the present snapshot while the writer continues to publish without being blocked
+        final CountDownLatch pinned = new CountDownLatch(1);
+        final CountDownLatch published = new CountDownLatch(1);
+        final int[] readCount = new int[2];
+        final Thread reader = new Thread(() -> dataSet.lock().readLockGuard(() -> {
+            readCount[0] = dataSet.getDataCount();
+            pinned.countDown();
+            try {
+                published.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            readCount[1] = dataSet.getDataCount();
+        }));
+        reader.start();
+        pinned.await();
+        assertEquals(1, dataSet.lock().getReaderCount());
+        dataSet.getBackBuffer().add(2.0, 3.0);
+        dataSet.publish();
+        dataSet.getBackBuffer().add(3.0, 4.0);
+        dataSet.publish();
+        published.countDown();
+        reader.join();
+
+        assertEquals(1, readCount[0]);
+        assertEquals(1, readCount[1], "pinned snapshot must not change");
+        assertEquals(3, dataSet.getDataCount());
+        assertEquals(0, dataSet.lock().getReaderCount());
+        assertEquals(3, dataSet.getPublishCount());
+
+        // zero-copy swap: back buffer becomes front, writer continues on a fresh back buffer
+        dataSet.getBackBuffer().clearData().add(10.0, 20.0);
+        dataSet.swap();
+        assertEquals(1, dataSet.getDataCount());
+        assertEquals(0, dataSet.getBackBuffer().getDataCount());
+        assertEquals(20.0, dataSet.get(DataSet.DIM_Y, 0));
+    }
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    public void testSnapshotAxisDescriptions() throws InterruptedException {
+        final DoubleBufferedDataSet dataSet = new DoubleBufferedDataSet("test");
+        dataSet.getAxisDescription(DataSet.DIM_X).set("time", "s");
+        dataSet.getBackBuffer().add(1.0, 2.0).add(2.0, 5.0);
+        dataSet.publish();
+        assertEquals("time", dataSet.getAxisDescription(DataSet.DIM_X).getName());
+        assertEquals("s", dataSet.getAxisDescription(DataSet.DIM_X).getUnit());
+
+        // a pinned reader sees the axis ranges of its snapshot, independent of later publications
+        final CountDownLatch pinned = new CountDownLatch(1);
+        final CountDownLatch published = new CountDownLatch(1);
+        final double[] yMax = new double[2];
+        final Thread reader = new Thread(() -> dataSet.lock().readLockGuard(() -> {
+            yMax[0] = dataSet.getAxisDescription(DataSet.DIM_Y).getMax();
+            pinned.countDown();
+            try {
+                published.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            dataSet.recomputeLimits(DataSet.DIM_Y);
+            yMax[1] = dataSet.getAxisDescription(DataSet.DIM_Y).getMax();
+        }));
+        reader.start();
+        pinned.await();
+        dataSet.getBackBuffer().add(3.0, 10.0);
+        dataSet.publish();
+        published.countDown();
+        reader.join();
+
+        assertEquals(5.0, yMax[0]);
+        assertEquals(5.0, yMax[1], "pinned axis range must not change");
+        assertEquals(10.0, dataSet.getAxisDescription(DataSet.DIM_Y).getMax());
+        assertEquals(3.0, dataSet.getAxisDescription(DataSet.DIM_X).getMax());
+        assertEquals("time", dataSet.getAxisDescription(DataSet.DIM_X).getName(), "name carried over");
+    }
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    public void testAxisEventForwarding() throws InterruptedException {
+        final DoubleBufferedDataSet dataSet = new DoubleBufferedDataSet("test");
+        final List<UpdateEvent> axisEvents = Collections.synchronizedList(new ArrayList<>());
+        dataSet.addListener(evt -> {
+            if (evt instanceof AxisChangeEvent) {
+                axisEvents.add(evt);
+            }
+        });
+
+        dataSet.getAxisDescription(DataSet.DIM_X).set("time", "s");
+        assertTrue(EventDispatcher.getInstance().flush(2, TimeUnit.SECONDS));
+        assertTrue(axisEvents.stream().anyMatch(evt -> evt instanceof AxisNameChangeEvent), "initial front buffer");
+        axisEvents.clear();
+
+        // back buffer updates are not forwarded
+        dataSet.getBackBuffer().add(1.0, 2.0);
+        dataSet.getBackBuffer().getAxisDescription(DataSet.DIM_Y).set("ignored", "a.u.");
+        assertTrue(EventDispatcher.getInstance().flush(2, TimeUnit.SECONDS));
+        assertTrue(axisEvents.isEmpty(), "back buffer events: " + axisEvents);
+        dataSet.publish();
+        assertTrue(EventDispatcher.getInstance().flush(2, TimeUnit.SECONDS));
+        axisEvents.clear();
+
+        dataSet.getAxisDescription(DataSet.DIM_Y).set("current", "A");
+        dataSet.getAxisDescription(DataSet.DIM_Y).set(-1.0, 1.0);
+        assertTrue(EventDispatcher.getInstance().flush(2, TimeUnit.SECONDS));
+        assertTrue(axisEvents.size() >= 2, "name and range change of published front buffer: " + axisEvents);
+        for (final UpdateEvent evt : axisEvents) {
+            assertSame(dataSet, evt.getSource());
+        }
+        assertEquals("current", dataSet.getAxisDescription(DataSet.DIM_Y).getName());
+    }
+}
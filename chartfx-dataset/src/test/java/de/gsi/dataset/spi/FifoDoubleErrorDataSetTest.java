@@ -0,0 +1,63 @@
+package de.gsi.dataset.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSet;
+
+/**
+ * Checks for the ring-buffer and incremental limit tracking of {@link FifoDoubleErrorDataSet}
+ *
+ * @author rstein
+ */
+public class FifoDoubleErrorDataSetTest {
+
+    @Test
+    public void testCapacityAndLimits() {
+        final FifoDoubleErrorDataSet dataSet = new FifoDoubleErrorDataSet("test", 5);
+        for (int i = 0; i < 12; i++) {
+            dataSet.add(i, i % 2 == 0 ? i : -i, 0.5, 1.0);
+        }
+        assertEquals(5, dataSet.getDataCount());
+        assertEquals(7.0, dataSet.get(DataSet.DIM_X, 0));
+        assertEquals(11.0, dataSet.get(DataSet.DIM_X, 4));
+        assertEquals(-11.0, dataSet.get(DataSet.DIM_Y, 4));
+
+        // incrementally tracked limits (including errors) must match the brute-force evaluation
+        assertEquals(7.0, dataSet.getAxisDescription(DataSet.DIM_X).getMin());
+        assertEquals(11.0, dataSet.getAxisDescription(DataSet.DIM_X).getMax());
+        assertEquals(-11.5, dataSet.getAxisDescription(DataSet.DIM_Y).getMin());
+        assertEquals(11.0, dataSet.getAxisDescription(DataSet.DIM_Y).getMax());
+
+        dataSet.add(Double.NaN, 1.0, 0.0, 0.0);
+        assertEquals(5, dataSet.getDataCount(), "non-finite points are ignored");
+
+        dataSet.reset();
+        assertEquals(0, dataSet.getDataCount());
+        assertEquals(false, dataSet.getAxisDescription(DataSet.DIM_X).isDefined());
+    }
+
+    @Test
+    public void testExpiration() {
+        final FifoDoubleErrorDataSet dataSet = new FifoDoubleErrorDataSet("test", 100, 10);
+        for (int i = 0; i < 30; i++) {
+            dataSet.add(i, 100 - i, 0.0, 0.0);
+        }
+        assertEquals(11, dataSet.getDataCount());
+        assertEquals(19.0, dataSet.get(DataSet.DIM_X, 0));
+        assertEquals(19.0, dataSet.getAxisDescription(DataSet.DIM_X).getMin());
+        assertEquals(81.0, dataSet.getAxisDescription(DataSet.DIM_Y).getMax());
+
+        assertEquals(5, dataSet.expire(34));
+        assertEquals(6, dataSet.getDataCount());
+        assertEquals(24.0, dataSet.getAxisDescription(DataSet.DIM_X).getMin());
+        assertEquals(76.0, dataSet.getAxisDescription(DataSet.DIM_Y).getMax());
+        assertEquals(71.0, dataSet.getAxisDescription(DataSet.DIM_Y).getMin());
+
+        dataSet.add(new double[] { 40, 41 }, new double[] { 1, 2 }, new double[] { 0, 0 }, new double[] { 0, 0 });
+        assertEquals(2, dataSet.getDataCount());
+        assertEquals(40.0, dataSet.getAxisDescription(DataSet.DIM_X).getMin());
+        assertEquals(2.0, dataSet.getAxisDescription(DataSet.DIM_Y).getMax());
+    }
+}
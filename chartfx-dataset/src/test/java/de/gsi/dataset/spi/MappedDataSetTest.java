@@ -0,0 +1,117 @@
+package de.gsi.dataset.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.gsi.dataset.DataSet;
+
+/**
+ * Tests the write/open round-trip of {@link MappedDataSet}
+ *
+ * @author rstein
+ */
+public class MappedDataSetTest {
+    private static final int N_SAMPLES = 10_000;
+
+    @TempDir
+    protected Path tempDir;
+
+    @Test
+    public void testRoundTripDouble() throws IOException {
+        final DoubleErrorDataSet reference = getTestDataSet();
+        final Path file = tempDir.resolve("double.bin");
+        MappedDataSet.write(reference, file, false);
+
+        final MappedDataSet mapped = MappedDataSet.open(file);
+        assertFalse(mapped.isFloat32());
+        assertEquals(reference.getName(), mapped.getName());
+        assertEquals(N_SAMPLES, mapped.getDataCount());
+        for (int dim = 0; dim < 2; dim++) {
+            assertEquals(reference.getAxisDescription(dim).getName(), mapped.getAxisDescription(dim).getName());
+            assertEquals(reference.getAxisDescription(dim).getUnit(), mapped.getAxisDescription(dim).getUnit());
+            assertEquals(reference.getAxisDescription(dim).getMin(), mapped.getAxisDescription(dim).getMin());
+            assertEquals(reference.getAxisDescription(dim).getMax(), mapped.getAxisDescription(dim).getMax());
+        }
+        for (int i = 0; i < N_SAMPLES; i++) {
+            assertEquals(reference.get(DataSet.DIM_X, i), mapped.get(DataSet.DIM_X, i));
+            assertEquals(reference.get(DataSet.DIM_Y, i), mapped.get(DataSet.DIM_Y, i));
+            assertEquals(reference.getErrorNegative(DataSet.DIM_Y, i), mapped.getErrorNegative(DataSet.DIM_Y, i));
+            assertEquals(reference.getErrorPositive(DataSet.DIM_Y, i), mapped.getErrorPositive(DataSet.DIM_Y, i));
+        }
+    }
+
+    @Test
+    public void testRoundTripFloat() throws IOException {
+        final DoubleErrorDataSet reference = getTestDataSet();
+        final Path file = tempDir.resolve("float.bin");
+        MappedDataSet.write(reference, file, true);
+
+        final MappedDataSet mapped = MappedDataSet.open(file);
+        assertTrue(mapped.isFloat32());
+        assertEquals(N_SAMPLES, mapped.getDataCount());
+        for (int i = 0; i < N_SAMPLES; i++) {
+            assertEquals((float) reference.get(DataSet.DIM_Y, i), mapped.get(DataSet.DIM_Y, i));
+            assertEquals((float) reference.getErrorPositive(DataSet.DIM_Y, i),
+                    mapped.getErrorPositive(DataSet.DIM_Y, i));
+        }
+    }
+
+    @Test
+    public void testInvalidFile() throws IOException {
+        final Path file = tempDir.resolve("invalid.bin");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> MappedDataSet.open(file));
+    }
+
+    @Test
+    public void testTruncatedOrCorruptFile() throws IOException {
+        final Path file = tempDir.resolve("valid.bin");
+        MappedDataSet.write(getTestDataSet(), file, false);
+        final byte[] content = Files.readAllBytes(file);
+        final Path corrupt = tempDir.resolve("corrupt.bin");
+
+        // truncated header or column data
+        for (final int length : new int[] { 20, 30, MappedDataSet.ALIGNMENT, content.length - 1 }) {
+            Files.write(corrupt, Arrays.copyOf(content, length));
+            assertThrows(IOException.class, () -> MappedDataSet.open(corrupt), "length = " + length);
+        }
+
+        // invalid header length (N.B. at offset 12, native byte order)
+        for (final int headerLength : new int[] { -1, 0, 23, Integer.MAX_VALUE }) {
+            final byte[] modified = content.clone();
+            ByteBuffer.wrap(modified).order(ByteOrder.nativeOrder()).putInt(12, headerLength);
+            Files.write(corrupt, modified);
+            assertThrows(IOException.class, () -> MappedDataSet.open(corrupt), "header length = " + headerLength);
+        }
+
+        // invalid x-axis name length (N.B. after fixed header, min and max)
+        for (final int stringLength : new int[] { -1, 1 << 20 }) {
+            final byte[] modified = content.clone();
+            ByteBuffer.wrap(modified).order(ByteOrder.nativeOrder()).putInt(24 + 16, stringLength);
+            Files.write(corrupt, modified);
+            assertThrows(IOException.class, () -> MappedDataSet.open(corrupt), "string length = " + stringLength);
+        }
+    }
+
+    private static DoubleErrorDataSet getTestDataSet() {
+        final DoubleErrorDataSet dataSet = new DoubleErrorDataSet("test data set", N_SAMPLES);
+        for (int i = 0; i < N_SAMPLES; i++) {
+            dataSet.add(i, Math.sin(0.01 * i), 0.1, 0.2 + 1e-3 * i);
+        }
+        dataSet.getAxisDescription(DataSet.DIM_X).set("time", "s");
+        dataSet.getAxisDescription(DataSet.DIM_Y).set("voltage", "V");
+        return dataSet;
+    }
+}
@@ -8,6 +8,7 @@ import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeAll;
@@ -20,6 +21,7 @@ import org.slf4j.LoggerFactory;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.DataSet3D;
 import de.gsi.dataset.event.AxisNameChangeEvent;
+import de.gsi.dataset.event.EventDispatcher;
 import de.gsi.dataset.spi.DataSetBuilder;
 import de.gsi.dataset.spi.DefaultDataSet;
 import de.gsi.dataset.spi.DoubleDataSet3D;
@@ -94,7 +96,7 @@ public class DataSetUtilsTest {
     @DisplayName("Serialize and Deserialize DefaultDataSet into StringBuffer and back")
     @ParameterizedTest(name = "binary: {0}, float: {1}")
     @CsvSource({ "false, false", "false, true", "true, false", "true, true" })
-    public void serializeAndDeserializeDefaultDataSet(boolean binary, boolean useFloat) {
+    public void serializeAndDeserializeDefaultDataSet(boolean binary, boolean useFloat) throws InterruptedException {
         // initialize dataSet
         DataSet dataSet = getTestDataSet();
         // assert that dataSet was created correctly
@@ -132,6 +134,8 @@ public class DataSetUtilsTest {
             }
         });
         dataSetRead.getAxisDescription(1).set("Test");
+        // N.B. notification is delivered asynchronously
+        assertTrue(EventDispatcher.getInstance().flush(2, TimeUnit.SECONDS));
         assertEquals(1, notified.get());
     }
 
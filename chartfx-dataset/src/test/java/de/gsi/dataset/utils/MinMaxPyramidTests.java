@@ -0,0 +1,113 @@
+package de.gsi.dataset.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.spi.DoubleDataSet;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+
+/**
+ * Tests of {@link MinMaxPyramid}
+ *
+ * @author rstein
+ */
+public class MinMaxPyramidTests {
+    private static final int N_SAMPLES = 100_000;
+
+    @Test
+    public void testRangeQueries() {
+        final Random random = new Random(42);
+        final DoubleErrorDataSet dataSet = new DoubleErrorDataSet("test", N_SAMPLES);
+        for (int i = 0; i < N_SAMPLES; i++) {
+            dataSet.add(i, i % 1000 == 0 ? Double.NaN : random.nextGaussian(), 0.1, 0.1);
+        }
+        final MinMaxPyramid pyramid = MinMaxPyramid.attach(dataSet);
+        assertSame(pyramid, MinMaxPyramid.attach(dataSet));
+        assertEquals((N_SAMPLES + MinMaxPyramid.BLOCK_SIZE - 1) / MinMaxPyramid.BLOCK_SIZE, pyramid.update(dataSet));
+        assertEquals(0, pyramid.update(dataSet));
+        assertEquals(N_SAMPLES, pyramid.getDataCount());
+        checkRandomRanges(random, pyramid, dataSet);
+
+        // empty and NaN-only ranges
+        assertArrayEquals(new int[] { -1, -1 }, pyramid.getMinMaxIndices(dataSet, 10, 10, new int[2]));
+        assertArrayEquals(new int[] { -1, -1 }, pyramid.getMinMaxIndices(dataSet, 1000, 1001, new int[2]));
+
+        // incremental updates: append, modify, remove
+        for (int i = N_SAMPLES; i < N_SAMPLES + 100; i++) {
+            dataSet.add(i, random.nextGaussian(), 0.1, 0.1);
+        }
+        assertEquals(3, pyramid.update(dataSet)); // N.B. previous partial and two new blocks
+        dataSet.set(5000, 5000, 100.0);
+        dataSet.set(70_000, 70_000, -100.0);
+        assertEquals(2, pyramid.update(dataSet));
+        assertEquals(5000, pyramid.getMinMaxIndices(dataSet, 0, dataSet.getDataCount(), new int[2])[1]);
+        assertEquals(70_000, pyramid.getMinMaxIndices(dataSet, 0, dataSet.getDataCount(), new int[2])[0]);
+        checkRandomRanges(random, pyramid, dataSet);
+        dataSet.remove(90_000, 95_000);
+        pyramid.update(dataSet);
+        assertEquals(N_SAMPLES + 100 - 5000, pyramid.getDataCount());
+        checkRandomRanges(random, pyramid, dataSet);
+
+        MinMaxPyramid.detach(dataSet);
+        assertTrue(MinMaxPyramid.attach(dataSet) != pyramid);
+    }
+
+    @Test
+    public void testGenericDataSet() {
+        final Random random = new Random(7);
+        final double[] xValues = new double[N_SAMPLES / 10];
+        final double[] yValues = new double[N_SAMPLES / 10];
+        for (int i = 0; i < xValues.length; i++) {
+            xValues[i] = i;
+            yValues[i] = random.nextDouble();
+        }
+        final DoubleDataSet dataSet = new DoubleDataSet("generic", xValues, yValues, xValues.length, true);
+        final MinMaxPyramid pyramid = MinMaxPyramid.attach(dataSet);
+        assertTrue(pyramid.update(dataSet) > 0);
+        assertEquals(0, pyramid.update(dataSet));
+        checkRandomRanges(random, pyramid, dataSet);
+
+        // no change log -> explicit invalidation (or asynchronous update event) triggers rebuild
+        dataSet.set(42, 42, 2.0);
+        pyramid.invalidate();
+        assertTrue(pyramid.update(dataSet) > 0);
+        assertEquals(42, pyramid.getMinMaxIndices(dataSet, 0, dataSet.getDataCount(), new int[2])[1]);
+        checkRandomRanges(random, pyramid, dataSet);
+    }
+
+    private static void checkRandomRanges(final Random random, final MinMaxPyramid pyramid, final DataSet dataSet) {
+        final int dataCount = dataSet.getDataCount();
+        final int[] result = new int[2];
+        for (int test = 0; test < 500; test++) {
+            final int from = random.nextInt(dataCount);
+            final int to = from + random.nextInt(test < 250 ? 200 : dataCount - from) + 1;
+            pyramid.getMinMaxIndices(dataSet, from, to, result);
+
+            int minIndex = -1;
+            int maxIndex = -1;
+            for (int i = from; i < Math.min(to, dataCount); i++) {
+                final double value = dataSet.get(DataSet.DIM_Y, i);
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                if (minIndex < 0 || value < dataSet.get(DataSet.DIM_Y, minIndex)) {
+                    minIndex = i;
+                }
+                if (maxIndex < 0 || value > dataSet.get(DataSet.DIM_Y, maxIndex)) {
+                    maxIndex = i;
+                }
+            }
+            assertEquals(dataSet.get(DataSet.DIM_Y, minIndex), dataSet.get(DataSet.DIM_Y, result[0]),
+                    "min [" + from + ", " + to + ")");
+            assertEquals(dataSet.get(DataSet.DIM_Y, maxIndex), dataSet.get(DataSet.DIM_Y, result[1]),
+                    "max [" + from + ", " + to + ")");
+        }
+    }
+}
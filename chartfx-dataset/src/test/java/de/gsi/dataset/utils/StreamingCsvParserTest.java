@@ -0,0 +1,110 @@
+package de.gsi.dataset.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link StreamingCsvParser}
+ *
+ * @author rstein
+ */
+public class StreamingCsvParserTest {
+    private static final String[] SPECIAL_VALUES = { "0", "-0.0", "1", "+1.5", "3.141592653589793", "1.0E-5", "1e308",
+        "1.7976931348623157E308", "4.9E-324", "2.2250738585072014E-308", "123456789012345678901234567890",
+        "0.1000000000000000055511151231257827", "9007199254740993", "  42.0  ", "NaN", "Infinity", "-Infinity" };
+
+    @Test
+    public void testSpecialValues() throws IOException {
+        final StreamingCsvParser parser = new StreamingCsvParser(
+                ByteBuffer.wrap(String.join(",", SPECIAL_VALUES).getBytes(StandardCharsets.US_ASCII)));
+        final double[] values = new double[SPECIAL_VALUES.length];
+        assertEquals(SPECIAL_VALUES.length, parser.readRecord(values));
+        for (int i = 0; i < SPECIAL_VALUES.length; i++) {
+            assertEquals(Double.parseDouble(SPECIAL_VALUES[i]), values[i], SPECIAL_VALUES[i]);
+        }
+        assertEquals(-1, parser.readRecord(values));
+    }
+
+    @Test
+    public void testRandomValuesExact() throws IOException {
+        final Random random = new Random(42);
+        final int nValues = 20_000;
+        final double[] reference = new double[nValues];
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < nValues; i++) {
+            switch (i % 3) {
+            case 0:
+                reference[i] = Double.longBitsToDouble(random.nextLong());
+                break;
+            case 1:
+                reference[i] = random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20);
+                break;
+            default:
+                reference[i] = Math.round(random.nextDouble() * 1e6) / 1e3;
+                break;
+            }
+            builder.append(i).append(',').append(reference[i]).append('\n');
+        }
+
+        final StreamingCsvParser parser = new StreamingCsvParser(
+                new ByteArrayInputStream(builder.toString().getBytes(StandardCharsets.US_ASCII)));
+        final double[] values = new double[2];
+        for (int i = 0; i < nValues; i++) {
+            assertEquals(2, parser.readRecord(values));
+            assertEquals(i, values[0]);
+            assertEquals(Double.doubleToLongBits(reference[i]), Double.doubleToLongBits(values[1]),
+                    () -> "mismatch for " + values[1]);
+        }
+        assertEquals(-1, parser.readRecord(values));
+    }
+
+    @Test
+    public void testLinesAndErrors() throws IOException {
+        final StreamingCsvParser parser = new StreamingCsvParser(new ByteArrayInputStream(
+                "#header line\r\n1,2,3\r\n\n4,5\n6,x\n".getBytes(StandardCharsets.UTF_8)));
+        final double[] values = new double[2];
+        assertEquals("#header line", parser.readLine());
+        assertEquals(3, parser.readRecord(values)); // surplus field skipped
+        assertArrayEquals(new double[] { 1, 2 }, values);
+        assertEquals(2, parser.readRecord(values));
+        assertArrayEquals(new double[] { 4, 5 }, values);
+        assertThrows(NumberFormatException.class, () -> parser.readRecord(values));
+
+        assertNull(new StreamingCsvParser(ByteBuffer.allocate(0)).readLine());
+    }
+
+    @Test
+    public void testParallelColumns() {
+        final int nRows = 200_000;
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < nRows; i++) {
+            builder.append(i).append(',').append(0.5 * i).append(',').append(-0.25 * i).append('\n');
+        }
+        final byte[] bytes = builder.toString().getBytes(StandardCharsets.US_ASCII);
+        final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+
+        for (final ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.wrap(bytes), direct }) {
+            final double[][] columns = StreamingCsvParser.parseColumns(buffer, 4);
+            assertEquals(4, columns.length);
+            assertEquals(nRows, columns[0].length);
+            for (int i = 0; i < nRows; i++) {
+                assertEquals(i, columns[0][i]);
+                assertEquals(0.5 * i, columns[1][i]);
+                assertEquals(-0.25 * i, columns[2][i]);
+                assertEquals(0.0, columns[3][i]);
+            }
+            assertEquals(0, buffer.position());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package de.gsi.dataset.utils.serializer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.InputMismatchException;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.serializer.spi.FastByteBuffer;
+import de.gsi.dataset.serializer.spi.iobuffer.DataSetSerialiser;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+import de.gsi.dataset.utils.IndexRangeChangeLog;
+
+/**
+ * Tests of the incremental (delta) wire mode of {@link DataSetSerialiser} and the underlying
+ * {@link IndexRangeChangeLog}
+ *
+ * @author rstein
+ */
+public class DataSetSerialiserDeltaTests {
+    @Test
+    public void testChangeLog() {
+        final IndexRangeChangeLog log = new IndexRangeChangeLog(3);
+        assertEquals(0, log.getVersion());
+        assertArrayEquals(new int[0], log.getModifiedRanges(0, 100));
+        assertNull(log.getModifiedRanges(DataSetSerialiser.FULL_UPDATE, 100));
+        assertNull(log.getModifiedRanges(1, 100));
+
+        log.markModified(10, 11); // v1
+        log.markModified(11, 20); // v2 -> merged with v1
+        log.markModified(50, 51); // v3
+        assertArrayEquals(new int[] { 10, 20, 50, 51 }, log.getModifiedRanges(0, 100));
+        assertArrayEquals(new int[] { 10, 20, 50, 51 }, log.getModifiedRanges(1, 100));
+        assertArrayEquals(new int[] { 50, 51 }, log.getModifiedRanges(2, 100));
+        assertArrayEquals(new int[0], log.getModifiedRanges(3, 100));
+
+        log.markModified(30, 31); // v4
+        log.markModified(70, IndexRangeChangeLog.TO_END); // v5 -> overflow, oldest two merged to [10, 51)
+        assertArrayEquals(new int[] { 10, 51, 70, 80 }, log.getModifiedRanges(0, 80));
+        assertArrayEquals(new int[] { 70, 80 }, log.getModifiedRanges(4, 80));
+        assertArrayEquals(new int[] { 10, 51 }, log.getModifiedRanges(0, 60));
+
+        // published versions are not merged with subsequent adjacent modifications
+        final long version = log.getVersion();
+        log.markModified(80, 81);
+        log.markModified(81, 90);
+        assertArrayEquals(new int[] { 80, 90 }, log.getModifiedRanges(version, 100));
+        assertEquals(version + 2, log.getVersion());
+    }
+
+    @Test
+    public void testDeltaRoundTrip() {
+        final DoubleErrorDataSet source = new DoubleErrorDataSet("source", 100);
+        for (int i = 0; i < 10_000; i++) {
+            source.add(i, Math.sin(0.01 * i), 0.1, 0.2);
+        }
+        final DoubleErrorDataSet mirror = new DoubleErrorDataSet("mirror", 100);
+        final FastByteBuffer buffer = new FastByteBuffer();
+
+        // initial full update
+        long version = transmit(source, buffer, DataSetSerialiser.FULL_UPDATE, mirror, DataSetSerialiser.FULL_UPDATE);
+        final long fullSize = buffer.position();
+        assertEquals(source.getChangeLog().getVersion(), version);
+        assertEqualContent(source, mirror);
+
+        // append a few samples
+        for (int i = 10_000; i < 10_100; i++) {
+            source.add(i, Math.sin(0.01 * i), 0.1, 0.2);
+        }
+        version = transmit(source, buffer, version, mirror, version);
+        assertTrue(buffer.position() < fullSize / 50, "delta size " + buffer.position() + " vs. full " + fullSize);
+        assertEqualContent(source, mirror);
+
+        // modify and remove
+        source.set(42, 42.0, -1.0, 0.5, 0.5);
+        source.remove(0, 10);
+        version = transmit(source, buffer, version, mirror, version);
+        assertEqualContent(source, mirror);
+
+        // no changes
+        version = transmit(source, buffer, version, mirror, version);
+        assertEqualContent(source, mirror);
+
+        // stale receiver may apply an update based on an older version
+        final long oldVersion = version;
+        source.add(20_000, 1.0, 0.1, 0.1);
+        final long version2 = transmit(source, buffer, oldVersion, mirror, version);
+        source.add(20_001, 2.0, 0.1, 0.1);
+        buffer.reset();
+        DataSetSerialiser.writeDataSetDeltaToByteArray(source, buffer, version2, true);
+        buffer.reset();
+        assertThrows(InputMismatchException.class,
+                () -> DataSetSerialiser.applyDataSetDeltaFromByteArray(buffer, mirror, oldVersion));
+
+        // clear
+        source.clearData();
+        transmit(source, buffer, version2, mirror, version2);
+        assertEquals(0, mirror.getDataCount());
+    }
+
+    private static void assertEqualContent(final DoubleErrorDataSet expected, final DoubleErrorDataSet actual) {
+        final int n = expected.getDataCount();
+        assertEquals(n, actual.getDataCount());
+        assertArrayEquals(Arrays.copyOf(expected.getXValues(), n), Arrays.copyOf(actual.getXValues(), n));
+        assertArrayEquals(Arrays.copyOf(expected.getYValues(), n), Arrays.copyOf(actual.getYValues(), n));
+        assertArrayEquals(Arrays.copyOf(expected.getErrorsNegative(DataSet.DIM_Y), n),
+                Arrays.copyOf(actual.getErrorsNegative(DataSet.DIM_Y), n));
+        assertArrayEquals(Arrays.copyOf(expected.getErrorsPositive(DataSet.DIM_Y), n),
+                Arrays.copyOf(actual.getErrorsPositive(DataSet.DIM_Y), n));
+    }
+
+    private static long transmit(final DoubleErrorDataSet source, final FastByteBuffer buffer, final long sinceVersion,
+            final DoubleErrorDataSet target, final long knownVersion) {
+        buffer.reset();
+        final long version = DataSetSerialiser.writeDataSetDeltaToByteArray(source, buffer, sinceVersion, false);
+        final long size = buffer.position();
+        buffer.reset();
+        assertEquals(version, DataSetSerialiser.applyDataSetDeltaFromByteArray(buffer, target, knownVersion));
+        buffer.position(size);
+        return version;
+    }
+}
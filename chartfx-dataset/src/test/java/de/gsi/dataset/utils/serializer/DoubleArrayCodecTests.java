@@ -0,0 +1,131 @@
+package de.gsi.dataset.utils.serializer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.serializer.DataType;
+import de.gsi.dataset.serializer.spi.BinarySerialiser;
+import de.gsi.dataset.serializer.spi.DoubleArrayCodec;
+import de.gsi.dataset.serializer.spi.FastByteBuffer;
+import de.gsi.dataset.serializer.spi.FieldHeader;
+import de.gsi.dataset.serializer.spi.iobuffer.DataSetSerialiser;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+
+/**
+ * Tests of the compressed double array encodings of {@link DoubleArrayCodec} and {@link BinarySerialiser}
+ *
+ * @author rstein
+ */
+public class DoubleArrayCodecTests {
+    private static final int N_SAMPLES = 10_000;
+
+    @Test
+    public void testCodecs() {
+        final double[] xValues = new double[N_SAMPLES];
+        final double[] yValues = new double[N_SAMPLES];
+        for (int i = 0; i < N_SAMPLES; i++) {
+            xValues[i] = i;
+            yValues[i] = Math.round(1000 * Math.sin(0.01 * i)) / 1000.0;
+        }
+        final double[] special = { 0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, 1e300, -1e-300, 42.0, 42.0, 1.0 };
+
+        for (final double[] values : Arrays.asList(xValues, yValues, special, new double[0], new double[] { 1.0 })) {
+            final int n = values.length;
+            final byte[] xor = DoubleArrayCodec.encodeXor(values, n);
+            assertArrayEquals(values, DoubleArrayCodec.decodeXor(xor, new double[n], n));
+            final byte[] dod = DoubleArrayCodec.encodeDeltaOfDelta(values, n);
+            assertArrayEquals(values, DoubleArrayCodec.decodeDeltaOfDelta(dod, new double[n], n));
+            final byte[] fixedPoint = DoubleArrayCodec.encodeQuantised(values, n, 1e-3);
+            final double[] quantised = DoubleArrayCodec.decodeQuantised(fixedPoint, new double[n], n, 1e-3);
+            for (int i = 0; i < n; i++) {
+                if (Double.isFinite(values[i])) {
+                    assertEquals(values[i], quantised[i], 0.5e-3 + Math.ulp(values[i]), "index " + i);
+                } else {
+                    assertEquals(values[i], quantised[i]);
+                }
+            }
+        }
+
+        // compression ratios w.r.t. raw 8 byte doubles
+        final int rawSize = N_SAMPLES * Double.BYTES;
+        assertTrue(DoubleArrayCodec.encodeDeltaOfDelta(xValues, N_SAMPLES).length < rawSize / 20);
+        assertTrue(DoubleArrayCodec.encodeQuantised(yValues, N_SAMPLES, 1e-3).length < rawSize / 4);
+
+        assertThrows(IllegalArgumentException.class, () -> DoubleArrayCodec.encodeXor(xValues, N_SAMPLES + 1));
+        assertThrows(IllegalArgumentException.class, () -> DoubleArrayCodec.encodeQuantised(xValues, 10, 0.0));
+    }
+
+    @Test
+    public void testSerialiserRoundTrip() {
+        final double[] values = new double[N_SAMPLES];
+        for (int i = 0; i < N_SAMPLES; i++) {
+            values[i] = 0.5 * i;
+        }
+        final FastByteBuffer buffer = new FastByteBuffer(100);
+        for (final DataType encoding : new DataType[] { DataType.DOUBLE_ARRAY, DataType.DOUBLE_ARRAY_XOR,
+                     DataType.DOUBLE_ARRAY_DOD, DataType.DOUBLE_ARRAY_QUANTISED }) {
+            buffer.reset();
+            BinarySerialiser.put(buffer, "values", values, new int[] { N_SAMPLES }, encoding, 0.5);
+            BinarySerialiser.put(buffer, "marker", 42);
+            final long size = buffer.position();
+            buffer.reset();
+            final FieldHeader header = BinarySerialiser.getFieldHeader(buffer);
+            final long sizeMarkerStart = buffer.position();
+            assertEquals(encoding, header.getDataType());
+            assertEquals("values", header.getFieldName());
+            buffer.position(header.getDataBufferPosition());
+            assertArrayEquals(values, BinarySerialiser.getDoubleArray(buffer, header.getDataType()), encoding.name());
+            // size information permits skipping
+            buffer.position(sizeMarkerStart + header.getExpectedNumberOfDataBytes());
+            assertEquals("marker", BinarySerialiser.getFieldHeader(buffer).getFieldName());
+            assertEquals(42, BinarySerialiser.getInteger(buffer));
+            assertEquals(size, buffer.position());
+        }
+    }
+
+    @Test
+    public void testDataSetRoundTrip() {
+        final DoubleErrorDataSet dataSet = new DoubleErrorDataSet("test", N_SAMPLES);
+        for (int i = 0; i < N_SAMPLES; i++) {
+            dataSet.add(1e-3 * i, Math.sin(0.01 * i), 0.1, 0.1);
+        }
+        final FastByteBuffer buffer = new FastByteBuffer();
+        DataSetSerialiser.writeDataSetToByteArray(dataSet, buffer, false);
+        final long rawSize = buffer.position();
+
+        try {
+            DataSetSerialiser.setXArrayEncoding(DataType.DOUBLE_ARRAY_DOD);
+            DataSetSerialiser.setYArrayEncoding(DataType.DOUBLE_ARRAY_XOR);
+            buffer.reset();
+            DataSetSerialiser.writeDataSetToByteArray(dataSet, buffer, false);
+            buffer.reset();
+            DataSet dataSetRead = DataSetSerialiser.readDataSetFromByteArray(buffer);
+            assertArrayEquals(dataSet.getValues(DataSet.DIM_X), dataSetRead.getValues(DataSet.DIM_X));
+            assertArrayEquals(dataSet.getValues(DataSet.DIM_Y), dataSetRead.getValues(DataSet.DIM_Y));
+
+            DataSetSerialiser.setYArrayEncoding(DataType.DOUBLE_ARRAY_QUANTISED);
+            DataSetSerialiser.setQuantisationPrecision(1e-4);
+            buffer.reset();
+            DataSetSerialiser.writeDataSetToByteArray(dataSet, buffer, false);
+            assertTrue(buffer.position() < rawSize / 3, "compressed " + buffer.position() + " vs. raw " + rawSize);
+            buffer.reset();
+            dataSetRead = DataSetSerialiser.readDataSetFromByteArray(buffer);
+            assertArrayEquals(dataSet.getValues(DataSet.DIM_X), dataSetRead.getValues(DataSet.DIM_X));
+            assertArrayEquals(dataSet.getValues(DataSet.DIM_Y), dataSetRead.getValues(DataSet.DIM_Y), 0.5e-4 + 1e-12);
+
+            assertThrows(IllegalArgumentException.class, () -> DataSetSerialiser.setXArrayEncoding(DataType.INT_ARRAY));
+        } finally {
+            DataSetSerialiser.setXArrayEncoding(DataType.DOUBLE_ARRAY);
+            DataSetSerialiser.setYArrayEncoding(DataType.DOUBLE_ARRAY);
+            DataSetSerialiser.setQuantisationPrecision(1e-6);
+        }
+    }
+}
@@ -12,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import de.gsi.dataset.serializer.IoBuffer;
 import de.gsi.dataset.serializer.spi.ByteBuffer;
 import de.gsi.dataset.serializer.spi.FastByteBuffer;
+import de.gsi.dataset.serializer.spi.PooledByteBuffer;
 
 /**
  * @author rstein
@@ -161,6 +162,21 @@ public class FastByteBufferTests {
         }
     }
 
+    @Test
+    public void testPooledByteBufferMixed() {
+        assertTrue(testPrimitivesMixed(new PooledByteBuffer()));
+    }
+
+    @Test
+    public void testPooledByteBufferPrimitiveArrays() {
+        assertTrue(testPrimitivesArrays(new PooledByteBuffer(2000)));
+    }
+
+    @Test
+    public void testPooledByteBufferPrimitives() {
+        assertTrue(testPrimitivesSimple(new PooledByteBuffer(1000)));
+    }
+
     private static boolean testPrimitivesArrays(IoBuffer buffer) {
 
         {
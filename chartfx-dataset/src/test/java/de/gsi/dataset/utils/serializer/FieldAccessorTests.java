@@ -0,0 +1,77 @@
+package de.gsi.dataset.utils.serializer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.serializer.spi.ClassDescriptions;
+import de.gsi.dataset.serializer.spi.ClassFieldDescription;
+import de.gsi.dataset.serializer.spi.FieldAccessor;
+
+/**
+ * Tests of the method-handle based {@link FieldAccessor} and the field-name index of {@link ClassFieldDescription}
+ *
+ * @author rstein
+ */
+public class FieldAccessorTests {
+    @Test
+    public void testFieldIndex() {
+        final ClassFieldDescription root = ClassDescriptions.get(TestClass.class);
+        final ClassFieldDescription inner = root.findChild("inner");
+        assertEquals("inner", inner.getFieldName());
+        assertSame(inner, root.findField("inner"));
+        // depth-first: first 'value' in class hierarchy belongs to the root class
+        assertSame(root.findChild("value"), root.findField("value"));
+        assertEquals(1, root.findField("value").getHierarchyDepth());
+        assertEquals(2, inner.findField("innerValue").getHierarchyDepth());
+        assertSame(inner.findField("innerValue"), root.findField("innerValue"));
+        assertNull(root.findField("unknown"));
+        assertNull(root.findChild("innerValue"));
+    }
+
+    @Test
+    public void testPrimitiveAccess() {
+        final ClassFieldDescription root = ClassDescriptions.get(TestClass.class);
+        final TestClass obj = new TestClass();
+
+        final FieldAccessor value = root.findField("value").getFieldAccessor();
+        assertTrue(value.isMethodHandleBased());
+        value.setDouble(obj, 42.0);
+        assertEquals(42.0, obj.value);
+        assertEquals(42.0, value.getDouble(obj));
+
+        final FieldAccessor count = root.findField("count").getFieldAccessor();
+        count.setInt(obj, 7);
+        assertEquals(7, count.getInt(obj));
+
+        final FieldAccessor name = root.findField("name").getFieldAccessor();
+        name.set(obj, "test");
+        assertEquals("test", name.get(obj));
+    }
+
+    @Test
+    public void testMemberClassAccess() {
+        final ClassFieldDescription root = ClassDescriptions.get(TestClass.class);
+        final TestClass obj = new TestClass();
+        final ClassFieldDescription innerValue = root.findField("innerValue");
+
+        final Object innerObj = innerValue.getMemberClassObject(obj);
+        assertSame(obj.inner, innerObj);
+        innerValue.getFieldAccessor().setFloat(innerObj, 1.5f);
+        assertEquals(1.5f, obj.inner.innerValue);
+    }
+
+    public static class TestClass {
+        protected double value;
+        protected int count;
+        protected String name;
+        protected InnerClass inner = new InnerClass();
+
+        public class InnerClass {
+            protected float innerValue;
+        }
+    }
+}
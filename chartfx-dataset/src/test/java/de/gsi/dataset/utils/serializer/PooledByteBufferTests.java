@@ -0,0 +1,128 @@
+package de.gsi.dataset.utils.serializer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.serializer.spi.DirectBufferPool;
+import de.gsi.dataset.serializer.spi.FastByteBuffer;
+import de.gsi.dataset.serializer.spi.PooledByteBuffer;
+import de.gsi.dataset.serializer.spi.iobuffer.DataSetSerialiser;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+
+/**
+ * Tests of {@link PooledByteBuffer} and {@link DirectBufferPool}
+ *
+ * @author rstein
+ */
+public class PooledByteBufferTests {
+    @TempDir
+    protected Path tmpDir;
+
+    @Test
+    public void testPoolReuse() {
+        final DirectBufferPool pool = new DirectBufferPool(1 << 20);
+        assertEquals(DirectBufferPool.MIN_SIZE_CLASS, DirectBufferPool.sizeClass(1));
+        assertEquals(12, DirectBufferPool.sizeClass(4096));
+        assertEquals(13, DirectBufferPool.sizeClass(4097));
+
+        final PooledByteBuffer buffer = new PooledByteBuffer(3000, pool);
+        assertEquals(4096, buffer.capacity());
+        assertTrue(buffer.asByteBuffer().isDirect());
+        final java.nio.ByteBuffer memory = buffer.asByteBuffer();
+        assertEquals(1, buffer.refCount());
+        assertSame(buffer, buffer.retain());
+        assertFalse(buffer.release());
+        assertEquals(0, pool.getPooledBytes());
+        assertTrue(buffer.release());
+        assertEquals(4096, pool.getPooledBytes());
+        assertThrows(IllegalStateException.class, buffer::release);
+        assertThrows(IllegalStateException.class, buffer::retain);
+        assertThrows(IllegalStateException.class, () -> buffer.ensureCapacity(10));
+
+        final PooledByteBuffer buffer2 = new PooledByteBuffer(4000, pool);
+        assertSame(memory, buffer2.asByteBuffer());
+        assertEquals(1, pool.getHitCount());
+        assertEquals(1, pool.getMissCount());
+
+        // growing returns the smaller buffer to the pool and preserves the content
+        buffer2.putInt(42);
+        buffer2.ensureAdditionalCapacity(10_000);
+        assertEquals(16384, buffer2.capacity());
+        assertEquals(4, buffer2.position());
+        assertEquals(4096, pool.getPooledBytes());
+        buffer2.position(0);
+        assertEquals(42, buffer2.getInt());
+
+        buffer2.trim();
+        assertEquals(1 << DirectBufferPool.MIN_SIZE_CLASS, buffer2.capacity());
+        assertEquals(4, buffer2.position());
+        buffer2.release();
+
+        // budget exceeded
+        final DirectBufferPool smallPool = new DirectBufferPool(1024);
+        new PooledByteBuffer(2000, smallPool).release();
+        assertEquals(0, smallPool.getPooledBytes());
+        pool.clear();
+        assertEquals(0, pool.getPooledBytes());
+    }
+
+    @Test
+    public void testDataSetChannelRoundTrip() throws IOException {
+        final int nSamples = 10_000;
+        final DoubleErrorDataSet dataSet = new DoubleErrorDataSet("test", nSamples);
+        for (int i = 0; i < nSamples; i++) {
+            dataSet.add(i, Math.sin(0.01 * i), 0.1, 0.2);
+        }
+
+        final DirectBufferPool pool = new DirectBufferPool(1 << 24);
+        final PooledByteBuffer buffer = new PooledByteBuffer(1000, pool);
+        final Path file = tmpDir.resolve("dataSet.bin");
+        int nBytes = 0;
+        for (int iteration = 0; iteration < 3; iteration++) {
+            buffer.reset();
+            DataSetSerialiser.writeDataSetToByteArray(dataSet, buffer, false);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                         StandardOpenOption.TRUNCATE_EXISTING)) {
+                nBytes = buffer.writeTo(channel);
+            }
+            assertEquals(nBytes, buffer.position());
+        }
+        final PooledByteBuffer readBuffer = new PooledByteBuffer(1000, pool);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            readBuffer.readFrom(channel, nBytes);
+        }
+        assertEquals(nBytes, readBuffer.limit());
+        final DataSet dataSetRead = DataSetSerialiser.readDataSetFromByteArray(readBuffer);
+        assertArrayEquals(dataSet.getValues(DataSet.DIM_X), dataSetRead.getValues(DataSet.DIM_X));
+        assertArrayEquals(dataSet.getValues(DataSet.DIM_Y), dataSetRead.getValues(DataSet.DIM_Y));
+
+        // binary compatible with FastByteBuffer on the same platform
+        final byte[] bytes = new byte[nBytes];
+        final java.nio.ByteBuffer view = buffer.asByteBuffer().duplicate();
+        view.flip();
+        view.get(bytes);
+        final DataSet dataSetFast = DataSetSerialiser.readDataSetFromByteArray(FastByteBuffer.wrap(bytes));
+        assertArrayEquals(dataSet.getValues(DataSet.DIM_Y), dataSetFast.getValues(DataSet.DIM_Y));
+
+        buffer.release();
+        readBuffer.release();
+        assertTrue(pool.getPooledBytes() > 0);
+        final long misses = pool.getMissCount();
+        final PooledByteBuffer reused = new PooledByteBuffer(nBytes, pool);
+        assertEquals(misses, pool.getMissCount());
+        reused.release();
+    }
+}
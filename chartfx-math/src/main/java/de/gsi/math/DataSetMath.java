@@ -13,12 +13,16 @@ import de.gsi.dataset.DataSet;
 import de.gsi.dataset.DataSet2D;
 import de.gsi.dataset.DataSetError;
 import de.gsi.dataset.EditableDataSet;
+import de.gsi.dataset.event.UpdatedDataEvent;
 import de.gsi.dataset.spi.DoubleDataSet;
 import de.gsi.dataset.spi.DoubleErrorDataSet;
 import de.gsi.dataset.spi.utils.DoublePointError;
+import de.gsi.math.filter.SlidingWindowFilter;
 import de.gsi.math.spectra.Apodization;
 import de.gsi.math.spectra.SpectrumTools;
-import de.gsi.math.spectra.fft.DoubleFFT_1D;
+import de.gsi.math.spectra.TransformPlanCache;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
 
 /**
  * Some math operation on DataSet and DataSetError
@@ -33,6 +37,8 @@ public final class DataSetMath { // NOPMD - nomen est omen
     private static final char MULTIPLICATION_SYMBOL = 0x00B7;
     private static final String DIFFERENTIAL = DIFFERENTIAL_SYMBOL + "/" + DIFFERENTIAL_SYMBOL + "x";
     private static final TRandom random = new TRandom(System.currentTimeMillis());
+    private static final ThreadLocal<double[][]> SPECTRUM_WORK_BUFFERS = ThreadLocal
+            .withInitial(() -> new double[][] { new double[0], new double[0] });
 
     /**
      *
@@ -368,76 +374,84 @@ public final class DataSetMath { // NOPMD - nomen est omen
         }
     }
 
+    /**
+     * Filters the function by computing the given statistic over all points within {@code +-width} in x of each
+     * point. N.B. uses the O(n) respectively O(n log w) (median) {@link SlidingWindowFilter} engine, unsorted data is
+     * sorted in x prior to filtering.
+     *
+     * @param function input function
+     * @param width window half-width in units of the x coordinate
+     * @param filterType filter statistic
+     * @return filtered function (N.B. same point order as the input)
+     */
     public static DataSet filterFunction(final DataSet function, final double width, final Filter filterType) {
         final int n = function.getDataCount();
-        final DoubleErrorDataSet filteredFunction = new DoubleErrorDataSet(
-                filterType.getTag() + "(" + function.getName() + "," + Double.toString(width) + ")", n);
-        final double[] subArrayY = new double[n];
-        final double[] subArrayYn = new double[n];
-        final double[] subArrayYp = new double[n];
-
-        final double[] xValues = values(DIM_X, function);
-        final double[] yValues = values(DIM_Y, function);
+        final double[] xValues = cropToLength(values(DIM_X, function), n);
+        final double[] yValues = cropToLength(values(DIM_Y, function), n);
         final double[] yen = errors(function, EYN);
-        final double[] yep = errors(function, EYN);
+        final double[] yep = errors(function, EYP);
 
+        // permutation to ascending x (identity for the common case of already sorted data)
+        final boolean sorted = SlidingWindowFilter.isSorted(xValues, n);
+        final int[] order = new int[n];
         for (int i = 0; i < n; i++) {
-            final double time0 = xValues[i];
-
-            int count = 0;
-            for (int j = 0; j < n; j++) {
-                final double time = xValues[j];
-                if (Math.abs(time0 - time) <= width) {
-                    subArrayY[count] = yValues[j];
-                    subArrayYn[count] = yen[j];
-                    subArrayYp[count] = yep[j];
-                    count++;
-                }
-            }
-
-            final double norm = count > 0 ? 1.0 / Math.sqrt(count) : 0.0;
-
-            switch (filterType) {
-            case MEDIAN:
-                filteredFunction.add(time0, TMath.Median(subArrayY, count), TMath.Median(subArrayYn, count),
-                        TMath.Median(subArrayYp, count));
-                break;
-            case MIN:
-                filteredFunction.add(time0, TMath.Minimum(subArrayY, count), TMath.Minimum(subArrayYn, count),
-                        TMath.Minimum(subArrayYp, count));
-                break;
-            case MAX:
-                filteredFunction.add(time0, TMath.Maximum(subArrayY, count), TMath.Maximum(subArrayYn, count),
-                        TMath.Maximum(subArrayYp, count));
-                break;
-            case P2P:
-                filteredFunction.add(time0, TMath.PeakToPeak(subArrayY, count), TMath.PeakToPeak(subArrayYn, count),
-                        TMath.PeakToPeak(subArrayYp, count));
-                break;
-            case RMS:
-                filteredFunction.add(time0, TMath.RMS(subArrayY, count), TMath.RMS(subArrayYn, count),
-                        TMath.RMS(subArrayYp, count));
-                break;
-            case GEOMMEAN:
-                filteredFunction.add(time0, TMath.GeometricMean(subArrayY, count),
-                        TMath.GeometricMean(subArrayYn, count), TMath.GeometricMean(subArrayYp, count));
-                break;
-            case MEAN:
-            default:
-                filteredFunction.add(time0, TMath.Mean(subArrayY, count), TMath.Mean(subArrayYn, count) * norm,
-                        TMath.Mean(subArrayYp, count) * norm);
-                break;
+            order[i] = i;
+        }
+        if (!sorted) {
+            IntArrays.mergeSort(order, (a, b) -> Double.compare(xValues[a], xValues[b]));
+        }
+        final double[] xSorted = sorted ? xValues : permute(xValues, order);
+
+        final int[] lower = new int[n];
+        final int[] upper = new int[n];
+        SlidingWindowFilter.windowBounds(xSorted, n, width, lower, upper);
+
+        final double[] filteredY = SlidingWindowFilter.filter(sorted ? yValues : permute(yValues, order), lower,
+                upper, n, filterType, null);
+        final double[] filteredYen = SlidingWindowFilter.filter(sorted ? yen : permute(yen, order), lower, upper, n,
+                filterType, null);
+        final double[] filteredYep = SlidingWindowFilter.filter(sorted ? yep : permute(yep, order), lower, upper, n,
+                filterType, null);
+        if (filterType == Filter.MEAN) {
+            for (int i = 0; i < n; i++) {
+                final int count = upper[i] - lower[i] + 1;
+                final double norm = count > 0 ? 1.0 / Math.sqrt(count) : 0.0;
+                filteredYen[i] *= norm;
+                filteredYep[i] *= norm;
             }
+        }
 
+        final double[] newY = new double[n];
+        final double[] newYen = new double[n];
+        final double[] newYep = new double[n];
+        for (int i = 0; i < n; i++) {
+            newY[order[i]] = filteredY[i];
+            newYen[order[i]] = filteredYen[i];
+            newYep[order[i]] = filteredYep[i];
         }
 
-        return filteredFunction;
+        return new DoubleErrorDataSet(
+                filterType.getTag() + "(" + function.getName() + "," + Double.toString(width) + ")",
+                Arrays.copyOf(xValues, n), newY, newYen, newYep, n, false);
     }
 
     public static DataSet geometricMeanFilteredFunction(final DataSet function, final double width) {
         return filterFunction(function, width, Filter.GEOMMEAN);
     }
 
+    /**
+     * @param n FFT size
+     * @return per-thread {FFT input [n], magnitude [n/2]} buffers, (re-)allocated only if too small
+     */
+    private static double[][] getSpectrumWorkBuffers(final int n) {
+        final double[][] buffers = SPECTRUM_WORK_BUFFERS.get();
+        if (buffers[0].length < n) {
+            buffers[0] = new double[n];
+            buffers[1] = new double[n / 2];
+        }
+        return buffers;
+    }
+
     public static DataSet getSubRange(final DataSet function, final double xMin, final double xMax) {
         final int nLength = function.getDataCount();
         final DoubleErrorDataSet ret = new DoubleErrorDataSet(
@@ -744,30 +758,66 @@ public final class DataSetMath { // NOPMD - nomen est omen
 
     public static DataSet magnitudeSpectrum(final DataSet function, final Apodization apodization,
             final boolean dbScale, final boolean normalisedFrequency) {
-        final int n = function.getDataCount();
+        return magnitudeSpectrum(function, apodization, dbScale, normalisedFrequency, null);
+    }
 
-        final DoubleFFT_1D fastFourierTrafo = new DoubleFFT_1D(n);
+    /**
+     * computes the magnitude spectrum into a (re-usable) output data set. The FFT plan is obtained from the
+     * {@link TransformPlanCache} and the intermediate buffers are re-used per thread, i.e. repeated invocations for
+     * the same spectrum size (e.g. live spectrum displays) do not allocate new memory.
+     *
+     * @param function input function (N.B. assumed to be equidistantly sampled)
+     * @param apodization apodization window function
+     * @param dbScale true: magnitude in [dB]
+     * @param normalisedFrequency true: frequency axis normalised to [0, 0.5]
+     * @param output optional data set the spectrum is written to (a new data set is created if {@code null})
+     * @return the magnitude spectrum (i.e. 'output' if non-null)
+     */
+    public static DoubleErrorDataSet magnitudeSpectrum(final DataSet function, final Apodization apodization,
+            final boolean dbScale, final boolean normalisedFrequency, final DoubleErrorDataSet output) {
+        final int n = function.getDataCount();
+        final double[][] buffers = getSpectrumWorkBuffers(n);
+        final double[] fftSpectra = buffers[0];
+        final double[] mag = buffers[1];
+        final int nMag = n / 2;
 
         // N.B. since realForward computes the FFT in-place -> generate a copy
-        final double[] fftSpectra = new double[n];
-        for (int i = 0; i < n; i++) {
-            final double window = apodization.getIndex(i, n);
-            fftSpectra[i] = function.get(DIM_Y, i) * window;
-        }
+        final double dt = function.lock().readLockGuard(() -> {
+            for (int i = 0; i < n; i++) {
+                fftSpectra[i] = function.get(DIM_Y, i) * apodization.getIndex(i, n);
+            }
+            return function.get(DIM_X, n - 1) - function.get(DIM_X, 0);
+        });
 
-        fastFourierTrafo.realForward(fftSpectra);
-        final double[] mag = dbScale ? SpectrumTools.computeMagnitudeSpectrum_dB(fftSpectra, true)
-                : SpectrumTools.computeMagnitudeSpectrum(fftSpectra, true);
-        final double dt = function.get(DIM_X, function.getDataCount() - 1) - function.get(DIM_X, 0);
-        final double fsampling = normalisedFrequency || dt <= 0 ? 0.5 / mag.length : 1.0 / dt;
+        TransformPlanCache.getDoubleFFT(n).realForward(fftSpectra);
+        if (dbScale) {
+            SpectrumTools.computeMagnitudeSpectrum_dB(fftSpectra, n, true, mag);
+        } else {
+            SpectrumTools.computeMagnitudeSpectrum(fftSpectra, n, true, mag);
+        }
+        final double fsampling = normalisedFrequency || dt <= 0 ? 0.5 / nMag : 1.0 / dt;
 
         final String functionName = "Mag" + (dbScale ? "[dB]" : "") + "(" + function.getName() + ")";
-
-        final DoubleErrorDataSet ret = new DoubleErrorDataSet(functionName, mag.length);
-        for (int i = 0; i < mag.length; i++) {
-            // TODO: consider magnitude error estimate
-            ret.add(i * fsampling, mag[i], 0, 0);
-        }
+        final DoubleErrorDataSet ret = output == null ? new DoubleErrorDataSet(functionName, nMag) : output;
+        ret.lock().writeLockGuard(() -> {
+            ret.setName(functionName);
+            ret.resize(nMag);
+            final double[] xValues = ret.getValues(DIM_X);
+            final double[] yValues = ret.getValues(DIM_Y);
+            final double[] yErrorsNeg = ret.getErrorsNegative(DIM_Y);
+            final double[] yErrorsPos = ret.getErrorsPositive(DIM_Y);
+            for (int i = 0; i < nMag; i++) {
+                xValues[i] = i * fsampling;
+                yValues[i] = mag[i];
+                // TODO: consider magnitude error estimate
+                yErrorsNeg[i] = 0.0;
+                yErrorsPos[i] = 0.0;
+            }
+            ret.getChangeLog().markAllModified();
+            ret.recomputeLimits(DIM_X);
+            ret.recomputeLimits(DIM_Y);
+        });
+        ret.fireInvalidated(new UpdatedDataEvent(ret, "magnitudeSpectrum"));
 
         return ret;
     }
@@ -959,6 +1009,14 @@ public final class DataSetMath { // NOPMD - nomen est omen
         return filterFunction(function, width, Filter.P2P);
     }
 
+    private static double[] permute(final double[] in, final int[] order) {
+        final double[] ret = new double[order.length];
+        for (int i = 0; i < order.length; i++) {
+            ret[i] = in[order[i]];
+        }
+        return ret;
+    }
+
     public static DataSet rmsFilteredFunction(final DataSet function, final double width) {
         return filterFunction(function, width, Filter.RMS);
     }
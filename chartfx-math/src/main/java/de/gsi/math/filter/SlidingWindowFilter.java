@@ -0,0 +1,415 @@
+package de.gsi.math.filter;
+
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.math.DataSetMath.Filter;
+
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.ints.IntHeapPriorityQueue;
+
+/**
+ * Sliding-window filter engine for data sorted in x: computes for each point i the filter statistic over all points j
+ * with {@code |x[i] - x[j]| <= width}.
+ * <p>
+ * Since both window boundaries move monotonically for sorted x, each point enters and leaves the window exactly once:
+ * <ul>
+ * <li>MIN, MAX, P2P: monotonic deques -- O(n)</li>
+ * <li>MEAN, RMS, GEOMMEAN: running sums -- O(n)</li>
+ * <li>MEDIAN: two heaps with lazy deletion -- O(n log w)</li>
+ * </ul>
+ * rather than the O(n*n) of a per-point scan. Non-finite values are tracked separately so that they only affect the
+ * windows that contain them.
+ *
+ * @author rstein
+ */
+public final class SlidingWindowFilter {
+
+    private SlidingWindowFilter() {
+        // utility class
+    }
+
+    /**
+     * @param values input values
+     * @param lower first index (inclusive) of the window of each point as computed by
+     *        {@link #windowBounds(double[], int, double, int[], int[])}
+     * @param upper last index (inclusive) of the window of each point (N.B. empty windows: upper &lt; lower)
+     * @param length number of points to be filtered
+     * @param filterType filter statistic
+     * @param result optional storage for the result (re-allocated if {@code null} or too small)
+     * @return filtered values (N.B. {@code NaN} for empty windows)
+     */
+    public static double[] filter(final double[] values, final int[] lower, final int[] upper, final int length,
+            final Filter filterType, final double[] result) {
+        AssertUtils.notNull("values", values);
+        AssertUtils.notNull("lower", lower);
+        AssertUtils.notNull("upper", upper);
+        AssertUtils.notNull("filterType", filterType);
+        AssertUtils.gtEqThanZero("length", length);
+        final double[] ret = result == null || result.length < length ? new double[length] : result;
+        final Window window;
+        switch (filterType) {
+        case MEDIAN:
+            window = new MedianWindow(values, length);
+            break;
+        case MIN:
+        case MAX:
+        case P2P:
+            window = new ExtremaWindow(values, length, filterType);
+            break;
+        case RMS:
+        case GEOMMEAN:
+        case MEAN:
+        default:
+            window = new SumWindow(values, length, filterType);
+            break;
+        }
+
+        int head = 0; // next index to be added
+        int tail = 0; // next index to be removed
+        for (int i = 0; i < length; i++) {
+            if (upper[i] < lower[i]) {
+                ret[i] = Double.NaN;
+                continue;
+            }
+            while (head <= upper[i]) {
+                window.add(head++);
+            }
+            while (tail < lower[i]) {
+                window.remove(tail++);
+            }
+            ret[i] = window.getValue();
+        }
+        return ret;
+    }
+
+    /**
+     * @param x input coordinates
+     * @param length number of points to be checked
+     * @return {@code true} if the coordinates are sorted in ascending order and do not contain {@code NaN}s
+     */
+    public static boolean isSorted(final double[] x, final int length) {
+        for (int i = 1; i < length; i++) {
+            if (!(x[i - 1] <= x[i])) { // NOPMD - also rejects NaNs
+                return false;
+            }
+        }
+        return length == 0 || !Double.isNaN(x[0]);
+    }
+
+    /**
+     * computes the window index range containing all points j with {@code |x[i] - x[j]| <= width} for each point i
+     *
+     * @param x input coordinates sorted in ascending order (see {@link #isSorted(double[], int)})
+     * @param length number of points
+     * @param width window half-width
+     * @param lower output: first index (inclusive) of the window of each point
+     * @param upper output: last index (inclusive) of the window of each point
+     */
+    public static void windowBounds(final double[] x, final int length, final double width, final int[] lower,
+            final int[] upper) {
+        AssertUtils.notNull("x", x);
+        AssertUtils.notNull("lower", lower);
+        AssertUtils.notNull("upper", upper);
+        int low = 0;
+        int high = -1;
+        for (int i = 0; i < length; i++) {
+            final double x0 = x[i];
+            // N.B. same (rounding) criterion as a naive scan, monotonic for sorted x
+            while (low < length && !(Math.abs(x0 - x[low]) <= width) && x[low] < x0) { // NOPMD
+                low++;
+            }
+            high = Math.max(high, low - 1);
+            while (high + 1 < length && Math.abs(x[high + 1] - x0) <= width) {
+                high++;
+            }
+            lower[i] = low;
+            upper[i] = high;
+        }
+    }
+
+    private interface Window {
+        void add(int index);
+
+        double getValue();
+
+        void remove(int index);
+    }
+
+    /**
+     * minimum/maximum via monotonic index deques
+     */
+    private static class ExtremaWindow implements Window {
+        private final double[] values;
+        private final Filter filterType;
+        private final IntArrayFIFOQueue minQueue;
+        private final IntArrayFIFOQueue maxQueue;
+        private int nNaN;
+
+        protected ExtremaWindow(final double[] values, final int length, final Filter filterType) {
+            this.values = values;
+            this.filterType = filterType;
+            minQueue = new IntArrayFIFOQueue(Math.min(length, 1024));
+            maxQueue = new IntArrayFIFOQueue(Math.min(length, 1024));
+        }
+
+        @Override
+        public void add(final int index) {
+            final double value = values[index];
+            if (Double.isNaN(value)) {
+                nNaN++;
+                return;
+            }
+            while (!minQueue.isEmpty() && values[minQueue.lastInt()] >= value) {
+                minQueue.dequeueLastInt();
+            }
+            minQueue.enqueue(index);
+            while (!maxQueue.isEmpty() && values[maxQueue.lastInt()] <= value) {
+                maxQueue.dequeueLastInt();
+            }
+            maxQueue.enqueue(index);
+        }
+
+        @Override
+        public double getValue() {
+            if (nNaN > 0) {
+                return Double.NaN;
+            }
+            // N.B. same initial values as TMath.Minimum/Maximum
+            final double min = Math.min(+Double.MAX_VALUE, values[minQueue.firstInt()]);
+            final double max = Math.max(-Double.MAX_VALUE, values[maxQueue.firstInt()]);
+            switch (filterType) {
+            case MIN:
+                return min;
+            case MAX:
+                return max;
+            case P2P:
+            default:
+                return Math.abs(max - min);
+            }
+        }
+
+        @Override
+        public void remove(final int index) {
+            if (Double.isNaN(values[index])) {
+                nNaN--;
+                return;
+            }
+            // N.B. indices leave the window in ascending order
+            if (!minQueue.isEmpty() && minQueue.firstInt() == index) {
+                minQueue.dequeueInt();
+            }
+            if (!maxQueue.isEmpty() && maxQueue.firstInt() == index) {
+                maxQueue.dequeueInt();
+            }
+        }
+    }
+
+    /**
+     * median via a max-heap (lower half) and a min-heap (upper half) with lazy deletion of indices that left the
+     * window
+     */
+    private static class MedianWindow implements Window {
+        private final double[] values;
+        private final boolean[] inLowerHalf;
+        private final IntHeapPriorityQueue lowerHalf;
+        private final IntHeapPriorityQueue upperHalf;
+        private int nLower; // number of valid entries in lowerHalf
+        private int nUpper; // number of valid entries in upperHalf
+        private int firstValid; // indices below have left the window
+
+        protected MedianWindow(final double[] values, final int length) {
+            this.values = values;
+            inLowerHalf = new boolean[length];
+            // N.B. ties are broken by index to obtain a total order
+            lowerHalf = new IntHeapPriorityQueue((a, b) -> compare(b, a));
+            upperHalf = new IntHeapPriorityQueue(this::compare);
+        }
+
+        @Override
+        public void add(final int index) {
+            if (nLower == 0 || compare(index, lowerHalf.firstInt()) <= 0) {
+                lowerHalf.enqueue(index);
+                inLowerHalf[index] = true;
+                nLower++;
+            } else {
+                upperHalf.enqueue(index);
+                nUpper++;
+            }
+            rebalance();
+        }
+
+        @Override
+        public double getValue() {
+            if (nLower == 0) {
+                return Double.NaN;
+            }
+            if (nLower > nUpper) {
+                return values[lowerHalf.firstInt()];
+            }
+            return 0.5 * (values[lowerHalf.firstInt()] + values[upperHalf.firstInt()]);
+        }
+
+        @Override
+        public void remove(final int index) {
+            firstValid = index + 1;
+            if (inLowerHalf[index]) {
+                nLower--;
+            } else {
+                nUpper--;
+            }
+            rebalance();
+        }
+
+        private int compare(final int a, final int b) {
+            final int cmp = Double.compare(values[a], values[b]);
+            return cmp == 0 ? Integer.compare(a, b) : cmp;
+        }
+
+        private void prune(final IntHeapPriorityQueue heap) {
+            while (!heap.isEmpty() && heap.firstInt() < firstValid) {
+                heap.dequeueInt();
+            }
+        }
+
+        private void rebalance() {
+            prune(lowerHalf);
+            prune(upperHalf);
+            // invariant: nLower == nUpper or nLower == nUpper + 1
+            while (nLower > nUpper + 1) {
+                final int index = lowerHalf.dequeueInt();
+                inLowerHalf[index] = false;
+                upperHalf.enqueue(index);
+                nLower--;
+                nUpper++;
+                prune(lowerHalf);
+            }
+            while (nLower < nUpper) {
+                final int index = upperHalf.dequeueInt();
+                inLowerHalf[index] = true;
+                lowerHalf.enqueue(index);
+                nUpper--;
+                nLower++;
+                prune(upperHalf);
+            }
+        }
+    }
+
+    /**
+     * mean, rms and geometric mean via running sums -- N.B. sums are accumulated relative to a reference value and
+     * periodically re-computed to limit cancellation and drift errors, non-finite values and zeros (geometric mean)
+     * are counted separately
+     */
+    private static class SumWindow implements Window {
+        private static final int MIN_RECOMPUTE_INTERVAL = 64;
+        private final double[] values;
+        private final Filter filterType;
+        private double reference;
+        private double sum;
+        private double sum2;
+        private int count;
+        private int nNaN;
+        private int nPosInf;
+        private int nNegInf;
+        private int nZero;
+        private int first; // first index within the window
+        private int last = -1; // last index within the window
+        private int nRemoved; // removals since the last re-computation
+
+        protected SumWindow(final double[] values, final int length, final Filter filterType) {
+            this.values = values;
+            this.filterType = filterType;
+        }
+
+        @Override
+        public void add(final int index) {
+            last = index;
+            if (count == 0 && filterType != Filter.GEOMMEAN && Double.isFinite(values[index])) {
+                reference = values[index];
+            }
+            update(values[index], +1);
+        }
+
+        @Override
+        public double getValue() {
+            final double norm = 1.0 / count;
+            switch (filterType) {
+            case GEOMMEAN:
+                if (nZero > 0) {
+                    return 0.0;
+                }
+                if (nNaN > 0) {
+                    return Double.NaN;
+                }
+                return nPosInf + nNegInf > 0 ? Double.POSITIVE_INFINITY : Math.exp(sum * norm);
+            case RMS:
+                if (nNaN + nPosInf + nNegInf > 0) {
+                    return Double.NaN;
+                }
+                final double mean = sum * norm;
+                // un-biased rms (N.B. invariant w.r.t. the reference offset)
+                return Math.sqrt(Math.abs(sum2 * norm - mean * mean));
+            case MEAN:
+            default:
+                if (nNaN > 0 || nPosInf > 0 && nNegInf > 0) {
+                    return Double.NaN;
+                }
+                if (nPosInf > 0) {
+                    return Double.POSITIVE_INFINITY;
+                }
+                if (nNegInf > 0) {
+                    return Double.NEGATIVE_INFINITY;
+                }
+                return reference + sum * norm;
+            }
+        }
+
+        @Override
+        public void remove(final int index) {
+            first = index + 1;
+            update(values[index], -1);
+            if (++nRemoved >= Math.max(count, MIN_RECOMPUTE_INTERVAL)) {
+                // amortised O(1): at most one re-computation per window length
+                recompute();
+            }
+        }
+
+        private void recompute() {
+            sum = 0.0;
+            sum2 = 0.0;
+            count = 0;
+            nNaN = 0;
+            nPosInf = 0;
+            nNegInf = 0;
+            nZero = 0;
+            nRemoved = 0;
+            if (filterType != Filter.GEOMMEAN && last >= first && Double.isFinite(values[last])) {
+                reference = values[last];
+            }
+            for (int index = first; index <= last; index++) {
+                update(values[index], +1);
+            }
+        }
+
+        private void update(final double value, final int sign) {
+            count += sign;
+            if (Double.isNaN(value)) {
+                nNaN += sign;
+            } else if (filterType == Filter.GEOMMEAN) {
+                if (value == 0.0) {
+                    nZero += sign;
+                } else if (Double.isInfinite(value)) {
+                    nPosInf += sign;
+                } else {
+                    sum += sign * Math.log(Math.abs(value));
+                }
+            } else if (value == Double.POSITIVE_INFINITY) {
+                nPosInf += sign;
+            } else if (value == Double.NEGATIVE_INFINITY) {
+                nNegInf += sign;
+            } else {
+                final double delta = value - reference;
+                sum += sign * delta;
+                sum2 += sign * delta * delta;
+            }
+        }
+    }
+}
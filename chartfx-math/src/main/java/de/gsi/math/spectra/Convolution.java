@@ -17,10 +17,8 @@ public class Convolution {
     public DoubleFFT_1D f1dFFT;
 
     private void init(final int size) {
-        if (f1dFFT == null) {
-            f1dFFT = new DoubleFFT_1D(size);
-        } else if (f1dFFT.getDimension() != size) {
-            f1dFFT = new DoubleFFT_1D(size);
+        if (f1dFFT == null || f1dFFT.getDimension() != size) {
+            f1dFFT = TransformPlanCache.getDoubleFFT(size);
         }
     }
 
@@ -0,0 +1,261 @@
+package de.gsi.math.spectra;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.spi.CircularDoubleDataSet3D;
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.DoubleRingBuffer;
+import de.gsi.math.spectra.fft.DoubleFFT_1D;
+
+/**
+ * Streaming short-time Fourier transform (STFT) that incrementally consumes samples and appends one magnitude spectrum
+ * per 'hop' samples as new column to a rolling spectrogram (time vs. frequency), e.g. for waterfall displays using the
+ * ContourDataSetRenderer.
+ * <p>
+ * The spectrogram's z-matrix is pre-allocated and the oldest columns are overwritten once its capacity is reached.
+ * Samples that are added in bulk (e.g. {@link #consume(DoubleRingBuffer)}) are appended under a single write lock and
+ * notified with a single event. N.B. the transform itself is not thread-safe and should be fed by a single thread.
+ *
+ * <pre>
+ * final ShortTimeFourierTransform stft = new ShortTimeFourierTransform("spectrogram", 1024, 256, Apodization.Hann,
+ *         1e-3, 500);
+ * contourRenderer.getDatasets().add(stft.getSpectrogram());
+ * // ... for each new acquisition
+ * stft.consume(ringBuffer);
+ * </pre>
+ *
+ * @author rstein
+ */
+public class ShortTimeFourierTransform {
+    private final int fftSize;
+    private final int hopSize;
+    private final Apodization apodization;
+    private final double samplingInterval;
+    private final CircularDoubleDataSet3D spectrogram;
+    private final DoubleFFT_1D fft;
+    private final double[] window;
+    private final double[] samples;
+    private final double[] times;
+    private final double[] frame;
+    private final double[] magnitude;
+    private double[] timeBuffer = new double[0];
+    private double[] valueBuffer = new double[0];
+    private boolean decibelScale;
+    private long nSamples;
+    private int writeIndex;
+    private double lastTime = Double.NaN;
+    private int nNewColumns;
+
+    /**
+     * @param name of the spectrogram data set
+     * @param fftSize number of samples per spectrum (frame)
+     * @param hopSize number of samples between two consecutive spectra (&lt; fftSize: overlapping frames)
+     * @param apodization window function applied to each frame
+     * @param samplingInterval sampling interval of uniformly sampled data (e.g. from {@link DoubleRingBuffer}), defines
+     *            the time and frequency scale
+     * @param nColumns number of spectra (time slices) retained in the spectrogram
+     */
+    public ShortTimeFourierTransform(final String name, final int fftSize, final int hopSize,
+            final Apodization apodization, final double samplingInterval, final int nColumns) {
+        AssertUtils.gtThanZero("fftSize", fftSize);
+        AssertUtils.gtThanZero("hopSize", hopSize);
+        AssertUtils.notNull("apodization", apodization);
+        AssertUtils.gtThanZero("samplingInterval", samplingInterval);
+        if (fftSize < 4 || fftSize % 2 != 0) {
+            throw new IllegalArgumentException("fftSize must be an even number >= 4: " + fftSize);
+        }
+        this.fftSize = fftSize;
+        this.hopSize = hopSize;
+        this.apodization = apodization;
+        this.samplingInterval = samplingInterval;
+
+        final double[] frequencies = new double[fftSize / 2];
+        for (int i = 0; i < frequencies.length; i++) {
+            frequencies[i] = i / (fftSize * samplingInterval);
+        }
+        spectrogram = new CircularDoubleDataSet3D(name, nColumns, frequencies);
+        fft = TransformPlanCache.getDoubleFFT(fftSize);
+        window = new double[fftSize];
+        for (int i = 0; i < fftSize; i++) {
+            window[i] = apodization.getIndex(i, fftSize);
+        }
+        samples = new double[fftSize];
+        times = new double[fftSize];
+        frame = new double[fftSize];
+        magnitude = new double[fftSize / 2];
+    }
+
+    /**
+     * Adds a single sample.
+     *
+     * @param time time stamp of the sample
+     * @param value sample value
+     */
+    public void add(final double time, final double value) {
+        spectrogram.lock().writeLockGuard(() -> addSample(time, value));
+        notifyNewColumns();
+    }
+
+    /**
+     * Adds uniformly sampled data (time stamps continue with the given sampling interval).
+     *
+     * @param values new samples
+     * @param length number of samples to be added
+     */
+    public void add(final double[] values, final int length) {
+        spectrogram.lock().writeLockGuard(() -> addUniformSamples(values, length));
+        notifyNewColumns();
+    }
+
+    /**
+     * Consumes all samples that have been added to the data set since the last call, i.e. with X coordinates larger
+     * than the last consumed time stamp (e.g. from a {@link de.gsi.dataset.spi.CircularDoubleErrorDataSet}). The X
+     * coordinates are expected to be monotonically increasing.
+     *
+     * @param dataSet source of new samples
+     * @return number of consumed samples
+     */
+    public int consume(final DataSet dataSet) {
+        final int nNew = dataSet.lock().readLockGuard(() -> {
+            final int dataCount = dataSet.getDataCount(DataSet.DIM_X);
+            int first = dataCount;
+            while (first > 0 && (nSamples == 0 || dataSet.get(DataSet.DIM_X, first - 1) > lastTime)) {
+                first--;
+            }
+            final int length = dataCount - first;
+            ensureBufferCapacity(length);
+            for (int i = 0; i < length; i++) {
+                timeBuffer[i] = dataSet.get(DataSet.DIM_X, first + i);
+                valueBuffer[i] = dataSet.get(DataSet.DIM_Y, first + i);
+            }
+            return length;
+        });
+        spectrogram.lock().writeLockGuard(() -> {
+            for (int i = 0; i < nNew; i++) {
+                addSample(timeBuffer[i], valueBuffer[i]);
+            }
+        });
+        notifyNewColumns();
+        return nNew;
+    }
+
+    /**
+     * Consumes (takes) all available samples of the ring buffer.
+     *
+     * @param ringBuffer source of new uniformly sampled data
+     * @return number of consumed samples
+     */
+    public int consume(final DoubleRingBuffer ringBuffer) {
+        ensureBufferCapacity(ringBuffer.available());
+        final int length = ringBuffer.take(valueBuffer, ringBuffer.available());
+        spectrogram.lock().writeLockGuard(() -> addUniformSamples(valueBuffer, length));
+        notifyNewColumns();
+        return length;
+    }
+
+    /**
+     * @return window function applied to each frame
+     */
+    public Apodization getApodization() {
+        return apodization;
+    }
+
+    /**
+     * @return number of samples per spectrum (frame)
+     */
+    public int getFftSize() {
+        return fftSize;
+    }
+
+    /**
+     * @return number of samples between two consecutive spectra
+     */
+    public int getHopSize() {
+        return hopSize;
+    }
+
+    /**
+     * @return sampling interval of uniformly sampled data
+     */
+    public double getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    /**
+     * @return rolling spectrogram with X: time (centre of frame), Y: frequency and Z: magnitude
+     */
+    public CircularDoubleDataSet3D getSpectrogram() {
+        return spectrogram;
+    }
+
+    /**
+     * @return whether the magnitude is expressed in [dB]
+     */
+    public boolean isDecibelScale() {
+        return decibelScale;
+    }
+
+    /**
+     * resets the sample history (the spectrogram is retained)
+     */
+    public void reset() {
+        nSamples = 0;
+        writeIndex = 0;
+        lastTime = Double.NaN;
+    }
+
+    /**
+     * @param state true: magnitude is expressed in [dB] (applies to new spectra)
+     */
+    public void setDecibelScale(final boolean state) {
+        decibelScale = state;
+    }
+
+    private void addSample(final double time, final double value) {
+        samples[writeIndex] = value;
+        times[writeIndex] = time;
+        writeIndex = writeIndex + 1 == fftSize ? 0 : writeIndex + 1;
+        lastTime = time;
+        nSamples++;
+        if (nSamples >= fftSize && (nSamples - fftSize) % hopSize == 0) {
+            computeSpectrum();
+        }
+    }
+
+    private void addUniformSamples(final double[] values, final int length) {
+        for (int i = 0; i < length; i++) {
+            addSample(nSamples == 0 ? 0.0 : lastTime + samplingInterval, values[i]);
+        }
+    }
+
+    private void computeSpectrum() {
+        // N.B. writeIndex points to the oldest sample of the frame
+        for (int i = 0; i < fftSize; i++) {
+            final int index = writeIndex + i < fftSize ? writeIndex + i : writeIndex + i - fftSize;
+            frame[i] = samples[index] * window[i];
+        }
+        fft.realForward(frame);
+        if (decibelScale) {
+            SpectrumTools.computeMagnitudeSpectrum_dB(frame, fftSize, true, magnitude);
+        } else {
+            SpectrumTools.computeMagnitudeSpectrum(frame, fftSize, true, magnitude);
+        }
+        final int centre = (writeIndex + fftSize / 2) % fftSize;
+        spectrogram.addColumn(times[centre], magnitude);
+        nNewColumns++;
+    }
+
+    private void ensureBufferCapacity(final int length) {
+        if (valueBuffer.length < length) {
+            timeBuffer = new double[length];
+            valueBuffer = new double[length];
+        }
+    }
+
+    private void notifyNewColumns() {
+        if (nNewColumns > 0) {
+            nNewColumns = 0;
+            spectrogram.fireInvalidated(new AddedDataEvent(spectrogram, "ShortTimeFourierTransform"));
+        }
+    }
+}
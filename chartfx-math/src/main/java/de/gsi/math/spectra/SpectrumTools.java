@@ -74,24 +74,39 @@ public class SpectrumTools {
      * @return computed magnitude spectrum
      */
     public static double[] computeMagnitudeSpectrum(final double[] data, final boolean truncateDCNyq) {
+        return computeMagnitudeSpectrum(data, data.length, truncateDCNyq, null);
+    }
 
-        final double[] ret = new double[data.length / 2];
-        for (int i = 0; i < ret.length; i++) {
+    /**
+     * compute magnitude power spectra into a (re-usable) result buffer
+     *
+     * @see DoubleFFT_1D for the expected spectra layout
+     * @param data the input data
+     * @param length number of spectrum values to be used from data (i.e. the FFT size)
+     * @param truncateDCNyq true: whether to smooth spectra and to ZOH the DC and Nyquist frequencies
+     * @param result optional storage for the result (re-allocated if {@code null} or shorter than length/2)
+     * @return computed magnitude spectrum (N.B. only the first length/2 elements are valid)
+     */
+    public static double[] computeMagnitudeSpectrum(final double[] data, final int length,
+            final boolean truncateDCNyq, final double[] result) {
+        final int n2 = length / 2;
+        final double[] ret = result == null || result.length < n2 ? new double[n2] : result;
+        for (int i = 0; i < n2; i++) {
             final int i2 = i << 1;
             final double Re = data[i2];
             final double Im = data[i2 + 1];
 
-            ret[i] = TMathConstants.Sqrt(TMathConstants.Sqr(Re) + TMathConstants.Sqr(Im)) / ret.length;
+            ret[i] = TMathConstants.Sqrt(TMathConstants.Sqr(Re) + TMathConstants.Sqr(Im)) / n2;
         }
         if (truncateDCNyq) {
             // smooth spectra on both ends to minimise DC/Nyquist frequency
             // artefacts
             ret[0] = ret[1];
-            ret[ret.length - 1] = ret[ret.length - 2];
+            ret[n2 - 1] = ret[n2 - 2];
         } else {
             // full DC/Nyquist frequency treatment
-            ret[0] = data[0] / ret.length;
-            ret[ret.length - 1] = data[1] / ret.length;
+            ret[0] = data[0] / n2;
+            ret[n2 - 1] = data[1] / n2;
         }
 
         return ret;
@@ -106,7 +121,7 @@ public class SpectrumTools {
      * @return computed magnitude spectrum
      */
     public static float[] computeMagnitudeSpectrum(final float[] data) {
-        return computeMagnitudeSpectrum(data);
+        return computeMagnitudeSpectrum(data, true);
     }
 
     /**
@@ -150,10 +165,24 @@ public class SpectrumTools {
      * @return computed magnitude spectrum in [dB]
      */
     public static double[] computeMagnitudeSpectrum_dB(final double[] data, final boolean truncateDCNyq) {
+        return computeMagnitudeSpectrum_dB(data, data.length, truncateDCNyq, null);
+    }
 
-        final int n2 = data.length / 2;
-        final double[] ret = new double[n2];
-        for (int i = 0; i < ret.length; i++) {
+    /**
+     * compute magnitude power spectra in decibel into a (re-usable) result buffer
+     *
+     * @see DoubleFFT_1D for the expected spectra layout
+     * @param data the input data
+     * @param length number of spectrum values to be used from data (i.e. the FFT size)
+     * @param truncateDCNyq true: whether to smooth spectra and to ZOH the DC and Nyquist frequencies
+     * @param result optional storage for the result (re-allocated if {@code null} or shorter than length/2)
+     * @return computed magnitude spectrum in [dB] (N.B. only the first length/2 elements are valid)
+     */
+    public static double[] computeMagnitudeSpectrum_dB(final double[] data, final int length,
+            final boolean truncateDCNyq, final double[] result) {
+        final int n2 = length / 2;
+        final double[] ret = result == null || result.length < n2 ? new double[n2] : result;
+        for (int i = 0; i < n2; i++) {
             final int i2 = i << 1;
             final double Re = data[i2];
             final double Im = data[i2 + 1];
@@ -169,7 +198,7 @@ public class SpectrumTools {
         } else {
             // full DC/Nyquist frequency treatment
             ret[0] = data[0];
-            ret[ret.length - 1] = data[1];
+            ret[n2 - 1] = data[1];
         }
 
         return ret;
@@ -541,14 +570,12 @@ public class SpectrumTools {
     public static synchronized double[] interpolateSpectrum(final double[] data, final int noversampling) {
         final double[] val1 = Arrays.copyOf(data, data.length);
 
-        DoubleFFT_1D fft1D = new DoubleFFT_1D(data.length);
-        fft1D.realInverse(val1, true);
+        TransformPlanCache.getDoubleFFT(data.length).realInverse(val1, true);
 
         final double[] val2 = new double[noversampling * val1.length];
         System.arraycopy(val1, 0, val2, 0, val1.length - 2);
 
-        fft1D = new DoubleFFT_1D(noversampling * data.length);
-        fft1D.realForward(val2);
+        TransformPlanCache.getDoubleFFT(noversampling * data.length).realForward(val2);
 
         for (int i = 0; i < val2.length; i++) {
             val2[i] *= noversampling;
@@ -0,0 +1,197 @@
+package de.gsi.math.spectra;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.math.spectra.dct.DoubleDCT_1D;
+import de.gsi.math.spectra.dct.FloatDCT_1D;
+import de.gsi.math.spectra.dht.DoubleDHT_1D;
+import de.gsi.math.spectra.dht.FloatDHT_1D;
+import de.gsi.math.spectra.dst.DoubleDST_1D;
+import de.gsi.math.spectra.dst.FloatDST_1D;
+import de.gsi.math.spectra.fft.DoubleFFT_1D;
+import de.gsi.math.spectra.fft.FloatFFT_1D;
+
+/**
+ * Thread-safe least-recently-used cache of 1D transform plans (FFT, DCT, DST and DHT in double and float precision)
+ * keyed by transform type and size.
+ * <p>
+ * Constructing a plan computes its twiddle factor, bit-reversal and -- for non-power-of-two sizes -- Bluestein tables,
+ * which typically dominates the cost of transforming a single (short) data vector. The plans are immutable after
+ * construction and may thus be shared by concurrent transforms.
+ *
+ * <pre>
+ * final DoubleFFT_1D fft = TransformPlanCache.getDoubleFFT(data.length);
+ * fft.realForward(data);
+ * </pre>
+ *
+ * @author rstein
+ */
+public final class TransformPlanCache {
+    /** default maximum number of retained plans */
+    public static final int DEFAULT_CAPACITY = 16;
+    private static final Map<Key, Object> CACHE = new LinkedHashMap<>(DEFAULT_CAPACITY, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, Object> eldest) {
+            return size() > capacity;
+        }
+    };
+    private static int capacity = DEFAULT_CAPACITY;
+
+    private TransformPlanCache() {
+        // utility class
+    }
+
+    /**
+     * drops all cached plans
+     */
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    /**
+     * @return maximum number of retained plans
+     */
+    public static int getCapacity() {
+        synchronized (CACHE) {
+            return capacity;
+        }
+    }
+
+    /**
+     * @param n transform size
+     * @return cached double precision discrete cosine transform plan
+     */
+    public static DoubleDCT_1D getDoubleDCT(final int n) {
+        return get(DoubleDCT_1D.class, n, DoubleDCT_1D::new);
+    }
+
+    /**
+     * @param n transform size
+     * @return cached double precision discrete Hartley transform plan
+     */
+    public static DoubleDHT_1D getDoubleDHT(final int n) {
+        return get(DoubleDHT_1D.class, n, DoubleDHT_1D::new);
+    }
+
+    /**
+     * @param n transform size
+     * @return cached double precision discrete sine transform plan
+     */
+    public static DoubleDST_1D getDoubleDST(final int n) {
+        return get(DoubleDST_1D.class, n, DoubleDST_1D::new);
+    }
+
+    /**
+     * @param n transform size
+     * @return cached double precision fast Fourier transform plan
+     */
+    public static DoubleFFT_1D getDoubleFFT(final int n) {
+        return get(DoubleFFT_1D.class, n, DoubleFFT_1D::new);
+    }
+
+    /**
+     * @param n transform size
+     * @return cached single precision discrete cosine transform plan
+     */
+    public static FloatDCT_1D getFloatDCT(final int n) {
+        return get(FloatDCT_1D.class, n, FloatDCT_1D::new);
+    }
+
+    /**
+     * @param n transform size
+     * @return cached single precision discrete Hartley transform plan
+     */
+    public static FloatDHT_1D getFloatDHT(final int n) {
+        return get(FloatDHT_1D.class, n, FloatDHT_1D::new);
+    }
+
+    /**
+     * @param n transform size
+     * @return cached single precision discrete sine transform plan
+     */
+    public static FloatDST_1D getFloatDST(final int n) {
+        return get(FloatDST_1D.class, n, FloatDST_1D::new);
+    }
+
+    /**
+     * @param n transform size
+     * @return cached single precision fast Fourier transform plan
+     */
+    public static FloatFFT_1D getFloatFFT(final int n) {
+        return get(FloatFFT_1D.class, n, FloatFFT_1D::new);
+    }
+
+    /**
+     * @param newCapacity maximum number of retained plans (&gt; 0), excess plans are evicted least-recently-used first
+     */
+    public static void setCapacity(final int newCapacity) {
+        AssertUtils.gtThanZero("newCapacity", newCapacity);
+        synchronized (CACHE) {
+            capacity = newCapacity;
+            while (CACHE.size() > capacity) {
+                CACHE.remove(CACHE.keySet().iterator().next());
+            }
+        }
+    }
+
+    /**
+     * @return number of currently retained plans
+     */
+    public static int size() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    private static <T> T get(final Class<T> type, final int n, final IntFunction<T> factory) {
+        AssertUtils.gtThanZero("n", n);
+        final Key key = new Key(type, n);
+        synchronized (CACHE) {
+            final Object plan = CACHE.get(key);
+            if (plan != null) {
+                return type.cast(plan);
+            }
+        }
+        // N.B. plan construction may be expensive -> performed outside the lock
+        final T newPlan = factory.apply(n);
+        synchronized (CACHE) {
+            final Object plan = CACHE.putIfAbsent(key, newPlan);
+            return plan == null ? newPlan : type.cast(plan);
+        }
+    }
+
+    private static class Key {
+        private final Class<?> type;
+        private final int n;
+
+        protected Key(final Class<?> type, final int n) {
+            this.type = type;
+            this.n = n;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return type == other.type && n == other.n; // NOPMD - identity check intended
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, n);
+        }
+    }
+}
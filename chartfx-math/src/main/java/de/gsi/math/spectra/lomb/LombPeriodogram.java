@@ -2,8 +2,11 @@ package de.gsi.math.spectra.lomb;
 
 import java.util.concurrent.Future;
 
+import de.gsi.dataset.utils.AssertUtils;
 import de.gsi.math.TMath;
 import de.gsi.math.TMathConstants;
+import de.gsi.math.spectra.TransformPlanCache;
+import de.gsi.math.spectra.fft.DoubleFFT_1D;
 import de.gsi.math.utils.ConcurrencyUtils;
 
 /**
@@ -18,6 +21,12 @@ import de.gsi.math.utils.ConcurrencyUtils;
  */
 public class LombPeriodogram {
 
+    private static final int EXTIRPOLATION_ORDER = 6;
+    private static final double[] LAGRANGE_DENOMINATORS = lagrangeDenominators(EXTIRPOLATION_ORDER);
+    private static final int GRID_OVERSAMPLING = 32;
+    private static final int MIN_GRID_SIZE = 64;
+    private static final long MAX_GRID_SIZE = 1L << 22;
+    private static final double FREQUENCY_GRID_TOLERANCE = 1e-6;
     protected int START_THREADS = 256;
     protected boolean DEBUG = false;
 
@@ -66,7 +75,8 @@ public class LombPeriodogram {
     }
 
     /**
-     * Lomb periodogram computation
+     * Lomb periodogram computation. The computation checks for cancellation once per test frequency and may thus be
+     * aborted via {@link ConcurrencyUtils#run(Runnable, int, ConcurrencyUtils.CancellationToken)}.
      *
      * @param t the time indices
      * @param val the measurement
@@ -78,15 +88,6 @@ public class LombPeriodogram {
         final double[] ret = new double[n];
         final long start = System.nanoTime();
 
-        // compute tau
-        double sum1 = 0.0;
-        double sum2 = 0.0;
-        for (int i = 0; i < t.length; i++) {
-            sum1 += TMathConstants.Sin(TMathConstants.TwoPi() * t[i]);
-            sum2 += TMathConstants.Cos(TMathConstants.TwoPi() * t[i]);
-        }
-        final double tau = TMathConstants.ATan2(sum1, sum2) / TMathConstants.TwoPi();
-
         final int nthreads = ConcurrencyUtils.getNumberOfThreads();
         if (nthreads > 1 && n > START_THREADS) {
             final Future<?>[] futures = new Future[nthreads];
@@ -94,67 +95,214 @@ public class LombPeriodogram {
             for (int thread = 0; thread < nthreads; thread++) {
                 final int firstIdx = thread * k;
                 final int lastIdx = thread == nthreads - 1 ? n : firstIdx + k;
-                futures[thread] = ConcurrencyUtils.submit(new Runnable() {
-
-                    @Override
-                    public void run() {
-                        for (int i = firstIdx; i < lastIdx; i++) {
-                            final double omega = TMathConstants.TwoPi() * testFrequencies[i];
-                            double sum11 = 0.0;
-                            double sum12 = 0.0;
-                            double sum21 = 0.0;
-                            double sum22 = 0.0;
-                            for (int j = 0; j < t.length; j++) {
-                                sum11 += val[j] * TMathConstants.Cos(omega * (t[j] - tau));
-                                sum21 += val[j] * TMathConstants.Sin(omega * (t[j] - tau));
-
-                                sum12 += TMathConstants.Sqr(TMathConstants.Cos(omega * (t[j] - tau)));
-                                sum22 += TMathConstants.Sqr(TMathConstants.Sin(omega * (t[j] - tau)));
-                            }
-
-                            if (sum12 <= 0 || sum22 <= 0) {
-                                ret[i] = 0.0;
-                            } else {
-                                ret[i] = TMathConstants.Sqrt(
-                                        2 * (TMathConstants.Sqr(sum11) / sum12 + TMathConstants.Sqr(sum21) / sum22)
-                                                / t.length);
-                            }
-                        }
-                    }
-                });
+                futures[thread] = ConcurrencyUtils
+                        .submit(() -> computeExact(t, val, testFrequencies, ret, firstIdx, lastIdx));
             }
             ConcurrencyUtils.waitForCompletion(futures);
 
         } else {
-            for (int i = 0; i < n; i++) {
-                final double omega = TMathConstants.TwoPi() * testFrequencies[i];
-                double sum11 = 0.0;
-                double sum12 = 0.0;
-                double sum21 = 0.0;
-                double sum22 = 0.0;
-                for (int j = 0; j < t.length; j++) {
-                    sum11 += val[j] * TMathConstants.Cos(omega * (t[j] - tau));
-                    sum21 += val[j] * TMathConstants.Sin(omega * (t[j] - tau));
-
-                    sum12 += TMathConstants.Sqr(TMathConstants.Cos(omega * (t[j] - tau)));
-                    sum22 += TMathConstants.Sqr(TMathConstants.Sin(omega * (t[j] - tau)));
-                }
+            computeExact(t, val, testFrequencies, ret, 0, n);
+        }
 
-                if (sum12 <= 0 || sum22 <= 0) {
-                    ret[i] = 0.0;
-                } else {
-                    ret[i] = TMathConstants.Sqrt(
-                            2 * (TMathConstants.Sqr(sum11) / sum12 + TMathConstants.Sqr(sum21) / sum22) / t.length);
-                }
+        final long stop = System.nanoTime();
+        if (DEBUG) {
+            System.err.printf("LombPeriodogram(double[], double[], double[]) - took %f ms\n", (stop - start) * 1e-6);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Fast Lomb periodogram computation. The maximum frequency and binning is derived from the acquisition range
+     * (t_max-t_min) and the minimum non-zero sampling distance.
+     *
+     * @param t the time indices
+     * @param val the measurement
+     * @return vector containing Lomb-type Periodogram
+     * @see #computePeridodogramFast(double[], double[], double[])
+     */
+    public double[] computePeridodogramFast(final double[] t, final double[] val) {
+        return computePeridodogramFast(t, val, computeFrequencyRange(t));
+    }
+
+    /**
+     * Fast Lomb periodogram computation based on: W. H. Press and G. B. Rybicki, "Fast Algorithm for Spectral Analysis
+     * of Unevenly Sampled Data", Astrophysical Journal 338 (1989) 277-280.
+     * <p>
+     * Rather than evaluating the trigonometric sums for each (frequency, sample) pair, the samples are 'extirpolated'
+     * onto a regular grid whose FFT yields the sums for all test frequencies at once, i.e. O(N + M log M) rather than
+     * O(N M) operations for N samples and M frequencies. The result agrees with the exact
+     * {@link #computePeridodogram(double[], double[], double[])} to about 1e-8 relative to the spectral peak.
+     * <p>
+     * N.B. the grid size scales with the highest test frequency index k_0 + M - 1 (rather than with M). Narrow bands at
+     * high frequencies that would require a grid larger than 2^22 samples are thus computed using the exact
+     * {@link #computePeridodogram(double[], double[], double[])} instead.
+     *
+     * @param t the time indices
+     * @param val the measurement
+     * @param testFrequencies equidistant frequencies f_i = (k_0 + i) * df, with k_0 &ge; 0 being an integer (e.g. as
+     *            returned by {@link #computeFrequencyRange(double[])})
+     * @return vector containing Lomb-type Periodogram
+     */
+    public double[] computePeridodogramFast(final double[] t, final double[] val, final double[] testFrequencies) {
+        AssertUtils.equalDoubleArrays(t, val);
+        final int n = testFrequencies.length;
+        if (n < 2 || t.length == 0) {
+            return computePeridodogram(t, val, testFrequencies);
+        }
+        final long start = System.nanoTime();
+        final double df = testFrequencies[1] - testFrequencies[0];
+        final double offset = testFrequencies[0] / df;
+        final long k0 = Math.round(offset);
+        if (!(df > 0) || k0 < 0 || Math.abs(offset - k0) > FREQUENCY_GRID_TOLERANCE) {
+            throw new IllegalArgumentException("test frequencies must be equidistant multiples of df = " + df);
+        }
+        for (int i = 2; i < n; i++) {
+            if (Math.abs(testFrequencies[i] / df - (k0 + i)) > FREQUENCY_GRID_TOLERANCE) {
+                throw new IllegalArgumentException("test frequencies are not equidistant at index " + i);
+            }
+        }
+
+        // N.B. the double-frequency sums at index 2k must be well below the grid's Nyquist frequency
+        // N.B. bound checked prior to multiplication to avoid overflows for large k_0
+        if (k0 > MAX_GRID_SIZE / GRID_OVERSAMPLING - (n - 1)) {
+            return computePeridodogram(t, val, testFrequencies);
+        }
+        final int kMin = (int) k0;
+        final int kMax = kMin + n - 1;
+        final int nGrid = ConcurrencyUtils.nextPow2(Math.max(MIN_GRID_SIZE, GRID_OVERSAMPLING * kMax));
+        final double[] gridValue = new double[nGrid];
+        final double[] gridUnit = new double[nGrid];
+        final double tMin = TMath.Minimum(t);
+        for (int j = 0; j < t.length; j++) {
+            // N.B. the periodogram is invariant w.r.t. time offsets
+            final double phase = (t[j] - tMin) * df;
+            final double x = (phase - Math.floor(phase)) * nGrid;
+            extirpolate(val[j], x, gridValue);
+            // N.B. the sums of sin/cos(2 omega t) are read from the index 2k of the same grid positions
+            extirpolate(1.0, x, gridUnit);
+        }
+        ConcurrencyUtils.checkCancelled();
+        final DoubleFFT_1D fft = TransformPlanCache.getDoubleFFT(nGrid);
+        fft.realForward(gridValue);
+        fft.realForward(gridUnit);
+
+        final double nSamples = t.length;
+        final double[] ret = new double[n];
+        for (int i = 0; i < n; i++) {
+            final int k = kMin + i;
+            if (k == 0) {
+                // sum sin^2 vanishes for omega = 0
+                continue;
+            }
+            // N.B. real forward FFT packing: a[2k] = Re[k], a[2k+1] = Im[k] = -sum(y sin(...))
+            final double sumYCos = gridValue[2 * k];
+            final double sumYSin = -gridValue[2 * k + 1];
+            final double sumCos2Omega = gridUnit[4 * k];
+            final double sumSin2Omega = -gridUnit[4 * k + 1];
+
+            // time offset tau: tan(2 omega tau) = sum(sin(2 omega t)) / sum(cos(2 omega t))
+            final double hypot = Math.hypot(sumCos2Omega, sumSin2Omega);
+            final double cos2Tau = hypot > 0 ? sumCos2Omega / hypot : 1.0;
+            final double cosTau = Math.sqrt(0.5 * (1.0 + cos2Tau));
+            final double sinTau = Math.copySign(Math.sqrt(0.5 * (1.0 - cos2Tau)), sumSin2Omega);
+
+            final double sum11 = sumYCos * cosTau + sumYSin * sinTau;
+            final double sum21 = sumYSin * cosTau - sumYCos * sinTau;
+            final double sum12 = 0.5 * (nSamples + hypot);
+            final double sum22 = 0.5 * (nSamples - hypot);
+            if (sum12 > 0 && sum22 > 0) {
+                ret[i] = TMathConstants
+                        .Sqrt(2 * (TMathConstants.Sqr(sum11) / sum12 + TMathConstants.Sqr(sum21) / sum22) / nSamples);
             }
         }
 
         final long stop = System.nanoTime();
         if (DEBUG) {
-            System.err.printf("LombPeriodogram(double[], double[], double[]) - took %f ms\n", (stop - start) * 1e-6);
+            System.err.printf("LombPeriodogram(double[], double[], double[]) fast - took %f ms\n",
+                    (stop - start) * 1e-6);
         }
 
         return ret;
     }
 
+    private static void computeExact(final double[] t, final double[] val, final double[] testFrequencies,
+            final double[] ret, final int firstIdx, final int lastIdx) {
+        final double[] cos = new double[t.length];
+        final double[] sin = new double[t.length];
+        for (int i = firstIdx; i < lastIdx; i++) {
+            ConcurrencyUtils.checkCancelled();
+            final double omega = TMathConstants.TwoPi() * testFrequencies[i];
+
+            // time offset tau: tan(2 omega tau) = sum(sin(2 omega t)) / sum(cos(2 omega t))
+            double sumSin2Omega = 0.0;
+            double sumCos2Omega = 0.0;
+            for (int j = 0; j < t.length; j++) {
+                cos[j] = TMathConstants.Cos(omega * t[j]);
+                sin[j] = TMathConstants.Sin(omega * t[j]);
+                sumSin2Omega += 2.0 * sin[j] * cos[j];
+                sumCos2Omega += cos[j] * cos[j] - sin[j] * sin[j];
+            }
+            final double omegaTau = 0.5 * TMathConstants.ATan2(sumSin2Omega, sumCos2Omega);
+            final double cosTau = TMathConstants.Cos(omegaTau);
+            final double sinTau = TMathConstants.Sin(omegaTau);
+
+            double sum11 = 0.0;
+            double sum12 = 0.0;
+            double sum21 = 0.0;
+            double sum22 = 0.0;
+            for (int j = 0; j < t.length; j++) {
+                // cos/sin(omega * (t - tau)) via the angle difference identities
+                final double cosTerm = cos[j] * cosTau + sin[j] * sinTau;
+                final double sinTerm = sin[j] * cosTau - cos[j] * sinTau;
+                sum11 += val[j] * cosTerm;
+                sum21 += val[j] * sinTerm;
+
+                sum12 += cosTerm * cosTerm;
+                sum22 += sinTerm * sinTerm;
+            }
+
+            if (sum12 <= 0 || sum22 <= 0) {
+                ret[i] = 0.0;
+            } else {
+                ret[i] = TMathConstants
+                        .Sqrt(2 * (TMathConstants.Sqr(sum11) / sum12 + TMathConstants.Sqr(sum21) / sum22) / t.length);
+            }
+        }
+    }
+
+    /**
+     * Adds 'value' at the fractional position 'x' to the periodic grid such that sum(grid[m] exp(i 2 pi k m / n))
+     * reproduces value * exp(i 2 pi k x / n) for k &lt;&lt; n, i.e. the inverse of a Lagrange interpolation over the
+     * {@value #EXTIRPOLATION_ORDER} nearest grid points.
+     */
+    private static void extirpolate(final double value, final double x, final double[] grid) {
+        final int mask = grid.length - 1;
+        final int first = (int) Math.floor(x) - EXTIRPOLATION_ORDER / 2 + 1;
+        double product = 1.0;
+        for (int j = 0; j < EXTIRPOLATION_ORDER; j++) {
+            final double dx = x - (first + j);
+            if (dx == 0.0) {
+                grid[(first + j) & mask] += value;
+                return;
+            }
+            product *= dx;
+        }
+        for (int j = 0; j < EXTIRPOLATION_ORDER; j++) {
+            grid[(first + j) & mask] += value * product / (LAGRANGE_DENOMINATORS[j] * (x - (first + j)));
+        }
+    }
+
+    private static double[] lagrangeDenominators(final int order) {
+        final double[] denominators = new double[order];
+        for (int j = 0; j < order; j++) {
+            denominators[j] = 1.0;
+            for (int m = 0; m < order; m++) {
+                if (m != j) {
+                    denominators[j] *= j - m;
+                }
+            }
+        }
+        return denominators;
+    }
 }
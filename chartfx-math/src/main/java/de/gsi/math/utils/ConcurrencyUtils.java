@@ -34,29 +34,152 @@
 package de.gsi.math.utils;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.Future;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gsi.math.spectra.fft.DoubleFFT_1D;
 
 /**
  * Concurrency utilities.
- * 
+ * <p>
+ * Tasks are scheduled on a bounded work-stealing {@link ForkJoinPool} with one worker per available processor, which
+ * may be replaced via {@link #setExecutorService(ExecutorService)}. Workers waiting on nested submissions (e.g. 2D
+ * transforms invoking threaded 1D transforms) help executing pending tasks rather than blocking.
+ * <p>
+ * {@link #run(Runnable, int, CancellationToken)} and {@link #call(Supplier, int, CancellationToken)} scope a per-call
+ * parallelism hint and a cooperative {@link CancellationToken} to a computation. Both are propagated to all tasks
+ * submitted during that computation, e.g.:
+ *
+ * <pre>
+ * final CancellationToken token = new CancellationToken();
+ * // ... token.cancel() from another thread (e.g. once the user zoomed away) aborts with a CancellationException
+ * ConcurrencyUtils.run(() -&gt; fft.realForward(data), 2, token);
+ * </pre>
+ *
+ * The minimum data sizes for which the transforms use threads can be measured for the host via
+ * {@link #autoTuneThresholds()}. If the system property {@value #AUTO_TUNE_PROPERTY} is set to 'true', this is done
+ * lazily when the FFT thresholds are first queried (N.B. not during class initialisation: the benchmark's worker
+ * threads would otherwise block on the class initialisation lock held by the waiting thread).
+ *
  * @author Piotr Wendykier (piotr.wendykier@gmail.com)
  */
 public class ConcurrencyUtils {
-    private static final ExecutorService THREAD_POOL = Executors
-            .newCachedThreadPool(new CustomThreadFactory(new CustomExceptionHandler()));
-    private static int THREADS_BEGIN_N_1D_FFT_2THREADS = 8192;
-    private static int THREADS_BEGIN_N_1D_FFT_4THREADS = 65536;
-    private static int THREADS_BEGIN_N_1D = 32768;
-    private static int THREADS_BEGIN_N_2D = 65536;
-    private static int THREADS_BEGIN_N_3D = 65536;
+    /** system property enabling the measurement of the threading thresholds at start-up */
+    public static final String AUTO_TUNE_PROPERTY = "chartfx.math.autotune";
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrencyUtils.class);
+    private static final int MIN_THREADS_BEGIN_N_1D_FFT = 512;
+    private static final int DEFAULT_THREADS_BEGIN_N_1D_FFT_2THREADS = 8192;
+    private static final int DEFAULT_THREADS_BEGIN_N_1D_FFT_4THREADS = 65536;
+    private static final int DEFAULT_THREADS_BEGIN_N_1D = 32768;
+    private static final int DEFAULT_THREADS_BEGIN_N_2D = 65536;
+    private static final int DEFAULT_THREADS_BEGIN_N_3D = 65536;
+    private static final int AUTO_TUNE_MAX_EXP = 20;
+    private static final ThreadLocal<TaskContext> CONTEXT = new ThreadLocal<>();
+    private static final ExecutorService DEFAULT_THREAD_POOL = new ForkJoinPool(
+            Runtime.getRuntime().availableProcessors(), new CustomThreadFactory(), new CustomExceptionHandler(), false);
+    private static volatile ExecutorService threadPool = DEFAULT_THREAD_POOL;
+    private static volatile int THREADS_BEGIN_N_1D_FFT_2THREADS = DEFAULT_THREADS_BEGIN_N_1D_FFT_2THREADS;
+    private static volatile int THREADS_BEGIN_N_1D_FFT_4THREADS = DEFAULT_THREADS_BEGIN_N_1D_FFT_4THREADS;
+    private static volatile int THREADS_BEGIN_N_1D = DEFAULT_THREADS_BEGIN_N_1D;
+    private static volatile int THREADS_BEGIN_N_2D = DEFAULT_THREADS_BEGIN_N_2D;
+    private static volatile int THREADS_BEGIN_N_3D = DEFAULT_THREADS_BEGIN_N_3D;
+
+    private static volatile boolean autoTunePending = Boolean.getBoolean(AUTO_TUNE_PROPERTY);
 
     private static boolean forceThreads = false;
     private static int forceNThreads = 1;
 
+    /**
+     * Measures the minimal 1D FFT sizes for which two and four threads outperform the sequential transform on this host
+     * and updates the corresponding thresholds. The measurement takes about a second and should be performed before
+     * any concurrent transform is started. The number of processors is taken from {@link #getNumberOfProcessors()}.
+     */
+    public static synchronized void autoTuneThresholds() {
+        autoTunePending = false;
+        final int nProcessors = getNumberOfProcessors();
+        if (nProcessors < 2) {
+            // no threads are being used anyway
+            return;
+        }
+        final long start = System.nanoTime();
+        int begin2 = Integer.MAX_VALUE;
+        int begin4 = Integer.MAX_VALUE;
+        try {
+            THREADS_BEGIN_N_1D_FFT_2THREADS = MIN_THREADS_BEGIN_N_1D_FFT;
+            for (int n = 2 * MIN_THREADS_BEGIN_N_1D_FFT; n <= 1 << AUTO_TUNE_MAX_EXP; n <<= 1) {
+                final DoubleFFT_1D fft = new DoubleFFT_1D(n);
+                final double[] data = new double[2 * n];
+                THREADS_BEGIN_N_1D_FFT_4THREADS = Integer.MAX_VALUE;
+                final long time1 = benchmarkFFT(fft, data, 1);
+                final long time2 = benchmarkFFT(fft, data, 2);
+                THREADS_BEGIN_N_1D_FFT_4THREADS = MIN_THREADS_BEGIN_N_1D_FFT;
+                final long time4 = nProcessors < 4 ? Long.MAX_VALUE : benchmarkFFT(fft, data, 4);
+                // N.B. threads are used for sizes strictly larger than the threshold
+                if (begin2 == Integer.MAX_VALUE && time2 < time1) {
+                    begin2 = n >> 1;
+                }
+                if (begin4 == Integer.MAX_VALUE && time4 < Math.min(time1, time2)) {
+                    begin4 = n >> 1;
+                }
+                if (begin2 != Integer.MAX_VALUE && (begin4 != Integer.MAX_VALUE || nProcessors < 4)) {
+                    break;
+                }
+            }
+        } finally {
+            setThreadsBeginN_1D_FFT_2Threads(begin2);
+            setThreadsBeginN_1D_FFT_4Threads(Math.max(begin2, begin4));
+        }
+        LOGGER.info(String.format("auto-tuned FFT thresholds for %d processors: 2 threads > %d, 4 threads > %d (%d ms)",
+                nProcessors, THREADS_BEGIN_N_1D_FFT_2THREADS, THREADS_BEGIN_N_1D_FFT_4THREADS,
+                (System.nanoTime() - start) / 1_000_000));
+    }
+
+    /**
+     * Executes the computation in the calling thread with the given parallelism hint and cancellation token, which are
+     * also applied to all tasks submitted during the computation.
+     *
+     * @param <T> result type
+     * @param task the computation
+     * @param parallelism preferred number of threads, values &lt; 1 retain the enclosing or default setting
+     * @param token optional cancellation token, {@code null} retains the enclosing token (if any)
+     * @return result of the computation
+     * @throws CancellationException if the token has been cancelled before or during the computation
+     */
+    public static <T> T call(final Supplier<T> task, final int parallelism, final CancellationToken token) {
+        final TaskContext previous = CONTEXT.get();
+        final TaskContext context = new TaskContext(previous, parallelism, token);
+        CONTEXT.set(context);
+        try {
+            context.checkCancelled();
+            final T result = task.get();
+            context.checkCancelled();
+            return result;
+        } finally {
+            restoreContext(previous);
+        }
+    }
+
+    /**
+     * Cooperative cancellation point for long-running computations.
+     *
+     * @throws CancellationException if the cancellation token of the current computation has been cancelled
+     */
+    public static void checkCancelled() {
+        final TaskContext context = CONTEXT.get();
+        if (context != null) {
+            context.checkCancelled();
+        }
+    }
+
     public static int extendDimension(int x) {
         if (x < 1)
             throw new IllegalArgumentException("x must be greater or equal 1");
@@ -66,6 +189,13 @@ public class ConcurrencyUtils {
         return extDim;
     }
 
+    /**
+     * @return executor service used for the concurrent tasks
+     */
+    public static ExecutorService getExecutorService() {
+        return threadPool;
+    }
+
     /**
      * Returns the number of available processors
      * 
@@ -76,11 +206,16 @@ public class ConcurrencyUtils {
     };
 
     /**
-     * Returns the current number of threads.
+     * Returns the current number of threads, i.e. the parallelism hint of the current computation (if any) or the
+     * number of available processors.
      * 
      * @return the current number of threads.
      */
     public static int getNumberOfThreads() {
+        final TaskContext context = CONTEXT.get();
+        if (context != null && context.parallelism > 0) {
+            return context.parallelism;
+        }
         return getNumberOfProcessors();
     }
 
@@ -99,6 +234,7 @@ public class ConcurrencyUtils {
      * @return the minimal size of 1D data for which two threads are used
      */
     public static int getThreadsBeginN_1D_FFT_2Threads() {
+        autoTuneIfPending();
         return THREADS_BEGIN_N_1D_FFT_2THREADS;
     }
 
@@ -108,6 +244,7 @@ public class ConcurrencyUtils {
      * @return the minimal size of 1D data for which four threads are used
      */
     public static int getThreadsBeginN_1D_FFT_4Threads() {
+        autoTuneIfPending();
         return THREADS_BEGIN_N_1D_FFT_4THREADS;
     }
 
@@ -197,9 +334,9 @@ public class ConcurrencyUtils {
      * Resets the minimal size of 1D, 2D and 3D data for which threads are used.
      */
     public static void resetThreadsBeginN() {
-        THREADS_BEGIN_N_1D = 32768;
-        THREADS_BEGIN_N_2D = 65536;
-        THREADS_BEGIN_N_3D = 65536;
+        THREADS_BEGIN_N_1D = DEFAULT_THREADS_BEGIN_N_1D;
+        THREADS_BEGIN_N_2D = DEFAULT_THREADS_BEGIN_N_2D;
+        THREADS_BEGIN_N_3D = DEFAULT_THREADS_BEGIN_N_3D;
 
     }
 
@@ -207,8 +344,34 @@ public class ConcurrencyUtils {
      * Resets the minimal size of 1D data for which two and four threads are used.
      */
     public static void resetThreadsBeginN_FFT() {
-        THREADS_BEGIN_N_1D_FFT_2THREADS = 8192;
-        THREADS_BEGIN_N_1D_FFT_4THREADS = 65536;
+        THREADS_BEGIN_N_1D_FFT_2THREADS = DEFAULT_THREADS_BEGIN_N_1D_FFT_2THREADS;
+        THREADS_BEGIN_N_1D_FFT_4THREADS = DEFAULT_THREADS_BEGIN_N_1D_FFT_4THREADS;
+    }
+
+    /**
+     * Executes the computation in the calling thread with the given parallelism hint and cancellation token.
+     *
+     * @param task the computation
+     * @param parallelism preferred number of threads, values &lt; 1 retain the enclosing or default setting
+     * @param token optional cancellation token, {@code null} retains the enclosing token (if any)
+     * @throws CancellationException if the token has been cancelled before or during the computation
+     * @see #call(Supplier, int, CancellationToken)
+     */
+    public static void run(final Runnable task, final int parallelism, final CancellationToken token) {
+        call(() -> {
+            task.run();
+            return null;
+        }, parallelism, token);
+    }
+
+    /**
+     * Replaces the executor service used for the concurrent tasks. N.B. the transforms wait on nested submissions from
+     * within the executor's threads: bounded executors other than a {@link ForkJoinPool} may thus dead-lock.
+     *
+     * @param executorService new executor service, {@code null} restores the default bounded {@link ForkJoinPool}
+     */
+    public static void setExecutorService(final ExecutorService executorService) {
+        threadPool = executorService == null ? DEFAULT_THREAD_POOL : executorService;
     }
 
     /**
@@ -245,8 +408,8 @@ public class ConcurrencyUtils {
      * @param n the minimal size of 1D data for which two threads are used
      */
     public static void setThreadsBeginN_1D_FFT_2Threads(int n) {
-        if (n < 512) {
-            THREADS_BEGIN_N_1D_FFT_2THREADS = 512;
+        if (n < MIN_THREADS_BEGIN_N_1D_FFT) {
+            THREADS_BEGIN_N_1D_FFT_2THREADS = MIN_THREADS_BEGIN_N_1D_FFT;
         } else {
             THREADS_BEGIN_N_1D_FFT_2THREADS = n;
         }
@@ -258,8 +421,8 @@ public class ConcurrencyUtils {
      * @param n the minimal size of 1D data for which four threads are used
      */
     public static void setThreadsBeginN_1D_FFT_4Threads(int n) {
-        if (n < 512) {
-            THREADS_BEGIN_N_1D_FFT_4THREADS = 512;
+        if (n < MIN_THREADS_BEGIN_N_1D_FFT) {
+            THREADS_BEGIN_N_1D_FFT_4THREADS = MIN_THREADS_BEGIN_N_1D_FFT;
         } else {
             THREADS_BEGIN_N_1D_FFT_4THREADS = n;
         }
@@ -291,75 +454,197 @@ public class ConcurrencyUtils {
      */
     public static void sleep(long millis) {
         try {
-            Thread.sleep(5000);
+            Thread.sleep(millis);
         } catch (InterruptedException e) {
-            e.printStackTrace();
+            Thread.currentThread().interrupt();
         }
     }
 
     /**
      * Submits a value-returning task for execution and returns a Future representing the pending results of the task.
+     * The parallelism hint and cancellation token of the current computation are propagated to the task.
      * 
      * @param <T> value type of callable
      * @param task task for execution
      * @return a handle to the task submitted for execution
+     * @throws CancellationException if the current computation has been cancelled
      */
     public static <T> Future<T> submit(Callable<T> task) {
-        return THREAD_POOL.submit(task);
+        final TaskContext context = CONTEXT.get();
+        if (context == null) {
+            return threadPool.submit(task);
+        }
+        context.checkCancelled();
+        return threadPool.submit(() -> context.call(task));
     }
 
     /**
-     * Submits a Runnable task for execution and returns a Future representing that task.
+     * Submits a Runnable task for execution and returns a Future representing that task. The parallelism hint and
+     * cancellation token of the current computation are propagated to the task.
      * 
      * @param task task for execution
      * @return a handle to the task submitted for execution
+     * @throws CancellationException if the current computation has been cancelled
      */
     public static Future<?> submit(Runnable task) {
-        return THREAD_POOL.submit(task);
+        final TaskContext context = CONTEXT.get();
+        if (context == null) {
+            return threadPool.submit(task);
+        }
+        context.checkCancelled();
+        return threadPool.submit(() -> context.call(() -> {
+            task.run();
+            return null;
+        }));
     }
 
     /**
-     * Waits for all threads to complete computation.
+     * Waits for all threads to complete computation. If any of the tasks failed or has been cancelled, the remaining
+     * tasks are cancelled and the failure is re-thrown.
      * 
      * @param futures handles to running threads
+     * @throws CancellationException if a task or the current computation has been cancelled or the waiting thread has
+     *         been interrupted
+     * @throws RuntimeException unchecked exceptions of failed tasks are re-thrown, checked ones are wrapped
      */
     public static void waitForCompletion(Future<?>[] futures) {
-        int size = futures.length;
         try {
-            for (int j = 0; j < size; j++) {
-                futures[j].get();
+            for (final Future<?> future : futures) {
+                if (future != null) {
+                    // N.B. ForkJoinTask.get() called from a pool worker helps executing pending tasks
+                    future.get();
+                }
             }
-        } catch (ExecutionException ex) {
-            ex.printStackTrace();
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+        } catch (final ExecutionException e) {
+            cancel(futures);
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("concurrent task failed", cause);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(futures);
+            final CancellationException exception = new CancellationException("interrupted while waiting for tasks");
+            exception.initCause(e);
+            throw exception;
+        } catch (final CancellationException e) {
+            cancel(futures);
+            throw e;
+        }
+        checkCancelled();
+    }
+
+    private static void autoTuneIfPending() {
+        if (autoTunePending) {
+            synchronized (ConcurrencyUtils.class) {
+                if (autoTunePending) {
+                    autoTuneThresholds();
+                }
+            }
+        }
+    }
+
+    private static long benchmarkFFT(final DoubleFFT_1D fft, final double[] data, final int nThreads) {
+        final int nRepetitions = Math.max(3, (1 << 16) / data.length);
+        return call(() -> {
+            fft.complexForward(data); // warm-up
+            long minTime = Long.MAX_VALUE;
+            for (int i = 0; i < nRepetitions; i++) {
+                final long start = System.nanoTime();
+                fft.complexForward(data);
+                minTime = Math.min(minTime, System.nanoTime() - start);
+            }
+            return minTime;
+        }, nThreads, null);
+    }
+
+    private static void cancel(final Future<?>[] futures) {
+        for (final Future<?> future : futures) {
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static void restoreContext(final TaskContext previous) {
+        if (previous == null) {
+            CONTEXT.remove();
+        } else {
+            CONTEXT.set(previous);
+        }
+    }
+
+    /**
+     * Cooperative cancellation flag for (long-running) computations executed via
+     * {@link ConcurrencyUtils#run(Runnable, int, CancellationToken)} or
+     * {@link ConcurrencyUtils#call(Supplier, int, CancellationToken)}. Cancelled computations are aborted with a
+     * {@link CancellationException} at the next submission, task start or {@link ConcurrencyUtils#checkCancelled()}.
+     */
+    public static class CancellationToken {
+        private volatile boolean cancelled;
+
+        /**
+         * requests the cancellation of all computations using this token
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * @return whether the cancellation has been requested
+         */
+        public boolean isCancelled() {
+            return cancelled;
         }
     }
 
     private static class CustomExceptionHandler implements Thread.UncaughtExceptionHandler {
         @Override
         public void uncaughtException(Thread t, Throwable e) {
-            e.printStackTrace();
+            LOGGER.error("uncaught exception in thread " + t.getName(), e);
+        }
+    }
+
+    private static class CustomThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        private static final AtomicInteger THREAD_COUNTER = new AtomicInteger(1);
+
+        @Override
+        public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setDaemon(true);
+            thread.setName("daemonised_chartfx_math_thread" + THREAD_COUNTER.getAndIncrement());
+            return thread;
         }
     }
 
-    private static class CustomThreadFactory implements ThreadFactory {
-        private static final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
-        private static int threadCounter = 1;
-        private final Thread.UncaughtExceptionHandler handler;
+    private static class TaskContext {
+        private final int parallelism;
+        private final CancellationToken token;
 
-        CustomThreadFactory(Thread.UncaughtExceptionHandler handler) {
-            this.handler = handler;
+        protected TaskContext(final TaskContext parent, final int parallelism, final CancellationToken token) {
+            this.parallelism = parallelism > 0 || parent == null ? parallelism : parent.parallelism;
+            this.token = token != null || parent == null ? token : parent.token;
         }
 
-        @Override
-        public Thread newThread(Runnable r) {
-            Thread t = defaultFactory.newThread(r);
-            t.setDaemon(true);
-            t.setName("daemonised_chartfx_math_thread" + threadCounter);
-            threadCounter++;
-            t.setUncaughtExceptionHandler(handler);
-            return t;
+        protected <T> T call(final Callable<T> task) throws Exception {
+            final TaskContext previous = CONTEXT.get();
+            CONTEXT.set(this);
+            try {
+                checkCancelled();
+                return task.call();
+            } finally {
+                restoreContext(previous);
+            }
+        }
+
+        protected void checkCancelled() {
+            if (token != null && token.isCancelled()) {
+                throw new CancellationException("computation has been cancelled");
+            }
         }
     }
 }
@@ -0,0 +1,135 @@
+package de.gsi.math.filter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+import de.gsi.math.DataSetMath;
+import de.gsi.math.DataSetMath.Filter;
+
+/**
+ * Checks the sliding-window filter engine against a naive per-point window scan
+ *
+ * @author rstein
+ */
+public class SlidingWindowFilterTests {
+    private static final double TOLERANCE = 1e-9;
+    private static final double RMS_TOLERANCE = 1e-6; // N.B. sqrt of the variance amplifies rounding errors
+
+    @Test
+    public void testWindowBounds() {
+        final double[] x = { 0.0, 1.0, 1.0, 2.0, 5.0, 5.5, 9.0 };
+        final int[] lower = new int[x.length];
+        final int[] upper = new int[x.length];
+        SlidingWindowFilter.windowBounds(x, x.length, 1.0, lower, upper);
+        assertArrayEquals(new int[] { 0, 0, 0, 1, 4, 4, 6 }, lower);
+        assertArrayEquals(new int[] { 2, 3, 3, 3, 5, 5, 6 }, upper);
+
+        assertTrue(SlidingWindowFilter.isSorted(x, x.length));
+        assertFalse(SlidingWindowFilter.isSorted(new double[] { 1.0, 0.0 }, 2));
+        assertFalse(SlidingWindowFilter.isSorted(new double[] { Double.NaN, 0.0 }, 2));
+    }
+
+    @Test
+    public void testFilterAgainstReference() {
+        final Random random = new Random(42);
+        final int n = 2000;
+        final double[] x = new double[n];
+        final double[] y = new double[n];
+        double time = 0.0;
+        for (int i = 0; i < n; i++) {
+            time += random.nextInt(4) == 0 ? 0.0 : random.nextDouble(); // N.B. also duplicate x values
+            x[i] = time;
+            y[i] = 1e3 + Math.sin(0.01 * i) + random.nextGaussian();
+        }
+        for (final double width : new double[] { 0.0, 0.7, 3.3, 50.0 }) {
+            final int[] lower = new int[n];
+            final int[] upper = new int[n];
+            SlidingWindowFilter.windowBounds(x, n, width, lower, upper);
+            for (final Filter filter : Filter.values()) {
+                final double[] result = SlidingWindowFilter.filter(y, lower, upper, n, filter, null);
+                for (int i = 0; i < n; i++) {
+                    final double expected = reference(x, y, i, width, filter);
+                    final double tolerance = filter == Filter.RMS ? RMS_TOLERANCE : TOLERANCE;
+                    assertEquals(expected, result[i], tolerance * Math.max(1.0, Math.abs(expected)),
+                            filter + " width = " + width + " index = " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNonFiniteValues() {
+        final double[] x = { 0, 1, 2, 3, 4, 5, 6 };
+        final double[] y = { 1, 2, Double.NaN, 4, 0, 6, Double.POSITIVE_INFINITY };
+        final int[] lower = new int[x.length];
+        final int[] upper = new int[x.length];
+        SlidingWindowFilter.windowBounds(x, x.length, 1.0, lower, upper);
+
+        assertArrayEquals(new double[] { 1, Double.NaN, Double.NaN, Double.NaN, 0, 0, 6 },
+                SlidingWindowFilter.filter(y, lower, upper, x.length, Filter.MIN, null));
+        assertArrayEquals(new double[] { 1.5, Double.NaN, Double.NaN, Double.NaN, 10.0 / 3.0,
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY },
+                SlidingWindowFilter.filter(y, lower, upper, x.length, Filter.MEAN, null), TOLERANCE);
+        assertArrayEquals(new double[] { Math.sqrt(2), Double.NaN, Double.NaN, 0, 0, 0, Double.POSITIVE_INFINITY },
+                SlidingWindowFilter.filter(y, lower, upper, x.length, Filter.GEOMMEAN, null), TOLERANCE);
+    }
+
+    @Test
+    public void testDataSetMathFilterFunction() {
+        // unsorted input: results are returned in input order
+        final double[] x = { 3, 0, 2, 1, 4 };
+        final double[] y = { 30, 0, 20, 10, 40 };
+        final DataSet dataSet = new DoubleErrorDataSet("test", x, y, new double[5], new double[5], 5, true);
+        final DataSet filtered = DataSetMath.filterFunction(dataSet, 1.0, Filter.MAX);
+        assertEquals(5, filtered.getDataCount());
+        for (int i = 0; i < x.length; i++) {
+            assertEquals(x[i], filtered.get(DataSet.DIM_X, i));
+            assertEquals(Math.min(4, x[i] + 1) * 10, filtered.get(DataSet.DIM_Y, i));
+        }
+        final DataSet median = DataSetMath.medianFilteredFunction(dataSet, 1.0);
+        assertEquals(5.0, median.get(DataSet.DIM_Y, 1)); // even window {0, 10}
+        assertEquals(20.0, median.get(DataSet.DIM_Y, 2)); // odd window {10, 20, 30}
+    }
+
+    private static double reference(final double[] x, final double[] y, final int index, final double width,
+            final Filter filter) {
+        final double[] window = new double[x.length];
+        int count = 0;
+        for (int j = 0; j < x.length; j++) {
+            if (Math.abs(x[index] - x[j]) <= width) {
+                window[count++] = y[j];
+            }
+        }
+        final double[] data = Arrays.copyOf(window, count);
+        final double min = Arrays.stream(data).min().orElse(Double.NaN);
+        final double max = Arrays.stream(data).max().orElse(Double.NaN);
+        final double mean = Arrays.stream(data).average().orElse(Double.NaN);
+        switch (filter) {
+        case MEDIAN:
+            Arrays.sort(data);
+            return count % 2 == 1 ? data[count / 2] : 0.5 * (data[count / 2 - 1] + data[count / 2]);
+        case MIN:
+            return min;
+        case MAX:
+            return max;
+        case P2P:
+            return max - min;
+        case RMS:
+            return Math.sqrt(Arrays.stream(data).map(v -> (v - mean) * (v - mean)).sum() / count);
+        case GEOMMEAN:
+            return Math.exp(Arrays.stream(data).map(v -> Math.log(Math.abs(v))).sum() / count);
+        case MEAN:
+        default:
+            return mean;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package de.gsi.math.spectra;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.spi.CircularDoubleDataSet3D;
+import de.gsi.dataset.spi.CircularDoubleErrorDataSet;
+import de.gsi.dataset.utils.DoubleRingBuffer;
+
+/**
+ * Tests of the streaming {@link ShortTimeFourierTransform}
+ *
+ * @author rstein
+ */
+public class ShortTimeFourierTransformTests {
+    private static final int FFT_SIZE = 256;
+    private static final int HOP_SIZE = 64;
+    private static final double SAMPLING_INTERVAL = 1e-3;
+    private static final int N_SAMPLES = 4096;
+
+    @Test
+    public void testSpectrogram() {
+        final ShortTimeFourierTransform stft = new ShortTimeFourierTransform("stft", FFT_SIZE, HOP_SIZE,
+                Apodization.Hann, SAMPLING_INTERVAL, 100);
+        assertEquals(FFT_SIZE, stft.getFftSize());
+        assertEquals(HOP_SIZE, stft.getHopSize());
+        assertEquals(Apodization.Hann, stft.getApodization());
+        assertEquals(SAMPLING_INTERVAL, stft.getSamplingInterval());
+
+        final CircularDoubleDataSet3D spectrogram = stft.getSpectrogram();
+        assertEquals(FFT_SIZE / 2, spectrogram.getDataCount(DataSet.DIM_Y));
+        assertEquals(1.0 / (FFT_SIZE * SAMPLING_INTERVAL), spectrogram.get(DataSet.DIM_Y, 1), 1e-9);
+
+        // chirp: frequency bin increases from 10 to 50
+        final double[] signal = createChirp(N_SAMPLES);
+        stft.add(signal, FFT_SIZE - 1);
+        assertEquals(0, spectrogram.getDataCount(DataSet.DIM_X));
+        stft.add(new double[] { signal[FFT_SIZE - 1] }, 1);
+        assertEquals(1, spectrogram.getDataCount(DataSet.DIM_X));
+        assertEquals(FFT_SIZE / 2 * SAMPLING_INTERVAL, spectrogram.getX(0), 1e-12);
+
+        for (int i = FFT_SIZE; i < N_SAMPLES; i++) {
+            stft.add(i * SAMPLING_INTERVAL, signal[i]);
+        }
+        final int nColumns = (N_SAMPLES - FFT_SIZE) / HOP_SIZE + 1;
+        assertEquals(Math.min(100, nColumns), spectrogram.getDataCount(DataSet.DIM_X));
+        for (int x = 0; x < spectrogram.getDataCount(DataSet.DIM_X); x++) {
+            final int frame = nColumns - spectrogram.getDataCount(DataSet.DIM_X) + x;
+            final double centre = frame * HOP_SIZE + FFT_SIZE / 2;
+            assertEquals(centre * SAMPLING_INTERVAL, spectrogram.getX(x), 1e-9);
+            assertEquals(chirpBin(centre), peakBin(spectrogram, x), 1, "column " + x);
+        }
+    }
+
+    @Test
+    public void testStreamingSources() {
+        final double[] signal = createChirp(N_SAMPLES);
+        final ShortTimeFourierTransform reference = new ShortTimeFourierTransform("reference", FFT_SIZE, HOP_SIZE,
+                Apodization.Hamming, SAMPLING_INTERVAL, 200);
+        reference.setDecibelScale(true);
+        reference.add(signal, N_SAMPLES);
+
+        // ring buffer source, consumed in irregular chunks
+        final ShortTimeFourierTransform fromRing = new ShortTimeFourierTransform("ring", FFT_SIZE, HOP_SIZE,
+                Apodization.Hamming, SAMPLING_INTERVAL, 200);
+        fromRing.setDecibelScale(true);
+        final DoubleRingBuffer ringBuffer = new DoubleRingBuffer(1000);
+        // circular data set source
+        final ShortTimeFourierTransform fromDataSet = new ShortTimeFourierTransform("dataSet", FFT_SIZE, HOP_SIZE,
+                Apodization.Hamming, SAMPLING_INTERVAL, 200);
+        fromDataSet.setDecibelScale(true);
+        final CircularDoubleErrorDataSet dataSet = new CircularDoubleErrorDataSet("source", 1000);
+
+        int index = 0;
+        int chunk = 1;
+        while (index < N_SAMPLES) {
+            final int length = Math.min(chunk, N_SAMPLES - index);
+            for (int i = index; i < index + length; i++) {
+                ringBuffer.put(signal[i]);
+                dataSet.add(i * SAMPLING_INTERVAL, signal[i], 0.0, 0.0);
+            }
+            assertEquals(length, fromRing.consume(ringBuffer));
+            assertEquals(length, fromDataSet.consume(dataSet));
+            assertEquals(0, fromDataSet.consume(dataSet));
+            index += length;
+            chunk = chunk * 3 % 997 + 1;
+        }
+
+        final CircularDoubleDataSet3D expected = reference.getSpectrogram();
+        for (final ShortTimeFourierTransform stft : new ShortTimeFourierTransform[] { fromRing, fromDataSet }) {
+            final CircularDoubleDataSet3D actual = stft.getSpectrogram();
+            assertEquals(expected.getDataCount(DataSet.DIM_X), actual.getDataCount(DataSet.DIM_X));
+            for (int x = 0; x < expected.getDataCount(DataSet.DIM_X); x++) {
+                assertEquals(expected.getX(x), actual.getX(x), 1e-9);
+                for (int y = 0; y < expected.getDataCount(DataSet.DIM_Y); y++) {
+                    assertEquals(expected.getZ(x, y), actual.getZ(x, y), 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShortTimeFourierTransform("stft", 255, 64, Apodization.Hann, 1.0, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShortTimeFourierTransform("stft", 256, 0, Apodization.Hann, 1.0, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShortTimeFourierTransform("stft", 256, 64, Apodization.Hann, 1.0, 0));
+    }
+
+    private static int chirpBin(final double index) {
+        return (int) Math.round(10 + 40 * index / N_SAMPLES);
+    }
+
+    private static double[] createChirp(final int n) {
+        final double[] signal = new double[n];
+        double phase = 0.0;
+        for (int i = 0; i < n; i++) {
+            // instantaneous frequency in units of FFT bins
+            final double bin = 10 + 40.0 * i / n;
+            phase += 2 * Math.PI * bin / FFT_SIZE;
+            signal[i] = Math.sin(phase);
+        }
+        return signal;
+    }
+
+    private static int peakBin(final CircularDoubleDataSet3D spectrogram, final int x) {
+        int peak = 0;
+        for (int y = 1; y < spectrogram.getDataCount(DataSet.DIM_Y); y++) {
+            if (spectrogram.getZ(x, y) > spectrogram.getZ(x, peak)) {
+                peak = y;
+            }
+        }
+        return peak;
+    }
+}
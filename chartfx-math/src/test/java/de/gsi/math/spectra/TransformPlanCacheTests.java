@@ -0,0 +1,86 @@
+package de.gsi.math.spectra;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.spi.DoubleDataSet;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+import de.gsi.math.DataSetMath;
+import de.gsi.math.spectra.fft.DoubleFFT_1D;
+
+/**
+ * Tests of {@link TransformPlanCache} and the into-buffer spectrum functions
+ *
+ * @author rstein
+ */
+public class TransformPlanCacheTests {
+
+    @Test
+    public void testPlanCaching() {
+        TransformPlanCache.clear();
+        final DoubleFFT_1D fft = TransformPlanCache.getDoubleFFT(1024);
+        assertSame(fft, TransformPlanCache.getDoubleFFT(1024));
+        assertEquals(1024, fft.getDimension());
+        assertNotSame(fft, TransformPlanCache.getDoubleFFT(1000));
+        // different transform types of the same size are cached separately
+        assertSame(TransformPlanCache.getFloatFFT(1024), TransformPlanCache.getFloatFFT(1024));
+        assertSame(TransformPlanCache.getDoubleDCT(1024), TransformPlanCache.getDoubleDCT(1024));
+        assertSame(TransformPlanCache.getDoubleDST(1024), TransformPlanCache.getDoubleDST(1024));
+        assertSame(TransformPlanCache.getDoubleDHT(1024), TransformPlanCache.getDoubleDHT(1024));
+        assertEquals(6, TransformPlanCache.size());
+
+        final int oldCapacity = TransformPlanCache.getCapacity();
+        try {
+            TransformPlanCache.setCapacity(2);
+            assertEquals(2, TransformPlanCache.size());
+            TransformPlanCache.getDoubleFFT(1024); // most recently used
+            TransformPlanCache.getDoubleFFT(512);
+            assertEquals(2, TransformPlanCache.size());
+            assertSame(TransformPlanCache.getDoubleFFT(1024), TransformPlanCache.getDoubleFFT(1024));
+        } finally {
+            TransformPlanCache.setCapacity(oldCapacity);
+        }
+    }
+
+    @Test
+    public void testMagnitudeSpectrumIntoBuffer() {
+        for (final int n : new int[] { 1024, 1000 }) {
+            final double[] x = new double[n];
+            final double[] y = new double[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = i * 1e-3;
+                y[i] = Math.sin(2 * Math.PI * 0.1 * i) + 0.5 * Math.cos(2 * Math.PI * 0.3 * i);
+            }
+            final DataSet input = new DoubleDataSet("input", x, y, n, true);
+
+            // reference: fresh plan and buffers
+            final double[] reference = new double[n];
+            for (int i = 0; i < n; i++) {
+                reference[i] = y[i] * Apodization.Hann.getIndex(i, n);
+            }
+            new DoubleFFT_1D(n).realForward(reference);
+            final double[] expected = SpectrumTools.computeMagnitudeSpectrum(reference, true);
+
+            final DoubleErrorDataSet output = new DoubleErrorDataSet("output", 10);
+            for (int iteration = 0; iteration < 2; iteration++) {
+                assertSame(output, DataSetMath.magnitudeSpectrum(input, Apodization.Hann, false, false, output));
+                assertEquals(n / 2, output.getDataCount());
+                assertArrayEquals(expected, Arrays.copyOf(output.getValues(DataSet.DIM_Y), n / 2), 1e-12);
+                assertEquals(1.0 / (x[n - 1] - x[0]), output.get(DataSet.DIM_X, 1), 1e-12);
+            }
+
+            final DataSet legacy = DataSetMath.magnitudeSpectrum(input, Apodization.Hann, true, true);
+            final double[] expectedDecibel = SpectrumTools.computeMagnitudeSpectrum_dB(reference, true);
+            for (int i = 0; i < n / 2; i++) {
+                assertEquals(expectedDecibel[i], legacy.get(DataSet.DIM_Y, i), 1e-9);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package de.gsi.math.spectra.lomb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the fast (extirpolation + FFT) Lomb periodogram against the exact computation
+ *
+ * @author rstein
+ */
+public class LombPeriodogramTests {
+    private static final int N_SAMPLES = 2000;
+    private static final double SIGNAL_FREQUENCY = 0.0123;
+    private static final double TOLERANCE = 1e-8; // relative to spectral peak
+
+    @Test
+    public void testFastAgainstExact() {
+        final double[] time = new double[N_SAMPLES];
+        final double[] value = new double[N_SAMPLES];
+        createIrregularSignal(time, value, 100.0);
+        final double range = time[N_SAMPLES - 1] - time[0];
+        final double[] frequencies = createFrequencies(0, 1000, 1.0 / (4 * range));
+
+        final LombPeriodogram lomb = new LombPeriodogram();
+        final double[] exact = lomb.computePeridodogram(time, value, frequencies);
+        final double[] fast = lomb.computePeridodogramFast(time, value, frequencies);
+        final double peak = Arrays.stream(exact).max().orElse(0.0);
+        assertEquals(SIGNAL_FREQUENCY, frequencies[indexOfMaximum(exact)], 1.0 / range);
+        assertEquals(indexOfMaximum(exact), indexOfMaximum(fast));
+        assertArrayEquals(exact, fast, TOLERANCE * peak);
+
+        // frequency grid not starting at zero
+        final double[] subFrequencies = Arrays.copyOfRange(frequencies, 300, 700);
+        assertArrayEquals(Arrays.copyOfRange(exact, 300, 700),
+                lomb.computePeridodogramFast(time, value, subFrequencies), TOLERANCE * peak);
+    }
+
+    @Test
+    public void testTimeOffsetInvariance() {
+        final double[] time = new double[N_SAMPLES];
+        final double[] value = new double[N_SAMPLES];
+        createIrregularSignal(time, value, 0.0);
+        final double[] shifted = new double[N_SAMPLES];
+        for (int i = 0; i < N_SAMPLES; i++) {
+            shifted[i] = time[i] + 1234.5;
+        }
+        final double[] frequencies = createFrequencies(0, 200, 1e-3);
+
+        final LombPeriodogram lomb = new LombPeriodogram();
+        final double[] exact = lomb.computePeridodogram(time, value, frequencies);
+        assertArrayEquals(exact, lomb.computePeridodogram(shifted, value, frequencies), 1e-6);
+        assertArrayEquals(exact, lomb.computePeridodogramFast(shifted, value, frequencies), 1e-8);
+        assertEquals(0.0, exact[0]);
+    }
+
+    @Test
+    public void testHighFrequencyBand() {
+        final double[] time = new double[N_SAMPLES];
+        final double[] value = new double[N_SAMPLES];
+        createIrregularSignal(time, value, 0.0);
+        final LombPeriodogram lomb = new LombPeriodogram();
+
+        // narrow bands at high frequency indices: grid would be too large (or overflow) -> exact computation
+        for (final int first : new int[] { 1 << 17, 1 << 27, Integer.MAX_VALUE - 100 }) {
+            final double[] frequencies = createFrequencies(first, first + 50, 0x1p-20); // exactly representable
+            assertArrayEquals(lomb.computePeridodogram(time, value, frequencies),
+                    lomb.computePeridodogramFast(time, value, frequencies), 1e-12);
+        }
+    }
+
+    @Test
+    public void testInvalidFrequencies() {
+        final double[] time = { 0.0, 1.0, 2.5, 4.0 };
+        final double[] value = { 1.0, 0.0, -1.0, 0.0 };
+        final LombPeriodogram lomb = new LombPeriodogram();
+        assertThrows(IllegalArgumentException.class,
+                () -> lomb.computePeridodogramFast(time, value, new double[] { 0.0, 0.1, 0.3 }));
+        assertThrows(IllegalArgumentException.class,
+                () -> lomb.computePeridodogramFast(time, value, new double[] { 0.05, 0.15, 0.25 }));
+        assertThrows(IllegalArgumentException.class,
+                () -> lomb.computePeridodogramFast(time, new double[3], new double[] { 0.0, 0.1 }));
+    }
+
+    private static double[] createFrequencies(final int first, final int last, final double df) {
+        final double[] frequencies = new double[last - first];
+        for (int i = 0; i < frequencies.length; i++) {
+            frequencies[i] = (first + i) * df;
+        }
+        return frequencies;
+    }
+
+    private static void createIrregularSignal(final double[] time, final double[] value, final double offset) {
+        final Random random = new Random(42);
+        double t = offset;
+        for (int i = 0; i < time.length; i++) {
+            // bursts of data with gaps
+            t += i % 200 == 0 ? 50.0 * random.nextDouble() : random.nextDouble();
+            time[i] = t;
+            value[i] = Math.sin(2 * Math.PI * SIGNAL_FREQUENCY * t) + 0.5 * random.nextGaussian();
+        }
+    }
+
+    private static int indexOfMaximum(final double[] data) {
+        int index = 0;
+        for (int i = 1; i < data.length; i++) {
+            if (data[i] > data[index]) {
+                index = i;
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,189 @@
+package de.gsi.math.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.math.spectra.fft.DoubleFFT_1D;
+import de.gsi.math.spectra.lomb.LombPeriodogram;
+import de.gsi.math.utils.ConcurrencyUtils.CancellationToken;
+
+/**
+ * Tests of the {@link ConcurrencyUtils} scheduler, parallelism hints and cancellation
+ *
+ * @author rstein
+ */
+public class ConcurrencyUtilsTests {
+
+    @Test
+    public void testParallelismHint() {
+        final int defaultThreads = ConcurrencyUtils.getNumberOfThreads();
+        final int[] inner = new int[2];
+        ConcurrencyUtils.run(() -> {
+            inner[0] = ConcurrencyUtils.getNumberOfThreads();
+            final Future<?>[] futures = { ConcurrencyUtils.submit(() -> {
+                inner[1] = ConcurrencyUtils.getNumberOfThreads();
+            }) };
+            ConcurrencyUtils.waitForCompletion(futures);
+            // nested scopes without a hint inherit the enclosing one
+            assertEquals(3, (int) ConcurrencyUtils.call(ConcurrencyUtils::getNumberOfThreads, 0, null));
+        }, 3, null);
+        assertArrayEquals(new int[] { 3, 3 }, inner);
+        assertEquals(defaultThreads, ConcurrencyUtils.getNumberOfThreads());
+    }
+
+    @Test
+    public void testExceptionPropagation() {
+        final Future<?>[] futures = { ConcurrencyUtils.submit(() -> {
+            throw new IllegalArgumentException("test");
+        }) };
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyUtils.waitForCompletion(futures));
+
+        final Future<?>[] checked = { ConcurrencyUtils.submit(() -> {
+            throw new Exception("test"); // NOPMD - checked exception needed for test
+        }) };
+        assertThrows(RuntimeException.class, () -> ConcurrencyUtils.waitForCompletion(checked));
+    }
+
+    @Test
+    public void testNestedSubmissions() {
+        // more nested blocking tasks than pool threads must not dead-lock
+        final int nTasks = 4 * Runtime.getRuntime().availableProcessors();
+        final AtomicInteger counter = new AtomicInteger();
+        final Future<?>[] futures = new Future[nTasks];
+        for (int i = 0; i < nTasks; i++) {
+            futures[i] = ConcurrencyUtils.submit(() -> {
+                final Future<?>[] inner = new Future[nTasks];
+                for (int j = 0; j < nTasks; j++) {
+                    inner[j] = ConcurrencyUtils.submit(counter::incrementAndGet);
+                }
+                ConcurrencyUtils.waitForCompletion(inner);
+            });
+        }
+        ConcurrencyUtils.waitForCompletion(futures);
+        assertEquals(nTasks * nTasks, counter.get());
+    }
+
+    @Test
+    public void testCancellation() {
+        final CancellationToken cancelled = new CancellationToken();
+        cancelled.cancel();
+        assertTrue(cancelled.isCancelled());
+        final AtomicInteger counter = new AtomicInteger();
+        assertThrows(CancellationException.class,
+                () -> ConcurrencyUtils.run(counter::incrementAndGet, 0, cancelled));
+        assertEquals(0, counter.get());
+
+        // cancellation of a running computation from another thread
+        final CancellationToken token = new CancellationToken();
+        final Thread canceller = new Thread(() -> {
+            ConcurrencyUtils.sleep(50);
+            token.cancel();
+        });
+        canceller.start();
+        assertThrows(CancellationException.class, () -> ConcurrencyUtils.run(() -> {
+            final Future<?>[] futures = new Future[2];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = ConcurrencyUtils.submit(() -> {
+                    while (true) { // NOPMD - terminated by cancellation
+                        ConcurrencyUtils.checkCancelled();
+                        Thread.yield();
+                    }
+                });
+            }
+            ConcurrencyUtils.waitForCompletion(futures);
+        }, 2, token));
+
+        // long-running periodogram
+        final int n = 2000;
+        final double[] time = new double[n];
+        final double[] value = new double[n];
+        for (int i = 0; i < n; i++) {
+            time[i] = i;
+            value[i] = Math.sin(0.1 * i);
+        }
+        final CancellationToken lombToken = new CancellationToken();
+        lombToken.cancel();
+        assertThrows(CancellationException.class, () -> ConcurrencyUtils
+                .run(() -> new LombPeriodogram().computePeridodogram(time, value), 0, lombToken));
+    }
+
+    @Test
+    public void testThreadedTransformConsistency() {
+        final int n = 1 << 14;
+        final double[] input = new double[2 * n];
+        final Random random = new Random(42);
+        for (int i = 0; i < input.length; i++) {
+            input[i] = random.nextGaussian();
+        }
+        final DoubleFFT_1D fft = new DoubleFFT_1D(n);
+        final double[] sequential = input.clone();
+        ConcurrencyUtils.run(() -> fft.complexForward(sequential), 1, null);
+        try {
+            ConcurrencyUtils.setThreadsBeginN_1D_FFT_2Threads(0);
+            ConcurrencyUtils.setThreadsBeginN_1D_FFT_4Threads(0);
+            final double[] threaded = input.clone();
+            ConcurrencyUtils.run(() -> fft.complexForward(threaded), 4, null);
+            assertArrayEquals(sequential, threaded, 1e-9);
+        } finally {
+            ConcurrencyUtils.resetThreadsBeginN_FFT();
+        }
+    }
+
+    @Test
+    public void testAutoTuneThresholds() {
+        try {
+            // force the multi-threaded benchmark independent of the number of cores of the test host
+            ConcurrencyUtils.setNumberOfThreads(4);
+            assertTimeoutPreemptively(Duration.ofSeconds(60), ConcurrencyUtils::autoTuneThresholds);
+            assertTrue(ConcurrencyUtils.getThreadsBeginN_1D_FFT_2Threads() >= 512);
+            assertTrue(ConcurrencyUtils.getThreadsBeginN_1D_FFT_4Threads() >= ConcurrencyUtils
+                    .getThreadsBeginN_1D_FFT_2Threads());
+        } finally {
+            ConcurrencyUtils.setForceThreads(false);
+            ConcurrencyUtils.resetThreadsBeginN_FFT();
+        }
+    }
+
+    @Test
+    public void testAutoTuneAtStartUp() throws IOException, InterruptedException {
+        // fresh JVM: the auto-tuning must not be performed while ConcurrencyUtils is being initialised
+        final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        final Process process = new ProcessBuilder(java, "-XX:ActiveProcessorCount=4",
+                "-D" + ConcurrencyUtils.AUTO_TUNE_PROPERTY + "=true", "-cp", System.getProperty("java.class.path"),
+                AutoTuneMain.class.getName()).redirectErrorStream(true).start();
+        final boolean terminated = process.waitFor(120, TimeUnit.SECONDS);
+        if (!terminated) {
+            process.destroyForcibly();
+        }
+        final String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(terminated, "auto-tuning JVM did not terminate: " + output);
+        assertEquals(0, process.exitValue(), output);
+        assertTrue(output.contains("threads: 4"), output);
+    }
+
+    /**
+     * start-up scenario for {@link #testAutoTuneAtStartUp()}
+     */
+    public static class AutoTuneMain {
+        public static void main(final String[] args) {
+            System.out.println("threads: " + ConcurrencyUtils.getNumberOfThreads()); // NOPMD - output parsed by test
+            // first transform triggers the pending auto-tuning
+            new DoubleFFT_1D(1 << 14).complexForward(new double[1 << 15]);
+        }
+    }
+}
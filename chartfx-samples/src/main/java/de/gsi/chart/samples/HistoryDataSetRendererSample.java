@@ -172,7 +172,16 @@ public class HistoryDataSetRendererSample extends Application {
         });
         final CheckBox legendVisible = new CheckBox("Legend?:");
         legendVisible.selectedProperty().bindBidirectional(chart.legendVisibleProperty());
-        root.setTop(new HBox(newDataSet, clearHistory, startTimer, legendVisible));
+        final CheckBox bitmapHistory = new CheckBox("bitmap history?:");
+        bitmapHistory.selectedProperty().addListener((ch, o, n) -> {
+            for (final Renderer rend : chart.getRenderers()) {
+                if (rend instanceof HistoryDataSetRenderer) {
+                    ((HistoryDataSetRenderer) rend).setBitmapHistory(n);
+                }
+            }
+            chart.requestLayout();
+        });
+        root.setTop(new HBox(newDataSet, clearHistory, startTimer, legendVisible, bitmapHistory));
 
         generateData(chart);
 